@@ -13,6 +13,8 @@ import org.xvm.asm.LinkedRepository;
 import org.xvm.asm.ModuleRepository;
 import org.xvm.asm.ModuleStructure;
 
+import org.xvm.asm.constants.TypeInfoCache;
+
 import org.xvm.runtime.Container;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHeap;
@@ -162,6 +164,9 @@ public class Connector
         while (!f_runtime.isIdle() || !m_container.isIdle());
 
         m_container = null;
+
+        // nothing is running now, so it's a good time to persist the TypeInfo caches (if enabled)
+        TypeInfoCache.saveAll();
         }
 
 
@@ -1,15 +1,15 @@
 package org.xvm.asm;
 
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
-import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 
+import java.nio.ByteBuffer;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -40,6 +40,7 @@ import org.xvm.asm.constants.TypedefConstant;
 import org.xvm.compiler.Parser;
 import org.xvm.compiler.Source;
 
+import org.xvm.util.ByteBufferInput;
 import org.xvm.util.Handy;
 import org.xvm.util.ListMap;
 
@@ -809,18 +810,19 @@ public abstract class Component
      */
     protected void ensureChildren()
         {
-        if (m_abChildren != null)
+        if (m_bufChildren != null)
             {
             // first grab the deferred deserialization bytes and then make sure neither this nor any
             // sibling retains hold of it (since it indicates that deserialization is deferred)
-            byte[] ab = m_abChildren;
+            ByteBuffer buf = m_bufChildren;
             for (Iterator<Component> siblings = siblings(); siblings.hasNext(); )
                 {
-                siblings.next().m_abChildren = null;
+                siblings.next().m_bufChildren = null;
                 }
 
-            // now read in the children
-            DataInput in = new DataInputStream(new ByteArrayInputStream(ab));
+            // now read in the children; any of their own children are deferred as slices of the
+            // same buffer
+            DataInput in = new ByteBufferInput(buf.duplicate());
             try
                 {
                 disassembleChildren(in, true);
@@ -944,11 +946,11 @@ public abstract class Component
         {
         // the child can't have any of its own children; that "merge" functionality is simply
         // not supported by this operation
-        assert m_abChildren       == null;
+        assert m_bufChildren      == null;
         assert m_childByName      == null;
 
         // make sure that the various sibling-shared fields are configured
-        m_abChildren  = that.m_abChildren;
+        m_bufChildren = that.m_bufChildren;
         m_childByName = that.m_childByName;
         }
 
@@ -1791,15 +1793,27 @@ public abstract class Component
                 {
                 if (fLazy)
                     {
-                    // just read the bytes for the children and store it off for later
-                    byte[] ab = new byte[cb];
-                    in.readFully(ab);
+                    // just obtain the bytes for the children and store them off for later; if the
+                    // structure is being read from a (memory-mapped) buffer, the bytes are not
+                    // even copied
+                    ByteBuffer buf;
+                    if (in instanceof ByteBufferInput)
+                        {
+                        buf = ((ByteBufferInput) in).slice(cb);
+                        }
+                    else
+                        {
+                        byte[] ab = new byte[cb];
+                        in.readFully(ab);
+                        buf = ByteBuffer.wrap(ab);
+                        }
+
                     for (Component eachSibling = kid; eachSibling != null; eachSibling = eachSibling.getNextSibling())
                         {
-                        // note that every sibling has a copy of all of the children; this is because
-                        // the byte[] serves as both the storage of those children and an indicator that
-                        // the deserialization of the children has been deferred
-                        eachSibling.m_abChildren = ab;
+                        // note that every sibling has a reference to all of the children; this is
+                        // because the buffer serves as both the storage of those children and an
+                        // indicator that the deserialization of the children has been deferred
+                        eachSibling.m_bufChildren = buf;
                         }
                     }
                 else
@@ -3430,9 +3444,10 @@ public abstract class Component
     /**
      * This is a non-deserialized form of all of the children. When a Component is read from disk,
      * it can optionally lazily deserialize its children. This is possible because the "children"
-     * block is length-encoded.
+     * block is length-encoded. When the Component is read from a memory-mapped file, this is a
+     * view of the mapped file.
      */
-    private byte[] m_abChildren;
+    private ByteBuffer m_bufChildren;
 
     /**
      * This holds all of the children of all of the siblings, except for methods (because they are
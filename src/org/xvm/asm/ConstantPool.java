@@ -1,8 +1,12 @@
 package org.xvm.asm;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 
@@ -13,6 +17,7 @@ import java.time.ZoneOffset;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumMap;
@@ -34,6 +39,7 @@ import org.xvm.asm.constants.TypeInfo.Progress;
 
 import org.xvm.type.Decimal;
 
+import org.xvm.util.ConcurrentLongIntCache;
 import org.xvm.util.ListMap;
 import org.xvm.util.PackedInteger;
 import org.xvm.util.Severity;
@@ -81,6 +87,14 @@ public class ConstantPool
         return i == -1 ? null : m_listConst.get(i);
         }
 
+    /**
+     * @return the number of Constants currently stored in the pool
+     */
+    public int size()
+        {
+        return m_listConst.size();
+        }
+
     /**
      * Register a Constant. This is used when a new Constant is created by the ConstantPool, but it
      * can also be used directly by a consumer, and it's used during the bulk (re-)registration of
@@ -2392,6 +2406,8 @@ public class ConstantPool
         m_listConst.clear();
         m_mapConstants.clear();
         m_mapLocators.clear();
+        f_cacheRelations.clear();
+        m_cacheTypeInfo = null;
 
         // read the number of constants in the pool
         int cConst = readMagnitude(in);
@@ -2400,294 +2416,7 @@ public class ConstantPool
         // load the constant pool from the stream
         for (int i = 0; i < cConst; ++i)
             {
-            Constant constant;
-            int      nFmt   = in.readUnsignedByte();
-            Format   format = Constant.Format.valueOf(nFmt);
-            switch (format)
-                {
-                /*
-                * Values.
-                */
-                case IntLiteral:
-                case FPLiteral:
-                case Date:
-                case Time:
-                case DateTime:
-                case Duration:
-                case Path:
-                    constant = new LiteralConstant(this, format, in);
-                    break;
-
-                case Int8:
-                    constant = new Int8Constant(this, format, in);
-                    break;
-
-                case Bit:
-                case Nibble:
-                case UInt8:
-                    constant = new UInt8Constant(this, format, in);
-                    break;
-
-                case Int16:
-                case Int32:
-                case Int64:
-                case Int128:
-                case VarInt:
-                case UInt16:
-                case UInt32:
-                case UInt64:
-                case UInt128:
-                case VarUInt:
-                    constant = new IntConstant(this, format, in);
-                    break;
-
-                case BFloat16:
-                    constant = new BFloat16Constant(this, format, in);
-                    break;
-
-                case Float16:
-                    constant = new Float16Constant(this, format, in);
-                    break;
-
-                case Float32:
-                    constant = new Float32Constant(this, format, in);
-                    break;
-
-                case Float64:
-                    constant = new Float64Constant(this, format, in);
-                    break;
-
-                case Float128:
-                    constant = new Float128Constant(this, format, in);
-                    break;
-
-                case Dec32:
-                case Dec64:
-                case Dec128:
-                    constant = new DecimalConstant(this, format, in);
-                    break;
-
-                case VarFloat:
-                case VarDec:
-                    constant = new VarFPConstant(this, format, in);
-                    break;
-
-                case Char:
-                    constant = new CharConstant(this, format, in);
-                    break;
-
-                case String:
-                    constant = new StringConstant(this, format, in);
-                    break;
-
-                case Version:
-                    constant = new VersionConstant(this, format, in);
-                    break;
-
-                case SingletonConst:
-                case SingletonService:
-                    constant = new SingletonConstant(this, format, in);
-                    break;
-
-                case Array:
-                case Tuple:
-                case Set:
-                    constant = new ArrayConstant(this, format, in);
-                    break;
-
-                case UInt8Array:
-                    constant = new UInt8ArrayConstant(this, format, in);
-                    break;
-
-                case MapEntry:
-                case Map:
-                    constant = new MapConstant(this, format, in);
-                    break;
-
-                case Range:
-                    constant = new RangeConstant(this, format, in);
-                    break;
-
-                case Any:
-                    constant = new MatchAnyConstant(this, format, in);
-                    break;
-
-                case FileStore:
-                    constant = new FileStoreConstant(this, format, in);
-                    break;
-
-                case FSDir:
-                case FSFile:
-                case FSLink:
-                    constant = new FSNodeConstant(this, format, in);
-                    break;
-
-                /*
-                * Structural identifiers.
-                */
-                case Module:
-                    constant = new ModuleConstant(this, format, in);
-                    break;
-
-                case Package:
-                    constant = new PackageConstant(this, format, in);
-                    break;
-
-                case Class:
-                    constant = new ClassConstant(this, format, in);
-                    break;
-
-                case Typedef:
-                    constant = new TypedefConstant(this, format, in);
-                    break;
-
-                case Property:
-                    constant = new PropertyConstant(this, format, in);
-                    break;
-
-                case MultiMethod:
-                    constant = new MultiMethodConstant(this, format, in);
-                    break;
-
-                case Method:
-                    constant = new MethodConstant(this, format, in);
-                    break;
-
-                case Annotation:
-                    constant = new Annotation(this, in);
-                    break;
-
-                case Register:
-                    constant = new RegisterConstant(this, in);
-                    break;
-
-                /*
-                * Pseudo identifiers.
-                */
-                case UnresolvedName:
-                    throw new IOException("UnresolvedName not supported persistently");
-
-                case ThisClass:
-                    constant = new ThisClassConstant(this, format, in);
-                    break;
-
-                case ParentClass:
-                    constant = new ParentClassConstant(this, format, in);
-                    break;
-
-                case ChildClass:
-                    constant = new ChildClassConstant(this, format, in);
-                    break;
-
-                case TypeParameter:
-                    constant = new TypeParameterConstant(this, format, in);
-                    break;
-
-                case FormalTypeChild:
-                    constant = new FormalTypeChildConstant(this, format, in);
-                    break;
-
-                case Signature:
-                    constant = new SignatureConstant(this, format, in);
-                    break;
-
-                case NativeClass:
-                    // it is not used in the persistent form of the module
-                    throw new IllegalStateException();
-
-                /*
-                * Types.
-                */
-                case UnresolvedType:
-                    throw new IOException("UnresolvedType not supported persistently");
-
-                case TerminalType:
-                    constant = new TerminalTypeConstant(this, format, in);
-                    break;
-
-                case ImmutableType:
-                    constant = new ImmutableTypeConstant(this, format, in);
-                    break;
-
-                case AccessType:
-                    constant = new AccessTypeConstant(this, format, in);
-                    break;
-
-                case AnnotatedType:
-                    constant = new AnnotatedTypeConstant(this, format, in);
-                    break;
-
-                case ParameterizedType:
-                    constant = new ParameterizedTypeConstant(this, format, in);
-                    break;
-
-                case TurtleType:
-                    constant = new TypeSequenceTypeConstant(this);
-                    break;
-
-                case VirtualChildType:
-                    constant = new VirtualChildTypeConstant(this, format, in);
-                    break;
-
-                case AnonymousClassType:
-                    constant = new AnonymousClassTypeConstant(this, format, in);
-                    break;
-
-                case PropertyClassType:
-                    constant = new PropertyClassTypeConstant(this, format, in);
-                    break;
-
-                case UnionType:
-                    constant = new UnionTypeConstant(this, format, in);
-                    break;
-
-                case IntersectionType:
-                    constant = new IntersectionTypeConstant(this, format, in);
-                    break;
-
-                case DifferenceType:
-                    constant = new DifferenceTypeConstant(this, format, in);
-                    break;
-
-                case RecursiveType:
-                    constant = new RecursiveTypeConstant(this, format, in);
-                    break;
-
-                /*
-                 * Conditions.
-                 */
-                case ConditionNot:
-                    constant = new NotCondition(this, format, in);
-                    break;
-
-                case ConditionAll:
-                    constant = new AllCondition(this, format, in);
-                    break;
-
-                case ConditionAny:
-                    constant = new AnyCondition(this, format, in);
-                    break;
-
-                case ConditionNamed:
-                    constant = new NamedCondition(this, format, in);
-                    break;
-
-                case ConditionPresent:
-                    constant = new PresentCondition(this, format, in);
-                    break;
-
-                case ConditionVersionMatches:
-                    constant = new VersionMatchesCondition(this, format, in);
-                    break;
-
-                case ConditionVersioned:
-                    constant = new VersionedCondition(this, format, in);
-                    break;
-
-                default:
-                    throw new IOException("Unsupported constant format: " + nFmt);
-                }
-
+            Constant constant = disassembleConstant(in.readUnsignedByte(), in);
             constant.setPosition(i);
             m_listConst.add(constant);
             }
@@ -2699,6 +2428,310 @@ public class ConstantPool
             }
         }
 
+    /**
+     * Read a single Constant from the stream. The Constant is neither added to the pool nor are its
+     * references to other Constants resolved.
+     *
+     * @param nFmt  the format of the Constant, which has already been read from the stream
+     * @param in    the DataInput to read the rest of the Constant from
+     *
+     * @return the Constant
+     *
+     * @throws IOException  if an IOException occurs or the format of the Constant is unsupported
+     */
+    private Constant disassembleConstant(int nFmt, DataInput in)
+            throws IOException
+        {
+        Constant constant;
+        Format   format = Constant.Format.valueOf(nFmt);
+        switch (format)
+            {
+            /*
+            * Values.
+            */
+            case IntLiteral:
+            case FPLiteral:
+            case Date:
+            case Time:
+            case DateTime:
+            case Duration:
+            case Path:
+                constant = new LiteralConstant(this, format, in);
+                break;
+
+            case Int8:
+                constant = new Int8Constant(this, format, in);
+                break;
+
+            case Bit:
+            case Nibble:
+            case UInt8:
+                constant = new UInt8Constant(this, format, in);
+                break;
+
+            case Int16:
+            case Int32:
+            case Int64:
+            case Int128:
+            case VarInt:
+            case UInt16:
+            case UInt32:
+            case UInt64:
+            case UInt128:
+            case VarUInt:
+                constant = new IntConstant(this, format, in);
+                break;
+
+            case BFloat16:
+                constant = new BFloat16Constant(this, format, in);
+                break;
+
+            case Float16:
+                constant = new Float16Constant(this, format, in);
+                break;
+
+            case Float32:
+                constant = new Float32Constant(this, format, in);
+                break;
+
+            case Float64:
+                constant = new Float64Constant(this, format, in);
+                break;
+
+            case Float128:
+                constant = new Float128Constant(this, format, in);
+                break;
+
+            case Dec32:
+            case Dec64:
+            case Dec128:
+                constant = new DecimalConstant(this, format, in);
+                break;
+
+            case VarFloat:
+            case VarDec:
+                constant = new VarFPConstant(this, format, in);
+                break;
+
+            case Char:
+                constant = new CharConstant(this, format, in);
+                break;
+
+            case String:
+                constant = new StringConstant(this, format, in);
+                break;
+
+            case Version:
+                constant = new VersionConstant(this, format, in);
+                break;
+
+            case SingletonConst:
+            case SingletonService:
+                constant = new SingletonConstant(this, format, in);
+                break;
+
+            case Array:
+            case Tuple:
+            case Set:
+                constant = new ArrayConstant(this, format, in);
+                break;
+
+            case UInt8Array:
+                constant = new UInt8ArrayConstant(this, format, in);
+                break;
+
+            case MapEntry:
+            case Map:
+                constant = new MapConstant(this, format, in);
+                break;
+
+            case Range:
+                constant = new RangeConstant(this, format, in);
+                break;
+
+            case Any:
+                constant = new MatchAnyConstant(this, format, in);
+                break;
+
+            case FileStore:
+                constant = new FileStoreConstant(this, format, in);
+                break;
+
+            case FSDir:
+            case FSFile:
+            case FSLink:
+                constant = new FSNodeConstant(this, format, in);
+                break;
+
+            /*
+            * Structural identifiers.
+            */
+            case Module:
+                constant = new ModuleConstant(this, format, in);
+                break;
+
+            case Package:
+                constant = new PackageConstant(this, format, in);
+                break;
+
+            case Class:
+                constant = new ClassConstant(this, format, in);
+                break;
+
+            case Typedef:
+                constant = new TypedefConstant(this, format, in);
+                break;
+
+            case Property:
+                constant = new PropertyConstant(this, format, in);
+                break;
+
+            case MultiMethod:
+                constant = new MultiMethodConstant(this, format, in);
+                break;
+
+            case Method:
+                constant = new MethodConstant(this, format, in);
+                break;
+
+            case Annotation:
+                constant = new Annotation(this, in);
+                break;
+
+            case Register:
+                constant = new RegisterConstant(this, in);
+                break;
+
+            /*
+            * Pseudo identifiers.
+            */
+            case UnresolvedName:
+                throw new IOException("UnresolvedName not supported persistently");
+
+            case ThisClass:
+                constant = new ThisClassConstant(this, format, in);
+                break;
+
+            case ParentClass:
+                constant = new ParentClassConstant(this, format, in);
+                break;
+
+            case ChildClass:
+                constant = new ChildClassConstant(this, format, in);
+                break;
+
+            case TypeParameter:
+                constant = new TypeParameterConstant(this, format, in);
+                break;
+
+            case FormalTypeChild:
+                constant = new FormalTypeChildConstant(this, format, in);
+                break;
+
+            case Signature:
+                constant = new SignatureConstant(this, format, in);
+                break;
+
+            case NativeClass:
+                // it is not used in the persistent form of the module
+                throw new IllegalStateException();
+
+            /*
+            * Types.
+            */
+            case UnresolvedType:
+                throw new IOException("UnresolvedType not supported persistently");
+
+            case TerminalType:
+                constant = new TerminalTypeConstant(this, format, in);
+                break;
+
+            case ImmutableType:
+                constant = new ImmutableTypeConstant(this, format, in);
+                break;
+
+            case AccessType:
+                constant = new AccessTypeConstant(this, format, in);
+                break;
+
+            case AnnotatedType:
+                constant = new AnnotatedTypeConstant(this, format, in);
+                break;
+
+            case ParameterizedType:
+                constant = new ParameterizedTypeConstant(this, format, in);
+                break;
+
+            case TurtleType:
+                constant = new TypeSequenceTypeConstant(this);
+                break;
+
+            case VirtualChildType:
+                constant = new VirtualChildTypeConstant(this, format, in);
+                break;
+
+            case AnonymousClassType:
+                constant = new AnonymousClassTypeConstant(this, format, in);
+                break;
+
+            case PropertyClassType:
+                constant = new PropertyClassTypeConstant(this, format, in);
+                break;
+
+            case UnionType:
+                constant = new UnionTypeConstant(this, format, in);
+                break;
+
+            case IntersectionType:
+                constant = new IntersectionTypeConstant(this, format, in);
+                break;
+
+            case DifferenceType:
+                constant = new DifferenceTypeConstant(this, format, in);
+                break;
+
+            case RecursiveType:
+                constant = new RecursiveTypeConstant(this, format, in);
+                break;
+
+            /*
+             * Conditions.
+             */
+            case ConditionNot:
+                constant = new NotCondition(this, format, in);
+                break;
+
+            case ConditionAll:
+                constant = new AllCondition(this, format, in);
+                break;
+
+            case ConditionAny:
+                constant = new AnyCondition(this, format, in);
+                break;
+
+            case ConditionNamed:
+                constant = new NamedCondition(this, format, in);
+                break;
+
+            case ConditionPresent:
+                constant = new PresentCondition(this, format, in);
+                break;
+
+            case ConditionVersionMatches:
+                constant = new VersionMatchesCondition(this, format, in);
+                break;
+
+            case ConditionVersioned:
+                constant = new VersionedCondition(this, format, in);
+                break;
+
+            default:
+                throw new IOException("Unsupported constant format: " + nFmt);
+            }
+
+        return constant;
+        }
+
     @Override
     protected void registerConstants(ConstantPool pool)
         {
@@ -3060,7 +3093,9 @@ public class ConstantPool
 
         // discard any previous lookup structures, since contents may have changed
         m_mapConstants.clear();
+        f_cacheRelations.clear();
         m_mapLocators.clear();
+        m_cacheTypeInfo = null;
         }
 
 
@@ -3214,6 +3249,19 @@ public class ConstantPool
         return f_listInvalidated.size();
         }
 
+    /**
+     * Obtain the identity of the class whose TypeInfos were invalidated by the specified
+     * invalidation.
+     *
+     * @param i  the invalidation index; less than the {@link #getInvalidationCount() count}
+     *
+     * @return the IdentityConstant of the class
+     */
+    public IdentityConstant getInvalidation(int i)
+        {
+        return f_listInvalidated.get(i);
+        }
+
     /**
      * Determine what classes have new information since the specified invalidation count.
      *
@@ -3242,6 +3290,242 @@ public class ConstantPool
         }
 
 
+    // ----- TypeInfo cache support ----------------------------------------------------------------
+
+    /**
+     * @return the TypeInfoCache attached to this pool, or null if there is none
+     */
+    public TypeInfoCache getTypeInfoCache()
+        {
+        return m_cacheTypeInfo;
+        }
+
+    /**
+     * Attach a TypeInfoCache to this pool. The cache is automatically detached if the constants in
+     * this pool get re-ordered.
+     *
+     * @param cache  the TypeInfoCache (or null to detach the current one)
+     */
+    public void setTypeInfoCache(TypeInfoCache cache)
+        {
+        m_cacheTypeInfo = cache;
+        }
+
+    /**
+     * Determine how many Constants, starting at the specified position, could be written out using
+     * {@link #assembleConstants} and later appended to an identical pool using
+     * {@link #appendConstants}. For that to be possible, each of those Constants must be readable
+     * and must only refer to the Constants in this pool that precede the returned limit.
+     *
+     * @param iFirst  the position of the first Constant
+     *
+     * @return the number of consecutive Constants that could be written out
+     */
+    public int countPortableConstants(int iFirst)
+        {
+        ArrayList<Constant> list         = m_listConst;
+        int                 iLimit       = list.size();
+        BitSet              bitsReadable = new BitSet();
+
+        NextPass: while (true)
+            {
+            for (int i = iFirst; i < iLimit; ++i)
+                {
+                Constant constant = list.get(i);
+                if (!isReferringBelow(constant, iLimit) ||
+                        !bitsReadable.get(i) && !isReadable(constant))
+                    {
+                    // drop this constant and everything after it, and re-check the ones before it,
+                    // since they could be referring to the constants that have just been dropped
+                    iLimit = i;
+                    continue NextPass;
+                    }
+                bitsReadable.set(i);
+                }
+            return iLimit - iFirst;
+            }
+        }
+
+    /**
+     * Write out the specified range of Constants.
+     *
+     * @param out     the DataOutput to write to
+     * @param iFirst  the position of the first Constant to write
+     * @param cConst  the number of Constants to write, as computed by {@link #countPortableConstants}
+     *
+     * @throws IOException  if an IOException occurs while writing the Constants
+     */
+    public void assembleConstants(DataOutput out, int iFirst, int cConst)
+            throws IOException
+        {
+        for (int i = iFirst, iLimit = iFirst + cConst; i < iLimit; ++i)
+            {
+            assembleCachedConstant(m_listConst.get(i), out);
+            }
+        }
+
+    /**
+     * Append the Constants written out by {@link #assembleConstants} to this pool. This pool must
+     * hold exactly the Constants that preceded the appended ones at the time they were written out,
+     * which is the case when both pools have been read from the same file and nothing else has been
+     * registered with this pool since.
+     *
+     * @param in      the DataInput to read from
+     * @param cConst  the number of Constants to read
+     *
+     * @throws IOException  if an IOException occurs or the Constants cannot be appended; in the
+     *                      latter case, this pool is left unchanged
+     */
+    public void appendConstants(DataInput in, int cConst)
+            throws IOException
+        {
+        ArrayList<Constant> list   = m_listConst;
+        int                 iFirst = list.size();
+        Constant[]          aconst = new Constant[cConst];
+
+        for (int i = 0; i < cConst; ++i)
+            {
+            aconst[i] = disassembleCachedConstant(in);
+            }
+
+        ensureLookup();
+        try
+            {
+            for (int i = 0; i < cConst; ++i)
+                {
+                Constant constant = aconst[i];
+                constant.setPosition(iFirst + i);
+                list.add(constant);
+                }
+
+            for (Constant constant : aconst)
+                {
+                constant.resolveConstants();
+                }
+
+            // a running pool may hold Constants that have become equal to a previously registered
+            // Constant after they were registered; as in that pool, the lookup structures keep
+            // referring to the previously registered ones
+            for (Constant constant : aconst)
+                {
+                m_mapConstants.get(constant.getFormat()).putIfAbsent(constant, constant);
+
+                Object oLocator = constant.getLocator();
+                if (oLocator != null)
+                    {
+                    ensureLocatorLookup(constant.getFormat()).putIfAbsent(oLocator, constant);
+                    }
+                }
+            }
+        catch (RuntimeException e)
+            {
+            list.subList(iFirst, list.size()).clear();
+            m_mapConstants.clear();
+            m_mapLocators.clear();
+            throw new IOException("Unable to append constants to " + this, e);
+            }
+        }
+
+    /**
+     * Check whether the specified Constant only refers to the Constants registered with this pool
+     * that are positioned before the specified limit.
+     *
+     * @param constant  the Constant to check
+     * @param iLimit    the position limit for any referred-to Constants
+     *
+     * @return true iff all the underlying Constants are registered and positioned below the limit
+     */
+    private boolean isReferringBelow(Constant constant, int iLimit)
+        {
+        boolean[] afBelow = {true};
+        constant.forEachUnderlying(constRef ->
+            {
+            if (constRef != null)
+                {
+                int iPos = constRef.getPosition();
+                if (constRef.getContaining() != this || iPos < 0 || iPos >= iLimit
+                        || m_listConst.get(iPos) != constRef)
+                    {
+                    afBelow[0] = false;
+                    }
+                }
+            });
+        return afBelow[0];
+        }
+
+    /**
+     * Check whether the specified Constant can be written out and read back in; not every kind of
+     * Constant that can be registered is supported by the disassembly.
+     *
+     * @param constant  the Constant to check
+     *
+     * @return true iff the Constant can be read back in
+     */
+    private boolean isReadable(Constant constant)
+        {
+        try
+            {
+            ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+            assembleCachedConstant(constant, new DataOutputStream(outBytes));
+
+            ByteArrayInputStream inBytes   = new ByteArrayInputStream(outBytes.toByteArray());
+            Constant             constCopy = disassembleCachedConstant(new DataInputStream(inBytes));
+            return inBytes.available() == 0 && constCopy.getFormat() == constant.getFormat();
+            }
+        catch (IOException | RuntimeException e)
+            {
+            return false;
+            }
+        }
+
+    /**
+     * Write out a Constant in the form used by the TypeInfoCache, which (unlike the persistent form
+     * of a module) also supports the property form of a SignatureConstant.
+     *
+     * @param constant  the Constant to write
+     * @param out       the DataOutput to write to
+     *
+     * @throws IOException  if an IOException occurs while writing the Constant
+     */
+    private void assembleCachedConstant(Constant constant, DataOutput out)
+            throws IOException
+        {
+        if (constant instanceof SignatureConstant && ((SignatureConstant) constant).isProperty())
+            {
+            out.writeByte(CACHED_PROPERTY_SIGNATURE);
+            ((SignatureConstant) constant).assembleProperty(out);
+            }
+        else
+            {
+            constant.assemble(out);
+            }
+        }
+
+    /**
+     * Read a Constant written out by {@link #assembleCachedConstant}. Unlike the persistent form
+     * of a module, the cached form may contain NativeRebaseConstants.
+     *
+     * @param in  the DataInput to read from
+     *
+     * @return the Constant (not yet resolved)
+     *
+     * @throws IOException  if an IOException occurs while reading the Constant
+     */
+    private Constant disassembleCachedConstant(DataInput in)
+            throws IOException
+        {
+        int nFmt = in.readUnsignedByte();
+        if (nFmt == CACHED_PROPERTY_SIGNATURE)
+            {
+            return new SignatureConstant(this, in);
+            }
+
+        return nFmt == Format.NativeClass.ordinal()
+                ? new NativeRebaseConstant(this, Format.NativeClass, in)
+                : disassembleConstant(nFmt, in);
+        }
+
+
     // ----- TypeConstant helpers  -----------------------------------------------------------------
 
     /**
@@ -3538,6 +3822,15 @@ public class ConstantPool
 
     // ----- out-of-context helpers  ---------------------------------------------------------------
 
+    /**
+     * @return the cache of the type relations between the types registered with this pool; the
+     *         key is composed of the R-value and L-value type positions
+     */
+    public ConcurrentLongIntCache getRelationCache()
+        {
+        return f_cacheRelations;
+        }
+
     /**
      * @return a ContextPool associated with the current thread
      */
@@ -3727,6 +4020,23 @@ public class ConstantPool
      */
     private final List<IdentityConstant> f_listInvalidated = new Vector<>();
 
+    /**
+     * A cache of the type relations (see {@link TypeConstant#calculateRelation}) keyed by the
+     * positions of the types in this pool.
+     */
+    private final transient ConcurrentLongIntCache f_cacheRelations = new ConcurrentLongIntCache(256);
+
+    /**
+     * The persistent TypeInfo cache for the types in this pool, if any.
+     */
+    private transient volatile TypeInfoCache m_cacheTypeInfo;
+
+    /**
+     * The pseudo-format byte that precedes the property form of a SignatureConstant written out by
+     * {@link #assembleConstants}; it is outside the range of the {@link Format} ordinals.
+     */
+    private static final int CACHED_PROPERTY_SIGNATURE = 0xFF;
+
     /**
      * Thread local allowing to get the "current" ConstantPool without any context.
      */
@@ -11,6 +11,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
+import org.xvm.asm.constants.TypeInfoCache;
+
 
 /**
  * A simple ModuleRepository that manages its contents in a directory.
@@ -266,6 +268,10 @@ public class DirRepository
             if (module == null || module.isModified())
                 {
                 module = tryLoad();
+                if (module != null)
+                    {
+                    TypeInfoCache.attach(module.getFileStructure(), file);
+                    }
                 }
 
             return module;
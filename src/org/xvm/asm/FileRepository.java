@@ -7,6 +7,8 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.Set;
 
+import org.xvm.asm.constants.TypeInfoCache;
+
 
 /**
  * A simple ModuleRepository for a single file with a single module.
@@ -230,6 +232,10 @@ public class FileRepository
         if (module == null || module.isModified())
             {
             module = tryLoad();
+            if (module != null)
+                {
+                TypeInfoCache.attach(module.getFileStructure(), file);
+                }
             }
 
         return module;
@@ -13,12 +13,18 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Set;
 
 import org.xvm.asm.constants.ModuleConstant;
 
+import org.xvm.util.ByteBufferInput;
 import org.xvm.util.LinkedIterator;
 
 import static org.xvm.util.Handy.intToHexString;
@@ -85,14 +91,16 @@ public class FileStructure
      * Construct a file structure for an existing file.
      *
      * @param file   the file that contains the existing FileStructure
-     * @param fLazy  true to defer the module deserialization until necessary
+     * @param fLazy  true to defer the module deserialization until necessary; the file is then
+     *               memory-mapped, and the deferred portions are deserialized directly from the
+     *               mapped file as they are needed
      *
      * @throws IOException  if an IOException occurs while reading the FileStructure
      */
     public FileStructure(File file, boolean fLazy)
             throws IOException
         {
-        this(toInputStream(file), true, fLazy);
+        this(fLazy ? new ByteBufferInput(ByteBufferInput.map(file)) : toInputStream(file), true, fLazy);
         this.file = file;
         }
 
@@ -127,7 +135,7 @@ public class FileStructure
         fLazyDeser = fLazy;
         try
             {
-            disassemble(new DataInputStream(in));
+            disassemble(in instanceof DataInput ? (DataInput) in : new DataInputStream(in));
             }
         finally
             {
@@ -147,6 +155,9 @@ public class FileStructure
 
     /**
      * Write the FileStructure to the specified file.
+     * <p/>
+     * The structure is written to a temporary file that then replaces the specified file, so that
+     * any FileStructure that has memory-mapped the previous contents of the file remains valid.
      *
      * @param file  the file to write to
      *
@@ -155,7 +166,8 @@ public class FileStructure
     public void writeTo(File file)
             throws IOException
         {
-        FileOutputStream fos = new FileOutputStream(file);
+        File fileTemp = new File(file.getPath() + ".tmp");
+        FileOutputStream fos = new FileOutputStream(fileTemp);
         this.file = file;
         try
             {
@@ -175,6 +187,17 @@ public class FileStructure
             fos.flush();
             fos.close();
             }
+
+        Path pathTemp = fileTemp.toPath();
+        Path path     = file.toPath();
+        try
+            {
+            Files.move(pathTemp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        catch (AtomicMoveNotSupportedException e)
+            {
+            Files.move(pathTemp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
         }
 
     /**
@@ -17,6 +17,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import org.xvm.asm.constants.ArrayConstant;
 import org.xvm.asm.constants.ClassConstant;
 import org.xvm.asm.constants.ConditionalConstant;
@@ -32,6 +34,7 @@ import org.xvm.asm.Op.Prefix;
 import org.xvm.asm.op.Nop;
 
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.Utils;
 
 import org.xvm.util.ListMap;
@@ -538,7 +541,7 @@ public class MethodStructure
         }
 
     /**
-     * @return the op-code array for this method
+     * @return the op-code array to execute for this method (see {@link OpFusion})
      */
     public Op[] getOps()
         {
@@ -549,7 +552,7 @@ public class MethodStructure
                 getIdentityConstant().getPathString() + "\" has not been compiled");
             }
 
-        return code.getAssembledOps();
+        return code.getExecutableOps();
         }
 
     /**
@@ -560,6 +563,26 @@ public class MethodStructure
         return m_aconstLocal;
         }
 
+    /**
+     * Obtain the run-time table of the constant handles used by this method's ops. The table is
+     * indexed by the constant position in the method's ConstantPool and is populated lazily by the
+     * {@link org.xvm.runtime.ObjectHeap}.
+     *
+     * @return the table or null if it has not been assigned yet
+     */
+    public AtomicReferenceArray<ObjectHandle> getConstHandles()
+        {
+        return m_ahConst;
+        }
+
+    /**
+     * Assign the run-time table of the constant handles used by this method's ops.
+     */
+    public void setConstHandles(AtomicReferenceArray<ObjectHandle> ahConst)
+        {
+        m_ahConst = ahConst;
+        }
+
 
     // ----- compiler support ----------------------------------------------------------------------
 
@@ -1819,6 +1842,20 @@ public class MethodStructure
             return m_aop;
             }
 
+        /**
+         * @return the array of Ops to execute, which are the assembled Ops with the frequent
+         *         sequences fused together (see {@link OpFusion})
+         */
+        public Op[] getExecutableOps()
+            {
+            Op[] aop = m_aopExec;
+            if (aop == null)
+                {
+                m_aopExec = aop = OpFusion.fuse(getAssembledOps());
+                }
+            return aop;
+            }
+
         /**
          * @return true iff there are any ops in the code
          */
@@ -1981,6 +2018,7 @@ public class MethodStructure
                 {
                 m_listOps = new ArrayList<>();
                 }
+            m_aopExec = null;
             }
 
         protected ConstantRegistry ensureConstantRegistry()
@@ -2045,7 +2083,8 @@ public class MethodStructure
 
             Op[] aopNew = new Op[cNew];
             System.arraycopy(aop, 0, aopNew, 0, cNew);
-            m_aop = aopNew;
+            m_aop     = aopNew;
+            m_aopExec = null;
             return true;
             }
 
@@ -2177,7 +2216,8 @@ public class MethodStructure
 
             Op[] aopNew = new Op[cNew];
             System.arraycopy(aop, 0, aopNew, 0, cNew);
-            m_aop = aopNew;
+            m_aop     = aopNew;
+            m_aopExec = null;
             return true;
             }
 
@@ -2284,6 +2324,11 @@ public class MethodStructure
          */
         private Op[] m_aop;
 
+        /**
+         * The array of ops to execute (see {@link #getExecutableOps}).
+         */
+        private volatile Op[] m_aopExec;
+
         /**
          * A coding black hole.
          */
@@ -2348,6 +2393,11 @@ public class MethodStructure
      */
     transient ConstantRegistry m_registry;
 
+    /**
+     * The run-time table of the constant handles (see {@link #getConstHandles()}).
+     */
+    private transient AtomicReferenceArray<ObjectHandle> m_ahConst;
+
     /**
      * The method's code (for assembling new code).
      */
@@ -16,6 +16,8 @@ import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
 import org.xvm.runtime.Utils;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -161,6 +163,20 @@ public abstract class OpCondJump
         {
         try
             {
+            // fast path: two Int64 values compared as Int64
+            if (isInt64Compare(frame) && frame.isInt64(m_nArg, m_nArg2))
+                {
+                return completeInt64(frame, iPC, frame.getInt64(m_nArg), frame.getInt64(m_nArg2));
+                }
+
+            // fast path: both arguments are assigned registers or constants
+            ObjectHandle hValue1 = frame.peekArgument(m_nArg);
+            ObjectHandle hValue2 = hValue1 == null ? null : frame.peekArgument(m_nArg2);
+            if (hValue2 != null && !isDeferred(hValue1) && !isDeferred(hValue2))
+                {
+                return completeBinaryOp(frame, iPC, calculateCommonType(frame), hValue1, hValue2);
+                }
+
             ObjectHandle[] ahArg = frame.getArguments(new int[]{m_nArg, m_nArg2}, 2);
             if (ahArg == null)
                 {
@@ -195,6 +211,24 @@ public abstract class OpCondJump
         return frame.resolveType(typeCommon);
         }
 
+    /**
+     * @return true iff the common type of this binary op is Int64
+     */
+    protected boolean isInt64Compare(Frame frame)
+        {
+        int nInt64 = m_nInt64;
+        if (nInt64 == 0)
+            {
+            TypeConstant typeCommon = m_typeCommon;
+            if (typeCommon == null)
+                {
+                m_typeCommon = typeCommon = (TypeConstant) frame.getConstant(m_nType);
+                }
+            m_nInt64 = nInt64 = typeCommon.equals(typeCommon.getConstantPool().typeInt()) ? 1 : -1;
+            }
+        return nInt64 > 0;
+        }
+
     /**
      * A completion of a unary op; must me overridden by all binary ops.
      */
@@ -212,6 +246,16 @@ public abstract class OpCondJump
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * A completion of a binary op for two Int64 values. Ops that have a primitive implementation
+     * should override this method.
+     */
+    protected int completeInt64(Frame frame, int iPC, long l1, long l2)
+        {
+        return completeBinaryOp(frame, iPC, calculateCommonType(frame),
+                xInt64.makeHandle(l1), xInt64.makeHandle(l2));
+        }
+
     @Override
     public void markReachable(Op[] aop)
         {
@@ -344,4 +388,7 @@ public abstract class OpCondJump
     // TODO: it should be injected by the verifier and removed from the serialization logic
     protected int m_nType;
     protected TypeConstant m_typeCommon;
+
+    // a cached result of isInt64Compare(): 0 - unknown; 1 - Int64; -1 - any other type
+    private transient int m_nInt64;
     }
@@ -0,0 +1,329 @@
+package org.xvm.asm;
+
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.xvm.asm.op.Jump;
+import org.xvm.asm.op.Nop;
+
+import org.xvm.runtime.Frame;
+
+
+/**
+ * The op fusion pass turns frequent sequences of ops into "super-instructions" that are executed
+ * by a single dispatch from the interpreter loop. It runs on the ops of a method after the dead and
+ * redundant code elimination (i.e. on the {@link MethodStructure.Code#getAssembledOps assembled}
+ * ops), and only produces the ops to execute; the assembled ops are never modified.
+ * <p/>
+ * A fused op replaces the op at the address it starts at, and executes up to {@link #MAX_OPS}
+ * ops following the path that the interpreter loop would take if each op "falls through" or,
+ * for an unconditional {@link Jump}, jumps: the line number ops ({@link Nop}) on that path are
+ * skipped, since they have no effect, and the ops are executed (with the same addresses) one
+ * after another for as long as each op continues to the next planned one. As soon as an op does
+ * anything else (takes a branch, calls, returns, throws, waits, etc.), the fused op stops and
+ * reports that result as if the op had been dispatched by the loop itself, which is why the
+ * {@link Frame#m_iPC frame's PC} is kept pointing at the op being executed.
+ * <p/>
+ * The ops that follow the first one are left in place, so the jump targets and the guard
+ * boundaries (e.g. {@code GuardStart}, {@code CatchStart}) within a fused sequence continue to
+ * work as before: jumping into the middle of a sequence simply executes the original ops.
+ * <p/>
+ * The fusion is enabled by default; it is disabled by setting the "xvm.fusion" system property
+ * to "false". If the "xvm.stats" property is set, the number of fused sites and the number of
+ * times they were executed are collected for each sequence of op names (see
+ * {@link #getStatistics}).
+ */
+public class OpFusion
+    {
+    /**
+     * Produce the ops to execute for the specified assembled ops.
+     *
+     * @param aop  the assembled ops
+     *
+     * @return the ops to execute; the same array if nothing was fused
+     */
+    public static Op[] fuse(Op[] aop)
+        {
+        if (!ENABLED)
+            {
+            return aop;
+            }
+
+        Op[] aopFused = aop;
+        for (int iPC = 0, cOps = aop.length; iPC < cOps; ++iPC)
+            {
+            Fused opFused = plan(aop, iPC);
+            if (opFused != null)
+                {
+                if (aopFused == aop)
+                    {
+                    aopFused = aop.clone();
+                    }
+                aopFused[iPC] = opFused;
+                }
+            }
+        return aopFused;
+        }
+
+    /**
+     * Plan the fused op starting at the specified address.
+     *
+     * @return the fused op or null if there is nothing to fuse
+     */
+    private static Fused plan(Op[] aop, int iStart)
+        {
+        int   cOps     = aop.length;
+        Op[]  aopExec  = new Op[MAX_OPS];
+        int[] aiPC     = new int[MAX_OPS];
+        int[] aiEntry  = new int[MAX_OPS];
+        int   cExec    = 0;
+        int   cSkipped = 0;
+        int   cNops    = 0;
+        int   iPC      = iStart;
+        int   iEntry   = iStart;
+
+        for (int cSteps = 0; cSteps < MAX_STEPS && cExec < MAX_OPS; ++cSteps)
+            {
+            Op op = aop[iPC];
+            if (op instanceof Nop)
+                {
+                ++cNops;
+                ++iPC;
+                }
+            else
+                {
+                cSkipped += cNops;
+                cNops     = 0;
+
+                aopExec[cExec] = op;
+                aiPC   [cExec] = iPC;
+                aiEntry[cExec] = iEntry;
+                ++cExec;
+
+                if (op instanceof Jump)
+                    {
+                    iPC += ((Jump) op).getRelativeAddress();
+                    }
+                else if (op.advances())
+                    {
+                    ++iPC;
+                    }
+                else
+                    {
+                    break;
+                    }
+                iEntry = iPC;
+                }
+
+            if (iPC == iStart || iPC < 0 || iPC >= cOps)
+                {
+                // the path loops back or leaves the code; stop at the last planned op
+                break;
+                }
+            }
+
+        if (cExec == 0 || cExec == 1 && cSkipped == 0)
+            {
+            return null;
+            }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cExec; i++)
+            {
+            if (i > 0)
+                {
+                sb.append('+');
+                }
+            // not every op has an op-code (e.g. the synthetic ones), so the class name is used
+            String sOp = aopExec[i].getClass().getSimpleName();
+            sb.append(sOp.isEmpty() ? "Op" : sOp);
+            }
+        if (cSkipped > 0)
+            {
+            sb.append(" (").append(cSkipped).append(" skipped)");
+            }
+        String sName = sb.toString();
+
+        Counters counters = null;
+        if (STATS)
+            {
+            counters = s_mapCounters.computeIfAbsent(sName, s -> new Counters());
+            counters.sites.increment();
+            }
+
+        return new Fused(aop[iStart], sName, Arrays.copyOf(aopExec, cExec),
+                Arrays.copyOf(aiPC, cExec), Arrays.copyOf(aiEntry, cExec), counters);
+        }
+
+    /**
+     * @return the description of the fused sequences with the number of fused sites and the number
+     *         of executions for each, most executed first (only maintained if {@link #STATS} is on)
+     */
+    public static String getStatistics()
+        {
+        List<Map.Entry<String, Counters>> listEntries = new ArrayList<>(s_mapCounters.entrySet());
+        listEntries.sort((e1, e2) ->
+            Long.compare(e2.getValue().execs.sum(), e1.getValue().execs.sum()));
+
+        StringBuilder sb = new StringBuilder("OpFusion:");
+        for (Map.Entry<String, Counters> entry : listEntries)
+            {
+            Counters counters = entry.getValue();
+            sb.append("\n  ")
+              .append(entry.getKey())
+              .append(": sites=")
+              .append(counters.sites.sum())
+              .append(", executions=")
+              .append(counters.execs.sum());
+            }
+        return sb.toString();
+        }
+
+
+    // ----- inner class: Fused --------------------------------------------------------------------
+
+    /**
+     * The fused op. It exists only at run-time and is assembled as the op that it has replaced.
+     */
+    public static class Fused
+            extends Op
+        {
+        private Fused(Op opReplaced, String sName, Op[] aop, int[] aiPC, int[] aiEntry,
+                      Counters counters)
+            {
+            f_opReplaced = opReplaced;
+            f_sName      = sName;
+            f_aop        = aop;
+            f_aiPC       = aiPC;
+            f_aiEntry    = aiEntry;
+            f_counters   = counters;
+            }
+
+        /**
+         * @return the assembled op that this op has replaced
+         */
+        public Op getReplacedOp()
+            {
+            return f_opReplaced;
+            }
+
+        @Override
+        public int getOpCode()
+            {
+            return f_opReplaced.getOpCode();
+            }
+
+        @Override
+        public void registerConstants(ConstantRegistry registry)
+            {
+            f_opReplaced.registerConstants(registry);
+            }
+
+        @Override
+        public void write(DataOutput out, ConstantRegistry registry)
+                throws IOException
+            {
+            // the fused op is persisted as the op that it has replaced
+            f_opReplaced.write(out, registry);
+            }
+
+        @Override
+        public int process(Frame frame, int iPC)
+            {
+            if (f_counters != null)
+                {
+                f_counters.execs.increment();
+                }
+
+            Op[]  aop     = f_aop;
+            int[] aiPC    = f_aiPC;
+            int[] aiEntry = f_aiEntry;
+            int   cOps    = aop.length;
+            for (int i = 0; ; )
+                {
+                int iPCOp = aiPC[i];
+
+                frame.m_iPC = iPCOp;
+                iPC = aop[i].process(frame, iPCOp);
+                if (iPC == R_NEXT)
+                    {
+                    iPC = iPCOp + 1;
+                    }
+
+                if (++i == cOps || iPC != aiEntry[i])
+                    {
+                    // the result is reported as an absolute address (never R_NEXT), since the
+                    // interpreter loop would otherwise advance from the address of this op
+                    return iPC;
+                    }
+                }
+            }
+
+        @Override
+        public boolean advances()
+            {
+            return f_aop[f_aop.length - 1].advances();
+            }
+
+        @Override
+        public String toString()
+            {
+            return "FUSED " + f_sName;
+            }
+
+        private final Op       f_opReplaced;
+        private final String   f_sName;
+        private final Op[]     f_aop;
+        private final int[]    f_aiPC;
+        private final int[]    f_aiEntry;
+        private final Counters f_counters;
+        }
+
+    /**
+     * The statistics for a sequence of ops.
+     */
+    private static class Counters
+        {
+        final LongAdder sites = new LongAdder();
+        final LongAdder execs = new LongAdder();
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The system property that disables the op fusion if set to "false".
+     */
+    public static final String PROP_FUSION = "xvm.fusion";
+
+    /**
+     * Indicates whether or not the op fusion is enabled.
+     */
+    public static final boolean ENABLED = !"false".equals(System.getProperty(PROP_FUSION));
+
+    /**
+     * Indicates whether or not the fusion statistics should be collected.
+     */
+    public static final boolean STATS = Boolean.getBoolean("xvm.stats");
+
+    /**
+     * The maximum number of ops executed by a fused op.
+     */
+    public static final int MAX_OPS = 3;
+
+    /**
+     * The maximum number of ops (including the skipped ones) that a fused op spans.
+     */
+    private static final int MAX_STEPS = 8;
+
+    private static final Map<String, Counters> s_mapCounters = new ConcurrentHashMap<>();
+    }
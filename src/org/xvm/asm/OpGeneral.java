@@ -10,6 +10,8 @@ import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
 import org.xvm.runtime.Utils;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -149,6 +151,30 @@ public abstract class OpGeneral
         {
         try
             {
+            // fast path: both arguments are Int64 values
+            if (frame.isInt64(m_nTarget, m_nArgValue))
+                {
+                if (frame.isNextRegister(m_nRetValue))
+                    {
+                    frame.introduceVarCopy(m_nRetValue, m_nTarget);
+                    }
+
+                return completeInt64(frame, frame.getInt64(m_nTarget), frame.getInt64(m_nArgValue));
+                }
+
+            // fast path: both arguments are assigned registers or constants
+            ObjectHandle hTarget = frame.peekArgument(m_nTarget);
+            ObjectHandle hArg    = hTarget == null ? null : frame.peekArgument(m_nArgValue);
+            if (hArg != null && !isDeferred(hTarget) && !isDeferred(hArg))
+                {
+                if (frame.isNextRegister(m_nRetValue))
+                    {
+                    frame.introduceVarCopy(m_nRetValue, m_nTarget);
+                    }
+
+                return completeBinary(frame, hTarget, hArg);
+                }
+
             ObjectHandle[] ahArg = frame.getArguments(new int[] {m_nTarget, m_nArgValue}, 2);
             if (ahArg == null)
                 {
@@ -181,6 +207,15 @@ public abstract class OpGeneral
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * A completion of a binary op for two Int64 values. Ops that have a primitive implementation
+     * should override this method and assign the result using {@link Frame#assignInt64}.
+     */
+    protected int completeInt64(Frame frame, long l1, long l2)
+        {
+        return completeBinary(frame, xInt64.makeHandle(l1), xInt64.makeHandle(l2));
+        }
+
     @Override
     public void resetSimulation()
         {
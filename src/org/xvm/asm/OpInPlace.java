@@ -13,6 +13,8 @@ import org.xvm.runtime.ObjectHandle.ExceptionHandle;
 
 import org.xvm.runtime.template.xRef.RefHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -109,6 +111,29 @@ public abstract class OpInPlace
             int nTarget = m_nTarget;
             if (nTarget >= 0)
                 {
+                // fast path: an Int64 value
+                if (frame.isInt64(nTarget))
+                    {
+                    if (isAssignOp() && frame.isNextRegister(m_nRetValue))
+                        {
+                        frame.introduceVarCopy(m_nRetValue, nTarget);
+                        }
+
+                    return completeWithInt64(frame, frame.getInt64(nTarget));
+                    }
+
+                // fast path: an assigned standard register
+                ObjectHandle hTarget = frame.peekArgument(nTarget);
+                if (hTarget != null)
+                    {
+                    if (isAssignOp() && frame.isNextRegister(m_nRetValue))
+                        {
+                        frame.introduceVarCopy(m_nRetValue, nTarget);
+                        }
+
+                    return completeWithRegister(frame, hTarget);
+                    }
+
                 // operation on a register
                 if (frame.isDynamicVar(nTarget))
                     {
@@ -127,7 +152,7 @@ public abstract class OpInPlace
                     }
                 else
                     {
-                    ObjectHandle hTarget = frame.getArgument(nTarget);
+                    hTarget = frame.getArgument(nTarget);
                     if (hTarget == null)
                         {
                         return R_REPEAT;
@@ -165,6 +190,16 @@ public abstract class OpInPlace
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * A completion of the op for a register holding an Int64 value. Ops that have a primitive
+     * implementation should override this method and assign the result(s) using
+     * {@link Frame#assignInt64}.
+     */
+    protected int completeWithInt64(Frame frame, long lTarget)
+        {
+        return completeWithRegister(frame, xInt64.makeHandle(lTarget));
+        }
+
     protected int completeWithVar(Frame frame, RefHandle hTarget)
         {
         throw new UnsupportedOperationException();
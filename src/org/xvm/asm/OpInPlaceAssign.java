@@ -14,6 +14,8 @@ import org.xvm.runtime.Utils;
 
 import org.xvm.runtime.template.xRef.RefHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -70,13 +72,33 @@ public abstract class OpInPlaceAssign
         {
         try
             {
-            ObjectHandle hValue = frame.getArgument(m_nArgValue);
+            int nTarget = m_nTarget;
+            if (nTarget >= 0 && frame.isInt64(nTarget, m_nArgValue))
+                {
+                // fast path: both the register and the value are Int64
+                return completeWithInt64(frame, frame.getInt64(nTarget), frame.getInt64(m_nArgValue));
+                }
+
+            ObjectHandle hValue = frame.peekArgument(m_nArgValue);
+            if (hValue != null && nTarget >= 0 && !isDeferred(hValue))
+                {
+                // fast path: an assigned standard register and a register or constant value
+                ObjectHandle hTarget = frame.peekArgument(nTarget);
+                if (hTarget != null)
+                    {
+                    return completeWithRegister(frame, hTarget, hValue);
+                    }
+                }
+
             if (hValue == null)
                 {
-                return R_REPEAT;
+                hValue = frame.getArgument(m_nArgValue);
+                if (hValue == null)
+                    {
+                    return R_REPEAT;
+                    }
                 }
 
-            int nTarget = m_nTarget;
             if (nTarget >= 0)
                 {
                 // operation on a register
@@ -146,6 +168,16 @@ public abstract class OpInPlaceAssign
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * The completion of processing for a register and a value that are both Int64; m_nTarget >= 0.
+     * Ops that have a primitive implementation should override this method and assign the result
+     * using {@link Frame#assignInt64}.
+     */
+    protected int completeWithInt64(Frame frame, long lTarget, long lValue)
+        {
+        return completeWithRegister(frame, xInt64.makeHandle(lTarget), xInt64.makeHandle(lValue));
+        }
+
     /**
      * The completion of processing.
      */
@@ -14,6 +14,8 @@ import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
 import org.xvm.runtime.Utils;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -111,6 +113,13 @@ public abstract class OpIndex
         {
         try
             {
+            // fast path: an assigned register or constant target and an Int64 index
+            ObjectHandle hTarget = frame.peekArgument(m_nTarget);
+            if (hTarget != null && !isDeferred(hTarget) && frame.isInt64(m_nIndex))
+                {
+                return complete(frame, hTarget, frame.getInt64(m_nIndex));
+                }
+
             ObjectHandle[] ahArg = frame.getArguments(new int[] {m_nTarget, m_nIndex}, 2);
             if (ahArg == null)
                 {
@@ -141,6 +150,15 @@ public abstract class OpIndex
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * Complete the op processing for an Int64 index. Ops that can use the index value directly
+     * should override this method.
+     */
+    protected int complete(Frame frame, ObjectHandle hTarget, long lIndex)
+        {
+        return complete(frame, hTarget, xInt64.makeHandle(lIndex));
+        }
+
     /**
      * Retrieve cached call chain.
      */
@@ -11,6 +11,7 @@ import org.xvm.asm.constants.MethodConstant;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.InlineCache;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.TypeComposition;
 
@@ -119,27 +120,28 @@ public abstract class OpInvocable extends Op
     // helper methods
     protected CallChain getCallChain(Frame frame, ObjectHandle hTarget)
         {
-        if (m_chain != null && m_clazz == hTarget.getComposition())
+        TypeComposition clazz = hTarget.getComposition();
+        CallChain       chain = f_cache.get(clazz);
+        if (chain != null)
             {
-            return m_chain;
+            return chain;
             }
 
-        TypeComposition clazz    = m_clazz = hTarget.getComposition();
         MethodConstant  idMethod = m_constMethod = (MethodConstant) frame.getConstant(m_nMethodId);
         MethodStructure method   = (MethodStructure) idMethod.getComponent();
         if (method != null && method.getAccess() == Access.PRIVATE)
             {
-            return m_chain = new CallChain(method);
+            return f_cache.put(clazz, new CallChain(method));
             }
 
         Object nid = idMethod.resolveNestedIdentity(frame.poolContext(), frame.getGenericsResolver());
 
-        CallChain chain = clazz.getMethodCallChain(nid);
+        chain = clazz.getMethodCallChain(nid);
         if (chain.getDepth() == 0)
             {
             return new CallChain.ExceptionChain(idMethod, hTarget.getType());
             }
-        return m_chain = chain;
+        return f_cache.put(clazz, chain);
         }
 
     /**
@@ -260,6 +262,5 @@ public abstract class OpInvocable extends Op
     protected Argument       m_argReturn;  // optional
     protected Argument[]     m_aArgReturn; // optional
 
-    private TypeComposition m_clazz;       // cached class
-    private CallChain       m_chain;       // cached call chain
+    private final InlineCache f_cache = new InlineCache(); // cached call chains
     }
@@ -72,6 +72,14 @@ public abstract class OpPropInPlaceAssign
         {
         try
             {
+            // fast path: both arguments are assigned registers or constants
+            ObjectHandle hTarget = frame.peekArgument(m_nTarget);
+            ObjectHandle hValue  = hTarget == null ? null : frame.peekArgument(m_nValue);
+            if (hValue != null && !isDeferred(hTarget) && !isDeferred(hValue))
+                {
+                return processProperty(frame, hTarget, hValue);
+                }
+
             ObjectHandle[] ahArg = frame.getArguments(new int[] {m_nTarget, m_nValue}, 2);
             if (ahArg == null)
                 {
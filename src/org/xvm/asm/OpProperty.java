@@ -7,6 +7,11 @@ import java.io.IOException;
 
 import org.xvm.asm.constants.PropertyConstant;
 
+import org.xvm.runtime.CallChain;
+import org.xvm.runtime.InlineCache;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.TypeComposition;
+
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -63,7 +68,58 @@ public abstract class OpProperty extends Op
         return super.toString() + ' ' + Argument.toIdString(m_idProp, m_nPropId);
         }
 
+    // helper methods
+
+    /**
+     * Retrieve the property getter chain for the specified target, using the inline cache.
+     *
+     * @return the getter chain or null if the property cannot be resolved
+     */
+    protected CallChain getPropertyGetterChain(ObjectHandle hTarget, PropertyConstant idProp)
+        {
+        TypeComposition clazz = hTarget.getComposition();
+        CallChain       chain = f_cacheGet.get(clazz);
+        if (chain == null)
+            {
+            chain = clazz.getPropertyGetterChain(idProp);
+            if (chain != null)
+                {
+                f_cacheGet.put(clazz, chain);
+                }
+            }
+        return chain;
+        }
+
+    /**
+     * Retrieve the property setter chain for the specified target, using the inline cache.
+     *
+     * @return the setter chain or null if the property cannot be resolved or the target is a
+     *         struct (in which case the chain is not used)
+     */
+    protected CallChain getPropertySetterChain(ObjectHandle hTarget, PropertyConstant idProp)
+        {
+        if (hTarget.isStruct())
+            {
+            return null;
+            }
+
+        TypeComposition clazz = hTarget.getComposition();
+        CallChain       chain = f_cacheSet.get(clazz);
+        if (chain == null)
+            {
+            chain = clazz.getPropertySetterChain(idProp);
+            if (chain != null)
+                {
+                f_cacheSet.put(clazz, chain);
+                }
+            }
+        return chain;
+        }
+
     protected int m_nPropId;
 
     protected PropertyConstant m_idProp;
+
+    private final InlineCache f_cacheGet = new InlineCache(); // cached getter chains
+    private final InlineCache f_cacheSet = new InlineCache(); // cached setter chains
     }
@@ -1,6 +1,8 @@
 package org.xvm.asm.constants;
 
 
+import java.io.IOException;
+
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -45,6 +47,53 @@ public class ChildInfo
         f_setIds = setIds;
         }
 
+    /**
+     * Construct a ChildInfo from its persistent form.
+     *
+     * @param in  the persistent form to read the ChildInfo from
+     *
+     * @throws IOException  if the persistent form is invalid
+     */
+    ChildInfo(TypeInfoCache.Input in)
+            throws IOException
+        {
+        f_child  = in.readComponent(Component.class);
+        f_access = Access.valueOf(in.readInt());
+
+        int c = in.readInt();
+        if (c == 1)
+            {
+            f_setIds = Collections.singleton(in.readConstant(IdentityConstant.class));
+            }
+        else
+            {
+            f_setIds = new HashSet<>();
+            for (int i = 0; i < c; ++i)
+                {
+                f_setIds.add(in.readConstant(IdentityConstant.class));
+                }
+            }
+        }
+
+    /**
+     * Write out the persistent form of this ChildInfo.
+     *
+     * @param out  the persistent form to write to
+     *
+     * @throws IOException  if this ChildInfo cannot be persisted
+     */
+    void assemble(TypeInfoCache.Output out)
+            throws IOException
+        {
+        out.writeComponent(f_child);
+        out.writeInt(f_access.ordinal());
+        out.writeInt(f_setIds.size());
+        for (IdentityConstant id : f_setIds)
+            {
+            out.writeConstant(id);
+            }
+        }
+
 
     // ----- accessors -----------------------------------------------------------------------------
 
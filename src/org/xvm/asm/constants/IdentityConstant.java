@@ -426,6 +426,14 @@ public abstract class IdentityConstant
             return IdentityConstant.this;
             }
 
+        /**
+         * @return the GenericTypeResolver used by this NestedIdentity, or null
+         */
+        GenericTypeResolver getResolver()
+            {
+            return m_resolver;
+            }
+
         @Override
         public String toString()
             {
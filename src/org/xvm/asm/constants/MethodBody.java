@@ -1,6 +1,8 @@
 package org.xvm.asm.constants;
 
 
+import java.io.IOException;
+
 import org.xvm.asm.Annotation;
 import org.xvm.asm.Component;
 import org.xvm.asm.Constant;
@@ -89,6 +91,54 @@ public class MethodBody
         m_impl   = impl;
         }
 
+    /**
+     * Construct a MethodBody from its persistent form.
+     *
+     * @param in  the persistent form to read the MethodBody from
+     *
+     * @throws IOException  if the persistent form is invalid
+     */
+    MethodBody(TypeInfoCache.Input in)
+            throws IOException
+        {
+        m_id           = in.readConstant(MethodConstant.class);
+        m_sig          = in.readConstant(SignatureConstant.class);
+        m_impl         = Implementation.values()[in.readInt()];
+        m_target       = in.readNid();
+        m_structMethod = in.readComponent(MethodStructure.class);
+        }
+
+    /**
+     * Write out the persistent form of this MethodBody.
+     *
+     * @param out  the persistent form to write to
+     *
+     * @throws IOException  if this MethodBody cannot be persisted
+     */
+    void assemble(TypeInfoCache.Output out)
+            throws IOException
+        {
+        out.writeConstant(m_id);
+        out.writeConstant(m_sig);
+        out.writeInt(m_impl.ordinal());
+        out.writeNid(m_target);
+
+        // the structures of the Capped, Delegating and Field bodies are synthetic (if any), and
+        // are going to be re-created on demand
+        switch (m_impl)
+            {
+            case Capped:
+            case Delegating:
+            case Field:
+                out.writeComponent(null);
+                break;
+
+            default:
+                out.writeComponent(getMethodStructure());
+                break;
+            }
+        }
+
     /**
      * @return the MethodConstant that this MethodBody represents
      */
@@ -1,6 +1,8 @@
 package org.xvm.asm.constants;
 
 
+import java.io.IOException;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -51,6 +53,32 @@ public class MethodInfo
         m_aBody = aBody;
         }
 
+    /**
+     * Construct a MethodInfo from its persistent form.
+     *
+     * @param in  the persistent form to read the MethodInfo from
+     *
+     * @throws IOException  if the persistent form is invalid
+     */
+    MethodInfo(TypeInfoCache.Input in)
+            throws IOException
+        {
+        this(in.readReferences(MethodBody.class, MethodBody[]::new, MethodBody::new));
+        }
+
+    /**
+     * Write out the persistent form of this MethodInfo.
+     *
+     * @param out  the persistent form to write to
+     *
+     * @throws IOException  if this MethodInfo cannot be persisted
+     */
+    void assemble(TypeInfoCache.Output out)
+            throws IOException
+        {
+        out.writeReferences(m_aBody, MethodBody::assemble);
+        }
+
     /**
      * Cap this method chain with a redirection to a narrowed method chain. Error checking is the
      * responsibility of the caller.
@@ -1,21 +1,28 @@
 package org.xvm.asm.constants;
 
 
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
+import java.util.function.Consumer;
+
 import org.xvm.asm.Component;
 import org.xvm.asm.Constant;
+import org.xvm.asm.ConstantPool;
 import org.xvm.asm.ErrorListener;
 
+import static org.xvm.util.Handy.readMagnitude;
+import static org.xvm.util.Handy.writePackedLong;
+
 
 /**
  * NativeRebaseConstant is a transient, pseudo constant that represents a native type that does
  * not exist outside of (previous to) the runtime, and could not have been naturally created.
  * Its purpose is to provide a native class representation where there is only an interface known.
  *
- * This TypeConstant is *never* registered with the ConstantPool and is intended to be used only
- * by the runtime.
+ * This constant is intended to be used only by the runtime, and is never a part of the persistent
+ * form of a module; the only place it is persisted is the TypeInfoCache.
  */
 public class NativeRebaseConstant
         extends ClassConstant
@@ -32,6 +39,31 @@ public class NativeRebaseConstant
         m_constIface = constIface;
         }
 
+    /**
+     * Constructor used for deserialization from the TypeInfoCache.
+     *
+     * @param pool    the ConstantPool that will contain this Constant
+     * @param format  the format of the Constant in the stream
+     * @param in      the DataInput stream to read the Constant value from
+     *
+     * @throws IOException  if an issue occurs reading the Constant value
+     */
+    public NativeRebaseConstant(ConstantPool pool, Format format, DataInput in)
+            throws IOException
+        {
+        super(pool, format, in);
+
+        m_iIface = readMagnitude(in);
+        }
+
+    @Override
+    protected void resolveConstants()
+        {
+        super.resolveConstants();
+
+        m_constIface = (ClassConstant) getConstantPool().getConstant(m_iIface);
+        }
+
 
     // ----- type specific methods  ----------------------------------------------------------------
 
@@ -47,6 +79,13 @@ public class NativeRebaseConstant
     // ----- Constant methods ----------------------------------------------------------------------
 
 
+    @Override
+    public void forEachUnderlying(Consumer<Constant> visitor)
+        {
+        super.forEachUnderlying(visitor);
+        visitor.accept(m_constIface);
+        }
+
     @Override
     public boolean containsUnresolved()
         {
@@ -79,7 +118,8 @@ public class NativeRebaseConstant
     protected void assemble(DataOutput out)
             throws IOException
         {
-        throw new IllegalStateException();
+        super.assemble(out);
+        writePackedLong(out, m_constIface.getPosition());
         }
 
 
@@ -104,6 +144,11 @@ public class NativeRebaseConstant
 
     // ----- data fields ---------------------------------------------------------------------------
 
+    /**
+     * During disassembly, this holds the index of the underlying type.
+     */
+    private transient int m_iIface;
+
     /**
      * The underlying type.
      */
@@ -1,6 +1,8 @@
 package org.xvm.asm.constants;
 
 
+import java.io.IOException;
+
 import org.xvm.asm.Constant.Format;
 
 
@@ -47,6 +49,36 @@ public class ParamInfo
         m_typeActual     = typeActual;
         }
 
+    /**
+     * Construct a ParamInfo from its persistent form.
+     *
+     * @param in  the persistent form to read the ParamInfo from
+     *
+     * @throws IOException  if the persistent form is invalid
+     */
+    ParamInfo(TypeInfoCache.Input in)
+            throws IOException
+        {
+        this(in.readNid(), in.readString(),
+             in.readConstant(TypeConstant.class), in.readConstant(TypeConstant.class));
+        }
+
+    /**
+     * Write out the persistent form of this ParamInfo.
+     *
+     * @param out  the persistent form to write to
+     *
+     * @throws IOException  if this ParamInfo cannot be persisted
+     */
+    void assemble(TypeInfoCache.Output out)
+            throws IOException
+        {
+        out.writeNid(m_nid);
+        out.writeString(m_sName);
+        out.writeConstant(m_typeConstraint);
+        out.writeConstant(m_typeActual);
+        }
+
     /**
      * @return the name of the type parameter
      */
@@ -1,6 +1,8 @@
 package org.xvm.asm.constants;
 
 
+import java.io.IOException;
+
 import org.xvm.asm.Annotation;
 import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
@@ -131,6 +133,58 @@ public class PropertyBody
         m_effectSet     = Effect.None;
         }
 
+    /**
+     * Construct a PropertyBody from its persistent form.
+     *
+     * @param in  the persistent form to read the PropertyBody from
+     *
+     * @throws IOException  if the persistent form is invalid
+     */
+    PropertyBody(TypeInfoCache.Input in)
+            throws IOException
+        {
+        m_structProp    = in.readComponent(PropertyStructure.class);
+        m_impl          = Implementation.values()[in.readInt()];
+        m_constDelegate = in.readConstant(PropertyConstant.class);
+        m_infoFormal    = in.readReference(ParamInfo.class, ParamInfo::new);
+        m_type          = in.readConstant(TypeConstant.class);
+        m_fRO           = in.readBoolean();
+        m_fRW           = in.readBoolean();
+        m_fCustom       = in.readBoolean();
+        m_effectGet     = Effect.values()[in.readInt()];
+        m_effectSet     = Effect.values()[in.readInt()];
+        m_fField        = in.readBoolean();
+        m_fConstant     = in.readBoolean();
+        m_constInitVal  = in.readConstant(Constant.class);
+        m_constInitFunc = in.readConstant(MethodConstant.class);
+        }
+
+    /**
+     * Write out the persistent form of this PropertyBody.
+     *
+     * @param out  the persistent form to write to
+     *
+     * @throws IOException  if this PropertyBody cannot be persisted
+     */
+    void assemble(TypeInfoCache.Output out)
+            throws IOException
+        {
+        out.writeComponent(m_structProp);
+        out.writeInt(m_impl.ordinal());
+        out.writeConstant(m_constDelegate);
+        out.writeReference(m_infoFormal, ParamInfo::assemble);
+        out.writeConstant(m_type);
+        out.writeBoolean(m_fRO);
+        out.writeBoolean(m_fRW);
+        out.writeBoolean(m_fCustom);
+        out.writeInt(m_effectGet.ordinal());
+        out.writeInt(m_effectSet.ordinal());
+        out.writeBoolean(m_fField);
+        out.writeBoolean(m_fConstant);
+        out.writeConstant(m_constInitVal);
+        out.writeConstant(m_constInitFunc);
+        }
+
     /**
      * @return the container of the property
      */
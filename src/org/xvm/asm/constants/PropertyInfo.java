@@ -1,6 +1,8 @@
 package org.xvm.asm.constants;
 
 
+import java.io.IOException;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -68,6 +70,37 @@ public class PropertyInfo
         m_nRank          = nRank;
         }
 
+    /**
+     * Construct a PropertyInfo from its persistent form.
+     *
+     * @param in  the persistent form to read the PropertyInfo from
+     *
+     * @throws IOException  if the persistent form is invalid
+     */
+    PropertyInfo(TypeInfoCache.Input in)
+            throws IOException
+        {
+        this(in.readReferences(PropertyBody.class, PropertyBody[]::new, PropertyBody::new),
+            in.readConstant(TypeConstant.class), in.readBoolean(), in.readBoolean(), in.readInt());
+        }
+
+    /**
+     * Write out the persistent form of this PropertyInfo.
+     *
+     * @param out  the persistent form to write to
+     *
+     * @throws IOException  if this PropertyInfo cannot be persisted
+     */
+    void assemble(TypeInfoCache.Output out)
+            throws IOException
+        {
+        out.writeReferences(m_aBody, PropertyBody::assemble);
+        out.writeConstant(m_type);
+        out.writeBoolean(m_fRequireField);
+        out.writeBoolean(m_fSuppressVar);
+        out.writeInt(m_nRank);
+        }
+
     /**
      * Combine the information in this PropertyInfo with the information from a sub type's
      * PropertyInfo.
@@ -1073,8 +1106,9 @@ public class PropertyInfo
      */
     public boolean isSimpleUnassigned()
         {
-        return m_annotations != null && m_annotations.length == 1
-            && (m_annotations[0].getAnnotationClass()).equals(pool().clzUnassigned());
+        Annotation[] aAnnos = getRefAnnotations();
+        return aAnnos.length == 1
+            && (aAnnos[0].getAnnotationClass()).equals(pool().clzUnassigned());
         }
 
     /**
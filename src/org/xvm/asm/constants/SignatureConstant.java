@@ -130,6 +130,24 @@ public class SignatureConstant
         m_aiReturns = readMagnitudeArray(in);
         }
 
+    /**
+     * Constructor used for deserialization of the property form of a signature, which is only
+     * persisted by the TypeInfoCache.
+     *
+     * @param pool  the ConstantPool that will contain this Constant
+     * @param in    the DataInput stream to read the Constant value from, as written by
+     *              {@link #assembleProperty}
+     *
+     * @throws IOException  if an issue occurs reading the Constant value
+     */
+    public SignatureConstant(ConstantPool pool, DataInput in)
+            throws IOException
+        {
+        this(pool, Format.Signature, in);
+
+        m_fProperty = true;
+        }
+
     @Override
     protected void resolveConstants()
         {
@@ -697,6 +715,27 @@ public class SignatureConstant
         writeTypes(out, m_aconstReturns);
         }
 
+    /**
+     * Write the property form of this signature, which is never a part of the persistent form of a
+     * module, but can be persisted by the TypeInfoCache.
+     *
+     * @param out  the DataOutput to write to
+     *
+     * @throws IOException  if an issue occurs writing the Constant value
+     */
+    public void assembleProperty(DataOutput out)
+            throws IOException
+        {
+        if (!m_fProperty)
+            {
+            throw new IllegalStateException("Signature refers to a method");
+            }
+
+        writePackedLong(out, m_constName.getPosition());
+        writeTypes(out, m_aconstParams);
+        writeTypes(out, m_aconstReturns);
+        }
+
     @Override
     public String getDescription()
         {
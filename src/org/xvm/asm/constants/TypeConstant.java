@@ -6,6 +6,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -54,6 +55,7 @@ import org.xvm.runtime.template.xOrdered;
 import org.xvm.runtime.template._native.reflect.xRTType;
 import org.xvm.runtime.template._native.reflect.xRTType.TypeHandle;
 
+import org.xvm.util.ConcurrentLongIntCache;
 import org.xvm.util.Handy;
 import org.xvm.util.ListMap;
 import org.xvm.util.Severity;
@@ -1100,6 +1102,14 @@ public abstract class TypeConstant
             return info;
             }
 
+        // the TypeInfo may have been built by a previous run and persisted
+        info = loadTypeInfo();
+        if (info != null)
+            {
+            setTypeInfo(info);
+            return info;
+            }
+
         // this is where things get very, very complicated. this method is responsible for returning
         // a "completed" TypeInfo, but there are (theoretically) lots of threads trying to do the
         // same or similar thing at the same time, and any one thread can end up in a recursive
@@ -1220,6 +1230,13 @@ public abstract class TypeConstant
 
         if (info == null || !isUpToDate(info))
             {
+            TypeInfo infoCached = loadTypeInfo();
+            if (infoCached != null)
+                {
+                setTypeInfo(infoCached);
+                return infoCached;
+                }
+
             setTypeInfo(getConstantPool().infoPlaceholder());
             info = buildTypeInfo(errs);
             if (info != null)
@@ -1235,6 +1252,17 @@ public abstract class TypeConstant
         return info;
         }
 
+    /**
+     * Obtain the TypeInfo for this type from the persistent TypeInfo cache attached to the pool.
+     *
+     * @return a complete TypeInfo, or null if the cache is absent or doesn't hold the TypeInfo
+     */
+    private TypeInfo loadTypeInfo()
+        {
+        TypeInfoCache cache = getConstantPool().getTypeInfoCache();
+        return cache == null ? null : cache.load(this);
+        }
+
     /**
      * Obtain the TypeInfo associated with this type.
      *
@@ -4415,15 +4443,33 @@ public abstract class TypeConstant
      */
     public Relation calculateRelation(TypeConstant typeLeft)
         {
-        ConstantPool pool = ConstantPool.getCurrentPool();
+        if (this == typeLeft)
+            {
+            return Relation.IS_A;
+            }
+
+        ConstantPool           pool  = ConstantPool.getCurrentPool();
+        ConcurrentLongIntCache cache = pool.getRelationCache();
+
+        // fast path: both types are registered and the relation has already been calculated
+        long lKey = relationKey(pool, this, typeLeft);
+        if (lKey >= 0)
+            {
+            int nRelation = cache.get(lKey);
+            if (nRelation != 0)
+                {
+                return RELATIONS[nRelation];
+                }
+            }
+
         if (this.equals(typeLeft) || typeLeft.equals(pool.typeObject()))
             {
             return Relation.IS_A;
             }
 
-        // since we're caching the relations on the constant itself, there is no reason to do it
-        // unless it's registered
-        TypeConstant typeRight        = (TypeConstant) pool.register(this);
+        // since we're caching the relations by the type positions, there is no reason to do it
+        // unless the types are registered
+        TypeConstant typeRight        = isRegisteredWith(pool) ? this : (TypeConstant) pool.register(this);
         TypeConstant typeLeftResolved = typeLeft.resolveTypedefs();
 
         if (typeRight != this || typeLeftResolved != typeLeft)
@@ -4436,75 +4482,28 @@ public abstract class TypeConstant
             return calculateRelation(((RecursiveTypeConstant) typeLeft).getReferredToType());
             }
 
-        // WARNING: thread-unsafe
-        Map<TypeConstant, Relation> mapRelations = ensureRelationMap();
-
-        Relation relation = mapRelations.get(typeLeft);
-        if (relation == null)
+        if (lKey < 0 && !typeLeft.isRegisteredWith(pool))
             {
-            // first check immutability modifiers
-            if (typeLeft.isImmutabilitySpecified())
+            lKey = relationKey(pool, typeRight, (TypeConstant) pool.register(typeLeft));
+            if (lKey >= 0)
                 {
-                relation = typeRight.isImmutable()
-                    ? typeRight.calculateRelation(typeLeft.removeImmutable(pool))
-                    : Relation.INCOMPATIBLE;
-
-                mapRelations.put(typeLeft, relation);
-                return relation;
-                }
-
-            if (typeRight.isImmutabilitySpecified())
-                {
-                relation = typeRight.removeImmutable(pool).calculateRelation(typeLeft);
-
-                mapRelations.put(typeLeft, relation);
-                return relation;
-                }
-
-            // then check various "reserved" scenarios
-            relation = checkReservedCompatibility(typeLeft, typeRight);
-            if (relation != null)
-                {
-                mapRelations.put(typeLeft, relation);
-                return relation;
-                }
-
-            // now -- a long journey
-            mapRelations.put(typeLeft, Relation.IN_PROGRESS);
-            try
-                {
-                relation = typeRight.calculateRelationToLeft(typeLeft);
-
-                if (relation == Relation.INCOMPATIBLE && typeLeft.isDuckTypeAble())
+                int nRelation = cache.get(lKey);
+                if (nRelation != 0)
                     {
-                    // left is an interface; check the duck-typing
-                    if (typeRight.equals(pool.typeObject()) || typeRight.isFormalTypeSequence())
-                        {
-                        // Object requires special treatment here for a number of reasons;
-                        // let's disallow it to be assigned to anything for now
-                        // TODO: allow an "empty" interface to be duck-typed to Object
-                        // the "turtle" type also is not duck-typeable to anything
-                        relation = Relation.INCOMPATIBLE;
-                        }
-                    else
-                        {
-                        TypeConstant typeLeftN  = typeLeft.normalizeParameters(pool);
-                        TypeConstant typeRightN = typeRight.normalizeParameters(pool);
-                        relation = typeLeftN.isInterfaceAssignableFrom(
-                                typeRightN, Access.PUBLIC, Collections.EMPTY_LIST).isEmpty()
-                            ? Relation.IS_A : Relation.INCOMPATIBLE;
-                        }
+                    return RELATIONS[nRelation];
                     }
-
-                mapRelations.put(typeLeft, relation);
-                }
-            catch (RuntimeException | Error e)
-                {
-                mapRelations.remove(typeLeft);
-                throw e;
                 }
             }
-        else if (relation == Relation.IN_PROGRESS)
+
+        // the relations that are being calculated on this thread; an unregistered pair is
+        // represented by a list of the two types
+        Map<Object, Relation> mapInProgress = s_tloInProgress.get();
+        Object                oKey          = lKey >= 0
+                ? Long.valueOf(lKey)
+                : Arrays.asList(typeRight, typeLeft);
+
+        Relation relation = mapInProgress.putIfAbsent(oKey, Relation.IN_PROGRESS);
+        if (relation == Relation.IN_PROGRESS)
             {
             // we are in recursion; this can only happen for duck-typing, for example:
             //
@@ -4527,11 +4526,106 @@ public abstract class TypeConstant
                 System.err.println("rejecting isA() due to a recursion:" +
                     " left=" + typeLeft.getValueString() + "; right=" + typeRight.getValueString());
                 }
-            mapRelations.put(typeLeft, relation = Relation.INCOMPATIBLE);
+
+            // the answer stays negative until the outer calculation completes
+            mapInProgress.put(oKey, Relation.INCOMPATIBLE);
+            return Relation.INCOMPATIBLE;
+            }
+
+        if (relation != null)
+            {
+            // a recursion has already been detected
+            return relation;
+            }
+
+        try
+            {
+            relation = calculateRelationImpl(pool, typeRight, typeLeft);
+            if (lKey >= 0)
+                {
+                cache.put(lKey, relation.ordinal());
+                }
+            return relation;
+            }
+        finally
+            {
+            mapInProgress.remove(oKey);
+            }
+        }
+
+    /**
+     * Calculate the type relationship between the specified types, which are known to be
+     * registered (if possible) and not to be in the process of the relation calculation.
+     */
+    private static Relation calculateRelationImpl(ConstantPool pool,
+                                                  TypeConstant typeRight, TypeConstant typeLeft)
+        {
+        // first check immutability modifiers
+        if (typeLeft.isImmutabilitySpecified())
+            {
+            return typeRight.isImmutable()
+                ? typeRight.calculateRelation(typeLeft.removeImmutable(pool))
+                : Relation.INCOMPATIBLE;
+            }
+
+        if (typeRight.isImmutabilitySpecified())
+            {
+            return typeRight.removeImmutable(pool).calculateRelation(typeLeft);
+            }
+
+        // then check various "reserved" scenarios
+        Relation relation = checkReservedCompatibility(typeLeft, typeRight);
+        if (relation != null)
+            {
+            return relation;
+            }
+
+        // now -- a long journey
+        relation = typeRight.calculateRelationToLeft(typeLeft);
+
+        if (relation == Relation.INCOMPATIBLE && typeLeft.isDuckTypeAble())
+            {
+            // left is an interface; check the duck-typing
+            if (typeRight.equals(pool.typeObject()) || typeRight.isFormalTypeSequence())
+                {
+                // Object requires special treatment here for a number of reasons;
+                // let's disallow it to be assigned to anything for now
+                // TODO: allow an "empty" interface to be duck-typed to Object
+                // the "turtle" type also is not duck-typeable to anything
+                relation = Relation.INCOMPATIBLE;
+                }
+            else
+                {
+                TypeConstant typeLeftN  = typeLeft.normalizeParameters(pool);
+                TypeConstant typeRightN = typeRight.normalizeParameters(pool);
+                relation = typeLeftN.isInterfaceAssignableFrom(
+                        typeRightN, Access.PUBLIC, Collections.EMPTY_LIST).isEmpty()
+                    ? Relation.IS_A : Relation.INCOMPATIBLE;
+                }
             }
         return relation;
         }
 
+    /**
+     * @return true iff this type is registered with the specified pool
+     */
+    private boolean isRegisteredWith(ConstantPool pool)
+        {
+        int nPos = getPosition();
+        return nPos >= 0 && getConstantPool() == pool && pool.getConstant(nPos) == this;
+        }
+
+    /**
+     * @return the relation cache key for the specified types or -1 if either type is not
+     *         registered with the specified pool
+     */
+    private static long relationKey(ConstantPool pool, TypeConstant typeRight, TypeConstant typeLeft)
+        {
+        return typeRight.isRegisteredWith(pool) && typeLeft.isRegisteredWith(pool)
+                ? ((long) typeRight.getPosition() << 32) | typeLeft.getPosition()
+                : -1L;
+        }
+
     /**
      * @return a relation between this (R-Value) and specified (L-Value) types
      */
@@ -5573,8 +5667,7 @@ public abstract class TypeConstant
         super.setPosition(iPos);
 
         // clear any cached constants
-        m_typeinfo     = null;
-        m_mapRelations = null;
+        m_typeinfo = null;
         }
 
     @Override
@@ -5649,16 +5742,6 @@ public abstract class TypeConstant
 
     // ----- helpers -------------------------------------------------------------------------------
 
-    private Map<TypeConstant, Relation> ensureRelationMap()
-        {
-        Map<TypeConstant, Relation> mapRelations = m_mapRelations;
-        if (mapRelations == null)
-            {
-            mapRelations = m_mapRelations = new HashMap<>();
-            }
-        return mapRelations;
-        }
-
     private Map<String, Usage> ensureConsumesMap()
         {
         Map<String, Usage> mapConsumes = m_mapConsumes;
@@ -5816,9 +5899,15 @@ public abstract class TypeConstant
             AtomicIntegerFieldUpdater.newUpdater(TypeConstant.class, "m_cInvalidations");
 
     /**
-     * A cache of "isA" responses.
+     * The relations that are being calculated on the current thread (see calculateRelation).
+     */
+    private static final ThreadLocal<Map<Object, Relation>> s_tloInProgress =
+            ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * The Relation values by their ordinals.
      */
-    private transient Map<TypeConstant, Relation> m_mapRelations;
+    private static final Relation[] RELATIONS = Relation.values();
 
     /**
      * A cache of "consumes" responses.
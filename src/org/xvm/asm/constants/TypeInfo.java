@@ -1,6 +1,8 @@
 package org.xvm.asm.constants;
 
 
+import java.io.IOException;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -178,6 +180,84 @@ public class TypeInfo
         assert cInvalidations <= typeFormal.getConstantPool().getInvalidationCount();
         }
 
+    /**
+     * Construct a complete TypeInfo from its persistent form.
+     *
+     * @param type            the type that the TypeInfo represents
+     * @param cInvalidations  the count of TypeInfo invalidations when this TypeInfo was loaded
+     * @param in              the persistent form to read the TypeInfo from
+     *
+     * @throws IOException  if the persistent form is invalid
+     */
+    TypeInfo(TypeConstant type, int cInvalidations, TypeInfoCache.Input in)
+            throws IOException
+        {
+        f_type                = type;
+        f_cInvalidations      = cInvalidations;
+        f_struct              = in.readComponent(ClassStructure.class);
+        f_cDepth              = in.readInt();
+        m_fExplicitAbstract   = in.readBoolean();
+        m_fImplicitAbstract   = in.readBoolean();
+        f_mapTypeParams       = in.readMap(in.readBoolean() ? new ListMap<>() : new HashMap<>(),
+                                    Object.class, ParamInfo.class, ParamInfo::new);
+        f_aannoClass          = in.readConstants(Annotation.class, Annotation[]::new);
+        f_typeExtends         = in.readConstant(TypeConstant.class);
+        f_typeRebases         = in.readConstant(TypeConstant.class);
+        f_typeInto            = in.readConstant(TypeConstant.class);
+        f_listProcess         = in.readContributions();
+        f_listmapClassChain   = in.readOrigins();
+        f_listmapDefaultChain = in.readOrigins();
+        f_mapProps            = in.readMap(new HashMap<>(), PropertyConstant.class,
+                                    PropertyInfo.class, PropertyInfo::new);
+        f_mapVirtProps        = in.readMap(new HashMap<>(), Object.class,
+                                    PropertyInfo.class, PropertyInfo::new);
+        f_mapMethods          = in.readMap(new HashMap<>(), MethodConstant.class,
+                                    MethodInfo.class, MethodInfo::new);
+        f_mapVirtMethods      = in.readMap(new HashMap<>(), Object.class,
+                                    MethodInfo.class, MethodInfo::new);
+        f_mapChildren         = in.readMap(new ListMap<>(), String.class,
+                                    ChildInfo.class, ChildInfo::new);
+        f_progress            = Progress.Complete;
+
+        f_cacheById  = new HashMap<>(f_mapMethods);
+        f_cacheByNid = new HashMap<>(f_mapVirtMethods);
+
+        for (Entry<MethodConstant, MethodInfo> entry : f_mapMethods.entrySet())
+            {
+            entry.getValue().populateCache(entry.getKey(), f_cacheById, f_cacheByNid);
+            }
+        }
+
+    /**
+     * Write out the persistent form of this TypeInfo.
+     *
+     * @param out  the persistent form to write to
+     *
+     * @throws IOException  if this TypeInfo cannot be persisted
+     */
+    void assemble(TypeInfoCache.Output out)
+            throws IOException
+        {
+        out.writeComponent(f_struct);
+        out.writeInt(f_cDepth);
+        out.writeBoolean(m_fExplicitAbstract);
+        out.writeBoolean(m_fImplicitAbstract);
+        out.writeBoolean(f_mapTypeParams instanceof ListMap);
+        out.writeMap(f_mapTypeParams, ParamInfo::assemble);
+        out.writeConstants(f_aannoClass);
+        out.writeConstant(f_typeExtends);
+        out.writeConstant(f_typeRebases);
+        out.writeConstant(f_typeInto);
+        out.writeContributions(f_listProcess);
+        out.writeOrigins(f_listmapClassChain);
+        out.writeOrigins(f_listmapDefaultChain);
+        out.writeMap(f_mapProps, PropertyInfo::assemble);
+        out.writeMap(f_mapVirtProps, PropertyInfo::assemble);
+        out.writeMap(f_mapMethods, MethodInfo::assemble);
+        out.writeMap(f_mapVirtMethods, MethodInfo::assemble);
+        out.writeMap(f_mapChildren, ChildInfo::assemble);
+        }
+
     /**
      * Create a new TypeInfo that represents a more limited (public or protected) access to the
      * members of this private type.
@@ -0,0 +1,1359 @@
+package org.xvm.asm.constants;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.util.function.IntFunction;
+
+import org.xvm.asm.Annotation;
+import org.xvm.asm.Component;
+import org.xvm.asm.Component.Composition;
+import org.xvm.asm.Component.Contribution;
+import org.xvm.asm.Constant;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.FileStructure;
+import org.xvm.asm.GenericTypeResolver;
+import org.xvm.asm.ModuleStructure;
+
+import org.xvm.asm.constants.IdentityConstant.NestedIdentity;
+import org.xvm.asm.constants.TypeConstant.Origin;
+import org.xvm.asm.constants.TypeInfo.Progress;
+
+import org.xvm.util.Handy;
+import org.xvm.util.ListMap;
+
+import static org.xvm.util.Handy.readIndex;
+import static org.xvm.util.Handy.readMagnitude;
+import static org.xvm.util.Handy.readPackedInt;
+import static org.xvm.util.Handy.readUtf8String;
+import static org.xvm.util.Handy.writePackedLong;
+import static org.xvm.util.Handy.writeUtf8String;
+
+
+/**
+ * A persistent cache of the TypeInfo objects built for the types of a module. The cache is stored
+ * in a file next to the module file (for example, "Ecstasy.xti" next to "Ecstasy.xtc") and is only
+ * used if the module file has the same name, version, length and content hash as the one that the
+ * cache was produced from; otherwise, the cache file is ignored and eventually overwritten.
+ * <p/>
+ * Since a TypeInfo also carries everything that a type inherits from the modules that its module
+ * is linked to, the cache file also records the content hashes of those modules. The cached
+ * TypeInfo objects are discarded if any of the linked modules has changed, and they are not used
+ * (or saved) at all if any of the linked modules was not loaded from a module file.
+ * <p/>
+ * A TypeInfo refers to Constants by their position in the module's ConstantPool. Since most of the
+ * types that TypeInfo objects are built for are only registered with the pool at runtime (or by
+ * the compiler), the cache also holds those Constants, which get appended to the pool when the
+ * cache is attached, so that they end up at the same positions as when the cache was saved. Any
+ * TypeInfo that refers to a Constant from a different pool, or to a Constant that could not be
+ * persisted, is simply not cached.
+ * <p/>
+ * The cache is disabled by default; it is enabled by the "xvm.typeinfo.cache" system property.
+ */
+public class TypeInfoCache
+    {
+    /**
+     * Construct a TypeInfoCache.
+     *
+     * @param struct      the FileStructure that the cache is for
+     * @param fileCache   the cache file
+     * @param cbModule    the length of the module file
+     * @param abDigest    the digest of the module file contents
+     */
+    protected TypeInfoCache(FileStructure struct, File fileCache, long cbModule, byte[] abDigest)
+        {
+        ConstantPool pool = struct.getConstantPool();
+
+        f_struct    = struct;
+        f_pool      = pool;
+        f_fileCache = fileCache;
+        f_cbModule  = cbModule;
+        f_abDigest  = abDigest;
+        f_cBase     = pool.size();
+        m_cStable   = f_cBase;
+        }
+
+    /**
+     * @return true iff the persistent TypeInfo cache is enabled
+     */
+    public static boolean isEnabled()
+        {
+        return Boolean.getBoolean(PROP_CACHE);
+        }
+
+    /**
+     * Attach a TypeInfoCache to the ConstantPool of a FileStructure that has just been read from
+     * the specified module file, loading the cache file if one exists and matches the module file.
+     * This method does nothing if the cache is not {@link #isEnabled() enabled}.
+     *
+     * @param struct      the FileStructure that has just been read from the module file
+     * @param fileModule  the module file
+     *
+     * @return the attached TypeInfoCache, or null
+     */
+    public static TypeInfoCache attach(FileStructure struct, File fileModule)
+        {
+        if (!isEnabled() || struct == null || fileModule == null)
+            {
+            return null;
+            }
+
+        ConstantPool  pool  = struct.getConstantPool();
+        TypeInfoCache cache = pool.getTypeInfoCache();
+        if (cache != null)
+            {
+            return cache;
+            }
+
+        try
+            {
+            byte[] abModule = Handy.readFileBytes(fileModule);
+            cache = new TypeInfoCache(struct, getCacheFile(fileModule), abModule.length,
+                    MessageDigest.getInstance(DIGEST).digest(abModule));
+            }
+        catch (IOException | NoSuchAlgorithmException e)
+            {
+            return null;
+            }
+
+        cache.read();
+        pool.setTypeInfoCache(cache);
+
+        synchronized (s_setCaches)
+            {
+            s_setCaches.add(cache);
+            }
+        return cache;
+        }
+
+    /**
+     * Save all the attached caches that have been modified since they were loaded. This method
+     * must only be called when no TypeInfo objects are being built.
+     */
+    public static void saveAll()
+        {
+        List<TypeInfoCache> listCaches;
+        synchronized (s_setCaches)
+            {
+            listCaches = new ArrayList<>(s_setCaches);
+            }
+
+        for (TypeInfoCache cache : listCaches)
+            {
+            cache.save();
+            }
+        }
+
+    /**
+     * @param fileModule  the module file
+     *
+     * @return the cache file for the specified module file
+     */
+    public static File getCacheFile(File fileModule)
+        {
+        String sName = fileModule.getName();
+        if (sName.endsWith(".xtc"))
+            {
+            sName = sName.substring(0, sName.length() - 4);
+            }
+        return new File(fileModule.getParentFile(), sName + ".xti");
+        }
+
+    /**
+     * Obtain the TypeInfo for the specified type from this cache.
+     * <p/>
+     * The TypeInfo objects get invalidated as the classes they are built from change; for example,
+     * the runtime marks the natively implemented methods as such. Therefore, each TypeInfo is
+     * cached together with the number of invalidations that preceded its building, and it can only
+     * be used if the pool has gone through the same invalidations (and no others that affect the
+     * TypeInfo) since it was read from the module file.
+     *
+     * @param type  a TypeConstant from the pool that this cache is attached to
+     *
+     * @return the TypeInfo, or null if the cache doesn't hold a usable TypeInfo for the type
+     */
+    TypeInfo load(TypeConstant type)
+        {
+        ConstantPool pool = f_pool;
+        int          iPos = type.getPosition();
+        if (iPos < 0 || pool.getTypeInfoCache() != this)
+            {
+            return null;
+            }
+
+        CachedInfo[] acached = f_mapEntries.get(iPos);
+        if (acached == null || pool.getConstant(iPos) != type || !checkDependencies())
+            {
+            return null;
+            }
+
+        // the cached TypeInfo objects are ordered from the most recent one
+        int cMatched = matchInvalidations();
+        for (CachedInfo cached : acached)
+            {
+            int cInvals = cached.f_cInvalidations;
+            if (cInvals <= cMatched)
+                {
+                try
+                    {
+                    TypeInfo info = disassemble(type, cInvals, cached.f_ab, m_cStable);
+                    return info.needsRebuild(pool.invalidationsSince(cInvals)) ? null : info;
+                    }
+                catch (IOException | RuntimeException e)
+                    {
+                    // the TypeInfo will be built instead
+                    return null;
+                    }
+                }
+            }
+        return null;
+        }
+
+    /**
+     * Save this cache if it has been modified since it was loaded. Each complete TypeInfo for
+     * a type from the pool that can be persisted is added to the cache. This method must only be
+     * called when no TypeInfo objects are being built.
+     */
+    public synchronized void save()
+        {
+        ConstantPool pool = f_pool;
+        if (pool.getTypeInfoCache() != this)
+            {
+            // the pool has been re-ordered since the cache was loaded
+            return;
+            }
+
+        if (!checkDependencies())
+            {
+            // the TypeInfo objects cannot be keyed by the linked modules
+            return;
+            }
+
+        int cConst = pool.countPortableConstants(f_cBase);
+        int iLimit = f_cBase + cConst;
+
+        boolean fModified = false;
+        if (iLimit < m_cStable)
+            {
+            // should not happen; the previously cached entries could refer to the constants that
+            // are not being saved anymore
+            f_mapEntries.clear();
+            fModified = true;
+            }
+
+        // collect the invalidation history of the pool; only the part of it that refers to the
+        // saved constants can be matched in a subsequent run
+        int   cInvals = pool.getInvalidationCount();
+        int[] aiInval = new int[cInvals];
+        int   cHist   = 0;
+        while (cHist < cInvals)
+            {
+            int iPos = pool.getInvalidation(cHist).getPosition();
+            if (iPos < 0 || iPos >= iLimit)
+                {
+                break;
+                }
+            aiInval[cHist++] = iPos;
+            }
+        aiInval = Arrays.copyOf(aiInval, cHist);
+
+        int cMatched = matchInvalidations();
+        if (cMatched >= cHist)
+            {
+            // the current invalidation history is a part of the history that the cached TypeInfo
+            // objects were built with (for example, the compiler doesn't invalidate anything that
+            // the runtime does); keep the longer history
+            aiInval = m_aiInvalidated;
+            }
+        else
+            {
+            // discard the previously cached TypeInfo objects that were built with an invalidation
+            // history that differs from the one being saved
+            for (Map.Entry<Integer, CachedInfo[]> entry : f_mapEntries.entrySet())
+                {
+                CachedInfo[] acached = entry.getValue();
+                int          cKeep   = 0;
+                while (cKeep < acached.length
+                        && acached[acached.length - 1 - cKeep].f_cInvalidations <= cMatched)
+                    {
+                    ++cKeep;
+                    }
+
+                if (cKeep < acached.length)
+                    {
+                    if (cKeep == 0)
+                        {
+                        f_mapEntries.remove(entry.getKey());
+                        }
+                    else
+                        {
+                        entry.setValue(Arrays.copyOfRange(acached, acached.length - cKeep, acached.length));
+                        }
+                    }
+                }
+
+            m_aiInvalidated = aiInval;
+            m_cMatched      = cHist;
+            fModified       = true;
+            }
+
+        for (int i = 0; i < iLimit; ++i)
+            {
+            Constant constant = pool.getConstant(i);
+            if (!(constant instanceof TypeConstant) || f_bitsFailed.get(i))
+                {
+                continue;
+                }
+
+            TypeConstant type = (TypeConstant) constant;
+            TypeInfo     info = type.getTypeInfo();
+            if (info == null || info.getProgress() != Progress.Complete
+                    || info.getType() != type || info.getInvalidationCount() > cHist)
+                {
+                continue;
+                }
+
+            int          cInvalsInfo = info.getInvalidationCount();
+            CachedInfo[] acached     = f_mapEntries.get(i);
+            if (acached != null && Arrays.stream(acached)
+                    .anyMatch(cached -> cached.f_cInvalidations == cInvalsInfo))
+                {
+                continue;
+                }
+
+            try
+                {
+                Output out = new Output(pool, iLimit);
+                info.assemble(out);
+
+                byte[] ab = out.toByteArray();
+
+                // make sure that the TypeInfo can be read back in
+                disassemble(type, cInvalsInfo, ab, iLimit);
+
+                CachedInfo cachedNew = new CachedInfo(cInvalsInfo, ab);
+                if (acached == null)
+                    {
+                    acached = new CachedInfo[] {cachedNew};
+                    }
+                else
+                    {
+                    acached = Arrays.copyOf(acached, acached.length + 1);
+                    acached[acached.length - 1] = cachedNew;
+                    Arrays.sort(acached, CachedInfo.MOST_RECENT_FIRST);
+                    }
+                f_mapEntries.put(i, acached);
+                fModified = true;
+                }
+            catch (IOException | RuntimeException e)
+                {
+                f_bitsFailed.set(i);
+                }
+            }
+
+        if (fModified)
+            {
+            write(iLimit);
+            }
+        }
+
+    /**
+     * Check that the modules that this cache's module is linked to are the same ones that the
+     * cached TypeInfo objects were built with; if they are not, the cached TypeInfo objects are
+     * discarded.
+     *
+     * @return true iff the linked modules are known, i.e. the cached TypeInfo objects can be used
+     *         and saved
+     */
+    private boolean checkDependencies()
+        {
+        if (m_fDepsChecked)
+            {
+            return true;
+            }
+
+        synchronized (this)
+            {
+            if (m_fDepsChecked)
+                {
+                return true;
+                }
+
+            Map<String, byte[]> mapDeps = collectDependencies();
+            if (mapDeps == null)
+                {
+                return false;
+                }
+
+            if (!equalDependencies(mapDeps, m_mapDeps))
+                {
+                f_mapEntries.clear();
+                m_mapDeps = mapDeps;
+                }
+            m_fDepsChecked = true;
+            return true;
+            }
+        }
+
+    /**
+     * Collect the content hashes of the modules that this cache's module is linked to.
+     *
+     * @return the content hashes keyed by the module names, or null if any of the modules is not
+     *         linked yet or was not loaded from a module file
+     */
+    private Map<String, byte[]> collectDependencies()
+        {
+        FileStructure       struct  = f_struct;
+        Map<String, byte[]> mapDeps = new TreeMap<>();
+        for (String sModule : struct.moduleNames())
+            {
+            ModuleStructure module = struct.getModule(sModule);
+            if (!module.isFingerprint())
+                {
+                // the module is a part of the module file itself
+                continue;
+                }
+
+            ModuleStructure moduleActual = module.getFingerprintOrigin();
+            if (moduleActual == null)
+                {
+                return null;
+                }
+
+            TypeInfoCache cacheDep = moduleActual.getFileStructure().getConstantPool()
+                    .getTypeInfoCache();
+            if (cacheDep == null)
+                {
+                return null;
+                }
+            mapDeps.put(sModule, cacheDep.f_abDigest);
+            }
+        return mapDeps;
+        }
+
+    /**
+     * @return true iff the two maps hold the same content hashes for the same modules
+     */
+    private static boolean equalDependencies(Map<String, byte[]> map1, Map<String, byte[]> map2)
+        {
+        if (map1.size() != map2.size())
+            {
+            return false;
+            }
+
+        for (Map.Entry<String, byte[]> entry : map1.entrySet())
+            {
+            if (!Arrays.equals(entry.getValue(), map2.get(entry.getKey())))
+                {
+                return false;
+                }
+            }
+        return true;
+        }
+
+    /**
+     * Determine how many of the pool's invalidations match the invalidation history that the
+     * cached TypeInfo objects were built with.
+     *
+     * @return the number of leading invalidations that match
+     */
+    private synchronized int matchInvalidations()
+        {
+        ConstantPool pool     = f_pool;
+        int[]        aiInval  = m_aiInvalidated;
+        int          cMatched = m_cMatched;
+        int          cMax     = Math.min(pool.getInvalidationCount(), aiInval.length);
+
+        // the positions in the history are below the stable limit, so the same position means
+        // the same IdentityConstant
+        while (cMatched < cMax && pool.getInvalidation(cMatched).getPosition() == aiInval[cMatched])
+            {
+            ++cMatched;
+            }
+        return m_cMatched = cMatched;
+        }
+
+    /**
+     * Read the TypeInfo from its persistent form.
+     *
+     * @param type     the type that the TypeInfo is for
+     * @param cInvals  the invalidation count that the TypeInfo was built at
+     * @param ab       the persistent form of the TypeInfo
+     * @param iLimit   the position limit of the Constants that the TypeInfo may refer to
+     *
+     * @return the TypeInfo
+     *
+     * @throws IOException  if the persistent form is invalid
+     */
+    private TypeInfo disassemble(TypeConstant type, int cInvals, byte[] ab, int iLimit)
+            throws IOException
+        {
+        // any newly created constants should be placed into the pool that the type comes from
+        ConstantPool pool        = f_pool;
+        ConstantPool poolCurrent = ConstantPool.getCurrentPool();
+        boolean      fDiffPool   = poolCurrent != pool;
+
+        if (fDiffPool)
+            {
+            ConstantPool.setCurrentPool(pool);
+            }
+        try
+            {
+            Input    in   = new Input(pool, iLimit, ab);
+            TypeInfo info = new TypeInfo(type, cInvals, in);
+            in.checkExhausted();
+            return info;
+            }
+        finally
+            {
+            if (fDiffPool)
+                {
+                ConstantPool.setCurrentPool(poolCurrent);
+                }
+            }
+        }
+
+    /**
+     * Read the cache file, if it exists and matches the module file. The Constants held by the
+     * cache file are appended to the pool.
+     */
+    private void read()
+        {
+        File file = f_fileCache;
+        if (!file.isFile())
+            {
+            return;
+            }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                Handy.readFileBytes(file))))
+            {
+            if (in.readInt() != FILE_MAGIC
+                    || readMagnitude(in) != FORMAT_VERSION
+                    || !readUtf8String(in).equals(f_struct.getModuleName())
+                    || !readUtf8String(in).equals(String.valueOf(f_struct.getVersionTree()))
+                    || readMagnitude(in) != f_cbModule
+                    || !Arrays.equals(readBytes(in), f_abDigest)
+                    || readMagnitude(in) != f_cBase)
+                {
+                // the cache file is out of date
+                return;
+                }
+
+            // the linked modules are checked once they are known (see checkDependencies)
+            Map<String, byte[]> mapDeps = new TreeMap<>();
+            for (int i = 0, c = readMagnitude(in); i < c; ++i)
+                {
+                mapDeps.put(readUtf8String(in), readBytes(in));
+                }
+
+            ConstantPool pool   = f_pool;
+            int          cConst = readMagnitude(in);
+
+            pool.appendConstants(in, cConst);
+
+            int   cStable = pool.size();
+            int[] aiInval = new int[readMagnitude(in)];
+            for (int i = 0, c = aiInval.length; i < c; ++i)
+                {
+                aiInval[i] = readPosition(in, cStable);
+                }
+
+            Map<Integer, CachedInfo[]> mapEntries = new HashMap<>();
+            for (int i = 0, c = readMagnitude(in); i < c; ++i)
+                {
+                int          iPos    = readPosition(in, cStable);
+                CachedInfo[] acached = new CachedInfo[readMagnitude(in)];
+                for (int j = 0, cInfos = acached.length; j < cInfos; ++j)
+                    {
+                    int cInvals = readMagnitude(in);
+                    if (cInvals > aiInval.length)
+                        {
+                        throw new IOException("invalid invalidation count: " + cInvals);
+                        }
+                    acached[j] = new CachedInfo(cInvals, readBytes(in));
+                    }
+                Arrays.sort(acached, CachedInfo.MOST_RECENT_FIRST);
+                mapEntries.put(iPos, acached);
+                }
+
+            m_cStable       = cStable;
+            m_aiInvalidated = aiInval;
+            m_mapDeps       = mapDeps;
+            f_mapEntries.putAll(mapEntries);
+            }
+        catch (IOException e)
+            {
+            // the cache is corrupted; it will be overwritten when it's saved
+            }
+        }
+
+    /**
+     * Write the cache file.
+     *
+     * @param iLimit  the position limit of the Constants to write
+     */
+    private void write(int iLimit)
+        {
+        File file     = f_fileCache;
+        File fileTemp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try
+            {
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(fileTemp)))
+                {
+                out.writeInt(FILE_MAGIC);
+                writePackedLong(out, FORMAT_VERSION);
+                writeUtf8String(out, f_struct.getModuleName());
+                writeUtf8String(out, String.valueOf(f_struct.getVersionTree()));
+                writePackedLong(out, f_cbModule);
+                writeBytes(out, f_abDigest);
+                writePackedLong(out, f_cBase);
+
+                Map<String, byte[]> mapDeps = m_mapDeps;
+                writePackedLong(out, mapDeps.size());
+                for (Map.Entry<String, byte[]> entry : mapDeps.entrySet())
+                    {
+                    writeUtf8String(out, entry.getKey());
+                    writeBytes(out, entry.getValue());
+                    }
+
+                writePackedLong(out, iLimit - f_cBase);
+                f_pool.assembleConstants(out, f_cBase, iLimit - f_cBase);
+
+                int[] aiInval = m_aiInvalidated;
+                writePackedLong(out, aiInval.length);
+                for (int iPos : aiInval)
+                    {
+                    writePackedLong(out, iPos);
+                    }
+
+                Map<Integer, CachedInfo[]> mapEntries = f_mapEntries;
+                writePackedLong(out, mapEntries.size());
+                for (Map.Entry<Integer, CachedInfo[]> entry : mapEntries.entrySet())
+                    {
+                    CachedInfo[] acached = entry.getValue();
+                    writePackedLong(out, entry.getKey());
+                    writePackedLong(out, acached.length);
+                    for (CachedInfo cached : acached)
+                        {
+                        writePackedLong(out, cached.f_cInvalidations);
+                        writeBytes(out, cached.f_ab);
+                        }
+                    }
+                }
+
+            Files.move(fileTemp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            m_cStable = iLimit;
+            }
+        catch (IOException e)
+            {
+            // the cache is an optimization; failing to save it is not an error
+            fileTemp.delete();
+            }
+        }
+
+    private static int readPosition(DataInputStream in, int iLimit)
+            throws IOException
+        {
+        int iPos = readMagnitude(in);
+        if (iPos >= iLimit)
+            {
+            throw new IOException("invalid position: " + iPos);
+            }
+        return iPos;
+        }
+
+    private static byte[] readBytes(DataInputStream in)
+            throws IOException
+        {
+        byte[] ab = new byte[readMagnitude(in)];
+        in.readFully(ab);
+        return ab;
+        }
+
+    private static void writeBytes(DataOutputStream out, byte[] ab)
+            throws IOException
+        {
+        writePackedLong(out, ab.length);
+        out.write(ab);
+        }
+
+
+    // ----- inner class: CachedInfo ---------------------------------------------------------------
+
+    /**
+     * The persistent form of a TypeInfo, together with the invalidation count it was built at.
+     */
+    private static class CachedInfo
+        {
+        CachedInfo(int cInvalidations, byte[] ab)
+            {
+            f_cInvalidations = cInvalidations;
+            f_ab             = ab;
+            }
+
+        static final Comparator<CachedInfo> MOST_RECENT_FIRST =
+                (cached1, cached2) -> cached2.f_cInvalidations - cached1.f_cInvalidations;
+
+        final int    f_cInvalidations;
+        final byte[] f_ab;
+        }
+
+    // ----- inner interfaces: Assembler and Disassembler ------------------------------------------
+
+    /**
+     * Writes out the persistent form of an object.
+     */
+    @FunctionalInterface
+    interface Assembler<T>
+        {
+        void assemble(T o, Output out)
+                throws IOException;
+        }
+
+    /**
+     * Reads in an object from its persistent form.
+     */
+    @FunctionalInterface
+    interface Disassembler<T>
+        {
+        T disassemble(Input in)
+                throws IOException;
+        }
+
+
+    // ----- inner class: Output -------------------------------------------------------------------
+
+    /**
+     * The persistent form of a TypeInfo being written.
+     */
+    public static class Output
+        {
+        /**
+         * Construct an Output.
+         *
+         * @param pool    the ConstantPool that all the Constants must come from
+         * @param iLimit  the position limit for the Constants
+         */
+        Output(ConstantPool pool, int iLimit)
+            {
+            f_pool   = pool;
+            f_iLimit = iLimit;
+            }
+
+        /**
+         * @return the bytes written so far
+         */
+        byte[] toByteArray()
+            {
+            return f_outBytes.toByteArray();
+            }
+
+        void writeInt(int n)
+                throws IOException
+            {
+            writePackedLong(f_out, n);
+            }
+
+        void writeBoolean(boolean f)
+                throws IOException
+            {
+            f_out.writeBoolean(f);
+            }
+
+        void writeString(String s)
+                throws IOException
+            {
+            writeBoolean(s != null);
+            if (s != null)
+                {
+                writeUtf8String(f_out, s);
+                }
+            }
+
+        /**
+         * Write a Constant, which must be a Constant of the pool positioned below the limit.
+         *
+         * @param constant  the Constant (or null)
+         */
+        void writeConstant(Constant constant)
+                throws IOException
+            {
+            if (constant == null)
+                {
+                writeInt(-1);
+                return;
+                }
+
+            int iPos = constant.getPosition();
+            if (constant.getContaining() != f_pool || iPos < 0 || iPos >= f_iLimit
+                    || f_pool.getConstant(iPos) != constant)
+                {
+                throw new IOException("not cacheable: " + constant);
+                }
+            writeInt(iPos);
+            }
+
+        void writeConstants(Constant[] aconst)
+                throws IOException
+            {
+            writeInt(aconst == null ? -1 : aconst.length);
+            if (aconst != null)
+                {
+                for (Constant constant : aconst)
+                    {
+                    writeConstant(constant);
+                    }
+                }
+            }
+
+        /**
+         * Write a Component by its identity.
+         *
+         * @param component  the Component (or null)
+         */
+        void writeComponent(Component component)
+                throws IOException
+            {
+            IdentityConstant id = component == null ? null : component.getIdentityConstant();
+            if (id != null && id.getComponent() != component)
+                {
+                throw new IOException("not cacheable: " + component);
+                }
+            writeConstant(id);
+            }
+
+        /**
+         * Write a nested identity, or any other key of the TypeInfo maps: a String, a Constant or
+         * a NestedIdentity.
+         *
+         * @param nid  the nested identity (or null)
+         */
+        void writeNid(Object nid)
+                throws IOException
+            {
+            if (nid == null)
+                {
+                writeInt(NID_NULL);
+                }
+            else if (nid instanceof String)
+                {
+                writeInt(NID_STRING);
+                writeUtf8String(f_out, (String) nid);
+                }
+            else if (nid instanceof Constant)
+                {
+                writeInt(NID_CONSTANT);
+                writeConstant((Constant) nid);
+                }
+            else if (nid instanceof NestedIdentity)
+                {
+                NestedIdentity      nidNested = (NestedIdentity) nid;
+                GenericTypeResolver resolver  = nidNested.getResolver();
+                if (resolver != null && !(resolver instanceof TypeConstant))
+                    {
+                    throw new IOException("not cacheable: " + nid);
+                    }
+
+                writeInt(NID_NESTED);
+                writeConstant(nidNested.getIdentityConstant());
+                writeConstant((TypeConstant) resolver);
+                }
+            else
+                {
+                throw new IOException("not cacheable: " + nid);
+                }
+            }
+
+        /**
+         * Write an object that could be referred to more than once; only the first reference
+         * writes the object itself.
+         *
+         * @param o          the object (or null)
+         * @param assembler  the Assembler for the object
+         */
+        <T> void writeReference(T o, Assembler<T> assembler)
+                throws IOException
+            {
+            if (o == null)
+                {
+                writeInt(REF_NULL);
+                return;
+                }
+
+            Integer index = f_mapRefs.get(o);
+            if (index != null)
+                {
+                writeInt(REF_FIRST + index);
+                return;
+                }
+
+            f_mapRefs.put(o, f_mapRefs.size());
+            writeInt(REF_NEW);
+            assembler.assemble(o, this);
+            }
+
+        <T> void writeReferences(T[] ao, Assembler<T> assembler)
+                throws IOException
+            {
+            writeInt(ao.length);
+            for (T o : ao)
+                {
+                writeReference(o, assembler);
+                }
+            }
+
+        /**
+         * Write a map keyed by nested identities (or anything else supported by
+         * {@link #writeNid}).
+         *
+         * @param map        the map (or null)
+         * @param assembler  the Assembler for the values
+         */
+        <K, V> void writeMap(Map<K, V> map, Assembler<V> assembler)
+                throws IOException
+            {
+            writeInt(map == null ? -1 : map.size());
+            if (map != null)
+                {
+                for (Entry<K, V> entry : map.entrySet())
+                    {
+                    writeNid(entry.getKey());
+                    writeReference(entry.getValue(), assembler);
+                    }
+                }
+            }
+
+        void writeOrigins(ListMap<IdentityConstant, Origin> listmap)
+                throws IOException
+            {
+            writeInt(listmap.size());
+            for (Entry<IdentityConstant, Origin> entry : listmap.entrySet())
+                {
+                Origin origin = entry.getValue();
+                writeConstant(entry.getKey());
+                writeConstant(origin.getType());
+                writeBoolean(origin.isAnchored());
+                }
+            }
+
+        void writeContributions(List<Contribution> list)
+                throws IOException
+            {
+            writeInt(list == null ? -1 : list.size());
+            if (list != null)
+                {
+                for (Contribution contrib : list)
+                    {
+                    if (contrib.getModuleConstant() != null || contrib.getTypeParams() != null)
+                        {
+                        throw new IOException("not cacheable: " + contrib);
+                        }
+
+                    writeInt(contrib.getComposition().ordinal());
+                    writeConstant(contrib.getTypeConstant());
+                    writeConstant(contrib.getDelegatePropertyConstant());
+                    writeConstant(contrib.getAnnotation());
+                    }
+                }
+            }
+
+        private final ConstantPool                     f_pool;
+        private final int                              f_iLimit;
+        private final ByteArrayOutputStream            f_outBytes = new ByteArrayOutputStream();
+        private final DataOutputStream                 f_out      = new DataOutputStream(f_outBytes);
+        private final IdentityHashMap<Object, Integer> f_mapRefs  = new IdentityHashMap<>();
+        }
+
+
+    // ----- inner class: Input --------------------------------------------------------------------
+
+    /**
+     * The persistent form of a TypeInfo being read.
+     */
+    public static class Input
+        {
+        /**
+         * Construct an Input.
+         *
+         * @param pool    the ConstantPool that all the Constants come from
+         * @param iLimit  the position limit for the Constants
+         * @param ab      the persistent form
+         */
+        Input(ConstantPool pool, int iLimit, byte[] ab)
+            {
+            f_pool    = pool;
+            f_iLimit  = iLimit;
+            f_inBytes = new ByteArrayInputStream(ab);
+            f_in      = new DataInputStream(f_inBytes);
+            }
+
+        /**
+         * Verify that the entire persistent form has been read.
+         */
+        void checkExhausted()
+                throws IOException
+            {
+            if (f_inBytes.available() != 0)
+                {
+                throw new IOException("unexpected trailing bytes");
+                }
+            }
+
+        ConstantPool getPool()
+            {
+            return f_pool;
+            }
+
+        int readInt()
+                throws IOException
+            {
+            return readPackedInt(f_in);
+            }
+
+        boolean readBoolean()
+                throws IOException
+            {
+            return f_in.readBoolean();
+            }
+
+        String readString()
+                throws IOException
+            {
+            return readBoolean() ? readUtf8String(f_in) : null;
+            }
+
+        <T extends Constant> T readConstant(Class<T> clz)
+                throws IOException
+            {
+            int iPos = readIndex(f_in);
+            if (iPos >= f_iLimit)
+                {
+                throw new IOException("invalid position: " + iPos);
+                }
+            return clz.cast(f_pool.getConstant(iPos));
+            }
+
+        <T extends Constant> T[] readConstants(Class<T> clz, IntFunction<T[]> factory)
+                throws IOException
+            {
+            int c = readInt();
+            if (c < 0)
+                {
+                return null;
+                }
+
+            T[] aconst = factory.apply(c);
+            for (int i = 0; i < c; ++i)
+                {
+                aconst[i] = readConstant(clz);
+                }
+            return aconst;
+            }
+
+        /**
+         * Read a Component by its identity.
+         *
+         * @return the Component (or null)
+         *
+         * @throws IOException  if the Component doesn't exist
+         */
+        <T extends Component> T readComponent(Class<T> clz)
+                throws IOException
+            {
+            IdentityConstant id = readConstant(IdentityConstant.class);
+            if (id == null)
+                {
+                return null;
+                }
+
+            Component component = id.getComponent();
+            if (component == null)
+                {
+                throw new IOException("missing component: " + id);
+                }
+            return clz.cast(component);
+            }
+
+        Object readNid()
+                throws IOException
+            {
+            switch (readInt())
+                {
+                case NID_NULL:
+                    return null;
+
+                case NID_STRING:
+                    return readUtf8String(f_in);
+
+                case NID_CONSTANT:
+                    return readConstant(Constant.class);
+
+                case NID_NESTED:
+                    {
+                    IdentityConstant id       = readConstant(IdentityConstant.class);
+                    TypeConstant     resolver = readConstant(TypeConstant.class);
+                    return id.new NestedIdentity(resolver);
+                    }
+
+                default:
+                    throw new IOException("invalid nid");
+                }
+            }
+
+        <T> T readReference(Class<T> clz, Disassembler<T> disassembler)
+                throws IOException
+            {
+            int n = readInt();
+            switch (n)
+                {
+                case REF_NULL:
+                    return null;
+
+                case REF_NEW:
+                    {
+                    // reserve the index before reading the object, since that could in turn read
+                    // other references
+                    List<Object> listRefs = f_listRefs;
+                    int          index    = listRefs.size();
+                    listRefs.add(null);
+
+                    T o = disassembler.disassemble(this);
+                    listRefs.set(index, o);
+                    return o;
+                    }
+
+                default:
+                    {
+                    int index = n - REF_FIRST;
+                    if (index < 0 || index >= f_listRefs.size() || f_listRefs.get(index) == null)
+                        {
+                        throw new IOException("invalid reference: " + n);
+                        }
+                    return clz.cast(f_listRefs.get(index));
+                    }
+                }
+            }
+
+        <T> T[] readReferences(Class<T> clz, IntFunction<T[]> factory,
+                               Disassembler<T> disassembler)
+                throws IOException
+            {
+            int c  = readMagnitude(f_in);
+            T[] ao = factory.apply(c);
+            for (int i = 0; i < c; ++i)
+                {
+                ao[i] = readReference(clz, disassembler);
+                }
+            return ao;
+            }
+
+        /**
+         * Read a map written by {@link Output#writeMap}.
+         *
+         * @param map           the map to read the entries into
+         * @param clzKey        the class of the keys
+         * @param clzValue      the class of the values
+         * @param disassembler  the Disassembler for the values
+         *
+         * @return the map, or null if a null map was written
+         */
+        <K, V, M extends Map<K, V>> M readMap(M map, Class<K> clzKey, Class<V> clzValue,
+                                              Disassembler<V> disassembler)
+                throws IOException
+            {
+            int c = readInt();
+            if (c < 0)
+                {
+                return null;
+                }
+
+            for (int i = 0; i < c; ++i)
+                {
+                K key = clzKey.cast(readNid());
+                map.put(key, readReference(clzValue, disassembler));
+                }
+            return map;
+            }
+
+        ListMap<IdentityConstant, Origin> readOrigins()
+                throws IOException
+            {
+            ListMap<IdentityConstant, Origin> listmap = new ListMap<>();
+            for (int i = 0, c = readMagnitude(f_in); i < c; ++i)
+                {
+                IdentityConstant id   = readConstant(IdentityConstant.class);
+                TypeConstant     type = readConstant(TypeConstant.class);
+                listmap.put(id, type.new Origin(readBoolean()));
+                }
+            return listmap;
+            }
+
+        List<Contribution> readContributions()
+                throws IOException
+            {
+            int c = readInt();
+            if (c < 0)
+                {
+                return null;
+                }
+
+            List<Contribution> list = new ArrayList<>(c);
+            for (int i = 0; i < c; ++i)
+                {
+                Composition      composition = Composition.valueOf(readInt());
+                TypeConstant     type        = readConstant(TypeConstant.class);
+                PropertyConstant idDelegate  = readConstant(PropertyConstant.class);
+                Annotation       anno        = readConstant(Annotation.class);
+
+                list.add(composition == Composition.Delegates
+                        ? new Contribution(type, idDelegate)
+                        : anno == null
+                                ? new Contribution(composition, type)
+                                : new Contribution(anno, type));
+                }
+            return list;
+            }
+
+        private final ConstantPool         f_pool;
+        private final int                  f_iLimit;
+        private final ByteArrayInputStream f_inBytes;
+        private final DataInputStream      f_in;
+        private final List<Object>         f_listRefs = new ArrayList<>();
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The name of the system property that enables the cache.
+     */
+    public static final String PROP_CACHE = "xvm.typeinfo.cache";
+
+    /**
+     * The magic number identifying a cache file.
+     */
+    private static final int FILE_MAGIC = 0xEC57_71F0;
+
+    /**
+     * The version of the cache file format; incremented with any change to the persistent form of
+     * the cached information, including the persistent form of any Constant.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * The algorithm used to compute the digest of the module file contents.
+     */
+    private static final String DIGEST = "SHA-256";
+
+    private static final int NID_NULL     = 0;
+    private static final int NID_STRING   = 1;
+    private static final int NID_CONSTANT = 2;
+    private static final int NID_NESTED   = 3;
+
+    private static final int REF_NULL  = 0;
+    private static final int REF_NEW   = 1;
+    private static final int REF_FIRST = 2;
+
+    /**
+     * All the attached caches.
+     */
+    private static final Set<TypeInfoCache> s_setCaches =
+            Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * The FileStructure that this cache is for.
+     */
+    private final FileStructure f_struct;
+
+    /**
+     * The ConstantPool of the FileStructure.
+     */
+    private final ConstantPool f_pool;
+
+    /**
+     * The cache file.
+     */
+    private final File f_fileCache;
+
+    /**
+     * The length of the module file.
+     */
+    private final long f_cbModule;
+
+    /**
+     * The digest of the module file contents.
+     */
+    private final byte[] f_abDigest;
+
+    /**
+     * The number of Constants in the pool as it was read from the module file.
+     */
+    private final int f_cBase;
+
+    /**
+     * The number of Constants in the pool that are known to be at the same positions as in the
+     * cache file.
+     */
+    private volatile int m_cStable;
+
+    /**
+     * The invalidation history (the positions of the invalidated class identities) that the
+     * cached TypeInfo objects were built with.
+     */
+    private volatile int[] m_aiInvalidated = new int[0];
+
+    /**
+     * The number of the pool's leading invalidations known to match the invalidation history.
+     */
+    private int m_cMatched;
+
+    /**
+     * The content hashes of the linked modules that the cached TypeInfo objects were built with,
+     * keyed by the module names.
+     */
+    private Map<String, byte[]> m_mapDeps = Collections.emptyMap();
+
+    /**
+     * True once the linked modules have been checked against {@link #m_mapDeps}.
+     */
+    private volatile boolean m_fDepsChecked;
+
+    /**
+     * The persistent forms of the cached TypeInfo objects, keyed by the position of their types.
+     */
+    private final Map<Integer, CachedInfo[]> f_mapEntries = new ConcurrentHashMap<>();
+
+    /**
+     * The positions of the types whose TypeInfo objects could not be persisted.
+     */
+    private final BitSet f_bitsFailed = new BitSet();
+    }
@@ -294,7 +294,10 @@ public class TypeParameterConstant
         fReEntry = true;
         try
             {
-            return getName().hashCode() + m_iReg;
+            // the names are shared by many methods (e.g. "CompileType"), so the hash also includes
+            // the MultiMethodConstant, which is not affected by the method binding
+            return getName().hashCode() + m_iReg
+                    + getMethod().getParentConstant().hashCode() * 31;
             }
         finally
             {
@@ -80,7 +80,7 @@ public class Call_00
                     invokeNativeN(frame, function, null, Utils.OBJECTS_NONE, A_IGNORE);
                 }
 
-            ObjectHandle[] ahVar = new ObjectHandle[function.getMaxVars()];
+            ObjectHandle[] ahVar = frame.allocateRegisters(function.getMaxVars());
             return frame.call1(function, null, ahVar, A_IGNORE);
             }
 
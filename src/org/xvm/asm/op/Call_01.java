@@ -120,7 +120,7 @@ public class Call_01
                     invokeNativeN(frame, function, null, Utils.OBJECTS_NONE, m_nRetValue);
                 }
 
-            ObjectHandle[] ahVar = new ObjectHandle[function.getMaxVars()];
+            ObjectHandle[] ahVar = frame.allocateRegisters(function.getMaxVars());
             return frame.call1(function, null, ahVar, m_nRetValue);
             }
 
@@ -110,7 +110,7 @@ public class Call_0N
                     invokeNativeNN(frame, function, null, Utils.OBJECTS_NONE, m_anRetValue);
                 }
 
-            ObjectHandle[] ahVar = new ObjectHandle[function.getMaxVars()];
+            ObjectHandle[] ahVar = frame.allocateRegisters(function.getMaxVars());
             return frame.callN(function, null, ahVar, m_anRetValue);
             }
 
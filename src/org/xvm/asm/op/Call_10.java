@@ -157,7 +157,7 @@ public class Call_10
                 invokeNative1(frame, function, null, hArg, A_IGNORE);
             }
 
-        ObjectHandle[] ahVar = new ObjectHandle[function.getMaxVars()];
+        ObjectHandle[] ahVar = frame.allocateRegisters(function.getMaxVars());
         ahVar[0] = hArg;
         return frame.call1(function, null, ahVar, A_IGNORE);
         }
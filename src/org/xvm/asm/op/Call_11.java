@@ -168,7 +168,7 @@ public class Call_11
                 invokeNative1(frame, function, null, hArg, m_nRetValue);
             }
 
-        ObjectHandle[] ahVar = new ObjectHandle[function.getMaxVars()];
+        ObjectHandle[] ahVar = frame.allocateRegisters(function.getMaxVars());
         ahVar[0] = hArg;
         return frame.call1(function, null, ahVar, m_nRetValue);
         }
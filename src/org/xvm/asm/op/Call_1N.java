@@ -174,7 +174,7 @@ public class Call_1N
                 invokeNativeNN(frame, function, null, new ObjectHandle[] {hArg}, m_anRetValue);
             }
 
-        ObjectHandle[] ahVar = new ObjectHandle[function.getMaxVars()];
+        ObjectHandle[] ahVar = frame.allocateRegisters(function.getMaxVars());
         ahVar[0] = hArg;
         return frame.callN(function, null, ahVar, m_anRetValue);
         }
@@ -11,6 +11,8 @@ import org.xvm.asm.OpGeneral;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 
 /**
  * GP_ADD rvalue1, rvalue2, lvalue ; T + T -> T
@@ -52,4 +54,15 @@ public class GP_Add
         {
         return hTarget.getOpSupport().invokeAdd(frame, hTarget, hArg, m_nRetValue);
         }
+
+    @Override
+    protected int completeInt64(Frame frame, long l1, long l2)
+        {
+        long lr = l1 + l2;
+        if (((l1 ^ lr) & (l2 ^ lr)) < 0)
+            {
+            return xInt64.INSTANCE.overflow(frame);
+            }
+        return frame.assignInt64(m_nRetValue, lr);
+        }
     }
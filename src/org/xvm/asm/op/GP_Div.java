@@ -11,6 +11,8 @@ import org.xvm.asm.OpGeneral;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 
 /**
  * GP_DIV rvalue1, rvalue2, lvalue ; T / T -> T
@@ -52,4 +54,14 @@ public class GP_Div
         {
         return hTarget.getOpSupport().invokeDiv(frame, hTarget, hArg, m_nRetValue);
         }
+
+    @Override
+    protected int completeInt64(Frame frame, long l1, long l2)
+        {
+        if (l2 == 0)
+            {
+            return xInt64.INSTANCE.overflow(frame);
+            }
+        return frame.assignInt64(m_nRetValue, l1 / l2);
+        }
     }
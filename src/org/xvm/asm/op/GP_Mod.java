@@ -11,6 +11,8 @@ import org.xvm.asm.OpGeneral;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 
 /**
  * GP_MOD rvalue1, rvalue2, lvalue ; T % T -> T
@@ -52,4 +54,20 @@ public class GP_Mod
         {
         return hTarget.getOpSupport().invokeMod(frame, hTarget, hArg, m_nRetValue);
         }
+
+    @Override
+    protected int completeInt64(Frame frame, long l1, long l2)
+        {
+        if (l2 == 0)
+            {
+            return xInt64.INSTANCE.overflow(frame);
+            }
+
+        long lMod = l1 % l2;
+        if (lMod < 0)
+            {
+            lMod += (l2 < 0 ? -l2 : l2);
+            }
+        return frame.assignInt64(m_nRetValue, lMod);
+        }
     }
@@ -14,6 +14,8 @@ import org.xvm.runtime.ObjectHandle;
 
 import org.xvm.runtime.template.xRef.RefHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 
 /**
  * IP_DEC lvalue-target ; in-place decrement; no result
@@ -61,6 +63,16 @@ public class IP_Dec
         return hTarget.getOpSupport().invokePrev(frame, hTarget, m_nTarget);
         }
 
+    @Override
+    protected int completeWithInt64(Frame frame, long lTarget)
+        {
+        if (lTarget == Long.MIN_VALUE)
+            {
+            return xInt64.INSTANCE.overflow(frame);
+            }
+        return frame.assignInt64(m_nTarget, lTarget - 1);
+        }
+
     @Override
     protected int completeWithVar(Frame frame, RefHandle hTarget)
         {
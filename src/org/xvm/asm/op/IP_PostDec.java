@@ -14,6 +14,8 @@ import org.xvm.runtime.ObjectHandle;
 
 import org.xvm.runtime.template.xRef.RefHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 
 /**
  * IP_DECA lvalue-target, lvalue ; T-- -> T
@@ -72,6 +74,17 @@ public class IP_PostDec
             }
         }
 
+    @Override
+    protected int completeWithInt64(Frame frame, long lTarget)
+        {
+        if (lTarget == Long.MIN_VALUE)
+            {
+            return xInt64.INSTANCE.overflow(frame);
+            }
+        frame.assignInt64(m_nTarget, lTarget - 1);
+        return frame.assignInt64(m_nRetValue, lTarget);
+        }
+
     @Override
     protected int completeWithVar(Frame frame, RefHandle hTarget)
         {
@@ -14,6 +14,8 @@ import org.xvm.runtime.ObjectHandle;
 
 import org.xvm.runtime.template.xRef.RefHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 
 /**
  * IP_INCA lvalue-target, lvalue ; T++ -> T
@@ -85,6 +87,17 @@ public class IP_PostInc
             }
         }
 
+    @Override
+    protected int completeWithInt64(Frame frame, long lTarget)
+        {
+        if (lTarget == Long.MAX_VALUE)
+            {
+            return xInt64.INSTANCE.overflow(frame);
+            }
+        frame.assignInt64(m_nTarget, lTarget + 1);
+        return frame.assignInt64(m_nRetValue, lTarget);
+        }
+
     @Override
     protected int completeWithVar(Frame frame, RefHandle hTarget)
         {
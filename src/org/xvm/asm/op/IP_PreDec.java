@@ -14,6 +14,8 @@ import org.xvm.runtime.ObjectHandle;
 
 import org.xvm.runtime.template.xRef.RefHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 
 /**
  * IP_DECB lvalue-target, lvalue  ; --T -> T
@@ -79,6 +81,17 @@ public class IP_PreDec
             }
         }
 
+    @Override
+    protected int completeWithInt64(Frame frame, long lTarget)
+        {
+        if (lTarget == Long.MIN_VALUE)
+            {
+            return xInt64.INSTANCE.overflow(frame);
+            }
+        frame.assignInt64(m_nTarget, --lTarget);
+        return frame.assignInt64(m_nRetValue, lTarget);
+        }
+
     @Override
     protected int completeWithVar(Frame frame, RefHandle hTarget)
         {
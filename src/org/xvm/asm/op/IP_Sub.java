@@ -14,6 +14,8 @@ import org.xvm.runtime.ObjectHandle;
 
 import org.xvm.runtime.template.xRef.RefHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 
 /**
  * IP_SUB rvalue-target, rvalue2 ; T -= T
@@ -67,4 +69,15 @@ public class IP_Sub
         {
         return hTarget.getTemplate().invokePropertySub(frame, hTarget, idProp, hValue);
         }
-    }
\ No newline at end of file
+
+    @Override
+    protected int completeWithInt64(Frame frame, long lTarget, long lValue)
+        {
+        long lr = lTarget - lValue;
+        if (((lTarget ^ lValue) & (lTarget ^ lr)) < 0)
+            {
+            return xInt64.INSTANCE.overflow(frame);
+            }
+        return frame.assignInt64(m_nTarget, lr);
+        }
+    }
@@ -17,6 +17,8 @@ import org.xvm.runtime.ObjectHandle.JavaLong;
 
 import org.xvm.runtime.template.IndexSupport;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 
 /**
  * I_GET rvalue-target, rvalue-ix, lvalue ; T = T[ix]
@@ -60,13 +62,7 @@ public class I_Get
         ClassTemplate template = hTarget.getTemplate();
         if (template instanceof IndexSupport)
             {
-            long lIndex = ((JavaLong) hIndex).getValue();
-
-            if (frame.isNextRegister(m_nRetValue))
-                {
-                frame.introduceElementVar(m_nTarget, (int) lIndex);
-                }
-            return ((IndexSupport) template).extractArrayValue(frame, hTarget, lIndex, m_nRetValue);
+            return extractValue(frame, (IndexSupport) template, hTarget, ((JavaLong) hIndex).getValue());
             }
 
         CallChain chain = getOpChain(hTarget.getType());
@@ -89,4 +85,22 @@ public class I_Get
 
         return chain.invoke(frame, hTarget, hIndex, m_nRetValue);
         }
+
+    @Override
+    protected int complete(Frame frame, ObjectHandle hTarget, long lIndex)
+        {
+        ClassTemplate template = hTarget.getTemplate();
+        return template instanceof IndexSupport
+                ? extractValue(frame, (IndexSupport) template, hTarget, lIndex)
+                : complete(frame, hTarget, xInt64.makeHandle(lIndex));
+        }
+
+    private int extractValue(Frame frame, IndexSupport template, ObjectHandle hTarget, long lIndex)
+        {
+        if (frame.isNextRegister(m_nRetValue))
+            {
+            frame.introduceElementVar(m_nTarget, (int) lIndex);
+            }
+        return template.extractArrayValue(frame, hTarget, lIndex, m_nRetValue);
+        }
     }
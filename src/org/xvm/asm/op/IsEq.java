@@ -13,6 +13,8 @@ import org.xvm.asm.constants.TypeConstant;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 
+import org.xvm.runtime.template.xBoolean;
+
 
 /**
  * IS_EQ rvalue, rvalue, lvalue-return ; T == T -> Boolean
@@ -77,4 +79,10 @@ public class IsEq
         {
         return type.callEquals(frame, hValue1, hValue2, m_nRetValue);
         }
+
+    @Override
+    protected int completeInt64(Frame frame, long l1, long l2)
+        {
+        return frame.assignValue(m_nRetValue, xBoolean.makeHandle(l1 == l2));
+        }
     }
@@ -82,4 +82,10 @@ public class IsLt
                 throw new IllegalStateException();
             }
         }
+
+    @Override
+    protected int completeInt64(Frame frame, long l1, long l2)
+        {
+        return frame.assignValue(m_nRetValue, xBoolean.makeHandle(l1 < l2));
+        }
     }
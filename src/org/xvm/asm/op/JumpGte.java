@@ -97,4 +97,10 @@ public class JumpGte
                 throw new IllegalStateException();
             }
         }
+
+    @Override
+    protected int completeInt64(Frame frame, int iPC, long l1, long l2)
+        {
+        return l1 >= l2 ? jump(frame, iPC + m_ofJmp, m_cExits) : iPC + 1;
+        }
     }
@@ -84,7 +84,8 @@ public class L_Get
             frame.introducePropertyVar(m_nRetValue, A_TARGET, constProperty);
             }
 
-        return hTarget.getTemplate().getPropertyValue(frame, hTarget, constProperty, m_nRetValue);
+        return hTarget.getTemplate().getPropertyValue(frame, hTarget, constProperty,
+                getPropertyGetterChain(hTarget, constProperty), m_nRetValue);
         }
 
     @Override
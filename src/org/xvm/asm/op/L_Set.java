@@ -92,12 +92,14 @@ public class L_Set
                 {
                 ObjectHandle[] ahValue = new ObjectHandle[] {hValue};
                 Frame.Continuation stepNext = frameCaller -> hTarget.getTemplate().
-                    setPropertyValue(frameCaller, hTarget, idProp, ahValue[0]);
+                    setPropertyValue(frameCaller, hTarget, idProp,
+                        getPropertySetterChain(hTarget, idProp), ahValue[0]);
 
                 return new Utils.GetArguments(ahValue, stepNext).doNext(frame);
                 }
 
-            return hTarget.getTemplate().setPropertyValue(frame, hTarget, idProp, hValue);
+            return hTarget.getTemplate().setPropertyValue(frame, hTarget, idProp,
+                    getPropertySetterChain(hTarget, idProp), hValue);
             }
         catch (ExceptionHandle.WrapperException e)
             {
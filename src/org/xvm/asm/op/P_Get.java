@@ -111,13 +111,13 @@ public class P_Get
                 {
                 ObjectHandle[] ahTarget = new ObjectHandle[] {hTarget};
                 Frame.Continuation stepNext = frameCaller ->
-                    ahTarget[0].getTemplate().getPropertyValue(
-                        frame, ahTarget[0], constProperty, m_nRetValue);
+                    ahTarget[0].getTemplate().getPropertyValue(frame, ahTarget[0], constProperty,
+                        getPropertyGetterChain(ahTarget[0], constProperty), m_nRetValue);
 
                 return new Utils.GetArguments(ahTarget, stepNext).doNext(frame);
                 }
-            return hTarget.getTemplate().getPropertyValue(
-                    frame, hTarget, constProperty, m_nRetValue);
+            return hTarget.getTemplate().getPropertyValue(frame, hTarget, constProperty,
+                    getPropertyGetterChain(hTarget, constProperty), m_nRetValue);
             }
         catch (ExceptionHandle.WrapperException e)
             {
@@ -95,14 +95,14 @@ public class P_Set
             if (anyDeferred(ahArg))
                 {
                 Frame.Continuation stepNext = frameCaller ->
-                    ahArg[0].getTemplate().setPropertyValue(
-                        frame, ahArg[0], idProp, ahArg[1]);
+                    ahArg[0].getTemplate().setPropertyValue(frame, ahArg[0], idProp,
+                        getPropertySetterChain(ahArg[0], idProp), ahArg[1]);
 
                 return new Utils.GetArguments(ahArg, stepNext).doNext(frame);
                 }
 
-            return ahArg[0].getTemplate().setPropertyValue(
-                frame, ahArg[0], idProp, ahArg[1]);
+            return ahArg[0].getTemplate().setPropertyValue(frame, ahArg[0], idProp,
+                getPropertySetterChain(ahArg[0], idProp), ahArg[1]);
             }
         catch (ExceptionHandle.WrapperException e)
             {
@@ -11,9 +11,15 @@ import java.nio.file.Paths;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
 import org.xvm.asm.DirRepository;
 import org.xvm.asm.ErrorList;
 import org.xvm.asm.FileRepository;
@@ -22,6 +28,8 @@ import org.xvm.asm.LinkedRepository;
 import org.xvm.asm.ModuleRepository;
 import org.xvm.asm.ModuleStructure;
 
+import org.xvm.asm.constants.TypeInfoCache;
+
 import org.xvm.compiler.ast.StatementBlock;
 import org.xvm.compiler.ast.Statement;
 import org.xvm.compiler.ast.TypeCompositionStatement;
@@ -84,6 +92,7 @@ import static org.xvm.util.Handy.indentLines;
  * <li>{@code -strict} - convert warnings to errors</li>
  * <li>{@code -nowarn} - suppress warnings</li>
  * <li>{@code -verbose} - provide information about the work being done by the compilation process</li>
+ * <li>{@code -noparallel} - parse the source files one at a time</li>
  * </ul>
  */
 public class CommandLine
@@ -125,15 +134,16 @@ public class CommandLine
         selectTargets();
         checkTerminalFailure();
 
-        // parse the modules
-        parseSource();
-        checkTerminalFailure();
-
-        // register names
-        registerNames();
-
+        // load the modules that don't need to be compiled
         if (!readModules())
             {
+            // parse the modules
+            parseSource();
+            checkTerminalFailure();
+
+            // register names
+            registerNames();
+
             // create the parse tree
             populateNamespace();
             checkCompilerErrors();
@@ -164,6 +174,9 @@ public class CommandLine
                 }
             }
 
+        // persist the TypeInfo objects built for the modules that were read from disk (if enabled)
+        TypeInfoCache.saveAll();
+
         return repoBuild;
         }
 
@@ -312,6 +325,10 @@ public class CommandLine
                         {
                         opts.verbose = true;
                         }
+                    else if (s.equals("-noparallel"))
+                        {
+                        opts.parallelism = 1;
+                        }
                     else if (s.startsWith("-"))
                         {
                         deferred.add("xtc: unknown option: " + s);
@@ -658,6 +675,13 @@ public class CommandLine
      */
     protected void parseSource()
         {
+        if (opts.parallelism > 1)
+            {
+            parseFilesParallel();
+            }
+
+        // the errors are reported for each module in the order of its files, regardless of the
+        // order in which the files were parsed
         for (Node module : modules.values())
             {
             module.parse();
@@ -665,6 +689,60 @@ public class CommandLine
             }
         }
 
+    /**
+     * Parse all of the source files concurrently. The files are independent of each other until
+     * their parse trees are linked together, and each file logs its errors into its own ErrorList.
+     */
+    protected void parseFilesParallel()
+        {
+        List<FileNode> listFiles = new ArrayList<>();
+        for (Node module : modules.values())
+            {
+            module.collectFiles(listFiles);
+            }
+
+        List<Callable<Void>> listTasks = new ArrayList<>(listFiles.size());
+        for (FileNode node : listFiles)
+            {
+            listTasks.add(() ->
+                {
+                node.parse();
+                return null;
+                });
+            }
+
+        ForkJoinPool pool = new ForkJoinPool(opts.parallelism);
+        try
+            {
+            for (Future<Void> future : pool.invokeAll(listTasks))
+                {
+                future.get();
+                }
+            }
+        catch (InterruptedException e)
+            {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+            }
+        catch (ExecutionException e)
+            {
+            Throwable eCause = e.getCause();
+            if (eCause instanceof RuntimeException)
+                {
+                throw (RuntimeException) eCause;
+                }
+            if (eCause instanceof Error)
+                {
+                throw (Error) eCause;
+                }
+            throw new IllegalStateException(eCause);
+            }
+        finally
+            {
+            pool.shutdown();
+            }
+        }
+
     /**
      * Register module names.
      */
@@ -818,21 +896,7 @@ public class CommandLine
             else
                 {
                 // figure out where to put the resulting module
-                File file = module.getFile().getParentFile();
-
-                // at this point, we either have a directory or a file to put it in; resolve that to
-                // an actual compiled module file name
-                if (file.isDirectory())
-                    {
-                    String sName = module.name();
-                    int ofDot = sName.indexOf('.');
-                    if (ofDot > 0)
-                        {
-                        sName = sName.substring(0, ofDot);
-                        }
-                    file = new File(file, sName + ".xtc");
-                    }
-
+                File          file   = getModuleFile(module);
                 FileStructure struct = module.getType().getComponent().getFileStructure();
                 try
                     {
@@ -851,82 +915,170 @@ public class CommandLine
         }
 
     /**
-     * Load modules from disk.
+     * Load the modules that don't need to be compiled from disk. A module doesn't need to be
+     * compiled if its module file is newer than all of its source files and than the module files
+     * of the modules that it depends on (as recorded by the module file), and if none of those
+     * modules need to be compiled. The loaded modules are saved into the build repository and
+     * removed from the modules to compile, so they are neither parsed nor compiled; only the
+     * declaration of each module is parsed to find its name.
      *
      * @return true iff all the modules were loaded and saved into the build repository
      */
     protected boolean readModules()
         {
-        int                 cModules   = modules.size();
-        List<FileStructure> listFiles  = new ArrayList<>(cModules);
-        BuildRepository     repoTemp   = new BuildRepository();
-        File                fileRoot   = null;
-        ModuleStructure     structRoot = null;
+        Map<String, File>          mapSrcByName = new HashMap<>();
+        Map<String, File>          mapFiles     = new HashMap<>();
+        Map<String, FileStructure> mapCurrent   = new ListMap<>();
 
-        for (File fileSrc : modules.keySet())
+        for (Map.Entry<File, Node> entry : modules.entrySet())
             {
-            Node module = modules.get(fileSrc);
-
-            // figure out where to find the module
-            File file = module.getFile().getParentFile();
-
-            // at this point, we either have a directory or a file to put it in; resolve that to
-            // an actual compiled module file name
-            if (file.isDirectory())
+            File   fileSrc = entry.getKey();
+            Node   module  = entry.getValue();
+            String sName   = parseModuleName(module);
+            if (sName == null)
                 {
-                String sName = module.name();
-                int ofDot = sName.indexOf('.');
-                if (ofDot > 0)
-                    {
-                    sName = sName.substring(0, ofDot);
-                    }
-                file = new File(file, sName + ".xtc");
+                continue;
                 }
+            mapSrcByName.put(sName, fileSrc);
 
-            boolean fUseExisting = file.exists() && module.lastModified() <= file.lastModified();
-            if (fUseExisting)
+            File file = getModuleFile(module);
+            if (file.exists() && module.lastModified() <= file.lastModified())
                 {
                 try
                     {
-                    FileStructure   structFile   = new FileStructure(file);
-                    ModuleStructure structModule = structFile.getModule();
-                    repoTemp.storeModule(structModule);
-                    listFiles.add(structFile);
-
-                    if (structModule.getName().equals(Constants.ECSTASY_MODULE))
-                        {
-                        fileRoot   = fileSrc;
-                        structRoot = structModule;
-                        }
+                    mapCurrent.put(sName, new FileStructure(file));
+                    mapFiles.put(sName, file);
                     }
                 catch (Exception e)
                     {
-                    fUseExisting = false;
+                    // the module will be compiled
                     }
                 }
+            }
 
-            if (!fUseExisting)
+        // a module that depends on a module that needs to be compiled, or on a module file that is
+        // newer than its own, has to be compiled as well
+        boolean fChanged;
+        do
+            {
+            fChanged = false;
+            for (Iterator<Map.Entry<String, FileStructure>> iter = mapCurrent.entrySet().iterator();
+                    iter.hasNext(); )
                 {
-                if (structRoot != null)
+                Map.Entry<String, FileStructure> entry = iter.next();
+
+                long lModified = mapFiles.get(entry.getKey()).lastModified();
+                for (String sDep : entry.getValue().moduleNames())
                     {
-                    // the root Ecstasy module has no external dependencies and doesn't have
-                    // to be recompiled
-                    modules.remove(fileRoot);
-                    repoBuild.storeModule(structRoot);
+                    File fileDep = mapSrcByName.containsKey(sDep)
+                            ? mapFiles.get(sDep)
+                            : findModulePathFile(sDep);
+                    if (mapSrcByName.containsKey(sDep) && !mapCurrent.containsKey(sDep)
+                            || fileDep != null && fileDep.lastModified() > lModified)
+                        {
+                        iter.remove();
+                        fChanged = true;
+                        break;
+                        }
                     }
-                return false;
                 }
-            module.checkErrors();
+            }
+        while (fChanged);
+
+        // link the modules that don't need to be compiled; since they only depend on each other
+        // (or on the modules from the module path), they don't need the ones that get compiled
+        BuildRepository repoTemp = new BuildRepository();
+        for (FileStructure structFile : mapCurrent.values())
+            {
+            repoTemp.storeModule(structFile.getModule());
             }
 
-        // link the modules
-        for (FileStructure structFile : listFiles)
+        for (Map.Entry<String, FileStructure> entry : mapCurrent.entrySet())
             {
+            String        sName      = entry.getKey();
+            FileStructure structFile = entry.getValue();
+            TypeInfoCache.attach(structFile, mapFiles.get(sName));
             structFile.linkModules(repoTemp);
+            modules.remove(mapSrcByName.get(sName));
             }
 
         repoBuild.storeAll(repoTemp);
-        return true;
+        return modules.isEmpty();
+        }
+
+    /**
+     * Find the module file for the specified module on the module path. The module file is
+     * expected to be named after the first segment of the module name, as it is stored by the
+     * DirRepository.
+     *
+     * @param sModule  the qualified module name
+     *
+     * @return the module file, or null if it cannot be found
+     */
+    protected File findModulePathFile(String sModule)
+        {
+        int    ofDot = sModule.indexOf('.');
+        String sFile = (ofDot > 0 ? sModule.substring(0, ofDot) : sModule) + ".xtc";
+        for (File file : opts.modulePath)
+            {
+            if (file.isDirectory())
+                {
+                file = new File(file, sFile);
+                }
+
+            if (file.getName().equals(sFile) && file.exists())
+                {
+                return file;
+                }
+            }
+        return null;
+        }
+
+    /**
+     * Parse just the declaration of the specified module to find its name.
+     *
+     * @param module  the module node
+     *
+     * @return the module name, or null if the module declaration cannot be parsed
+     */
+    protected String parseModuleName(Node module)
+        {
+        FileNode nodeModule = module instanceof DirNode
+                ? ((DirNode) module).getDeclaringNode()
+                : (FileNode) module;
+        if (nodeModule == null)
+            {
+            return null;
+            }
+
+        // the node remembers that it has been parsed, so it isn't parsed again with the rest of
+        // the module
+        nodeModule.parse();
+        nodeModule.registerNames();
+        return nodeModule.getType() == null ? null : module.name();
+        }
+
+    /**
+     * @param module  the module node
+     *
+     * @return the module file that the specified module is compiled into
+     */
+    protected File getModuleFile(Node module)
+        {
+        // at this point, we either have a directory or a file to put it in; resolve that to an
+        // actual compiled module file name
+        File file = module.getFile().getParentFile();
+        if (file.isDirectory())
+            {
+            String sName = module.name();
+            int ofDot = sName.indexOf('.');
+            if (ofDot > 0)
+                {
+                sName = sName.substring(0, ofDot);
+                }
+            file = new File(file, sName + ".xtc");
+            }
+        return file;
         }
 
     /**
@@ -1047,6 +1199,7 @@ public class CommandLine
         File getFile();
         long lastModified();
         void parse();
+        void collectFiles(List<FileNode> listFiles);
         void registerNames();
         String name();
         String descriptiveName();
@@ -1080,10 +1233,36 @@ public class CommandLine
             return fileDir;
             }
 
+        /**
+         * @return the latest modification time of this node and all nodes it contains; this
+         *         doesn't require the node to be parsed
+         */
         @Override
         public long lastModified()
             {
-            return lastModified;
+            long lModified = lastModified;
+            if (lModified == 0L)
+                {
+                lModified = fileDir.lastModified();
+
+                if (pkgNode != null)
+                    {
+                    lModified = Math.max(lModified, pkgNode.lastModified);
+                    }
+
+                for (FileNode cmpFile : sources.values())
+                    {
+                    lModified = Math.max(lModified, cmpFile.lastModified);
+                    }
+
+                for (DirNode child : packages)
+                    {
+                    lModified = Math.max(lModified, child.lastModified());
+                    }
+
+                lastModified = lModified;
+                }
+            return lModified;
             }
 
         /**
@@ -1094,34 +1273,53 @@ public class CommandLine
             {
             if (progress == Progress.INIT)
                 {
-                long lModified = fileDir.lastModified();
-
                 if (pkgNode == null)
                     {
                     // provide a default implementation
                     assert parent != null;
                     pkgNode = new FileNode("package " + fileDir.getName() + "{}");
                     }
-                else
-                    {
-                    lModified = Math.max(lModified, pkgNode.lastModified);
-                    }
                 pkgNode.parse();
 
                 for (FileNode cmpFile : sources.values())
                     {
                     cmpFile.parse();
-                    lModified = Math.max(lModified, cmpFile.lastModified);
                     }
 
                 for (DirNode child : packages)
                     {
                     child.parse();
-                    lModified = Math.max(lModified, child.lastModified);
                     }
 
-                progress     = Progress.PARSED;
-                lastModified = lModified;
+                progress = Progress.PARSED;
+                }
+            }
+
+        /**
+         * @return the node of the file that declares this module or package, or null if there is
+         *         no such file
+         */
+        public FileNode getDeclaringNode()
+            {
+            return pkgNode;
+            }
+
+        /**
+         * Collect the files of this node and all nodes it contains.
+         */
+        @Override
+        public void collectFiles(List<FileNode> listFiles)
+            {
+            if (pkgNode != null)
+                {
+                listFiles.add(pkgNode);
+                }
+
+            listFiles.addAll(sources.values());
+
+            for (DirNode child : packages)
+                {
+                child.collectFiles(listFiles);
                 }
             }
 
@@ -1399,6 +1597,12 @@ public class CommandLine
                 }
             }
 
+        @Override
+        public void collectFiles(List<FileNode> listFiles)
+            {
+            listFiles.add(this);
+            }
+
         /**
          * Go through all the packages and types in this package and register their names.
          */
@@ -1524,6 +1728,7 @@ public class CommandLine
         boolean includeSrc  = true;
         boolean includeDbg  = true;
         boolean includeDoc  = true;
+        int     parallelism = Runtime.getRuntime().availableProcessors();
 
         enum Strictness {None, Suppressed, Normal, Stickler};
         Strictness strictLevel = Strictness.Normal;
@@ -1571,6 +1776,8 @@ public class CommandLine
               .append(includeDoc)
               .append("\nstrictLevel=")
               .append(strictLevel.name())
+              .append("\nparallelism=")
+              .append(parallelism)
               .append("\nmodulePath=");
 
             if (modulePath.isEmpty())
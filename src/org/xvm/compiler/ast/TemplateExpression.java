@@ -193,9 +193,9 @@ public class TemplateExpression
         // - a literal (StringConstant), which is appended as-is;
         // - an expression that yields void (it is assumed that any append occurs within the
         //   expression);
-        // - an expression that yields a Stringable, which is then appended to the buffer;
-        // - an expression that yields an Object, which is then converted to a String, and
-        //   appended to the buffer.
+        // - an expression that yields an Object, which is then appended to the buffer (which uses
+        //   "appendTo" for a Stringable, and converts anything else to a String; the run-time
+        //   appends the most common values, e.g. Strings, Ints and Chars, natively).
         // unfortunately, the evaluation (including appending) order must be strictly
         // left-to-right, because side-effects of the expressions are unknown
         //
@@ -203,9 +203,9 @@ public class TemplateExpression
         //   Int minlen = sum of StringConstant lengths
         //   StringBuffer $ = new StringBuffer(minlen);
         //   $.append("...");
-        //   expr1.appendTo($);             // for a Stringable
+        //   $.append(expr1);
         //   $.append("...");
-        //   $.append(expr2);               // for an object
+        //   $.append(expr2);
         //   $.append("...");
         //   {...}                          // for a void expression
         //   $.append("...");
@@ -228,31 +228,21 @@ public class TemplateExpression
         assert idNewBuf != null;
         code.add(new New_1(idNewBuf, pool.ensureIntConstant(cchMin), m_reg$));
 
-        TypeConstant   typeStr    = pool.typeStringable();
-        TypeInfo       infoStr    = typeStr.ensureTypeInfo(errs);
-        Assignable     lvalStr    = createTempVar(code, typeStr, true, errs);
-        TypeConstant   typeObj    = pool.typeObject();
-        Assignable     lvalObj    = createTempVar(code, typeObj, true, errs);
-        MethodConstant idAppendTo = infoStr.findCallable("appendTo", true, false, null, null, null);
-        MethodConstant idAppend   = infoBuf.findCallable("append"  , true, false, null, null, null);
+        TypeConstant   typeObj  = pool.typeObject();
+        Assignable     lvalObj  = createTempVar(code, typeObj, true, errs);
+        MethodConstant idAppend = infoBuf.findCallable("append", true, false, null, null, null);
         for (Expression expr : exprs)
             {
             if (isStringConst(expr))
                 {
                 // $.append("...");
-                code.add(new Invoke_10(expr.toConstant(), idAppendTo, m_reg$));
+                code.add(new Invoke_10(m_reg$, idAppend, expr.toConstant()));
                 }
             else if (expr.isVoid())
                 {
                 // {...}
                 expr.generateVoid(ctx, code, errs);
                 }
-            else if (isStringable(expr))
-                {
-                // expr1.appendTo($);
-                expr.generateAssignment(ctx, code, lvalStr, errs);
-                code.add(new Invoke_10(lvalStr.getLocalArgument(), idAppendTo, m_reg$));
-                }
             else
                 {
                 // $.append(expr2);
@@ -322,11 +312,6 @@ public class TemplateExpression
         return ((StringConstant) expr.toConstant()).getValue();
         }
 
-    boolean isStringable(Expression expr)
-        {
-        return expr.getTypes().length > 0 && expr.getType().isA(pool().typeStringable());
-        }
-
 
     // ----- fields --------------------------------------------------------------------------------
 
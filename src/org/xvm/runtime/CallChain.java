@@ -8,8 +8,13 @@ import org.xvm.asm.PropertyStructure;
 import org.xvm.asm.constants.MethodBody;
 import org.xvm.asm.constants.MethodBody.Implementation;
 import org.xvm.asm.constants.MethodConstant;
+import org.xvm.asm.constants.PropertyConstant;
 import org.xvm.asm.constants.TypeConstant;
 
+import org.xvm.runtime.ClassTemplate.NativeGetter;
+import org.xvm.runtime.ClassTemplate.NativeMethod1;
+import org.xvm.runtime.ClassTemplate.NativeMethodN;
+
 import org.xvm.runtime.template._native.reflect.xRTFunction;
 
 
@@ -21,6 +26,14 @@ public class CallChain
     // an array of method bodies
     private final MethodBody[] f_aMethods;
 
+    // the cached field slot (see getFieldIndex)
+    private int m_iFieldSlot = SLOT_UNKNOWN;
+
+    private static final int SLOT_UNKNOWN = -2;
+
+    // the cached native handler (see getNativeMethod and getNativeGetter)
+    private NativeBinding m_binding;
+
     // Construct the CallChain
     public CallChain(MethodBody[] aMethods)
         {
@@ -89,6 +102,77 @@ public class CallChain
         return (PropertyStructure) f_aMethods[0].getIdentity().getNamespace().getComponent();
         }
 
+    /**
+     * Obtain the slot of the field that backs the property this chain was created for. The slot
+     * is resolved only once per chain, which (being cached by the composition) effectively makes
+     * it once per class and property.
+     *
+     * @param clazz   the target's composition
+     * @param idProp  the property id
+     *
+     * @return the field slot or -1 if the field is inflated or is not a part of the field layout
+     */
+    public int getFieldIndex(TypeComposition clazz, PropertyConstant idProp)
+        {
+        int iSlot = m_iFieldSlot;
+        if (iSlot == SLOT_UNKNOWN)
+            {
+            Object nid = idProp.getNestedIdentity();
+
+            iSlot = clazz.isInflated(nid) ? -1 : clazz.getFieldIndex(nid);
+
+            // compositions without a field layout (e.g. proxies) share the chains with their
+            // origins; don't let them spoil the cached slot
+            if (iSlot >= 0 || clazz.getFieldNids().length > 0)
+                {
+                m_iFieldSlot = iSlot;
+                }
+            }
+        return iSlot;
+        }
+
+    /**
+     * Obtain the native handler registered by the specified template for the method this chain
+     * was created for. The handler is resolved only once per chain and template.
+     *
+     * @param template  the target's template
+     *
+     * @return a {@link NativeMethod1}, a {@link NativeMethodN} or null if the template doesn't
+     *         have a registered handler for the method
+     */
+    public Object getNativeMethod(ClassTemplate template)
+        {
+        NativeBinding binding = m_binding;
+        if (binding == null || binding.template != template)
+            {
+            MethodStructure method = getTop();
+
+            m_binding = binding = new NativeBinding(template,
+                    method == null ? null : template.findNativeMethod(method));
+            }
+        return binding.handler;
+        }
+
+    /**
+     * Obtain the native getter registered by the specified template for the property this
+     * (getter) chain was created for. The getter is resolved only once per chain and template.
+     *
+     * @param template  the target's template
+     * @param idProp    the property id
+     *
+     * @return the getter or null if the template doesn't have a registered getter
+     */
+    public NativeGetter getNativeGetter(ClassTemplate template, PropertyConstant idProp)
+        {
+        NativeBinding binding = m_binding;
+        if (binding == null || binding.template != template)
+            {
+            m_binding = binding = new NativeBinding(template,
+                    template.findNativeGetter(idProp.getName()));
+            }
+        return (NativeGetter) binding.handler;
+        }
+
     /**
      * Chain invocation with zero args and one return value.
      */
@@ -96,11 +180,14 @@ public class CallChain
         {
         if (isNative())
             {
-            return hTarget.getTemplate().
-                invokeNativeN(frame, getTop(), hTarget, Utils.OBJECTS_NONE, iReturn);
+            ClassTemplate template = hTarget.getTemplate();
+            Object        handler  = getNativeMethod(template);
+            return handler instanceof NativeMethodN
+                    ? ((NativeMethodN) handler).invoke(frame, hTarget, Utils.OBJECTS_NONE, iReturn)
+                    : template.invokeNativeN(frame, getTop(), hTarget, Utils.OBJECTS_NONE, iReturn);
             }
 
-        ObjectHandle[] ahVar = new ObjectHandle[getTop().getMaxVars()];
+        ObjectHandle[] ahVar = frame.allocateRegisters(getTop().getMaxVars());
 
         return hTarget.getTemplate().invoke1(frame, this, hTarget, ahVar, iReturn);
         }
@@ -112,11 +199,14 @@ public class CallChain
         {
         if (isNative())
             {
-            return hTarget.getTemplate().
-                invokeNative1(frame, getTop(), hTarget, hArg, iReturn);
+            ClassTemplate template = hTarget.getTemplate();
+            Object        handler  = getNativeMethod(template);
+            return handler instanceof NativeMethod1
+                    ? ((NativeMethod1) handler).invoke(frame, hTarget, hArg, iReturn)
+                    : template.invokeNative1(frame, getTop(), hTarget, hArg, iReturn);
             }
 
-        ObjectHandle[] ahVar = new ObjectHandle[getTop().getMaxVars()];
+        ObjectHandle[] ahVar = frame.allocateRegisters(getTop().getMaxVars());
         ahVar[0] = hArg;
 
         return hTarget.getTemplate().invoke1(frame, this, hTarget, ahVar, iReturn);
@@ -133,7 +223,7 @@ public class CallChain
                 invokeNativeNN(frame, getTop(), hTarget, new ObjectHandle[]{hArg}, aiReturn);
             }
 
-        ObjectHandle[] ahVar = new ObjectHandle[getTop().getMaxVars()];
+        ObjectHandle[] ahVar = frame.allocateRegisters(getTop().getMaxVars());
         ahVar[0] = hArg;
 
         return hTarget.getTemplate().invokeN(frame, this, hTarget, ahVar, aiReturn);
@@ -147,8 +237,15 @@ public class CallChain
         if (isNative())
             {
             ClassTemplate template = hTarget.getTemplate();
-            return ahArg.length == 1
-                    ? template.invokeNative1(frame, getTop(), hTarget, ahArg[0], iReturn)
+            Object        handler  = getNativeMethod(template);
+            if (ahArg.length == 1)
+                {
+                return handler instanceof NativeMethod1
+                        ? ((NativeMethod1) handler).invoke(frame, hTarget, ahArg[0], iReturn)
+                        : template.invokeNative1(frame, getTop(), hTarget, ahArg[0], iReturn);
+                }
+            return handler instanceof NativeMethodN
+                    ? ((NativeMethodN) handler).invoke(frame, hTarget, ahArg, iReturn)
                     : template.invokeNativeN(frame, getTop(), hTarget, ahArg, iReturn);
             }
 
@@ -184,7 +281,7 @@ public class CallChain
                 invokeNativeT(frame, getTop(), hTarget, new ObjectHandle[] {hArg}, iReturn);
             }
 
-        ObjectHandle[] ahVar = new ObjectHandle[getTop().getMaxVars()];
+        ObjectHandle[] ahVar = frame.allocateRegisters(getTop().getMaxVars());
         ahVar[0] = hArg;
 
         return hTarget.getTemplate().invokeT(frame, this, hTarget, ahVar, iReturn);
@@ -405,4 +502,20 @@ public class CallChain
         private final MethodConstant f_idMethod;
         private final TypeConstant   f_typeTarget;
         }
+
+    /**
+     * An immutable association between a template and the native handler it registered for this
+     * chain; being immutable, it can be safely published to other threads without locking.
+     */
+    private static class NativeBinding
+        {
+        NativeBinding(ClassTemplate template, Object handler)
+            {
+            this.template = template;
+            this.handler  = handler;
+            }
+
+        final ClassTemplate template;
+        final Object        handler;
+        }
     }
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +25,8 @@ import org.xvm.asm.constants.TypeInfo;
 
 import org.xvm.runtime.ObjectHandle.GenericHandle;
 
+import org.xvm.runtime.template.xRef;
+import org.xvm.runtime.template.xRef.RefHandle;
 import org.xvm.runtime.template.xString;
 import org.xvm.runtime.template.xString.StringHandle;
 
@@ -73,6 +76,32 @@ public class ClassComposition
         f_mapGetters = new ConcurrentHashMap<>();
         f_mapSetters = new ConcurrentHashMap<>();
         f_mapFields  = f_template.isGenericHandle() ? createFieldLayout() : null;
+
+        Map<Object, TypeComposition> mapFields = f_mapFields;
+        if (mapFields == null)
+            {
+            f_mapFieldSlots = Collections.emptyMap();
+            f_anidFields    = NO_FIELDS;
+            f_aclzFieldRefs = null;
+            }
+        else
+            {
+            int                  cFields  = mapFields.size();
+            Map<Object, Integer> mapSlots = new HashMap<>(cFields * 2);
+            Object[]             anid     = new Object[cFields];
+            TypeComposition[]    aclzRefs = new TypeComposition[cFields];
+            int                  iSlot    = 0;
+            for (Map.Entry<Object, TypeComposition> entry : mapFields.entrySet())
+                {
+                mapSlots.put(entry.getKey(), iSlot);
+                anid    [iSlot] = entry.getKey();
+                aclzRefs[iSlot] = entry.getValue();
+                iSlot++;
+                }
+            f_mapFieldSlots = mapSlots;
+            f_anidFields    = anid;
+            f_aclzFieldRefs = aclzRefs;
+            }
         }
 
     /**
@@ -92,6 +121,9 @@ public class ClassComposition
         f_mapGetters = f_clzInception.f_mapGetters;
         f_mapSetters = f_clzInception.f_mapSetters;
         f_mapFields = f_clzInception.f_mapFields;
+        f_mapFieldSlots = f_clzInception.f_mapFieldSlots;
+        f_anidFields = f_clzInception.f_anidFields;
+        f_aclzFieldRefs = f_clzInception.f_aclzFieldRefs;
         m_methodInit = f_clzInception.m_methodInit;
         }
 
@@ -254,13 +286,15 @@ public class ClassComposition
     @Override
     public boolean isInflated(Object nid)
         {
-        return f_mapFields != null && f_mapFields.get(nid) != null;
+        int iSlot = getFieldIndex(nid);
+        return iSlot >= 0 && f_aclzFieldRefs[iSlot] != null;
         }
 
     @Override
     public boolean isLazy(Object nid)
         {
-        TypeComposition clz = f_mapFields.get(nid);
+        int             iSlot = getFieldIndex(nid);
+        TypeComposition clz   = iSlot >= 0 ? f_aclzFieldRefs[iSlot] : null;
         return clz instanceof PropertyComposition &&
                 ((PropertyComposition) clz).isLazy();
         }
@@ -268,7 +302,10 @@ public class ClassComposition
     @Override
     public boolean isAllowedUnassigned(Object nid)
         {
-        return f_typeInception.ensureTypeInfo().findPropertyByNid(nid).isSimpleUnassigned();
+        PropertyInfo info = f_typeInception.ensureTypeInfo().findPropertyByNid(nid);
+
+        // synthetic fields are allowed to be unassigned
+        return info == null || info.isSimpleUnassigned();
         }
 
     @Override
@@ -402,27 +439,39 @@ public class ClassComposition
         }
 
     @Override
-    public Map<Object, ObjectHandle> initializeStructure()
+    public ObjectHandle[] initializeStructure()
         {
-        Map<Object, TypeComposition> mapCached = f_mapFields;
-        if (mapCached == null)
+        TypeComposition[] aclzRefs = f_aclzFieldRefs;
+        if (aclzRefs == null)
             {
             return null;
             }
 
-        Map<Object, ObjectHandle> mapFields = new ListMap<>();
-        for (Map.Entry<Object, TypeComposition> entry : mapCached.entrySet())
+        int            cFields = aclzRefs.length;
+        ObjectHandle[] ahField = new ObjectHandle[cFields];
+        for (int i = 0; i < cFields; i++)
             {
-            Object          nidProp = entry.getKey();
-            TypeComposition clzRef  = entry.getValue();
-            ObjectHandle    hValue  = null;
+            TypeComposition clzRef = aclzRefs[i];
             if (clzRef != null)
                 {
-                hValue = ((VarSupport) clzRef.getSupport()).createRefHandle(clzRef, nidProp.toString());
+                ahField[i] = ((VarSupport) clzRef.getSupport()).
+                        createRefHandle(clzRef, f_anidFields[i].toString());
                 }
-            mapFields.put(nidProp, hValue);
             }
-        return mapFields;
+        return ahField;
+        }
+
+    @Override
+    public int getFieldIndex(Object nid)
+        {
+        Integer ISlot = f_mapFieldSlots.get(nid);
+        return ISlot == null ? -1 : ISlot;
+        }
+
+    @Override
+    public Object[] getFieldNids()
+        {
+        return f_anidFields;
         }
 
 
@@ -453,7 +502,8 @@ public class ClassComposition
         }
 
     /**
-     * Create a map of fields that serves as a prototype for all instances of this class.
+     * Create a map of fields that serves as a prototype for all instances of this class. The order
+     * of the entries defines the field slots; the synthetic fields are always included.
      *
      * @return a prototype map
      */
@@ -508,7 +558,14 @@ public class ClassComposition
                 assert !infoProp.isRefAnnotated();
                 }
             }
-        return mapFields.isEmpty() ? null : mapFields;
+
+        // reserve the slots for the synthetic fields
+        mapFields.put(GenericHandle.OUTER, null);
+        if (f_template instanceof xRef)
+            {
+            mapFields.put(RefHandle.REFERENT, null);
+            }
+        return mapFields;
         }
 
     /**
@@ -580,6 +637,22 @@ public class ClassComposition
      */
     private final Map<Object, TypeComposition> f_mapFields;
 
+    /**
+     * The field slots keyed by the field nid; the slots follow the order of the f_mapFields.
+     */
+    private final Map<Object, Integer> f_mapFieldSlots;
+
+    /**
+     * The field nids indexed by the field slot.
+     */
+    private final Object[] f_anidFields;
+
+    /**
+     * The Ref compositions for inflated fields indexed by the field slot (null if there are no
+     * fields).
+     */
+    private final TypeComposition[] f_aclzFieldRefs;
+
     /**
      * A cache of derivative TypeCompositions keyed by the "revealed type".
      */
@@ -613,4 +686,9 @@ public class ClassComposition
      */
     public static Comparator<Map.Entry<PropertyConstant, PropertyInfo>> RANKER =
         Comparator.comparingInt(e -> e.getValue().getRank());
+
+    /**
+     * An empty array of field nids.
+     */
+    public static final Object[] NO_FIELDS = new Object[0];
     }
@@ -2,6 +2,8 @@ package org.xvm.runtime;
 
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -594,6 +596,12 @@ public abstract class ClassTemplate
     public int invokeNative1(Frame frame, MethodStructure method,
                              ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
         {
+        Object handler = findNativeMethod(method);
+        if (handler instanceof NativeMethod1)
+            {
+            return ((NativeMethod1) handler).invoke(frame, hTarget, hArg, iReturn);
+            }
+
         throw new IllegalStateException("Unknown method: " + method + " on " + this);
         }
 
@@ -612,6 +620,12 @@ public abstract class ClassTemplate
     public int invokeNativeN(Frame frame, MethodStructure method,
                              ObjectHandle hTarget, ObjectHandle[] ahArg, int iReturn)
         {
+        Object handler = findNativeMethod(method);
+        if (handler instanceof NativeMethodN)
+            {
+            return ((NativeMethodN) handler).invoke(frame, hTarget, ahArg, iReturn);
+            }
+
         switch (ahArg.length)
             {
             case 0:
@@ -758,7 +772,25 @@ public abstract class ClassTemplate
      *
      * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
      */
-    public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp, int iReturn)
+    public final int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp, int iReturn)
+        {
+        return getPropertyValue(frame, hTarget, idProp, null, iReturn);
+        }
+
+    /**
+     * Retrieve a property value using the specified getter chain.
+     *
+     * @param frame    the current frame
+     * @param hTarget  the target handle
+     * @param idProp   the property id
+     * @param chain    the getter chain for the target's composition (usually cached by the caller)
+     *                 or null to resolve it
+     * @param iReturn  the register id to place a result of the operation into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+     */
+    public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp,
+                                CallChain chain, int iReturn)
         {
         if (idProp == null)
             {
@@ -767,7 +799,10 @@ public abstract class ClassTemplate
 
         TypeComposition clzTarget = hTarget.getComposition();
 
-        CallChain chain = clzTarget.getPropertyGetterChain(idProp);
+        if (chain == null)
+            {
+            chain = clzTarget.getPropertyGetterChain(idProp);
+            }
 
         if (chain == null)
             {
@@ -776,16 +811,28 @@ public abstract class ClassTemplate
 
         if (chain.isNative())
             {
-            return invokeNativeGet(frame, idProp.getName(), hTarget, iReturn);
+            NativeGetter getter = chain.getNativeGetter(this, idProp);
+            return getter == null
+                    ? invokeNativeGet(frame, idProp.getName(), hTarget, iReturn)
+                    : getter.get(frame, hTarget, iReturn);
             }
 
         if (clzTarget.isStruct() || chain.isField())
             {
+            int iSlot = chain.getFieldIndex(clzTarget, idProp);
+            if (iSlot >= 0 && hTarget instanceof GenericHandle)
+                {
+                ObjectHandle hValue = ((GenericHandle) hTarget).getField(iSlot);
+                if (hValue != null)
+                    {
+                    return frame.assignValue(iReturn, hValue);
+                    }
+                }
             return getFieldValue(frame, hTarget, idProp, iReturn);
             }
 
         MethodStructure method = chain.getTop();
-        ObjectHandle[]  ahVar  = new ObjectHandle[method.getMaxVars()];
+        ObjectHandle[]  ahVar  = frame.allocateRegisters(method.getMaxVars());
 
         if (hTarget.isInflated(idProp))
             {
@@ -874,8 +921,26 @@ public abstract class ClassTemplate
      *
      * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
      */
-    public int setPropertyValue(Frame frame, ObjectHandle hTarget,
-                                PropertyConstant idProp, ObjectHandle hValue)
+    public final int setPropertyValue(Frame frame, ObjectHandle hTarget,
+                                      PropertyConstant idProp, ObjectHandle hValue)
+        {
+        return setPropertyValue(frame, hTarget, idProp, null, hValue);
+        }
+
+    /**
+     * Set a property value using the specified setter chain.
+     *
+     * @param frame    the current frame
+     * @param hTarget  the target handle
+     * @param idProp   the property id
+     * @param chain    the setter chain for the target's composition (usually cached by the caller)
+     *                 or null to resolve it
+     * @param hValue   the new value
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+     */
+    public int setPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp,
+                                CallChain chain, ObjectHandle hValue)
         {
         if (idProp == null)
             {
@@ -887,7 +952,10 @@ public abstract class ClassTemplate
             return setFieldValue(frame, hTarget, idProp, hValue);
             }
 
-        CallChain chain = hTarget.getComposition().getPropertySetterChain(idProp);
+        if (chain == null)
+            {
+            chain = hTarget.getComposition().getPropertySetterChain(idProp);
+            }
 
         if (chain == null)
             {
@@ -907,11 +975,17 @@ public abstract class ClassTemplate
 
         if (chain.isField())
             {
+            int iSlot = chain.getFieldIndex(hTarget.getComposition(), idProp);
+            if (iSlot >= 0 && hTarget instanceof GenericHandle)
+                {
+                ((GenericHandle) hTarget).setField(iSlot, hValue);
+                return Op.R_NEXT;
+                }
             return setFieldValue(frame, hTarget, idProp, hValue);
             }
 
         MethodStructure method = chain.getTop();
-        ObjectHandle[] ahVar = new ObjectHandle[method.getMaxVars()];
+        ObjectHandle[] ahVar = frame.allocateRegisters(method.getMaxVars());
         ahVar[0] = hValue;
 
         if (hTarget.isInflated(idProp))
@@ -968,6 +1042,12 @@ public abstract class ClassTemplate
      */
     public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
         {
+        NativeGetter getter = findNativeGetter(sPropName);
+        if (getter != null)
+            {
+            return getter.get(frame, hTarget, iReturn);
+            }
+
         if (hTarget.getType().containsGenericParam(sPropName))
             {
             TypeConstant type = hTarget.getType().resolveGenericType(sPropName);
@@ -1402,7 +1482,7 @@ public abstract class ClassTemplate
         MethodStructure functionEq = type.findCallable(frame.poolContext().sigEquals());
         if (functionEq != null && !functionEq.isNative())
             {
-            ObjectHandle[] ahVars = new ObjectHandle[functionEq.getMaxVars()];
+            ObjectHandle[] ahVars = frame.allocateRegisters(functionEq.getMaxVars());
             ahVars[0] = type.getTypeHandle();
             ahVars[1] = hValue1;
             ahVars[2] = hValue2;
@@ -1445,7 +1525,7 @@ public abstract class ClassTemplate
         MethodStructure functionCmp = type.findCallable(frame.poolContext().sigCompare());
         if (functionCmp != null && !functionCmp.isNative())
             {
-            ObjectHandle[] ahVars = new ObjectHandle[functionCmp.getMaxVars()];
+            ObjectHandle[] ahVars = frame.allocateRegisters(functionCmp.getMaxVars());
             ahVars[0] = type.getTypeHandle();
             ahVars[1] = hValue1;
             ahVars[2] = hValue2;
@@ -1815,12 +1895,116 @@ public abstract class ClassTemplate
         return f_struct.getConstantPool();
         }
 
+    // ----- native handlers -----------------------------------------------------------------------
+
+    /**
+     * A native implementation of a method with exactly one argument and zero or one return value.
+     */
+    @FunctionalInterface
+    public interface NativeMethod1
+        {
+        int invoke(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn);
+        }
+
+    /**
+     * A native implementation of a method with zero or more than one argument and zero or one
+     * return value.
+     */
+    @FunctionalInterface
+    public interface NativeMethodN
+        {
+        int invoke(Frame frame, ObjectHandle hTarget, ObjectHandle[] ahArg, int iReturn);
+        }
+
+    /**
+     * A native implementation of a property getter.
+     */
+    @FunctionalInterface
+    public interface NativeGetter
+        {
+        int get(Frame frame, ObjectHandle hTarget, int iReturn);
+        }
+
+    /**
+     * Register a handler for the specified native method. Registered handlers are resolved once
+     * per call chain (see {@link CallChain}) and invoked directly, bypassing the name-based
+     * dispatch of {@link #invokeNative1}.
+     *
+     * @param method   the native method (as returned by {@link #markNativeMethod}); ignored if null
+     * @param handler  the handler
+     */
+    protected void registerNativeMethod1(MethodStructure method, NativeMethod1 handler)
+        {
+        if (method != null)
+            {
+            f_mapNativeMethods.put(method, handler);
+            }
+        }
+
+    /**
+     * Register a handler for the specified native method. Registered handlers are resolved once
+     * per call chain (see {@link CallChain}) and invoked directly, bypassing the name-based
+     * dispatch of {@link #invokeNativeN}.
+     *
+     * @param method   the native method (as returned by {@link #markNativeMethod}); ignored if null
+     * @param handler  the handler
+     */
+    protected void registerNativeMethodN(MethodStructure method, NativeMethodN handler)
+        {
+        if (method != null)
+            {
+            f_mapNativeMethods.put(method, handler);
+            }
+        }
+
+    /**
+     * Register a getter for the specified native property. Registered getters are resolved once
+     * per getter chain and invoked directly, bypassing the name-based dispatch of
+     * {@link #invokeNativeGet}.
+     *
+     * @param sPropName  the property name
+     * @param getter     the getter
+     */
+    protected void registerNativeGetter(String sPropName, NativeGetter getter)
+        {
+        f_mapNativeGetters.put(sPropName, getter);
+        }
+
+    /**
+     * Find a handler registered for the specified native method.
+     *
+     * @param method  the method
+     *
+     * @return a {@link NativeMethod1}, a {@link NativeMethodN} or null if no handler has been
+     *         registered (in which case the invokeNative* methods should be used)
+     */
+    public Object findNativeMethod(MethodStructure method)
+        {
+        return f_mapNativeMethods.get(method);
+        }
+
+    /**
+     * Find a getter registered for the specified native property.
+     *
+     * @param sPropName  the property name
+     *
+     * @return the getter or null if no getter has been registered (in which case
+     *         {@link #invokeNativeGet} should be used)
+     */
+    public NativeGetter findNativeGetter(String sPropName)
+        {
+        return f_mapNativeGetters.get(sPropName);
+        }
+
+
     // =========== TEMPORARY ========
 
     /**
      * Mark the specified method as native.
+     *
+     * @return the method structure or null if the method cannot be found
      */
-    protected void markNativeMethod(String sName, String[] asParamType, String[] asRetType)
+    protected MethodStructure markNativeMethod(String sName, String[] asParamType, String[] asRetType)
         {
         TypeConstant[] atypeArg = f_templates.f_adapter.getTypeConstants(this, asParamType);
         TypeConstant[] atypeRet = f_templates.f_adapter.getTypeConstants(this, asRetType);
@@ -1835,6 +2019,7 @@ public abstract class ClassTemplate
             {
             method.markNative();
             }
+        return method;
         }
 
     /**
@@ -1867,6 +2052,15 @@ public abstract class ClassTemplate
             }
         }
 
+    /**
+     * Mark the specified property as native and register its getter.
+     */
+    protected void markNativeProperty(String sPropName, NativeGetter getter)
+        {
+        markNativeProperty(sPropName);
+        registerNativeGetter(sPropName, getter);
+        }
+
     /**
      * Helper class for construction actions.
      */
@@ -2058,4 +2252,16 @@ public abstract class ClassTemplate
      * ClassComposition itself and are not known or controllable by the ClassTemplate.
      */
     private Map<TypeConstant, ClassComposition> m_mapCompositions = new ConcurrentHashMap<>();
+
+    /**
+     * Native method handlers keyed by the method structure (see {@link #registerNativeMethod1}).
+     * The map is populated during the template initialization and is read-only thereafter.
+     */
+    private final Map<MethodStructure, Object> f_mapNativeMethods = new IdentityHashMap<>();
+
+    /**
+     * Native property getters keyed by the property name (see {@link #registerNativeGetter}).
+     * The map is populated during the template initialization and is read-only thereafter.
+     */
+    private final Map<String, NativeGetter> f_mapNativeGetters = new HashMap<>();
     }
@@ -0,0 +1,178 @@
+package org.xvm.runtime;
+
+
+import java.util.concurrent.CompletableFuture;
+
+import java.util.function.BiConsumer;
+
+import org.xvm.runtime.ObjectHandle.ExceptionHandle;
+
+
+/**
+ * A lightweight single-assignment completion token for an internal service request/response
+ * pair (see {@link ServiceContext.Message} and {@link ServiceContext.Response}).
+ *
+ * The vast majority of the cross-service calls are simply waited for by the calling fiber, which
+ * needs nothing but the result and a wake-up notification, both of which are delivered by the
+ * Response. A {@link CompletableFuture} (with its completion stack) is only materialized by
+ * {@link #toFuture()} when the result is actually observed asynchronously, for example, assigned
+ * to a "@Future" variable.
+ *
+ * A token is completed when the response is processed by the requesting service (see
+ * {@link ServiceContext.Response#run()}), so the listeners are notified on that service's
+ * thread. With the exception of {@link #isDone()}, this class is not thread safe and must only be
+ * used by the requesting service.
+ */
+public class CompletionToken<T>
+    {
+    /**
+     * @return true iff the token has been completed, either normally or exceptionally; this
+     *         method can be called on any thread
+     */
+    public boolean isDone()
+        {
+        return m_fDone;
+        }
+
+    /**
+     * @return true iff the token has been completed normally
+     */
+    public boolean isCompletedNormally()
+        {
+        return m_fDone && m_hException == null;
+        }
+
+    /**
+     * @return the result; only meaningful if the token has been completed normally
+     */
+    public T getResult()
+        {
+        return m_result;
+        }
+
+    /**
+     * @return the exception; only meaningful if the token has been completed exceptionally
+     */
+    public ExceptionHandle getException()
+        {
+        return m_hException;
+        }
+
+    /**
+     * Complete the token with the specified result.
+     */
+    public void complete(T result)
+        {
+        assert !m_fDone;
+
+        m_result = result;
+        m_fDone  = true;
+
+        BiConsumer<? super T, ExceptionHandle> listener = m_listener;
+        if (listener != null)
+            {
+            m_listener = null;
+            listener.accept(result, null);
+            }
+
+        CompletableFuture<T> future = m_future;
+        if (future != null)
+            {
+            future.complete(result);
+            }
+        }
+
+    /**
+     * Complete the token with the specified exception.
+     */
+    public void completeExceptionally(ExceptionHandle hException)
+        {
+        assert !m_fDone && hException != null;
+
+        m_hException = hException;
+        m_fDone      = true;
+
+        BiConsumer<? super T, ExceptionHandle> listener = m_listener;
+        if (listener != null)
+            {
+            m_listener = null;
+            listener.accept(null, hException);
+            }
+
+        CompletableFuture<T> future = m_future;
+        if (future != null)
+            {
+            future.completeExceptionally(hException.getException());
+            }
+        }
+
+    /**
+     * Register an action to be performed when the token completes. If the token has already
+     * completed, the action is performed immediately.
+     *
+     * @param action  the action that takes the result and the exception (one of which is null)
+     */
+    public void whenComplete(BiConsumer<? super T, ExceptionHandle> action)
+        {
+        if (m_fDone)
+            {
+            action.accept(m_result, m_hException);
+            return;
+            }
+
+        BiConsumer<? super T, ExceptionHandle> listenerPrev = m_listener;
+        m_listener = listenerPrev == null
+                ? action
+                : (r, hEx) ->
+                    {
+                    listenerPrev.accept(r, hEx);
+                    action.accept(r, hEx);
+                    };
+        }
+
+    /**
+     * @return a CompletableFuture that represents this token, creating it if necessary
+     */
+    public CompletableFuture<T> toFuture()
+        {
+        CompletableFuture<T> future = m_future;
+        if (future == null)
+            {
+            future = m_future = new CompletableFuture<>();
+            if (m_fDone)
+                {
+                if (m_hException == null)
+                    {
+                    future.complete(m_result);
+                    }
+                else
+                    {
+                    future.completeExceptionally(m_hException.getException());
+                    }
+                }
+            }
+        return future;
+        }
+
+    @Override
+    public String toString()
+        {
+        return !m_fDone              ? "Not completed"
+             : m_hException == null  ? "Completed: " + m_result
+                                     : "Completed exceptionally: " + m_hException;
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    private volatile boolean m_fDone;
+
+    private T               m_result;
+    private ExceptionHandle m_hException;
+
+    // the completion listener (optional)
+    private BiConsumer<? super T, ExceptionHandle> m_listener;
+
+    // the materialized future (optional)
+    private CompletableFuture<T> m_future;
+    }
@@ -1,9 +1,14 @@
 package org.xvm.runtime;
 
 
-import java.util.List;
+import java.util.Deque;
+import java.util.PriorityQueue;
+import java.util.Set;
 
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.MethodStructure;
@@ -13,35 +18,54 @@ import org.xvm.util.SimpleNotifier;
 
 
 /**
- * A simple daemon pool.
+ * A daemon pool that executes the registered services using a number of worker threads.
+ *
+ * A service is only scheduled for execution when it has something to do: a new request or
+ * response arrives, or a future its fibers are waiting for completes (see
+ * {@link ServiceContext#ensureScheduled}). A scheduled {@link ServiceContext} lives in exactly one
+ * of the workers' deques (or the "injected" deque, if it was scheduled by a non-worker thread),
+ * unless it is being processed by a worker, in which case it lives in none. A worker takes the
+ * services from the head of its own deque; if its deque is empty, it "steals" a service from the
+ * tail of another worker's deque. Since a service is removed from a deque for the duration of its
+ * processing, it is guaranteed to be executed by only one thread at a time.
+ *
+ * Idle services cost nothing; a worker that has nothing to do parks until it is signalled or
+ * until the earliest timeout of the waiting fibers expires.
+ *
+ * Known limitation: the services running on different workers share the ConstantPool, whose
+ * constant list and per-format lookup maps are not synchronized (see
+ * {@link ConstantPool#register}). Constants that are created at run-time can therefore be
+ * registered concurrently; "-Dxvm.daemons=1" runs all the services on a single worker.
  */
 public class DaemonPool
-        implements Runnable
     {
-    protected String m_sName;
-    protected Thread m_thread;
-
-    protected final Notifier f_notifier = new SimpleNotifier();
-
-    private volatile State m_state = State.Initial;
-
-    public volatile boolean m_fWaiting = true;
-
-    enum State {Initial, Starting, Running, Stopping, Stopped;};
-
-    private List<ServiceContext> f_listServices = new CopyOnWriteArrayList<>();
-
     /**
-    * Create a DaemonPool with the specified name.
-    */
+     * Create a DaemonPool with the specified name and the number of worker threads that is
+     * specified by the "xvm.daemons" system property, defaulting to the number of processors.
+     */
     public DaemonPool(String sName)
         {
-        m_sName = sName;
+        this(sName, Integer.getInteger(PROP_THREADS,
+                java.lang.Runtime.getRuntime().availableProcessors()));
+        }
+
+    /**
+     * Create a DaemonPool with the specified name and number of worker threads.
+     */
+    public DaemonPool(String sName, int cThreads)
+        {
+        if (cThreads <= 0)
+            {
+            throw new IllegalArgumentException("Invalid thread count: " + cThreads);
+            }
+
+        m_sName    = sName;
+        f_aWorkers = new Worker[cThreads];
         }
 
     /**
-    * Start the DaemonPool.
-    */
+     * Start the DaemonPool.
+     */
     public synchronized void start()
         {
         if (m_state != State.Initial)
@@ -51,128 +75,99 @@ public class DaemonPool
 
         setState(State.Starting);
 
-        Thread thread = m_thread = new Thread(new ThreadGroup(m_sName), this);
-        thread.setDaemon(true);
-        thread.start();
+        Worker[]    aWorker = f_aWorkers;
+        ThreadGroup group   = new ThreadGroup(m_sName);
+        for (int i = 0, c = aWorker.length; i < c; i++)
+            {
+            Worker worker = aWorker[i] = new Worker(i);
+            Thread thread = worker.m_thread = new Thread(group, worker, m_sName + '-' + i);
+            thread.setDaemon(true);
+            }
+
+        f_cLiveWorkers.set(aWorker.length);
+        setState(State.Running);
 
-        while (!isStarted())
+        for (Worker worker : aWorker)
             {
-            try
-                {
-                wait(1000);
-                }
-            catch (InterruptedException e)
-                {
-                throw new IllegalStateException("Failed to start");
-                }
+            worker.m_thread.start();
             }
         }
 
     public void addService(ServiceContext context)
         {
-        f_listServices.add(context);
+        // the service will be scheduled as soon as it has something to do
+        f_setServices.add(context);
         }
 
     public void removeService(ServiceContext context)
         {
-        f_listServices.remove(context);
+        // if the service is currently scheduled, the worker will drop it
+        f_setServices.remove(context);
         }
 
-    // ----- Runnable interface -----
-
-    @Override
-    public void run()
+    /**
+     * @return the number of worker threads
+     */
+    public int getThreadCount()
         {
-        setState(State.Running);
-
-        synchronized (this)
-            {
-            notify();
-            }
-
-        Notifier notifier = f_notifier;
+        return f_aWorkers.length;
+        }
 
-        try
+    /**
+     * @return true iff all the worker threads are waiting for work
+     */
+    public boolean isIdle()
+        {
+        for (Worker worker : f_aWorkers)
             {
-            boolean fNothingToDo = false;
-
-            while (m_state == State.Running)
+            if (worker != null && !worker.m_fWaiting)
                 {
-                if (fNothingToDo)
-                    {
-                    m_fWaiting = true;
-                    notifier.await(10); // min of all registered timeouts
-                    m_fWaiting = false;
-                    }
-                else
-                    {
-                    fNothingToDo = true;
-                    }
-
-                for (ServiceContext context : f_listServices)
-                    {
-                    Frame frame = context.nextFiber();
+                return false;
+                }
+            }
+        return f_dequeInjected.isEmpty();
+        }
 
-                    if (frame != null)
-                        {
-                        fNothingToDo = false;
-                        try
-                            {
-                            ConstantPool.setCurrentPool(frame.poolContext());
 
-                            frame = context.execute(frame);
-                            if (frame != null)
-                                {
-                                context.suspendFiber(frame);
-                                }
+    // ----- InterService Communications -----
 
-                            ConstantPool.setCurrentPool(null);
-                            }
-                        catch (Throwable e)
-                            {
-                            // TODO: RTError
-                            frame = context.getCurrentFrame();
-                            if (frame != null)
-                                {
-                                MethodStructure function = frame.f_function;
-                                int nLine = 0;
-                                if (function != null)
-                                    {
-                                    nLine = function.calculateLineNumber(frame.m_iPC);
-                                    }
-
-                                Utils.log(frame, "\nUnhandled exception at " + frame
-                                    + (nLine > 0 ? "; line=" + nLine : "; iPC=" + frame.m_iPC));
-                                }
-                            e.printStackTrace(System.out);
-                            System.exit(-1);
-                            }
-                        }
-                    }
-                }
-            }
-        catch (InterruptedException e)
+    /**
+     * Put the specified service on a ready queue and wake up a waiting worker. This method must
+     * only be called by the {@link ServiceContext#ensureScheduled} that guarantees that the
+     * service is not already scheduled.
+     *
+     * @param context  the service that has something to do
+     */
+    protected void schedule(ServiceContext context)
+        {
+        Worker worker = s_tloWorker.get();
+        if (worker != null && worker.getPool() == this)
             {
-            setState(State.Stopping);
+            worker.f_deque.addLast(context);
             }
-        catch (Throwable e)
+        else
             {
-            e.printStackTrace();
-            System.exit(1);
+            f_dequeInjected.addLast(context);
             }
-
-        m_thread = null;
-
-        setState(State.Stopped);
+        signal();
         }
 
-    // ----- InterService Communications -----
-
+    /**
+     * Wake up at least one of the waiting workers.
+     */
     public void signal()
         {
-        f_notifier.signal();
+        for (Worker worker : f_aWorkers)
+            {
+            if (worker != null && worker.m_fWaiting)
+                {
+                worker.f_notifier.signal();
+                return;
+                }
+            }
         }
 
+
     // ----- Service interface -----
 
     public synchronized void shutdown()
@@ -181,17 +176,26 @@ public class DaemonPool
             {
             m_state = State.Stopping;
             }
-        f_notifier.signal();
+
+        for (Worker worker : f_aWorkers)
+            {
+            if (worker != null)
+                {
+                worker.f_notifier.signal();
+                }
+            }
         }
 
+
     // ----- Helpers -----
 
     /**
-    * @return the thread object or null if the daemon is not started
-    */
-    public Thread getThread()
+     * @return the thread object for the specified worker or null if the daemon is not started
+     */
+    public Thread getThread(int nWorker)
         {
-        return m_thread;
+        Worker worker = f_aWorkers[nWorker];
+        return worker == null ? null : worker.m_thread;
         }
 
     public boolean isStarted()
@@ -207,10 +211,371 @@ public class DaemonPool
             }
         }
 
+    /**
+     * Process a single scheduling step for the specified service.
+     *
+     * @return true iff there was any work done
+     */
+    protected boolean process(ServiceContext context)
+        {
+        Frame frame = context.nextFiber();
+        if (frame == null)
+            {
+            return false;
+            }
+
+        try
+            {
+            ConstantPool.setCurrentPool(frame.poolContext());
+
+            frame = context.execute(frame);
+            if (frame != null)
+                {
+                context.suspendFiber(frame);
+                }
+
+            ConstantPool.setCurrentPool(null);
+            }
+        catch (Throwable e)
+            {
+            // TODO: RTError
+            frame = context.getCurrentFrame();
+            if (frame != null)
+                {
+                MethodStructure function = frame.f_function;
+                int nLine = 0;
+                if (function != null)
+                    {
+                    nLine = function.calculateLineNumber(frame.m_iPC);
+                    }
+
+                Utils.log(frame, "\nUnhandled exception at " + frame
+                    + (nLine > 0 ? "; line=" + nLine : "; iPC=" + frame.m_iPC));
+                }
+            e.printStackTrace(System.out);
+            System.exit(-1);
+            }
+        return true;
+        }
+
+    /**
+     * Steal a service from the tail of another worker's deque.
+     *
+     * @return a service or null if there is nothing to steal
+     */
+    protected ServiceContext steal(Worker thief)
+        {
+        Worker[] aWorker = f_aWorkers;
+        int      cWorker = aWorker.length;
+        int      nStart  = ThreadLocalRandom.current().nextInt(cWorker);
+        for (int i = 0; i < cWorker; i++)
+            {
+            Worker victim = aWorker[(nStart + i) % cWorker];
+            if (victim != thief)
+                {
+                ServiceContext context = victim.f_deque.pollLast();
+                if (context != null)
+                    {
+                    return context;
+                    }
+                }
+            }
+        return null;
+        }
+
+    /**
+     * Register a deadline at which the specified service has to be re-scheduled.
+     *
+     * @param ldtWakeup  the wall clock time (in millis)
+     * @param context    the service
+     */
+    protected void addDeadline(long ldtWakeup, ServiceContext context)
+        {
+        PriorityQueue<Deadline> queue = f_queueDeadlines;
+        synchronized (queue)
+            {
+            queue.add(new Deadline(ldtWakeup, context));
+
+            if (ldtWakeup >= m_ldtNextDeadline)
+                {
+                return;
+                }
+            m_ldtNextDeadline = ldtWakeup;
+            }
+
+        // the parked workers need to recalculate the wait time
+        signal();
+        }
+
+    /**
+     * Schedule all the services with expired deadlines.
+     *
+     * @return the number of millis till the next deadline or zero if there are none
+     */
+    protected long processDeadlines()
+        {
+        long ldtNow = System.currentTimeMillis();
+        if (ldtNow < m_ldtNextDeadline)
+            {
+            return m_ldtNextDeadline == Long.MAX_VALUE ? 0 : m_ldtNextDeadline - ldtNow;
+            }
+
+        PriorityQueue<Deadline> queue = f_queueDeadlines;
+        synchronized (queue)
+            {
+            Deadline deadline;
+            while ((deadline = queue.peek()) != null && deadline.f_ldtWakeup <= ldtNow)
+                {
+                queue.poll();
+
+                ServiceContext context = deadline.f_context;
+                if (f_setServices.contains(context))
+                    {
+                    context.ensureScheduled();
+                    }
+                }
+
+            if (deadline == null)
+                {
+                m_ldtNextDeadline = Long.MAX_VALUE;
+                return 0;
+                }
+
+            m_ldtNextDeadline = deadline.f_ldtWakeup;
+            return deadline.f_ldtWakeup - ldtNow;
+            }
+        }
+
     @Override
     public String toString()
         {
-        return "DaemonPool{Thread=\"" + getThread() + '\"'
+        return "DaemonPool{Name=\"" + m_sName + '\"'
+            + ", Threads=" + f_aWorkers.length
             + ", State=" + m_state.name() + '}';
         }
+
+
+    // ----- inner class: Worker -------------------------------------------------------------------
+
+    /**
+     * A worker thread with its own deque of services.
+     */
+    protected class Worker
+            implements Runnable
+        {
+        protected Worker(int nId)
+            {
+            f_nId = nId;
+            }
+
+        /**
+         * @return the DaemonPool this worker belongs to
+         */
+        protected DaemonPool getPool()
+            {
+            return DaemonPool.this;
+            }
+
+        /**
+         * @return the next scheduled service or null if there are none
+         */
+        protected ServiceContext nextService()
+            {
+            ServiceContext context = f_deque.pollFirst();
+            if (context == null)
+                {
+                context = f_dequeInjected.pollFirst();
+                if (context == null)
+                    {
+                    context = steal(this);
+                    }
+                }
+            return context;
+            }
+
+        @Override
+        public void run()
+            {
+            s_tloWorker.set(this);
+
+            Deque<ServiceContext> deque    = f_deque;
+            Notifier              notifier = f_notifier;
+
+            try
+                {
+                m_fWaiting = false;
+                while (m_state == State.Running)
+                    {
+                    processDeadlines();
+
+                    ServiceContext context = nextService();
+                    if (context == null)
+                        {
+                        // announce the intent to park and re-check to avoid missing a signal
+                        m_fWaiting = true;
+
+                        long cWait = processDeadlines();
+
+                        context = nextService();
+                        if (context == null)
+                            {
+                            notifier.await(cWait);
+                            m_fWaiting = false;
+                            continue;
+                            }
+                        m_fWaiting = false;
+                        }
+
+                    if (!f_setServices.contains(context))
+                        {
+                        // the service has been removed
+                        continue;
+                        }
+
+                    if (process(context))
+                        {
+                        // the service may still have something to do
+                        deque.addLast(context);
+                        continue;
+                        }
+
+                    // the timeout must be collected while the service is still owned by this
+                    // worker
+                    long ldtTimeout = context.getWaitingTimeout();
+                    if (context.unschedule())
+                        {
+                        if (ldtTimeout > 0)
+                            {
+                            addDeadline(ldtTimeout, context);
+                            }
+                        }
+                    else
+                        {
+                        // the service has been notified while it was processed
+                        deque.addLast(context);
+                        }
+                    }
+                }
+            catch (InterruptedException e)
+                {
+                setState(State.Stopping);
+                }
+            catch (Throwable e)
+                {
+                e.printStackTrace();
+                System.exit(1);
+                }
+
+            m_fWaiting = true;
+            if (f_cLiveWorkers.decrementAndGet() == 0)
+                {
+                setState(State.Stopped);
+                }
+            }
+
+        @Override
+        public String toString()
+            {
+            return "Worker{Id=" + f_nId + ", Services=" + f_deque.size() + '}';
+            }
+
+        /**
+         * The worker index.
+         */
+        protected final int f_nId;
+
+        /**
+         * The services scheduled by this worker.
+         */
+        protected final Deque<ServiceContext> f_deque = new ConcurrentLinkedDeque<>();
+
+        /**
+         * The notifier used to wake up this worker.
+         */
+        protected final Notifier f_notifier = new SimpleNotifier();
+
+        /**
+         * The worker's thread.
+         */
+        protected Thread m_thread;
+
+        /**
+         * Indicates that the worker is waiting for work.
+         */
+        protected volatile boolean m_fWaiting = true;
+        }
+
+
+    // ----- inner class: Deadline -----------------------------------------------------------------
+
+    /**
+     * A wake-up time for a service that has fibers waiting with a timeout.
+     */
+    protected static class Deadline
+            implements Comparable<Deadline>
+        {
+        protected Deadline(long ldtWakeup, ServiceContext context)
+            {
+            f_ldtWakeup = ldtWakeup;
+            f_context   = context;
+            }
+
+        @Override
+        public int compareTo(Deadline that)
+            {
+            return Long.compare(this.f_ldtWakeup, that.f_ldtWakeup);
+            }
+
+        protected final long           f_ldtWakeup;
+        protected final ServiceContext f_context;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The name of the system property that specifies the number of worker threads.
+     */
+    public static final String PROP_THREADS = "xvm.daemons";
+
+    /**
+     * The worker associated with the current thread.
+     */
+    private static final ThreadLocal<Worker> s_tloWorker = new ThreadLocal<>();
+
+    protected String m_sName;
+
+    private volatile State m_state = State.Initial;
+
+    enum State {Initial, Starting, Running, Stopping, Stopped;};
+
+    /**
+     * The workers.
+     */
+    private final Worker[] f_aWorkers;
+
+    /**
+     * The number of workers that have not stopped yet.
+     */
+    private final AtomicInteger f_cLiveWorkers = new AtomicInteger();
+
+    /**
+     * All registered services.
+     */
+    private final Set<ServiceContext> f_setServices = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The services scheduled by non-worker threads.
+     */
+    private final Deque<ServiceContext> f_dequeInjected = new ConcurrentLinkedDeque<>();
+
+    /**
+     * The deadlines of the services with fibers waiting with a timeout.
+     */
+    private final PriorityQueue<Deadline> f_queueDeadlines = new PriorityQueue<>();
+
+    /**
+     * The earliest of the registered deadlines (Long.MAX_VALUE if none).
+     */
+    private volatile long m_ldtNextDeadline = Long.MAX_VALUE;
     }
@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -47,6 +46,9 @@ public class Fiber
     // the fiber status can only be mutated by the fiber itself
     private FiberStatus m_status;
 
+    // the register arrays of the returned frames that can be reused by the new ones
+    public final RegisterPool f_poolRegisters = new RegisterPool();
+
     // if the fiber is not running, the frame it was suspended at
     public Frame m_frame;
 
@@ -71,12 +73,19 @@ public class Fiber
     // list of exceptions to be processed by this fiber when the active AsyncSection is closed
     private List<ExceptionHandle> m_listUnhandledEx;
 
-    // Pending uncaptured futures; values are AsyncSection handlers
-    private Map<CompletableFuture, ObjectHandle> m_mapPendingFutures;
+    // Pending uncaptured requests; values are AsyncSection handlers
+    private Map<CompletionToken, ObjectHandle> m_mapPendingFutures;
 
     // if specified, indicates an action to be done first as the fiber execution resumes
     private Frame.Continuation m_resume;
 
+    // FiberQueue support: the bucket this fiber is queued in (-1 if not queued), the links within
+    // the bucket and the frame the fiber is suspended at
+    int   m_nQueuedBucket = -1;
+    Fiber m_fiberQueuedPrev;
+    Fiber m_fiberQueuedNext;
+    Frame m_frameQueued;
+
     private static AtomicLong s_counter = new AtomicLong();
 
     enum FiberStatus
@@ -194,6 +203,16 @@ public class Fiber
         return m_status != FiberStatus.Waiting || m_fResponded || isTimedOut();
         }
 
+    /**
+     * Mark this fiber as "responded" and make sure its service is going to be scheduled, so the
+     * fiber's readiness is re-evaluated. This method can be called on any thread.
+     */
+    public void setResponded()
+        {
+        m_fResponded = true;
+        f_context.notifyResponded(this);
+        }
+
     public boolean isTimedOut()
         {
         return m_ldtTimeout > 0 && System.currentTimeMillis() > m_ldtTimeout;
@@ -243,28 +262,27 @@ public class Fiber
         return iResult;
         }
 
-    public void registerUncapturedRequest(CompletableFuture<?> future)
+    public void registerUncapturedRequest(CompletionToken<?> token)
         {
-        Map<CompletableFuture, ObjectHandle> mapPending = m_mapPendingFutures;
+        Map<CompletionToken, ObjectHandle> mapPending = m_mapPendingFutures;
         if (mapPending == null)
             {
             mapPending = m_mapPendingFutures = new ConcurrentHashMap<>();
             }
 
-        mapPending.put(future, m_hAsyncSection);
+        mapPending.put(token, m_hAsyncSection);
 
-        future.whenComplete((_void, ex) ->
+        token.whenComplete((_void, hException) ->
             {
-            if (ex != null)
+            if (hException != null)
                 {
-                processUnhandledException(
-                    ((ExceptionHandle.WrapperException) ex).getExceptionHandle());
+                processUnhandledException(hException);
                 }
 
-            m_mapPendingFutures.remove(future);
+            m_mapPendingFutures.remove(token);
             if (m_mapPendingFutures.isEmpty())
                 {
-                m_fResponded = true;
+                setResponded();
                 }
             });
         }
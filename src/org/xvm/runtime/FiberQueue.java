@@ -4,65 +4,151 @@ package org.xvm.runtime;
 /**
  * {@link FiberQueue} represents a queue-like data structure holding all pending Fibers and
  * facilitating a quick selection algorithm for the scheduler.
+ *
+ * The suspended fibers are kept in intrusive doubly-linked lists (the links are held by the
+ * {@link Fiber} itself), one per priority bucket:
+ * <ul>
+ *   <li>[2] waiting fibers that have been marked as "ready" (responded to or timed-out);
+ *   <li>[1] initial associated or yielded fibers;
+ *   <li>[0] initial new fibers;
+ *   <li>the waiting fibers that are not ready yet.
+ * </ul>
+ * A waiting fiber is moved to the "ready" bucket by {@link #markReady} when a future it is
+ * waiting for completes, so all the scheduling decisions are O(1), regardless of the number of
+ * suspended fibers. Within a bucket, the fibers are processed in the FIFO order.
+ *
+ * This class is not thread safe; it must only be used by the thread that is currently processing
+ * the owning service.
  */
 public class FiberQueue
     {
-    // a circular array
-    private Frame[] m_aFrame = new Frame[16];
+    public void add(Frame frame)
+        {
+        Fiber fiber = frame.f_fiber;
 
-    private int m_ixHead = -1; // head
-    private int m_ixTail = 0;  // past the tail - insertion point
-    private int m_cSize = 0;
+        assert fiber.m_nQueuedBucket < 0;
 
-    // cached indexes of the top fiber for a given priority
-    // [2] a waiting fiber that is marked as "ready"
-    // [1] initial associated or yielded
-    // [0] initial new
-    private int[] m_aixPriority = new int[] {-1, -1, -1};
+        int nBucket;
+        switch (fiber.getStatus())
+            {
+            case InitialNew:
+                nBucket = BUCKET_NEW;
+                break;
 
-    public void add(Frame frame)
+            case InitialAssociated:
+            case Yielded:
+                nBucket = BUCKET_ASSOCIATED;
+                break;
+
+            case Waiting:
+                if (fiber.isReady())
+                    {
+                    nBucket = BUCKET_READY;
+                    }
+                else
+                    {
+                    nBucket = BUCKET_WAITING;
+
+                    long ldtTimeout = fiber.m_ldtTimeout;
+                    if (ldtTimeout > 0 && (m_ldtTimeout == 0 || ldtTimeout < m_ldtTimeout))
+                        {
+                        m_ldtTimeout = ldtTimeout;
+                        }
+                    }
+                break;
+
+            default:
+                throw new IllegalStateException();
+            }
+
+        fiber.m_frameQueued = frame;
+        link(fiber, nBucket);
+        m_cSize++;
+        }
+
+    public boolean isEmpty()
         {
-        ensureCapacity(++m_cSize);
+        return m_cSize == 0;
+        }
 
-        int iInsert = m_ixTail;
+    public int size()
+        {
+        return m_cSize;
+        }
 
-        if (m_aFrame[iInsert] != null)
+    /**
+     * Move the specified fiber from the "waiting" bucket to the "ready" bucket. If the fiber is
+     * not in the "waiting" bucket (e.g. it's running or is already "ready") this is a no-op.
+     *
+     * @param fiber  a fiber that has been responded to
+     */
+    public void markReady(Fiber fiber)
+        {
+        if (fiber.m_nQueuedBucket == BUCKET_WAITING)
             {
-            compact();
-            iInsert = m_ixTail;
+            unlink(fiber);
+            link(fiber, BUCKET_READY);
             }
-        m_aFrame[iInsert] = frame;
+        }
 
-        if (m_ixHead < 0)
+    /**
+     * Move all the timed-out waiting fibers to the "ready" bucket. This is a no-op unless the
+     * earliest of the timeouts has passed.
+     */
+    public void checkTimeouts()
+        {
+        long ldtTimeout = m_ldtTimeout;
+        if (ldtTimeout == 0 || System.currentTimeMillis() <= ldtTimeout)
             {
-            m_ixHead = iInsert;
+            return;
             }
-        m_ixTail = (iInsert + 1) % m_aFrame.length;
 
-        checkPriority(iInsert);
+        ldtTimeout = 0;
+        for (Fiber fiber = f_aHead[BUCKET_WAITING]; fiber != null; )
+            {
+            Fiber fiberNext = fiber.m_fiberQueuedNext;
+            if (fiber.isTimedOut())
+                {
+                unlink(fiber);
+                link(fiber, BUCKET_READY);
+                }
+            else
+                {
+                long ldt = fiber.m_ldtTimeout;
+                if (ldt > 0 && (ldtTimeout == 0 || ldt < ldtTimeout))
+                    {
+                    ldtTimeout = ldt;
+                    }
+                }
+            fiber = fiberNext;
+            }
+        m_ldtTimeout = ldtTimeout;
         }
 
-    public boolean isEmpty()
+    // get the earliest timeout of the waiting fibers or zero if there are none;
+    // the value could be earlier than the actual one if the corresponding fiber has already
+    // been responded to
+    public long getWaitingTimeout()
         {
-        return m_cSize == 0;
+        return f_aHead[BUCKET_WAITING] == null ? 0 : m_ldtTimeout;
         }
 
     // get the first of the waiting fibers that is either "ready" or timed-out
     public Frame getWaitingReady()
         {
-        return getNext(2);
+        return getNext(BUCKET_READY);
         }
 
     // get the first with a priority no less than "associated or yielded"
     public Frame getAssociatedOrYielded()
         {
-        return getNext(1);
+        return getNext(BUCKET_ASSOCIATED);
         }
 
     // get the first that is ready (any priority)
     public Frame getAnyReady()
         {
-        return getNext(0);
+        return getNext(BUCKET_NEW);
         }
 
     // get the next fiber with a priority no less than the specified one
@@ -73,157 +159,93 @@ public class FiberQueue
             return null;
             }
 
-        for (int i = 2; i >= nPriority; i--)
+        Fiber[] aHead = f_aHead;
+        for (int i = BUCKET_READY; i >= nPriority; i--)
             {
-            int ix = m_aixPriority[i];
-            if (ix >= 0)
+            Fiber fiber = aHead[i];
+            if (fiber != null)
                 {
-                m_aixPriority[i] = -1;
-                return remove(ix);
-                }
-            }
+                unlink(fiber);
+                m_cSize--;
 
-        int cCapacity = m_aFrame.length;
-        int iStart = m_ixHead;
-        for (int i = 0; i < cCapacity; i++)
-            {
-            int ix = (i + iStart) % cCapacity;
-
-            int iPriority = checkPriority(ix);
-            if (iPriority >= nPriority)
-                {
-                m_aixPriority[iPriority] = -1;
-                return remove(ix);
+                Frame frame = fiber.m_frameQueued;
+                fiber.m_frameQueued = null;
+                return frame;
                 }
             }
         return null;
         }
 
-    // return the priority of the fiber at the specified index and update the cache indexes
-    private int checkPriority(int ix)
+    // append the fiber to the tail of the specified bucket
+    private void link(Fiber fiber, int nBucket)
         {
-        Frame frame = m_aFrame[ix];
-        if (frame == null)
+        Fiber fiberTail = f_aTail[nBucket];
+
+        fiber.m_nQueuedBucket   = nBucket;
+        fiber.m_fiberQueuedPrev = fiberTail;
+        fiber.m_fiberQueuedNext = null;
+
+        if (fiberTail == null)
             {
-            return -2; // allow to differentiate empty from not-ready
+            f_aHead[nBucket] = fiber;
             }
-
-        switch (frame.f_fiber.getStatus())
+        else
             {
-            default:
-                throw new IllegalStateException();
-
-            case Waiting:
-                if (frame.f_fiber.isReady())
-                    {
-                    if (m_aixPriority[2] < 0)
-                        {
-                        m_aixPriority[2] = ix;
-                        }
-                    return 2;
-                    }
-                else
-                    {
-                    return -1;
-                    }
-
-            case InitialAssociated:
-            case Yielded:
-                if (m_aixPriority[1] < 0)
-                    {
-                    m_aixPriority[1] = ix;
-                    }
-                return 1;
-
-            case InitialNew:
-                if (m_aixPriority[0] < 0)
-                    {
-                    m_aixPriority[0] = ix;
-                    }
-                return 0;
+            fiberTail.m_fiberQueuedNext = fiber;
             }
+        f_aTail[nBucket] = fiber;
         }
 
-    private Frame remove(int ix)
+    // remove the fiber from its bucket
+    private void unlink(Fiber fiber)
         {
-        Frame frame = m_aFrame[ix];
-
-        assert frame != null;
+        int   nBucket   = fiber.m_nQueuedBucket;
+        Fiber fiberPrev = fiber.m_fiberQueuedPrev;
+        Fiber fiberNext = fiber.m_fiberQueuedNext;
 
-        m_aFrame[ix] = null;
-
-        if (--m_cSize > 0)
+        if (fiberPrev == null)
             {
-            // move the head if necessary
-            if (ix == m_ixHead)
-                {
-                int cCapacity = m_aFrame.length;
-                do
-                    {
-                    ix = (ix + 1) % cCapacity;
-                    }
-                while (m_aFrame[ix] == null);
-
-                m_ixHead = ix;
-                }
+            f_aHead[nBucket] = fiberNext;
             }
         else
             {
-            m_ixHead = -1;
-            m_ixTail = 0;
+            fiberPrev.m_fiberQueuedNext = fiberNext;
             }
-        return frame;
-        }
 
-    private void ensureCapacity(int cCapacity)
-        {
-        if (cCapacity > m_aFrame.length)
+        if (fiberNext == null)
             {
-            int cNewCapacity = cCapacity + cCapacity >> 2; // 1.25
-
-            Frame[] aNew = new Frame[cNewCapacity];
-
-            System.arraycopy(m_aFrame, 0, aNew, 0, m_aFrame.length);
-            m_aFrame = aNew;
+            f_aTail[nBucket] = fiberPrev;
             }
-        }
-
-    // move all the not-empty spaces toward the head
-    private void compact()
-        {
-        Frame[] aFrame = m_aFrame;
-        int cCapacity = m_aFrame.length;
-
-        assert aFrame[m_ixHead] != null;
-
-        int iFrom = (m_ixHead + 1) % cCapacity;
-        int iTo = iFrom;
-
-        for (int i = 1, c = aFrame.length; i < c; i++)
+        else
             {
-            Frame frame = aFrame[iFrom];
-            if (frame != null)
-                {
-                if (iFrom != iTo)
-                    {
-                    assert aFrame[iTo] == null;
-                    aFrame[iTo] = frame;
-                    aFrame[iFrom] = null;
-                    }
-                iTo = (iTo + 1) % cCapacity;
-                }
-            iFrom = (iFrom + 1) % cCapacity;
+            fiberNext.m_fiberQueuedPrev = fiberPrev;
             }
 
-        m_ixTail = iTo;
-        assert aFrame[m_ixTail] == null;
-
-        // reset the cached indexes
-        m_aixPriority[0] = m_aixPriority[1] = m_aixPriority[2] = -1;
+        fiber.m_nQueuedBucket   = -1;
+        fiber.m_fiberQueuedPrev = null;
+        fiber.m_fiberQueuedNext = null;
         }
 
     public String toString()
         {
         return "size=" + m_cSize;
         }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    private static final int BUCKET_NEW        = 0;
+    private static final int BUCKET_ASSOCIATED = 1;
+    private static final int BUCKET_READY      = 2;
+    private static final int BUCKET_WAITING    = 3;
+
+    // the heads and tails of the buckets
+    private final Fiber[] f_aHead = new Fiber[4];
+    private final Fiber[] f_aTail = new Fiber[4];
+
+    // the total number of queued fibers
+    private int m_cSize;
+
+    // the earliest timeout of the waiting fibers (zero if none)
+    private long m_ldtTimeout;
     }
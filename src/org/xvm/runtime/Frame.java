@@ -6,12 +6,15 @@ import java.util.Deque;
 
 import java.util.concurrent.CompletableFuture;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.Constants.Access;
 import org.xvm.asm.GenericTypeResolver;
 import org.xvm.asm.MethodStructure;
 import org.xvm.asm.Op;
+import org.xvm.asm.OpFusion;
 import org.xvm.asm.Parameter;
 
 import org.xvm.asm.constants.IdentityConstant;
@@ -22,6 +25,7 @@ import org.xvm.asm.constants.TypeConstant;
 
 import org.xvm.runtime.ObjectHandle.DeferredCallHandle;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.Utils.ContinuationChain;
 
 import org.xvm.runtime.template.xBoolean;
@@ -38,6 +42,8 @@ import org.xvm.runtime.template.annotations.xFutureVar.FutureHandle;
 import org.xvm.runtime.template.collections.xTuple;
 import org.xvm.runtime.template.collections.xTuple.TupleHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 
 /**
  * A call stack frame.
@@ -81,8 +87,14 @@ public class Frame
     public  int                     m_nDepth;       // this frame's depth in the call chain
 
     private ObjectHandle            m_hStackTop;    // the top of the local stack
+    private long                    m_lStackTop;    // the unboxed Int64 top of the local stack
     private Deque<ObjectHandle>     m_stack;        // a remainder of the stack
 
+    private long[]                  m_alVar;        // unboxed Int64 values (see isInt64)
+
+    private boolean                 m_fPooled;      // the registers belong to the fiber's pool
+    private boolean                 m_fEscaped;     // the registers are referred to from outside
+
     public static final int VAR_STANDARD         = 0;
     public static final int VAR_DYNAMIC_REF      = 1;
     public static final int VAR_STANDARD_WAITING = 2;
@@ -115,11 +127,16 @@ public class Frame
                         ? hTarget
                         : hTarget.revealOrigin();
 
-        f_ahVar = ahVar;
-        f_aInfo = new VarInfo[ahVar.length];
+        VarInfo[] aInfo = f_fiber.f_poolRegisters.claim(ahVar);
+
+        f_ahVar   = ahVar;
+        f_aInfo   = aInfo == null ? new VarInfo[ahVar.length] : aInfo;
+        m_fPooled = aInfo != null;
 
         int cScopes = function == null ? 1 : function.getMaxScopes();
-        f_anNextVar = new int[cScopes];
+        f_anNextVar = m_fPooled
+                ? f_fiber.f_poolRegisters.allocateScopes(cScopes)
+                : new int[cScopes];
         f_anNextVar[0] = function == null ? 0 : function.getParamCount();
 
         f_iReturn = iReturn;
@@ -216,6 +233,42 @@ public class Frame
         return new Frame(this, aop, ahVar, iReturn, aiReturn);
         }
 
+    /**
+     * Obtain a register array for a frame to be called by this frame. The array is reused once
+     * the called frame returns, unless it has escaped (see {@link #markEscaped}).
+     *
+     * @param cVars  the number of registers
+     *
+     * @return a register array with all elements being null
+     */
+    public ObjectHandle[] allocateRegisters(int cVars)
+        {
+        return f_fiber.f_poolRegisters.allocate(cVars);
+        }
+
+    /**
+     * Mark the registers of this frame as referred to from outside of the frame (e.g. by a Ref
+     * to a register), which prevents them from being reused after the frame returns.
+     */
+    public void markEscaped()
+        {
+        m_fEscaped = true;
+        }
+
+    /**
+     * Release the registers of this frame back to the fiber's pool. Called when the frame has
+     * returned normally; a frame that has a continuation is not released, since the continuation
+     * could refer to it.
+     */
+    protected void releaseRegisters()
+        {
+        if (m_fPooled && !m_fEscaped && m_continuation == null)
+            {
+            m_fPooled = false;
+            f_fiber.f_poolRegisters.release(f_ahVar, f_aInfo, f_anNextVar, m_stack);
+            }
+        }
+
     // a convenience method
     public int call(Frame frameNext)
         {
@@ -502,14 +555,17 @@ public class Frame
     public void pushStack(ObjectHandle hValue)
         {
         assert hValue != null;
-        if (m_hStackTop != null)
+        ObjectHandle hTop = m_hStackTop;
+        if (hTop != null)
             {
             Deque<ObjectHandle> stack = m_stack;
             if (stack == null)
                 {
-                stack = m_stack = new ArrayDeque<>();
+                stack = m_stack = m_fPooled
+                        ? f_fiber.f_poolRegisters.allocateStack()
+                        : new ArrayDeque<>();
                 }
-            stack.push(m_hStackTop);
+            stack.push(hTop == ObjectHandle.UNBOXED ? xInt64.makeHandle(m_lStackTop) : hTop);
             }
         m_hStackTop = hValue;
         }
@@ -524,6 +580,11 @@ public class Frame
         ObjectHandle hValue = m_hStackTop;
         assert hValue != null;
 
+        if (hValue == ObjectHandle.UNBOXED)
+            {
+            hValue = xInt64.makeHandle(m_lStackTop);
+            }
+
         Deque<ObjectHandle> stack = m_stack;
         m_hStackTop = stack == null || stack.isEmpty()
                 ? null
@@ -539,7 +600,12 @@ public class Frame
      */
     public ObjectHandle peekStack()
         {
-        return m_hStackTop;
+        ObjectHandle hValue = m_hStackTop;
+        if (hValue == ObjectHandle.UNBOXED)
+            {
+            m_hStackTop = hValue = xInt64.makeHandle(m_lStackTop);
+            }
+        return hValue;
         }
 
     /**
@@ -799,6 +865,61 @@ public class Frame
         return call(Utils.createWaitFrame(this, cfResult, iReturn));
         }
 
+    /**
+     * Assign the result of a service request represented by the specified completion token to
+     * the specified register on this frame. Unlike {@link #assignFutureResult}, this doesn't
+     * create a CompletableFuture, unless the register is a dynamic one (e.g. a "@Future" var).
+     *
+     * @param iReturn  the register id
+     * @param token    the completion token
+     *
+     * @return one of R_NEXT, R_CALL or R_EXCEPTION values
+     */
+    public int assignTokenResult(int iReturn, CompletionToken<ObjectHandle> token)
+        {
+        if (token.isDone())
+            {
+            return token.isCompletedNormally()
+                ? assignValue(iReturn, token.getResult())
+                : raiseException(token.getException());
+            }
+
+        if (isDynamicVar(iReturn))
+            {
+            return assignValue(iReturn, xFutureVar.makeHandle(token.toFuture()));
+            }
+
+        return call(Utils.createWaitFrame(this, token, iReturn));
+        }
+
+    /**
+     * Assign the results of a service request represented by the specified completion token to
+     * the specified registers on this frame.
+     *
+     * @param aiReturn  the register ids
+     * @param token     the completion token
+     *
+     * @return one of R_NEXT, R_CALL or R_EXCEPTION values
+     */
+    public int assignTokenResults(int[] aiReturn, CompletionToken<ObjectHandle[]> token)
+        {
+        if (token.isDone())
+            {
+            return token.isCompletedNormally()
+                ? assignValues(aiReturn, token.getResult())
+                : raiseException(token.getException());
+            }
+
+        if (aiReturn.length == 1 && isDynamicVar(aiReturn[0]))
+            {
+            CompletableFuture<ObjectHandle> cfReturn =
+                token.toFuture().thenApply(ahResult -> ahResult[0]);
+            return assignValue(aiReturn[0], xFutureVar.makeHandle(cfReturn));
+            }
+
+        return call(Utils.createWaitFrame(this, token, aiReturn));
+        }
+
     /**
      * Assign the return register on the caller's frame.
      *
@@ -1040,6 +1161,24 @@ public class Frame
      */
     public ObjectHandle getConstHandle(int iArg)
         {
+        // fast path: a handle that has already been cached by the heap
+        AtomicReferenceArray<ObjectHandle> ahConst = f_function.getConstHandles();
+        if (ahConst == null)
+            {
+            ahConst = f_context.f_heapGlobal.ensureConstTable(poolCode());
+            f_function.setConstHandles(ahConst);
+            }
+
+        int nPos = Op.CONSTANT_OFFSET - iArg;
+        if (nPos < ahConst.length())
+            {
+            ObjectHandle hConst = ahConst.get(nPos);
+            if (hConst != null)
+                {
+                return hConst;
+                }
+            }
+
         return f_context.f_heapGlobal.ensureConstHandle(this, getConstant(iArg));
         }
 
@@ -1209,6 +1348,11 @@ public class Frame
         if (iArg >= 0)
             {
             ObjectHandle hValue = f_ahVar[iArg];
+            if (hValue == ObjectHandle.UNBOXED)
+                {
+                return box(iArg);
+                }
+
             if (hValue == null)
                 {
                 // there is a possibility this method introduced a default value at the sub class
@@ -1287,6 +1431,38 @@ public class Frame
                 : getPredefinedArgument(iArg);
         }
 
+    /**
+     * A fast path for {@link #getArgument}, which doesn't allocate and never changes the frame
+     * state. It only succeeds for a standard register that holds an assigned value or for a
+     * constant; a caller must fall back to getArgument() for anything else (the stack, dynamic
+     * vars, default arguments, etc.)
+     *
+     * Note, that the constant handle could be a DeferredCallHandle.
+     *
+     * @return the argument handle or null if the slow path must be taken
+     */
+    public ObjectHandle peekArgument(int iArg)
+        {
+        if (iArg >= 0)
+            {
+            ObjectHandle hValue = f_ahVar[iArg];
+            if (hValue == ObjectHandle.UNBOXED)
+                {
+                return box(iArg);
+                }
+
+            if (hValue == null || hValue == ObjectHandle.DEFAULT)
+                {
+                return null;
+                }
+
+            VarInfo info = f_aInfo[iArg];
+            return info == null || info.getStyle() == VAR_STANDARD ? hValue : null;
+            }
+
+        return iArg <= Op.CONSTANT_OFFSET ? getConstHandle(iArg) : null;
+        }
+
     /**
      * Unlike getArgument(), this could return a non-completed FutureHandle and it never throws
      *
@@ -1295,12 +1471,164 @@ public class Frame
     public ObjectHandle getReturnValue(int iArg)
         {
         return iArg >= 0
-                ? f_ahVar[iArg]
+                ? getRegister(iArg)
                 : iArg <= Op.CONSTANT_OFFSET
                         ? getConstHandle(iArg)
                         : getPredefinedArgument(iArg);
         }
 
+    /**
+     * Unlike getArgument(), this method simply returns the content of the specified register,
+     * which could be null, a dynamic var or a non-completed FutureHandle. The only transformation
+     * is boxing of an unboxed Int64 value.
+     *
+     * @return the handle held by the specified register
+     */
+    public ObjectHandle getRegister(int nVar)
+        {
+        ObjectHandle hValue = f_ahVar[nVar];
+        return hValue == ObjectHandle.UNBOXED ? box(nVar) : hValue;
+        }
+
+    /**
+     * Check whether the specified argument holds an Int64 value that could be retrieved by
+     * {@link #getInt64} without any allocation. That is true for a standard register or the top
+     * of the local stack holding an unboxed value or a plain Int64 handle, and for an Int64
+     * constant.
+     *
+     * @param iArg  the argument id
+     *
+     * @return true iff the argument is a known Int64 value
+     */
+    public boolean isInt64(int iArg)
+        {
+        ObjectHandle hValue;
+        if (iArg >= 0)
+            {
+            hValue = f_ahVar[iArg];
+            if (hValue == ObjectHandle.UNBOXED)
+                {
+                return true;
+                }
+
+            VarInfo info = f_aInfo[iArg];
+            if (info != null && info.getStyle() != VAR_STANDARD)
+                {
+                return false;
+                }
+            }
+        else if (iArg <= Op.CONSTANT_OFFSET)
+            {
+            hValue = getConstHandle(iArg);
+            }
+        else if (iArg == Op.A_STACK)
+            {
+            hValue = m_hStackTop;
+            if (hValue == ObjectHandle.UNBOXED)
+                {
+                return true;
+                }
+            }
+        else
+            {
+            return false;
+            }
+
+        return xInt64.isCanonical(hValue);
+        }
+
+    /**
+     * Check whether both specified arguments hold Int64 values (see {@link #isInt64(int)}).
+     * Since only the top of the local stack could be checked, at most one of the arguments could
+     * come from the stack.
+     *
+     * @return true iff both arguments are known Int64 values
+     */
+    public boolean isInt64(int iArg1, int iArg2)
+        {
+        return (iArg1 != Op.A_STACK || iArg2 != Op.A_STACK) && isInt64(iArg1) && isInt64(iArg2);
+        }
+
+    /**
+     * Retrieve the value of an argument that is known to be an Int64 (see {@link #isInt64}).
+     * A value on the local stack is popped.
+     *
+     * @param iArg  the argument id
+     *
+     * @return the Int64 value
+     */
+    public long getInt64(int iArg)
+        {
+        if (iArg >= 0)
+            {
+            ObjectHandle hValue = f_ahVar[iArg];
+            return hValue == ObjectHandle.UNBOXED
+                    ? m_alVar[iArg]
+                    : ((JavaLong) hValue).getValue();
+            }
+
+        if (iArg == Op.A_STACK)
+            {
+            long lValue = m_hStackTop == ObjectHandle.UNBOXED
+                    ? m_lStackTop
+                    : ((JavaLong) m_hStackTop).getValue();
+
+            Deque<ObjectHandle> stack = m_stack;
+            m_hStackTop = stack == null || stack.isEmpty()
+                    ? null
+                    : stack.pop();
+            return lValue;
+            }
+
+        return ((JavaLong) getConstHandle(iArg)).getValue();
+        }
+
+    /**
+     * Assign an Int64 value to the specified register. A standard register and the local stack
+     * keep the value unboxed; it's going to be boxed only when the value escapes via
+     * {@link #getArgument}, {@link #getRegister}, {@link #popStack} and alike. Any other
+     * destination gets a boxed value.
+     *
+     * @param nVar    the register id
+     * @param lValue  the value to assign
+     *
+     * @return R_NEXT, R_CALL, R_EXCEPTION
+     */
+    public int assignInt64(int nVar, long lValue)
+        {
+        if (nVar >= 0)
+            {
+            if (getVarInfo(nVar).getStyle() == VAR_STANDARD)
+                {
+                long[] alVar = m_alVar;
+                if (alVar == null)
+                    {
+                    alVar = m_alVar = new long[f_ahVar.length];
+                    }
+                alVar[nVar]   = lValue;
+                f_ahVar[nVar] = ObjectHandle.UNBOXED;
+                return Op.R_NEXT;
+                }
+            }
+        else if (nVar == Op.A_STACK)
+            {
+            pushStack(ObjectHandle.UNBOXED);
+            m_lStackTop = lValue;
+            return Op.R_NEXT;
+            }
+
+        return assignValue(nVar, xInt64.makeHandle(lValue));
+        }
+
+    /**
+     * Box the unboxed Int64 value held by the specified register. The register holds on to the
+     * boxed value, so it doesn't need to be boxed again.
+     */
+    private ObjectHandle box(int nVar)
+        {
+        return f_ahVar[nVar] = xInt64.makeHandle(m_alVar[nVar]);
+        }
+
     /**
      * Create an array of ObjectHandles holding the specified arguments.
      * <p/>
@@ -1727,7 +2055,12 @@ public class Frame
                 {
                 sb.append(" (iPC=").append(iPC);
                 }
-            sb.append(", op=").append(aOp[iPC].getClass().getSimpleName());
+            Op op = aOp[iPC];
+            if (op instanceof OpFusion.Fused)
+                {
+                op = ((OpFusion.Fused) op).getReplacedOp();
+                }
+            sb.append(", op=").append(op.getClass().getSimpleName());
             sb.append(')');
             }
 
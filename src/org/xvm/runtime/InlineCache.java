@@ -0,0 +1,190 @@
+package org.xvm.runtime;
+
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A polymorphic inline cache used by the op-codes to map the target's {@link TypeComposition} to
+ * the resolved {@link CallChain}.
+ *
+ * Up to {@link #SIZE} compositions are cached per call site. Once a call site has seen more
+ * distinct compositions than that, it is considered "megamorphic": the cache stops growing and
+ * the misses fall back to the (hash-based) caches maintained by the TypeComposition itself.
+ *
+ * An op-code is shared by all the threads executing the corresponding method, so is the cache.
+ * The entries are immutable and the updates are benign races: a lost update simply results in
+ * an extra miss that is going to re-resolve the chain.
+ *
+ * The hit/miss counters are only maintained if the "xvm.stats" system property is set, to avoid
+ * the cache line contention on the hot path.
+ */
+public class InlineCache
+    {
+    /**
+     * Find a cached chain for the specified composition.
+     *
+     * @param clazz  the target's composition
+     *
+     * @return the cached chain or null if there is none
+     */
+    public CallChain get(TypeComposition clazz)
+        {
+        Entry[] aEntry = f_aEntry;
+        for (int i = 0; i < SIZE; i++)
+            {
+            Entry entry = aEntry[i];
+            if (entry == null)
+                {
+                break;
+                }
+
+            if (entry.f_clazz == clazz)
+                {
+                if (STATS)
+                    {
+                    m_cHits++;
+                    s_cHits.increment();
+                    }
+                return entry.f_chain;
+                }
+            }
+
+        if (STATS)
+            {
+            m_cMisses++;
+            s_cMisses.increment();
+            }
+        return null;
+        }
+
+    /**
+     * Cache the chain for the specified composition, unless the call site is megamorphic or the
+     * composition is already cached (e.g. by another thread that missed at the same time).
+     *
+     * @param clazz  the target's composition
+     * @param chain  the resolved chain
+     *
+     * @return the passed in chain
+     */
+    public CallChain put(TypeComposition clazz, CallChain chain)
+        {
+        if (!m_fMegamorphic)
+            {
+            Entry[] aEntry = f_aEntry;
+            for (int i = 0; i < SIZE; i++)
+                {
+                Entry entry = aEntry[i];
+                if (entry == null)
+                    {
+                    aEntry[i] = new Entry(clazz, chain);
+                    return chain;
+                    }
+
+                if (entry.f_clazz == clazz)
+                    {
+                    return chain;
+                    }
+                }
+
+            m_fMegamorphic = true;
+            if (STATS)
+                {
+                s_cMegamorphic.increment();
+                }
+            }
+        return chain;
+        }
+
+    /**
+     * @return true iff the call site has seen more distinct compositions than the cache can hold
+     */
+    public boolean isMegamorphic()
+        {
+        return m_fMegamorphic;
+        }
+
+    /**
+     * @return the number of cache hits (only maintained if {@link #STATS} is on)
+     */
+    public long getHitCount()
+        {
+        return m_cHits;
+        }
+
+    /**
+     * @return the number of cache misses (only maintained if {@link #STATS} is on)
+     */
+    public long getMissCount()
+        {
+        return m_cMisses;
+        }
+
+    /**
+     * @return the aggregate statistics for all the inline caches (only maintained if
+     *         {@link #STATS} is on)
+     */
+    public static String getStatistics()
+        {
+        long cHits   = s_cHits.sum();
+        long cMisses = s_cMisses.sum();
+        long cTotal  = cHits + cMisses;
+        return "InlineCache: hits=" + cHits + ", misses=" + cMisses
+            + ", hit ratio=" + (cTotal == 0 ? 0 : cHits * 100 / cTotal) + '%'
+            + ", megamorphic sites=" + s_cMegamorphic.sum();
+        }
+
+    @Override
+    public String toString()
+        {
+        int c = 0;
+        while (c < SIZE && f_aEntry[c] != null)
+            {
+            c++;
+            }
+        return "InlineCache{size=" + c + (m_fMegamorphic ? ", megamorphic" : "")
+            + ", hits=" + m_cHits + ", misses=" + m_cMisses + '}';
+        }
+
+
+    // ----- inner class: Entry --------------------------------------------------------------------
+
+    /**
+     * An immutable cache entry.
+     */
+    private static class Entry
+        {
+        Entry(TypeComposition clazz, CallChain chain)
+            {
+            f_clazz = clazz;
+            f_chain = chain;
+            }
+
+        final TypeComposition f_clazz;
+        final CallChain       f_chain;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The maximum number of compositions cached per call site.
+     */
+    public static final int SIZE = 4;
+
+    /**
+     * Indicates whether or not the hit/miss statistics should be collected.
+     */
+    public static final boolean STATS = Boolean.getBoolean("xvm.stats");
+
+    private static final LongAdder s_cHits        = new LongAdder();
+    private static final LongAdder s_cMisses      = new LongAdder();
+    private static final LongAdder s_cMegamorphic = new LongAdder();
+
+    private final Entry[] f_aEntry = new Entry[SIZE];
+
+    private boolean m_fMegamorphic;
+
+    private long m_cHits;
+    private long m_cMisses;
+    }
@@ -44,6 +44,18 @@ public abstract class ObjectHandle
             }
         };
 
+    /**
+     * A marker held by a register that contains an unboxed Int64 value (see {@link Frame#isInt64}).
+     */
+    public static final ObjectHandle UNBOXED = new ObjectHandle(null)
+        {
+        @Override
+        public String toString()
+            {
+            return "<unboxed>";
+            }
+        };
+
     protected ObjectHandle(TypeComposition clazz)
         {
         m_clazz = clazz;
@@ -251,45 +263,116 @@ public abstract class ObjectHandle
 
             m_fMutable = true;
 
-            m_mapFields = clazz.initializeStructure();
+            m_aFields = clazz.initializeStructure();
             }
 
+        /**
+         * @return a snapshot of the fields keyed by the property name or a NestedIdentity
+         */
         public Map<Object, ObjectHandle> getFields()
             {
-            return m_mapFields == null ? Collections.EMPTY_MAP : m_mapFields;
+            ObjectHandle[]            aFields  = m_aFields;
+            Map<Object, ObjectHandle> mapExtra = m_mapExtra;
+            if (aFields == null && mapExtra == null)
+                {
+                return Collections.EMPTY_MAP;
+                }
+
+            Map<Object, ObjectHandle> mapFields = new ListMap<>();
+            if (aFields != null)
+                {
+                Object[] anid = getComposition().getFieldNids();
+                for (int i = 0, c = aFields.length; i < c; i++)
+                    {
+                    mapFields.put(anid[i], aFields[i]);
+                    }
+                }
+            if (mapExtra != null)
+                {
+                mapFields.putAll(mapExtra);
+                }
+            return mapFields;
             }
 
         public boolean containsField(PropertyConstant idProp)
             {
-            return m_mapFields != null && m_mapFields.containsKey(idProp.getNestedIdentity());
+            Object nid = idProp.getNestedIdentity();
+            return getFieldIndex(nid) >= 0 || m_mapExtra != null && m_mapExtra.containsKey(nid);
             }
 
         public ObjectHandle getField(PropertyConstant idProp)
             {
-            return m_mapFields == null ? null : m_mapFields.get(idProp.getNestedIdentity());
+            return getFieldByNid(idProp.getNestedIdentity());
             }
 
         public ObjectHandle getField(String sProp)
             {
-            return m_mapFields == null ? null : m_mapFields.get(sProp);
+            return getFieldByNid(sProp);
+            }
+
+        /**
+         * Retrieve a field value by the slot obtained via {@link TypeComposition#getFieldIndex}.
+         */
+        public ObjectHandle getField(int iSlot)
+            {
+            return m_aFields[iSlot];
             }
 
         public void setField(PropertyConstant idProp, ObjectHandle hValue)
             {
-            if (m_mapFields == null)
+            setFieldByNid(idProp.getNestedIdentity(), hValue);
+            }
+
+        public void setField(String sProp, ObjectHandle hValue)
+            {
+            setFieldByNid(sProp, hValue);
+            }
+
+        /**
+         * Store a field value by the slot obtained via {@link TypeComposition#getFieldIndex}.
+         */
+        public void setField(int iSlot, ObjectHandle hValue)
+            {
+            m_aFields[iSlot] = hValue;
+            }
+
+        /**
+         * @return the field slot for the specified nid or -1 if the field is not a part of the
+         *         class field layout
+         */
+        protected int getFieldIndex(Object nid)
+            {
+            return m_aFields == null ? -1 : getComposition().getFieldIndex(nid);
+            }
+
+        private ObjectHandle getFieldByNid(Object nid)
+            {
+            int iSlot = getFieldIndex(nid);
+            if (iSlot >= 0)
                 {
-                m_mapFields = new ListMap<>();
+                return m_aFields[iSlot];
                 }
-            m_mapFields.put(idProp.getNestedIdentity(), hValue);
+
+            Map<Object, ObjectHandle> mapExtra = m_mapExtra;
+            return mapExtra == null ? null : mapExtra.get(nid);
             }
 
-        public void setField(String sProp, ObjectHandle hValue)
+        private void setFieldByNid(Object nid, ObjectHandle hValue)
             {
-            if (m_mapFields == null)
+            int iSlot = getFieldIndex(nid);
+            if (iSlot >= 0)
+                {
+                m_aFields[iSlot] = hValue;
+                }
+            else
                 {
-                m_mapFields = new ListMap<>();
+                Map<Object, ObjectHandle> mapExtra = m_mapExtra;
+                if (mapExtra == null)
+                    {
+                    m_mapExtra = mapExtra = new ListMap<>();
+                    }
+                mapExtra.put(nid, hValue);
                 }
-            m_mapFields.put(sProp, hValue);
             }
 
         @Override
@@ -299,13 +382,15 @@ public abstract class ObjectHandle
 
             GenericHandle hClone = (GenericHandle) super.cloneAs(clazz);
 
-            if (fCloneFields && m_mapFields != null)
+            ObjectHandle[] aFields = m_aFields;
+            if (fCloneFields && aFields != null)
                 {
-                for (Map.Entry<Object, ObjectHandle> entry : m_mapFields.entrySet())
+                Object[] anid = getComposition().getFieldNids();
+                for (int i = 0, c = aFields.length; i < c; i++)
                     {
-                    if (clazz.isInflated(entry.getKey()))
+                    if (clazz.isInflated(anid[i]))
                         {
-                        RefHandle    hValue = (RefHandle) entry.getValue();
+                        RefHandle    hValue = (RefHandle) aFields[i];
                         ObjectHandle hOuter = hValue.getField(OUTER);
                         if (hOuter != null)
                             {
@@ -322,25 +407,40 @@ public abstract class ObjectHandle
         public List<String> validateFields()
             {
             List<String> listUnassigned = null;
-            if (m_mapFields != null)
+
+            ObjectHandle[] aFields = m_aFields;
+            if (aFields != null)
                 {
-                for (Map.Entry<Object, ObjectHandle> entry : m_mapFields.entrySet())
+                TypeComposition clazz = getComposition();
+                Object[]        anid  = clazz.getFieldNids();
+                for (int i = 0, c = aFields.length; i < c; i++)
                     {
-                    ObjectHandle hValue = entry.getValue();
-                    if (hValue == null)
+                    // no need to recurse to a field; it would throw during its own construction
+                    if (aFields[i] == null && !clazz.isAllowedUnassigned(anid[i]))
                         {
-                        Object idProp = entry.getKey();
+                        if (listUnassigned == null)
+                            {
+                            listUnassigned = new ArrayList<>();
+                            }
+                        listUnassigned.add(anid[i].toString());
+                        }
+                    }
+                }
 
-                        if (!getComposition().isAllowedUnassigned(idProp))
+            Map<Object, ObjectHandle> mapExtra = m_mapExtra;
+            if (mapExtra != null)
+                {
+                for (Map.Entry<Object, ObjectHandle> entry : mapExtra.entrySet())
+                    {
+                    Object idProp = entry.getKey();
+                    if (entry.getValue() == null && !getComposition().isAllowedUnassigned(idProp))
+                        {
+                        if (listUnassigned == null)
                             {
-                            if (listUnassigned == null)
-                                {
-                                listUnassigned = new ArrayList<>();
-                                }
-                            listUnassigned.add(idProp.toString());
+                            listUnassigned = new ArrayList<>();
                             }
+                        listUnassigned.add(idProp.toString());
                         }
-                    // no need to recurse to a field; it would throw during its own construction
                     }
                 }
             return listUnassigned;
@@ -401,27 +501,41 @@ public abstract class ObjectHandle
                 return false;
                 }
 
-            Map<Object, ObjectHandle> map1 = h1.m_mapFields;
-            Map<Object, ObjectHandle> map2 = h2.m_mapFields;
+            ObjectHandle[] aFields1 = h1.m_aFields;
+            ObjectHandle[] aFields2 = h2.m_aFields;
+
+            if (aFields1 != aFields2)
+                {
+                if (aFields1 == null || aFields2 == null || aFields1.length != aFields2.length)
+                    {
+                    return false;
+                    }
+
+                for (int i = 0, c = aFields1.length; i < c; i++)
+                    {
+                    if (!compareFieldIdentity(aFields1[i], aFields2[i]))
+                        {
+                        return false;
+                        }
+                    }
+                }
+
+            Map<Object, ObjectHandle> map1 = h1.m_mapExtra;
+            Map<Object, ObjectHandle> map2 = h2.m_mapExtra;
 
             if (map1 == map2)
                 {
                 return true;
                 }
 
-            if (map1.size() != map2.size())
+            if (map1 == null || map2 == null || map1.size() != map2.size())
                 {
                 return false;
                 }
 
             for (Object idProp : map1.keySet())
                 {
-                ObjectHandle hV1 = map1.get(idProp);
-                ObjectHandle hV2 = map2.get(idProp);
-
-                // TODO: need to prevent a potential infinite loop
-                ClassTemplate template = hV1.getTemplate();
-                if (template != hV2.getTemplate() || !template.compareIdentity(hV1, hV2))
+                if (!compareFieldIdentity(map1.get(idProp), map2.get(idProp)))
                     {
                     return false;
                     }
@@ -430,8 +544,29 @@ public abstract class ObjectHandle
             return true;
             }
 
-        // keyed by the property name or a NestedIdentity
-        private Map<Object, ObjectHandle> m_mapFields;
+        private static boolean compareFieldIdentity(ObjectHandle hV1, ObjectHandle hV2)
+            {
+            if (hV1 == hV2)
+                {
+                return true;
+                }
+
+            if (hV1 == null || hV2 == null)
+                {
+                return false;
+                }
+
+            // TODO: need to prevent a potential infinite loop
+            ClassTemplate template = hV1.getTemplate();
+            return template == hV2.getTemplate() && template.compareIdentity(hV1, hV2);
+            }
+
+        // indexed by the field slot (see TypeComposition#getFieldIndex)
+        private ObjectHandle[] m_aFields;
+
+        // the fields that are not a part of the class field layout (rare), keyed by the property
+        // name or a NestedIdentity
+        private Map<Object, ObjectHandle> m_mapExtra;
 
         // not null only if this object was explicitly "masked as"
         private Container m_owner;
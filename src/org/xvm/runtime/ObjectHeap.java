@@ -3,6 +3,10 @@ package org.xvm.runtime;
 
 import java.util.concurrent.ConcurrentHashMap;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 import org.xvm.asm.Constant;
@@ -32,6 +36,10 @@ public class ObjectHeap
 
     private Map<Constant, ObjectHandle> m_mapConstants = new ConcurrentHashMap<>();
 
+    // ConstantPool doesn't support hashing; the map is only used on the "slow" path
+    private Map<ConstantPool, AtomicReferenceArray<ObjectHandle>> m_mapConstTables =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
     public ObjectHeap(ConstantPool pool, TemplateRegistry templates)
         {
         f_poolRoot = pool;
@@ -65,7 +73,7 @@ public class ObjectHeap
         ObjectHandle hValue = mapConstants.get(constValue);
         if (hValue != null)
             {
-            return hValue;
+            return publishConstHandle(constValue, hValue);
             }
 
         if (constValue instanceof SingletonConstant)
@@ -126,7 +134,44 @@ public class ObjectHeap
     private ObjectHandle saveConstHandle(Constant constValue, ObjectHandle hValue)
         {
         ObjectHandle hValue0 = m_mapConstants.putIfAbsent(constValue, hValue);
-        return hValue0 == null ? hValue : hValue0;
+        return publishConstHandle(constValue, hValue0 == null ? hValue : hValue0);
+        }
+
+    /**
+     * Make the cached handle available to the ops via the constant table for its pool (see
+     * {@link #ensureConstTable}).
+     *
+     * @return the passed handle
+     */
+    private ObjectHandle publishConstHandle(Constant constValue, ObjectHandle hValue)
+        {
+        ConstantPool                       pool    = constValue.getConstantPool();
+        AtomicReferenceArray<ObjectHandle> ahConst = m_mapConstTables.get(pool);
+        int                                nPos    = constValue.getPosition();
+        if (ahConst != null && nPos >= 0 && nPos < ahConst.length()
+                && pool.getConstant(nPos) == constValue)
+            {
+            ahConst.lazySet(nPos, hValue);
+            }
+        return hValue;
+        }
+
+    /**
+     * Obtain the table of the constant handles for the specified ConstantPool. The table is
+     * indexed by the constant position and holds only the handles that are cached by this heap
+     * (see {@link #ensureConstHandle}); all other entries are null.
+     *
+     * Note: the table covers the constants that exist at the time of the table creation; the
+     * constants that are added to the pool later must be resolved via
+     * {@link #ensureConstHandle}.
+     *
+     * @param pool  the ConstantPool
+     *
+     * @return the constant table
+     */
+    public AtomicReferenceArray<ObjectHandle> ensureConstTable(ConstantPool pool)
+        {
+        return m_mapConstTables.computeIfAbsent(pool, p -> new AtomicReferenceArray<>(p.size()));
         }
 
     /**
@@ -131,11 +131,23 @@ public class PropertyComposition
         }
 
     @Override
-    public Map<Object, ObjectHandle> initializeStructure()
+    public ObjectHandle[] initializeStructure()
         {
         return f_clzRef.initializeStructure();
         }
 
+    @Override
+    public int getFieldIndex(Object nid)
+        {
+        return f_clzRef.getFieldIndex(nid);
+        }
+
+    @Override
+    public Object[] getFieldNids()
+        {
+        return f_clzRef.getFieldNids();
+        }
+
     @Override
     public boolean isInflated(Object nid)
         {
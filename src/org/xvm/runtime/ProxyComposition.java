@@ -2,7 +2,6 @@ package org.xvm.runtime;
 
 
 import java.util.List;
-import java.util.Map;
 
 import org.xvm.asm.Constants.Access;
 import org.xvm.asm.MethodStructure;
@@ -174,11 +173,23 @@ public class ProxyComposition
         }
 
     @Override
-    public Map<Object, ObjectHandle> initializeStructure()
+    public ObjectHandle[] initializeStructure()
         {
         return null;
         }
 
+    @Override
+    public int getFieldIndex(Object nid)
+        {
+        return -1;
+        }
+
+    @Override
+    public Object[] getFieldNids()
+        {
+        return ClassComposition.NO_FIELDS;
+        }
+
     @Override
     public String toString()
         {
@@ -0,0 +1,218 @@
+package org.xvm.runtime;
+
+
+/**
+ * The QuantumPolicy determines for how long a fiber is allowed to run before the scheduler pauses
+ * it to give other fibers (and other services sharing the same worker thread) a chance to run.
+ *
+ * There are three kinds of policies:
+ * <ul>
+ *   <li>{@link Kind#Ops} - the fiber is paused after executing the specified number of ops;
+ *   <li>{@link Kind#Time} - the fiber is paused after running for the specified wall-clock time;
+ *       to keep the cost low, the clock is only read every {@link #getCheckInterval()} ops;
+ *   <li>{@link Kind#UntilBlock} - the fiber is never paused by the scheduler and runs until it
+ *       blocks, yields or completes; this is primarily intended for services with the
+ *       "forbidden" reentrancy, which cannot process anything else until the fiber completes
+ *       anyway.
+ * </ul>
+ *
+ * The default policy for a runtime can be specified using the "xvm.quantum" system property in
+ * the format accepted by {@link #parse(String)}, e.g. "100", "500us", "2ms" or "block".
+ *
+ * This class is immutable.
+ */
+public class QuantumPolicy
+    {
+    /**
+     * Construct a QuantumPolicy.
+     *
+     * @param kind       the policy kind
+     * @param cOpsCheck  the number of ops between the quantum checks
+     * @param cNanos     the time budget (in nanoseconds) for the {@link Kind#Time} policy
+     */
+    protected QuantumPolicy(Kind kind, int cOpsCheck, long cNanos)
+        {
+        f_kind      = kind;
+        f_cOpsCheck = cOpsCheck;
+        f_cNanos    = cNanos;
+        }
+
+    /**
+     * Create a policy that pauses a fiber after the specified number of ops.
+     *
+     * @param cOps  the op budget
+     */
+    public static QuantumPolicy ops(int cOps)
+        {
+        if (cOps <= 0)
+            {
+            throw new IllegalArgumentException("Invalid op count: " + cOps);
+            }
+        return new QuantumPolicy(Kind.Ops, cOps, 0L);
+        }
+
+    /**
+     * Create a policy that pauses a fiber after the specified wall-clock time, checking the clock
+     * every {@link #DEFAULT_CHECK_INTERVAL} ops.
+     *
+     * @param cNanos  the time budget in nanoseconds
+     */
+    public static QuantumPolicy time(long cNanos)
+        {
+        return time(cNanos, DEFAULT_CHECK_INTERVAL);
+        }
+
+    /**
+     * Create a policy that pauses a fiber after the specified wall-clock time.
+     *
+     * @param cNanos     the time budget in nanoseconds
+     * @param cOpsCheck  the number of ops between reading the clock
+     */
+    public static QuantumPolicy time(long cNanos, int cOpsCheck)
+        {
+        if (cNanos <= 0 || cOpsCheck <= 0)
+            {
+            throw new IllegalArgumentException("Invalid time quantum: " + cNanos + "ns/" + cOpsCheck);
+            }
+        return new QuantumPolicy(Kind.Time, cOpsCheck, cNanos);
+        }
+
+    /**
+     * Parse the policy from a string: a number of ops ("100"), a time budget ("500us", "2ms") or
+     * "block" for the "run until block" policy.
+     *
+     * @param sPolicy  the policy string
+     *
+     * @return the QuantumPolicy
+     *
+     * @throws IllegalArgumentException if the string cannot be parsed
+     */
+    public static QuantumPolicy parse(String sPolicy)
+        {
+        String s = sPolicy.trim().toLowerCase();
+        try
+            {
+            if (s.equals("block"))
+                {
+                return UNTIL_BLOCK;
+                }
+            if (s.endsWith("us"))
+                {
+                return time(Long.parseLong(s.substring(0, s.length() - 2)) * 1_000L);
+                }
+            if (s.endsWith("ms"))
+                {
+                return time(Long.parseLong(s.substring(0, s.length() - 2)) * 1_000_000L);
+                }
+            return ops(Integer.parseInt(s));
+            }
+        catch (NumberFormatException e)
+            {
+            throw new IllegalArgumentException("Invalid quantum policy: \"" + sPolicy + '"');
+            }
+        }
+
+    /**
+     * @return the policy kind
+     */
+    public Kind getKind()
+        {
+        return f_kind;
+        }
+
+    /**
+     * @return the number of ops a fiber executes between the quantum checks
+     */
+    public int getCheckInterval()
+        {
+        return f_cOpsCheck;
+        }
+
+    /**
+     * @return the time budget in nanoseconds (only meaningful for the {@link Kind#Time} policy)
+     */
+    public long getTimeNanos()
+        {
+        return f_cNanos;
+        }
+
+    /**
+     * @return the timestamp to be passed to {@link #isExpired} when a time slice starts
+     */
+    public long startSlice()
+        {
+        return f_kind == Kind.Time ? System.nanoTime() : 0L;
+        }
+
+    /**
+     * Check whether the quantum has been used up. This is called every
+     * {@link #getCheckInterval()} ops.
+     *
+     * @param nanoStart  the value returned by {@link #startSlice()}
+     *
+     * @return true iff the fiber should be paused
+     */
+    public boolean isExpired(long nanoStart)
+        {
+        switch (f_kind)
+            {
+            case Ops:
+                return true;
+
+            case Time:
+                return System.nanoTime() - nanoStart >= f_cNanos;
+
+            default:
+                return false;
+            }
+        }
+
+    @Override
+    public String toString()
+        {
+        switch (f_kind)
+            {
+            case Ops:
+                return f_cOpsCheck + " ops";
+
+            case Time:
+                return f_cNanos / 1_000L + "us (checked every " + f_cOpsCheck + " ops)";
+
+            default:
+                return "until block";
+            }
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The policy kinds.
+     */
+    public enum Kind {Ops, Time, UntilBlock}
+
+    /**
+     * The name of the system property that specifies the default policy.
+     */
+    public static final String PROP_QUANTUM = "xvm.quantum";
+
+    /**
+     * The default number of ops between reading the clock for the {@link Kind#Time} policy.
+     */
+    public static final int DEFAULT_CHECK_INTERVAL = 256;
+
+    /**
+     * The "run until block" policy.
+     */
+    public static final QuantumPolicy UNTIL_BLOCK =
+            new QuantumPolicy(Kind.UntilBlock, Integer.MAX_VALUE, 0L);
+
+    /**
+     * The default policy, which matches the historical behavior of pausing every 100 ops.
+     */
+    public static final QuantumPolicy DEFAULT = ops(100);
+
+    private final Kind f_kind;
+    private final int  f_cOpsCheck;
+    private final long f_cNanos;
+    }
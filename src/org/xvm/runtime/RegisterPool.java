@@ -0,0 +1,253 @@
+package org.xvm.runtime;
+
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import org.xvm.runtime.Frame.VarInfo;
+
+
+/**
+ * The RegisterPool is a per-fiber stack of the register arrays (and the parallel VarInfo arrays,
+ * the scope arrays and the local stacks) for the frames of the interpreted methods. Since the
+ * frames of a fiber are created and returned in the LIFO order, the arrays of a frame that has
+ * returned can be handed out to the next frame that needs an array of the same size, which makes
+ * call-heavy code (e.g. a recursion or a loop over property getters) mostly allocation-free as far
+ * as the registers are concerned.
+ * <p/>
+ * A register array is only handed out by {@link #allocate} and is only owned by the pool again
+ * when the frame that has been created with it returns normally and has not let its registers
+ * escape (see {@link Frame#markEscaped}). An array that was allocated, but not used to create
+ * a frame (e.g. the call went to another service), is simply left to the garbage collector.
+ * <p/>
+ * This class is not thread safe; it's only used by the ServiceContext thread that runs the fiber.
+ */
+public class RegisterPool
+    {
+    /**
+     * Obtain a register array for a frame that is about to be created.
+     *
+     * @param cVars  the number of registers
+     *
+     * @return a register array with all elements being null
+     */
+    public ObjectHandle[] allocate(int cVars)
+        {
+        if (cVars == 0)
+            {
+            return Utils.OBJECTS_NONE;
+            }
+
+        if (cVars > MAX_VARS)
+            {
+            return new ObjectHandle[cVars];
+            }
+
+        ObjectHandle[] ahVar;
+        VarInfo[]      aInfo;
+
+        int cFree = m_acFree[cVars];
+        if (cFree > 0)
+            {
+            m_acFree[cVars] = --cFree;
+
+            ahVar = m_aahVarFree[cVars][cFree];
+            aInfo = m_aaInfoFree[cVars][cFree];
+            m_aahVarFree[cVars][cFree] = null;
+            m_aaInfoFree[cVars][cFree] = null;
+            }
+        else
+            {
+            ahVar = new ObjectHandle[cVars];
+            aInfo = new VarInfo[cVars];
+            }
+
+        m_ahVarPending = ahVar;
+        m_aInfoPending = aInfo;
+        return ahVar;
+        }
+
+    /**
+     * Claim the VarInfo array that corresponds to the specified register array, if the register
+     * array is the one that was most recently handed out by {@link #allocate}.
+     *
+     * @param ahVar  the register array of a frame being constructed
+     *
+     * @return the VarInfo array or null if the register array is not owned by this pool
+     */
+    public VarInfo[] claim(ObjectHandle[] ahVar)
+        {
+        if (ahVar != m_ahVarPending)
+            {
+            return null;
+            }
+
+        VarInfo[] aInfo = m_aInfoPending;
+        m_ahVarPending = null;
+        m_aInfoPending = null;
+        return aInfo;
+        }
+
+    /**
+     * Obtain a scope array (see {@link Frame#f_anNextVar}) for a frame that has claimed its
+     * registers.
+     *
+     * @param cScopes  the number of scopes
+     *
+     * @return an array with all elements being zero
+     */
+    public int[] allocateScopes(int cScopes)
+        {
+        if (cScopes <= MAX_SCOPES)
+            {
+            int cFree = m_acScopesFree[cScopes];
+            if (cFree > 0)
+                {
+                int[] anNextVar = m_aanScopesFree[cScopes][cFree - 1];
+                m_aanScopesFree[cScopes][cFree - 1] = null;
+                m_acScopesFree[cScopes] = cFree - 1;
+                return anNextVar;
+                }
+            }
+        return new int[cScopes];
+        }
+
+    /**
+     * Obtain a local stack (see {@link Frame#pushStack}) for a frame that has claimed its
+     * registers.
+     *
+     * @return an empty stack
+     */
+    public Deque<ObjectHandle> allocateStack()
+        {
+        int cFree = m_cStacksFree;
+        if (cFree > 0)
+            {
+            Deque<ObjectHandle> stack = m_aStackFree[--cFree];
+            m_aStackFree[cFree] = null;
+            m_cStacksFree = cFree;
+            return stack;
+            }
+        return new ArrayDeque<>();
+        }
+
+    /**
+     * Return the arrays of a frame that has returned back to the pool.
+     *
+     * @param ahVar      the register array that was {@link #claim claimed} by the frame
+     * @param aInfo      the corresponding VarInfo array
+     * @param anNextVar  the scope array that was obtained by {@link #allocateScopes}
+     * @param stack      the local stack that was obtained by {@link #allocateStack} (optional)
+     */
+    public void release(ObjectHandle[] ahVar, VarInfo[] aInfo, int[] anNextVar,
+                        Deque<ObjectHandle> stack)
+        {
+        int cScopes = anNextVar.length;
+        if (cScopes <= MAX_SCOPES)
+            {
+            int     cFree     = m_acScopesFree[cScopes];
+            int[][] aanScopes = m_aanScopesFree[cScopes];
+            if (aanScopes == null)
+                {
+                aanScopes = m_aanScopesFree[cScopes] = new int[INITIAL_DEPTH][];
+                }
+            else if (cFree == aanScopes.length && cFree < MAX_DEPTH)
+                {
+                aanScopes = m_aanScopesFree[cScopes] = Arrays.copyOf(aanScopes, cFree * 2);
+                }
+
+            if (cFree < aanScopes.length)
+                {
+                Arrays.fill(anNextVar, 0);
+                aanScopes[cFree] = anNextVar;
+                m_acScopesFree[cScopes] = cFree + 1;
+                }
+            }
+
+        if (stack != null && m_cStacksFree < m_aStackFree.length)
+            {
+            stack.clear();
+            m_aStackFree[m_cStacksFree++] = stack;
+            }
+
+        int cVars = ahVar.length;
+        int cFree = m_acFree[cVars];
+
+        ObjectHandle[][] aahVar = m_aahVarFree[cVars];
+        if (aahVar == null)
+            {
+            aahVar = m_aahVarFree[cVars] = new ObjectHandle[INITIAL_DEPTH][];
+            m_aaInfoFree[cVars] = new VarInfo[INITIAL_DEPTH][];
+            }
+        else if (cFree == aahVar.length)
+            {
+            if (cFree == MAX_DEPTH)
+                {
+                return;
+                }
+            aahVar = m_aahVarFree[cVars] = Arrays.copyOf(aahVar, cFree * 2);
+            m_aaInfoFree[cVars] = Arrays.copyOf(m_aaInfoFree[cVars], cFree * 2);
+            }
+
+        Arrays.fill(ahVar, null);
+        Arrays.fill(aInfo, null);
+
+        aahVar[cFree] = ahVar;
+        m_aaInfoFree[cVars][cFree] = aInfo;
+        m_acFree[cVars] = cFree + 1;
+        }
+
+
+    // ----- constants and data fields -------------------------------------------------------------
+
+    /**
+     * The largest number of registers for the pooled arrays.
+     */
+    private static final int MAX_VARS = 32;
+
+    /**
+     * The largest number of scopes for the pooled scope arrays.
+     */
+    private static final int MAX_SCOPES = 16;
+
+    /**
+     * The initial and the maximum number of the free arrays of any given size.
+     */
+    private static final int INITIAL_DEPTH = 8;
+    private static final int MAX_DEPTH     = 1024;
+
+    /**
+     * At index i, the free register arrays of size i.
+     */
+    private final ObjectHandle[][][] m_aahVarFree = new ObjectHandle[MAX_VARS + 1][][];
+
+    /**
+     * At index i, the free VarInfo arrays of size i (parallel to the register arrays).
+     */
+    private final VarInfo[][][] m_aaInfoFree = new VarInfo[MAX_VARS + 1][][];
+
+    /**
+     * At index i, the number of the free arrays of size i.
+     */
+    private final int[] m_acFree = new int[MAX_VARS + 1];
+
+    /**
+     * At index i, the free scope arrays of size i and their number.
+     */
+    private final int[][][] m_aanScopesFree = new int[MAX_SCOPES + 1][][];
+    private final int[]     m_acScopesFree  = new int[MAX_SCOPES + 1];
+
+    /**
+     * The free local stacks and their number.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"}) // a generic array can only be created raw
+    private final Deque<ObjectHandle>[] m_aStackFree = new Deque[INITIAL_DEPTH];
+    private int                         m_cStacksFree;
+
+    /**
+     * The arrays most recently handed out by {@link #allocate} that are not claimed yet.
+     */
+    private ObjectHandle[] m_ahVarPending;
+    private VarInfo[]      m_aInfoPending;
+    }
@@ -14,9 +14,24 @@ public class Runtime
     // service id producer
     final AtomicInteger f_idProducer = new AtomicInteger();
 
+    // the default quantum policy
+    private volatile QuantumPolicy m_quantum;
+
+    // the capacity of the service mailboxes
+    private final int f_cMailboxCapacity;
+
+    // the default back-pressure mode
+    private volatile boolean m_fBackPressure;
+
     public Runtime()
         {
         f_daemons = new DaemonPool("Worker");
+
+        String sQuantum = System.getProperty(QuantumPolicy.PROP_QUANTUM);
+        m_quantum = sQuantum == null ? QuantumPolicy.DEFAULT : QuantumPolicy.parse(sQuantum);
+
+        f_cMailboxCapacity = Math.max(1, Integer.getInteger(PROP_MAILBOX, DEFAULT_MAILBOX));
+        m_fBackPressure    = Boolean.getBoolean(PROP_BACKPRESSURE);
         }
 
     public void start()
@@ -29,9 +44,73 @@ public class Runtime
         f_daemons.shutdown();
         }
 
+    /**
+     * @return the default quantum policy for the services of this runtime
+     */
+    public QuantumPolicy getQuantum()
+        {
+        return m_quantum;
+        }
+
+    /**
+     * Specify the default quantum policy for the services of this runtime.
+     */
+    public void setQuantum(QuantumPolicy quantum)
+        {
+        if (quantum == null)
+            {
+            throw new IllegalArgumentException("Quantum policy is required");
+            }
+        m_quantum = quantum;
+        }
+
+    /**
+     * @return the capacity of the service mailboxes
+     */
+    public int getMailboxCapacity()
+        {
+        return f_cMailboxCapacity;
+        }
+
+    /**
+     * @return true iff the services of this runtime hold back the senders when their mailboxes are
+     *         full
+     */
+    public boolean isBackPressure()
+        {
+        return m_fBackPressure;
+        }
+
+    /**
+     * Specify the default back-pressure mode for the services of this runtime that are created
+     * subsequently.
+     */
+    public void setBackPressure(boolean fBackPressure)
+        {
+        m_fBackPressure = fBackPressure;
+        }
+
     public boolean isIdle()
         {
         // TODO: very naive; replace
-        return f_daemons == null || f_daemons.m_fWaiting;
+        return f_daemons == null || f_daemons.isIdle();
         }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The name of the system property that specifies the capacity of the service mailboxes.
+     */
+    public static final String PROP_MAILBOX = "xvm.mailbox";
+
+    /**
+     * The name of the system property that turns on the back-pressure mode.
+     */
+    public static final String PROP_BACKPRESSURE = "xvm.backpressure";
+
+    /**
+     * The default capacity of the service mailboxes.
+     */
+    public static final int DEFAULT_MAILBOX = 1024;
     }
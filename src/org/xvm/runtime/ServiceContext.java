@@ -6,6 +6,7 @@ import java.util.Queue;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.MethodStructure;
@@ -24,6 +25,7 @@ import org.xvm.runtime.ObjectHandle.ExceptionHandle;
 import org.xvm.runtime.template.collections.xTuple;
 import org.xvm.runtime.template.collections.xTuple.TupleHandle;
 
+import org.xvm.runtime.template.InterfaceProxy;
 import org.xvm.runtime.template.xException;
 import org.xvm.runtime.template.xNullable;
 import org.xvm.runtime.template.xService;
@@ -37,6 +39,8 @@ import org.xvm.runtime.template.xString.StringHandle;
 import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
 import org.xvm.runtime.template._native.reflect.xRTFunction.NativeFunctionHandle;
 
+import org.xvm.util.MpscRingBuffer;
+
 
 /**
  * The service context.
@@ -53,8 +57,12 @@ public class ServiceContext
         f_heapGlobal    = container.f_heapGlobal;
         f_templates     = container.f_templates;
         f_pool          = module.getConstantPool();
-        f_queueMsg      = new ConcurrentLinkedQueue<>();
-        f_queueResponse = new ConcurrentLinkedQueue<>();
+
+        Runtime runtime  = container.f_runtime;
+        int     cMailbox = runtime.getMailboxCapacity();
+        f_mailboxMsg      = new MpscRingBuffer<>(cMailbox);
+        f_mailboxResponse = new MpscRingBuffer<>(cMailbox);
+        m_fBackPressure   = runtime.isBackPressure();
         }
 
     public Frame getCurrentFrame()
@@ -93,14 +101,226 @@ public class ServiceContext
         return m_status;
         }
 
+    /**
+     * @return the quantum policy in effect for this service
+     */
+    public QuantumPolicy getQuantum()
+        {
+        QuantumPolicy quantum = m_quantum;
+        return quantum == null ? f_container.f_runtime.getQuantum() : quantum;
+        }
+
+    /**
+     * Override the runtime's quantum policy for this service.
+     *
+     * @param quantum  the policy to use or null to use the runtime's default
+     */
+    public void setQuantum(QuantumPolicy quantum)
+        {
+        m_quantum = quantum;
+        }
+
+    /**
+     * @return the number of times a fiber of this service has been paused by the scheduler due to
+     *         its quantum expiration
+     */
+    public long getPreemptionCount()
+        {
+        return m_cPreemptions;
+        }
+
+    /**
+     * @return the total time (in nanos) this service has been running
+     */
+    public long getRuntimeNanos()
+        {
+        return m_cRuntimeNanos;
+        }
+
+    /**
+     * @return true iff the messages sent to this service could be held back when its mailbox is
+     *         full (see {@link #isBackPressured})
+     */
+    public boolean isBackPressure()
+        {
+        return m_fBackPressure;
+        }
+
+    /**
+     * Override the runtime's back-pressure mode for this service.
+     */
+    public void setBackPressure(boolean fBackPressure)
+        {
+        m_fBackPressure = fBackPressure;
+        }
+
     public void addRequest(Message msg)
         {
-        f_queueMsg.add(msg);
+        Queue<Message> qOverflow = f_queueMsgOverflow;
+
+        // once anything has spilled over, all new messages go to the overflow queue until the
+        // consumer drains it, which preserves the FIFO order for every sender
+        if (!qOverflow.isEmpty() || !f_mailboxMsg.offer(msg))
+            {
+            qOverflow.add(msg);
+            }
+        ensureScheduled();
         }
 
     public void respond(Response response)
         {
-        f_queueResponse.add(response);
+        Queue<Response> qOverflow = f_queueResponseOverflow;
+        if (!qOverflow.isEmpty() || !f_mailboxResponse.offer(response))
+            {
+            qOverflow.add(response);
+            }
+        ensureScheduled();
+        }
+
+    /**
+     * Apply the back-pressure to a caller that has just sent a request to this service. A caller
+     * that proceeds without waiting for the response (a "fire and forget" invocation, a property
+     * update or a result assigned to a future) is held back by turning the {@link Op#R_NEXT}
+     * result into {@link Op#R_BLOCK} if this service's mailbox is full (see
+     * {@link #isBackPressured}); any other result is returned as is, since a caller that waits for
+     * the response can't have more than one request in the mailbox.
+     * <p/>
+     * The requests that are not sent by a caller that can be parked at this point are exempt:
+     * <ul>
+     *   <li>the "construct" request goes to the mailbox of a newly created service;</li>
+     *   <li>the "constant initialization" request is sent by the runtime on behalf of a caller
+     *       that waits for it;</li>
+     *   <li>the property reads, as well as the property updates of an {@link InterfaceProxy},
+     *       are also performed by the native helpers (e.g. {@link Utils.InPlacePropertyUnary})
+     *       that can't park the caller in the middle of an operation; a reading caller waits for
+     *       the response unless it assigns it to a future;</li>
+     *   <li>the "call later" requests are sent by the native code (e.g. the timers), which has no
+     *       fiber to park.</li>
+     * </ul>
+     *
+     * @param frameCaller  the caller's frame
+     * @param iResult      the caller's result of the send
+     *
+     * @return the specified result or {@link Op#R_BLOCK} if the caller must be held back
+     */
+    public int checkBackPressure(Frame frameCaller, int iResult)
+        {
+        return iResult == Op.R_NEXT && isBackPressured(frameCaller) ? Op.R_BLOCK : iResult;
+        }
+
+    /**
+     * Check whether the specified caller, which has just sent a request to this service and is
+     * not waiting for the response, should be held back, which happens when the back-pressure
+     * mode is on and this service's mailbox is full. In that case the caller's fiber is registered
+     * to be notified as soon as this service drains its mailbox and the caller is expected to
+     * return {@link Op#R_BLOCK}, which parks the fiber until then. This method can be called on
+     * any thread.
+     *
+     * @param frameCaller  the caller's frame
+     *
+     * @return true iff the caller's fiber must be parked
+     */
+    public boolean isBackPressured(Frame frameCaller)
+        {
+        if (!m_fBackPressure || !isMailboxFull())
+            {
+            return false;
+            }
+
+        f_queueBlockedSenders.add(frameCaller.f_fiber);
+
+        // the mailbox could have been drained before the fiber got registered, in which case
+        // the caller may proceed (and the fiber will simply get a spurious notification)
+        return isMailboxFull();
+        }
+
+    /**
+     * @return true iff this service's mailbox has no room for new requests
+     */
+    protected boolean isMailboxFull()
+        {
+        MpscRingBuffer<Message> mailbox = f_mailboxMsg;
+        return !f_queueMsgOverflow.isEmpty() || mailbox.size() >= mailbox.capacity();
+        }
+
+    /**
+     * Notify this service that the specified fiber has been responded to, so if it's waiting, it
+     * should be moved to the "ready" bucket. This method can be called on any thread.
+     */
+    void notifyResponded(Fiber fiber)
+        {
+        f_queueResponded.add(fiber);
+        ensureScheduled();
+        }
+
+    /**
+     * Make sure this service is going to be processed by the daemon pool. If the service is being
+     * processed right now, it will be re-scheduled as soon as the processing completes.
+     */
+    void ensureScheduled()
+        {
+        AtomicInteger atomicState = f_nScheduleState;
+        while (true)
+            {
+            switch (atomicState.get())
+                {
+                case SCHEDULE_IDLE:
+                    if (atomicState.compareAndSet(SCHEDULE_IDLE, SCHEDULE_READY))
+                        {
+                        f_container.f_runtime.f_daemons.schedule(this);
+                        return;
+                        }
+                    break;
+
+                case SCHEDULE_READY:
+                    if (atomicState.compareAndSet(SCHEDULE_READY, SCHEDULE_NOTIFIED))
+                        {
+                        return;
+                        }
+                    break;
+
+                case SCHEDULE_NOTIFIED:
+                    return;
+                }
+            }
+        }
+
+    /**
+     * Called by the daemon pool when this service has nothing to do.
+     *
+     * @return true if the service has become idle; false if it has been notified while being
+     *         processed and must stay scheduled
+     */
+    boolean unschedule()
+        {
+        AtomicInteger atomicState = f_nScheduleState;
+        if (atomicState.compareAndSet(SCHEDULE_READY, SCHEDULE_IDLE))
+            {
+            return true;
+            }
+
+        atomicState.set(SCHEDULE_READY);
+        return false;
+        }
+
+    /**
+     * @return the earliest timeout (wall clock millis) of all the waiting fibers or zero if there
+     *         are none
+     */
+    long getWaitingTimeout()
+        {
+        long ldtTimeout = f_queueSuspended.getWaitingTimeout();
+
+        Frame frameCurrent = m_frameCurrent;
+        if (frameCurrent != null)
+            {
+            long ldtCurrent = frameCurrent.f_fiber.m_ldtTimeout;
+            if (ldtCurrent > 0 && (ldtTimeout == 0 || ldtCurrent < ldtTimeout))
+                {
+                ldtTimeout = ldtCurrent;
+                }
+            }
+        return ldtTimeout;
         }
 
     // get a next frame ready for execution
@@ -108,22 +328,52 @@ public class ServiceContext
         {
         // responses have the highest priority and no natural code runs there;
         // process all we've got so far
-        Queue<Response> qResponse = f_queueResponse;
+        f_mailboxResponse.drain(Response::run);
+
+        Queue<Response> qResponse = f_queueResponseOverflow;
         Response response;
         while ((response = qResponse.poll()) != null)
             {
             response.run();
             }
 
-        // pickup all the messages, but keep them in the "initial" state
-        Queue<Message> qMsg = f_queueMsg;
-        Message message;
+        // move all the responded fibers to the "ready" bucket
+        FiberQueue qSuspended = f_queueSuspended;
+        Queue<Fiber> qResponded = f_queueResponded;
+        Fiber fiber;
+        while ((fiber = qResponded.poll()) != null)
+            {
+            qSuspended.markReady(fiber);
+            }
+        qSuspended.checkTimeouts();
+
+        // pickup all the messages, but keep them in the "initial" state; the mailbox is drained
+        // before the overflow queue to preserve the senders' order
+        MpscRingBuffer<Message> mailbox = f_mailboxMsg;
+        Message message = mailbox.poll();
+        if (message != null)
+            {
+            s_tloContext.set(this);
+            do
+                {
+                suspendFiber(message.createFrame(this));
+                }
+            while ((message = mailbox.poll()) != null);
+            }
+
+        Queue<Message> qMsg = f_queueMsgOverflow;
         while ((message = qMsg.poll()) != null)
             {
             s_tloContext.set(this);
-            Frame frame = message.createFrame(this);
+            suspendFiber(message.createFrame(this));
+            }
 
-            suspendFiber(frame);
+        // now that there is room in the mailbox, release the senders held back by the
+        // back-pressure
+        Queue<Fiber> qBlocked = f_queueBlockedSenders;
+        while ((fiber = qBlocked.poll()) != null)
+            {
+            fiber.setResponded();
             }
 
         // allow initial timeouts to be processed always, since they won't run any natural code
@@ -136,7 +386,6 @@ public class ServiceContext
             return frameCurrent.f_fiber.isReady() ? frameCurrent : null;
             }
 
-        FiberQueue qSuspended = f_queueSuspended;
         if (qSuspended.isEmpty())
             {
             // nothing to do
@@ -233,8 +482,11 @@ public class ServiceContext
                 throw new IllegalStateException();
             }
 
-        Op[] aOp = frame.f_aOp;
-        int  nOps = 0;
+        Op[]          aOp       = frame.f_aOp;
+        int           nOps      = 0;
+        QuantumPolicy quantum   = getQuantum();
+        int           cOpsCheck = quantum.getCheckInterval();
+        long          nanoStart = quantum.startSlice();
 
     nextOp:
         while (true)
@@ -243,10 +495,15 @@ public class ServiceContext
                 {
                 frame.m_iPC = iPC;
 
-                if (++nOps > 100)
+                if (++nOps > cOpsCheck)
                     {
-                    fiber.setStatus(FiberStatus.Paused);
-                    return frame;
+                    if (quantum.isExpired(nanoStart))
+                        {
+                        m_cPreemptions++;
+                        fiber.setStatus(FiberStatus.Paused);
+                        return frame;
+                        }
+                    nOps = 0;
                     }
 
                 iPC = aOp[iPC].process(frame, iPCLast = iPC);
@@ -257,6 +514,10 @@ public class ServiceContext
                     }
                 }
 
+            // a fused op reports the result of the op it has stopped at, so the frame's PC (rather
+            // than the address of the dispatched op) determines where to return or to resume
+            iPCLast = frame.m_iPC;
+
             switch (iPC)
                 {
                 case Op.R_RETURN_CALL:
@@ -277,6 +538,7 @@ public class ServiceContext
                 case Op.R_RETURN:
                     {
                     Frame.Continuation continuation = frame.m_continuation;
+                    frame.releaseRegisters();
                     frame = m_frameCurrent = frame.f_framePrev; // GC the old frame
 
                     if (frame != null)
@@ -309,6 +571,12 @@ public class ServiceContext
                                 iPC = 0;
                                 continue nextOp;
 
+                            case Op.R_BLOCK:
+                                // the continuation has sent a request and is held back (see
+                                // checkBackPressure); the frame's PC already points to the next op
+                                fiber.setStatus(FiberStatus.Waiting);
+                                return frame;
+
                             default:
                                 if (iResult < 0)
                                     {
@@ -426,7 +694,8 @@ public class ServiceContext
 
     public boolean isContended()
         {
-        return !f_queueMsg.isEmpty() || !f_queueSuspended.isEmpty() || m_frameCurrent != null;
+        return !f_mailboxMsg.isEmpty() || !f_queueMsgOverflow.isEmpty()
+            || !f_queueSuspended.isEmpty() || m_frameCurrent != null;
         }
 
     // send and asynchronous "call later" message to this context
@@ -448,21 +717,22 @@ public class ServiceContext
         }
 
     // send and asynchronous "construct service" message to this context
-    public CompletableFuture<ServiceHandle> sendConstructRequest(Frame frameCaller,
+    public CompletionToken<ObjectHandle> sendConstructRequest(Frame frameCaller,
                 MethodStructure constructor, ClassComposition clazz, ObjectHandle[] ahArg)
         {
-        CompletableFuture<ServiceHandle> future = new CompletableFuture<>();
+        CompletionToken<ObjectHandle> token = new CompletionToken<>();
 
-        addRequest(new ConstructRequest(frameCaller, constructor, clazz, future, ahArg));
+        addRequest(new ConstructRequest(frameCaller, constructor, clazz, token, ahArg));
 
-        return future.whenComplete((r, x) ->
+        token.whenComplete((r, hEx) ->
             {
-            if (x != null)
+            if (hEx != null)
                 {
                 // the construction failed; we need to kill the service
                 f_container.removeServiceContext(this);
                 }
             });
+        return token;
         }
 
     /**
@@ -470,68 +740,68 @@ public class ServiceContext
      *
      * @param cReturns 1, 0 or -1  for one, zero or tuple return
      */
-    public CompletableFuture<ObjectHandle> sendInvoke1Request(Frame frameCaller,
+    public CompletionToken<ObjectHandle> sendInvoke1Request(Frame frameCaller,
                 FunctionHandle hFunction, ServiceHandle hService, ObjectHandle[] ahArg, int cReturns)
         {
-        CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
+        CompletionToken<ObjectHandle> token = new CompletionToken<>();
 
-        addRequest(new Invoke1Request(frameCaller, hFunction, hService, ahArg, cReturns, future));
+        addRequest(new Invoke1Request(frameCaller, hFunction, hService, ahArg, cReturns, token));
 
         if (cReturns == 0)
             {
-            frameCaller.f_fiber.registerUncapturedRequest(future);
+            frameCaller.f_fiber.registerUncapturedRequest(token);
             return null;
             }
-        return future;
+        return token;
         }
 
     // send and asynchronous "invoke" message with multiple return values
-    public CompletableFuture<ObjectHandle[]> sendInvokeNRequest(Frame frameCaller,
+    public CompletionToken<ObjectHandle[]> sendInvokeNRequest(Frame frameCaller,
                 FunctionHandle hFunction, ServiceHandle hService, ObjectHandle[] ahArg, int cReturns)
         {
-        CompletableFuture<ObjectHandle[]> future = new CompletableFuture<>();
+        CompletionToken<ObjectHandle[]> token = new CompletionToken<>();
 
-        addRequest(new InvokeNRequest(frameCaller, hFunction, hService, ahArg, cReturns, future));
+        addRequest(new InvokeNRequest(frameCaller, hFunction, hService, ahArg, cReturns, token));
 
         if (cReturns == 0)
             {
-            frameCaller.f_fiber.registerUncapturedRequest(future);
+            frameCaller.f_fiber.registerUncapturedRequest(token);
             return null;
             }
-        return future;
+        return token;
         }
 
     // send and asynchronous property "read" operation message
-    public CompletableFuture<ObjectHandle> sendProperty01Request(Frame frameCaller,
-                                                                 PropertyConstant idProp, PropertyOperation01 op)
+    public CompletionToken<ObjectHandle> sendProperty01Request(Frame frameCaller,
+                                                               PropertyConstant idProp, PropertyOperation01 op)
         {
-        CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
+        CompletionToken<ObjectHandle> token = new CompletionToken<>();
 
-        addRequest(new PropertyOpRequest(frameCaller, idProp, null, 1, future, op));
+        addRequest(new PropertyOpRequest(frameCaller, idProp, null, 1, token, op));
 
-        return future;
+        return token;
         }
 
     // send and asynchronous property "update" operation message
     public void sendProperty10Request(Frame frameCaller,
                                       PropertyConstant idProp, ObjectHandle hValue, PropertyOperation10 op)
         {
-        CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
+        CompletionToken<ObjectHandle> token = new CompletionToken<>();
 
-        addRequest(new PropertyOpRequest(frameCaller, idProp, hValue, 0, future, op));
+        addRequest(new PropertyOpRequest(frameCaller, idProp, hValue, 0, token, op));
 
-        frameCaller.f_fiber.registerUncapturedRequest(future);
+        frameCaller.f_fiber.registerUncapturedRequest(token);
         }
 
     // send and asynchronous "constant initialization" message
-    public CompletableFuture<ObjectHandle> sendConstantRequest(Frame frameCaller,
-                                                               List<SingletonConstant> listConstants)
+    public CompletionToken<ObjectHandle> sendConstantRequest(Frame frameCaller,
+                                                             List<SingletonConstant> listConstants)
         {
-        CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
+        CompletionToken<ObjectHandle> token = new CompletionToken<>();
 
-        addRequest(new ConstantInitializationRequest(frameCaller, listConstants, future));
+        addRequest(new ConstantInitializationRequest(frameCaller, listConstants, token));
 
-        return future;
+        return token;
         }
 
     protected void callUnhandledExceptionHandler(ExceptionHandle hException)
@@ -572,15 +842,15 @@ public class ServiceContext
 
     // ----- helpers ------
 
-    // send the specified number of return values back to the caller
+    // send the specified number (0, 1 or -1 for a tuple) of return values back to the caller
     protected static int sendResponse(Fiber fiberCaller, Frame frame,
-                                      CompletableFuture future, int cReturns)
+                                      CompletionToken<ObjectHandle> token, int cReturns)
         {
         switch (cReturns)
             {
             case 0:
                 fiberCaller.f_context.respond(
-                        new Response(fiberCaller, xTuple.H_VOID, frame.m_hException, future));
+                        new Response<>(fiberCaller, xTuple.H_VOID, frame.m_hException, token));
                 break;
 
             case  1:
@@ -596,12 +866,14 @@ public class ServiceContext
                         hException = xException.mutableObject(frame);
                         }
                     }
-                fiberCaller.f_context.respond(new Response(fiberCaller, hReturn, hException, future));
+                fiberCaller.f_context.respond(new Response<>(fiberCaller, hReturn, hException, token));
                 break;
                 }
 
-            case -1:
+            default:
                 {
+                assert cReturns == -1;
+
                 ObjectHandle[]  ahReturn   = frame.f_ahVar;
                 ExceptionHandle hException = frame.m_hException;
                 TupleHandle     hTuple     = null;
@@ -626,37 +898,45 @@ public class ServiceContext
                             }
                         }
                     }
-                fiberCaller.f_context.respond(new Response(fiberCaller, hTuple, hException, future));
+                fiberCaller.f_context.respond(new Response<>(fiberCaller, hTuple, hException, token));
                 break;
                 }
+            }
+        return Op.R_NEXT;
+        }
 
-            default:
+    // send the specified number of return values back to the caller as an array
+    protected static int sendResponseN(Fiber fiberCaller, Frame frame,
+                                       CompletionToken<ObjectHandle[]> token, int cReturns)
+        {
+        if (cReturns == 0)
+            {
+            fiberCaller.f_context.respond(
+                    new Response<>(fiberCaller, Utils.OBJECTS_NONE, frame.m_hException, token));
+            return Op.R_NEXT;
+            }
+
+        ObjectHandle[]  ahReturn   = frame.f_ahVar;
+        ExceptionHandle hException = frame.m_hException;
+        if (hException == null)
+            {
+            for (int i = 0, c = ahReturn.length; i < c; i++)
                 {
-                assert cReturns > 1;
-                ObjectHandle[]  ahReturn   = frame.f_ahVar;
-                ExceptionHandle hException = frame.m_hException;
-                if (hException == null)
+                ObjectHandle hReturn = ahReturn[i];
+                if (hReturn.isMutable() && !hReturn.isService())
                     {
-                    for (int i = 0, c = ahReturn.length; i < c; i++)
+                    hReturn = hReturn.getTemplate().createProxyHandle(frame.f_context, hReturn, null);
+                    if (hReturn == null)
                         {
-                        ObjectHandle hReturn = ahReturn[i];
-                        if (hReturn.isMutable() && !hReturn.isService())
-                            {
-                            hReturn = hReturn.getTemplate().createProxyHandle(frame.f_context, hReturn, null);
-                            if (hReturn == null)
-                                {
-                                hException = xException.mutableObject(frame);
-                                ahReturn   = null;
-                                break;
-                                }
-                            ahReturn[i] = hReturn;
-                            }
+                        hException = xException.mutableObject(frame);
+                        ahReturn   = null;
+                        break;
                         }
+                    ahReturn[i] = hReturn;
                     }
-                fiberCaller.f_context.respond(new Response(fiberCaller, ahReturn, hException, future));
-                break;
                 }
             }
+        fiberCaller.f_context.respond(new Response<>(fiberCaller, ahReturn, hException, token));
         return Op.R_NEXT;
         }
 
@@ -702,20 +982,20 @@ public class ServiceContext
     public static class ConstructRequest
             extends Message
         {
-        private final MethodStructure                  f_constructor;
-        private final ClassComposition                 f_clazz;
-        private final ObjectHandle[]                   f_ahArg;
-        private final CompletableFuture<ServiceHandle> f_future;
+        private final MethodStructure               f_constructor;
+        private final ClassComposition              f_clazz;
+        private final ObjectHandle[]                f_ahArg;
+        private final CompletionToken<ObjectHandle> f_token;
 
         public ConstructRequest(Frame frameCaller, MethodStructure constructor, ClassComposition clazz,
-                                CompletableFuture<ServiceHandle> future, ObjectHandle[] ahArg)
+                                CompletionToken<ObjectHandle> token, ObjectHandle[] ahArg)
             {
             super(frameCaller);
 
             f_constructor = constructor;
             f_clazz       = clazz;
             f_ahArg       = ahArg;
-            f_future      = future;
+            f_token       = token;
             }
 
         @Override
@@ -740,7 +1020,7 @@ public class ServiceContext
             Frame frame0 = context.createServiceEntryFrame(this, 1,
                     new Op[]{opConstruct, Return_0.INSTANCE});
 
-            frame0.addContinuation(_null -> sendResponse(f_fiberCaller, frame0, f_future, 1));
+            frame0.addContinuation(_null -> sendResponse(f_fiberCaller, frame0, f_token, 1));
             return frame0;
             }
         }
@@ -809,15 +1089,15 @@ public class ServiceContext
     public static class Invoke1Request
             extends Message
         {
-        private final FunctionHandle                  f_hFunction;
-        private final ServiceHandle                   f_hService;
-        private final ObjectHandle[]                  f_ahArg;
-        private final int                             f_cReturns;
-        private final CompletableFuture<ObjectHandle> f_future;
+        private final FunctionHandle                f_hFunction;
+        private final ServiceHandle                 f_hService;
+        private final ObjectHandle[]                f_ahArg;
+        private final int                           f_cReturns;
+        private final CompletionToken<ObjectHandle> f_token;
 
         public Invoke1Request(Frame frameCaller, FunctionHandle hFunction,
                               ServiceHandle hService, ObjectHandle[] ahArg, int cReturns,
-                              CompletableFuture<ObjectHandle> future)
+                              CompletionToken<ObjectHandle> token)
             {
             super(frameCaller);
 
@@ -825,7 +1105,7 @@ public class ServiceContext
             f_hService  = hService;
             f_ahArg     = ahArg;
             f_cReturns  = cReturns;
-            f_future    = future;
+            f_token     = token;
             }
 
         @Override
@@ -863,7 +1143,7 @@ public class ServiceContext
                     new Op[] {opCall, Return_0.INSTANCE});
 
             frame0.addContinuation(_null ->
-                sendResponse(f_fiberCaller, frame0, f_future, f_cReturns));
+                sendResponse(f_fiberCaller, frame0, f_token, f_cReturns));
 
             return frame0;
             }
@@ -875,15 +1155,15 @@ public class ServiceContext
     public static class InvokeNRequest
             extends Message
         {
-        private final FunctionHandle                    f_hFunction;
-        private final ObjectHandle                      f_hService;
-        private final ObjectHandle[]                    f_ahArg;
-        private final int                               f_cReturns;
-        private final CompletableFuture<ObjectHandle[]> f_future;
+        private final FunctionHandle                  f_hFunction;
+        private final ObjectHandle                    f_hService;
+        private final ObjectHandle[]                  f_ahArg;
+        private final int                             f_cReturns;
+        private final CompletionToken<ObjectHandle[]> f_token;
 
         public InvokeNRequest(Frame frameCaller, FunctionHandle hFunction,
                               ServiceHandle hService, ObjectHandle[] ahArg, int cReturns,
-                              CompletableFuture<ObjectHandle[]> future)
+                              CompletionToken<ObjectHandle[]> token)
             {
             super(frameCaller);
 
@@ -891,7 +1171,7 @@ public class ServiceContext
             f_hService  = hService;
             f_ahArg     = ahArg;
             f_cReturns  = cReturns;
-            f_future    = future;
+            f_token     = token;
             }
 
         @Override
@@ -923,7 +1203,7 @@ public class ServiceContext
                 new Op[] {opCall, Return_0.INSTANCE});
 
             frame0.addContinuation(_null ->
-                sendResponse(f_fiberCaller, frame0, f_future, f_cReturns));
+                sendResponseN(f_fiberCaller, frame0, f_token, f_cReturns));
 
             return frame0;
             }
@@ -936,22 +1216,22 @@ public class ServiceContext
     public static class PropertyOpRequest
             extends Message
         {
-        private final PropertyConstant                f_idProp;
-        private final ObjectHandle                    f_hValue;
-        private final int                             f_cReturns;
-        private final CompletableFuture<ObjectHandle> f_future;
-        private final PropertyOperation               f_op;
+        private final PropertyConstant              f_idProp;
+        private final ObjectHandle                  f_hValue;
+        private final int                           f_cReturns;
+        private final CompletionToken<ObjectHandle> f_token;
+        private final PropertyOperation             f_op;
 
         public PropertyOpRequest(Frame frameCaller, PropertyConstant idProp,
                                  ObjectHandle hValue, int cReturns,
-                                 CompletableFuture<ObjectHandle> future, PropertyOperation op)
+                                 CompletionToken<ObjectHandle> token, PropertyOperation op)
             {
             super(frameCaller);
 
             f_idProp   = idProp;
             f_hValue   = hValue;
             f_cReturns = cReturns;
-            f_future   = future;
+            f_token    = token;
             f_op       = op;
             }
 
@@ -981,7 +1261,7 @@ public class ServiceContext
                     new Op[]{opCall, Return_0.INSTANCE});
 
             frame0.addContinuation(_null ->
-                sendResponse(f_fiberCaller, frame0, f_future, f_cReturns));
+                sendResponse(f_fiberCaller, frame0, f_token, f_cReturns));
 
             return frame0;
             }
@@ -993,16 +1273,16 @@ public class ServiceContext
     public static class ConstantInitializationRequest
             extends Message
         {
-        private final List<SingletonConstant>         f_list;
-        private final CompletableFuture<ObjectHandle> f_future;
+        private final List<SingletonConstant>       f_list;
+        private final CompletionToken<ObjectHandle> f_token;
 
         public ConstantInitializationRequest(Frame frameCaller, List<SingletonConstant> listConstants,
-                                             CompletableFuture<ObjectHandle> future)
+                                             CompletionToken<ObjectHandle> token)
             {
             super(frameCaller);
 
-            f_list   = listConstants;
-            f_future = future;
+            f_list  = listConstants;
+            f_token = token;
             }
 
         @Override
@@ -1026,7 +1306,7 @@ public class ServiceContext
                     new Op[]{opCall, Return_0.INSTANCE});
 
             frame0.addContinuation(_null ->
-                sendResponse(f_fiberCaller, frame0, f_future, 1));
+                sendResponse(f_fiberCaller, frame0, f_token, 1));
 
             return frame0;
             }
@@ -1038,34 +1318,36 @@ public class ServiceContext
     public static class Response<T>
             implements Runnable
         {
-        private final Fiber                f_fiberCaller;
-        private final T                    f_return;
-        private final ExceptionHandle      f_hException;
-        private final CompletableFuture<T> f_future;
+        private final Fiber              f_fiberCaller;
+        private final T                  f_return;
+        private final ExceptionHandle    f_hException;
+        private final CompletionToken<T> f_token;
 
         public Response(Fiber fiberCaller, T returnValue, ExceptionHandle hException,
-                        CompletableFuture<T> future)
+                        CompletionToken<T> token)
             {
             assert returnValue != null || hException != null;
 
             f_fiberCaller = fiberCaller;
             f_hException  = hException;
             f_return      = returnValue;
-            f_future      = future;
+            f_token       = token;
             }
 
         @Override
         public void run()
             {
-            f_fiberCaller.m_fResponded = true;
+            Fiber fiberCaller = f_fiberCaller;
+            fiberCaller.m_fResponded = true;
+            fiberCaller.f_context.f_queueSuspended.markReady(fiberCaller);
 
             if (f_hException == null)
                 {
-                f_future.complete(f_return);
+                f_token.complete(f_return);
                 }
             else
                 {
-                f_future.completeExceptionally(f_hException.getException());
+                f_token.completeExceptionally(f_hException);
                 }
             }
         }
@@ -1078,8 +1360,21 @@ public class ServiceContext
     public final ObjectHeap f_heapGlobal;
     public final ConstantPool f_pool;
 
-    private final Queue<Message> f_queueMsg;
-    private final Queue<Response> f_queueResponse;
+    /**
+     * The incoming requests and responses. The bounded mailboxes are used as long as they have
+     * room; the overflow queues pick up the rest.
+     */
+    private final MpscRingBuffer<Message>  f_mailboxMsg;
+    private final MpscRingBuffer<Response> f_mailboxResponse;
+    private final Queue<Message>  f_queueMsgOverflow      = new ConcurrentLinkedQueue<>();
+    private final Queue<Response> f_queueResponseOverflow = new ConcurrentLinkedQueue<>();
+
+    // the fibers of other services held back by the back-pressure
+    private final Queue<Fiber> f_queueBlockedSenders = new ConcurrentLinkedQueue<>();
+
+    // the back-pressure mode
+    private volatile boolean m_fBackPressure;
+    private final Queue<Fiber> f_queueResponded = new ConcurrentLinkedQueue<>();
 
     private final int f_nId; // the service id
     public final String f_sName; // the service name
@@ -1099,8 +1394,24 @@ public class ServiceContext
     // Metrics: the total time (in nanos) this service has been running
     protected long m_cRuntimeNanos;
 
+    // Metrics: the number of times a fiber has been paused due to the quantum expiration
+    protected long m_cPreemptions;
+
+    // the quantum policy override (null indicates the runtime's default)
+    private volatile QuantumPolicy m_quantum;
+
+    /**
+     * The scheduling state of this service with respect to the daemon pool: idle (not scheduled),
+     * ready (scheduled or being processed) or notified (a new request, response or a future
+     * completion has arrived while the service was being processed).
+     */
+    private final AtomicInteger f_nScheduleState = new AtomicInteger(SCHEDULE_IDLE);
+    private static final int SCHEDULE_IDLE     = 0;
+    private static final int SCHEDULE_READY    = 1;
+    private static final int SCHEDULE_NOTIFIED = 2;
+
     private Frame m_frameCurrent;
-    private FiberQueue f_queueSuspended = new FiberQueue(); // suspended fibers
+    private final FiberQueue f_queueSuspended = new FiberQueue(); // suspended fibers
 
     enum Reentrancy {Prioritized, Open, Exclusive, Forbidden}
     volatile Reentrancy m_reentrancy = Reentrancy.Prioritized;
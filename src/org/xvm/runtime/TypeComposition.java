@@ -2,7 +2,6 @@ package org.xvm.runtime;
 
 
 import java.util.List;
-import java.util.Map;
 
 import org.xvm.asm.Constants.Access;
 import org.xvm.asm.MethodStructure;
@@ -93,9 +92,25 @@ public interface TypeComposition
      * Create entries for all fields. Non-inflated fields will have null values; inflated
      * will contain non-initialized RefHandle objects.
      *
-     * @return a map containing object fields
+     * @return an array containing object fields (indexed by the field slot) or null if there
+     *         are no fields
      */
-    Map<Object, ObjectHandle> initializeStructure();
+    ObjectHandle[] initializeStructure();
+
+    /**
+     * Find the slot of the field referred by the specified nid in the array created by
+     * {@link #initializeStructure()}.
+     *
+     * @param nid  the property nid
+     *
+     * @return the field slot or -1 if there is no such field
+     */
+    int getFieldIndex(Object nid);
+
+    /**
+     * @return an array of the field nids indexed by the field slot (empty if there are no fields)
+     */
+    Object[] getFieldNids();
 
     /**
      * Check whether or not the property referred by the specified nid has a custom code or
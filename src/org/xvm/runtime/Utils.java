@@ -590,7 +590,7 @@ public abstract class Utils
                 {
                 sb.append(sLabel).append('=');
                 }
-            sb.append(hString.getValue());
+            hString.appendTo(sb);
 
             if (sb.length() < MAX_LEN)
                 {
@@ -661,11 +661,11 @@ public abstract class Utils
 
                     // we have at least one non-initialized singleton;
                     // call the main service to initialize them all
-                    CompletableFuture<ObjectHandle> cfResult =
+                    CompletionToken<ObjectHandle> token =
                         ctxMain.sendConstantRequest(frame, listSingletons);
 
                     // create a pseudo frame to deal with the wait
-                    Frame frameWait = Utils.createWaitFrame(frame, cfResult, Op.A_IGNORE);
+                    Frame frameWait = Utils.createWaitFrame(frame, token, Op.A_IGNORE);
                     frameWait.addContinuation(continuation);
 
                     return frame.call(frameWait);
@@ -836,6 +836,78 @@ public abstract class Utils
         return frameNext;
         }
 
+    /**
+     * Create a pseudo frame that will wait on the specified completion token.
+     *
+     * @param frame    the caller frame
+     * @param token    the completion token to wait for
+     * @param iReturn  the return register for the result
+     *
+     * @return a new frame
+     */
+    public static Frame createWaitFrame(Frame frame, CompletionToken<ObjectHandle> token,
+                                        int iReturn)
+        {
+        Op opWait = new Op()
+            {
+            public int process(Frame frameWait, int iPC)
+                {
+                if (!token.isDone())
+                    {
+                    // the Response will mark the fiber as "ready"
+                    return R_REPEAT;
+                    }
+
+                return token.isCompletedNormally()
+                    ? frameWait.returnValue(token.getResult(), false)
+                    : frameWait.raiseException(token.getException());
+                }
+
+            public String toString()
+                {
+                return "WaitAndReturn";
+                }
+            };
+
+        return frame.createNativeFrame(new Op[] {opWait}, OBJECTS_NONE, iReturn, null);
+        }
+
+    /**
+     * Create a pseudo frame that will wait on the specified multi-value completion token.
+     *
+     * @param frame     the caller frame
+     * @param token     the completion token to wait for
+     * @param aiReturn  the return registers for the results
+     *
+     * @return a new frame
+     */
+    public static Frame createWaitFrame(Frame frame, CompletionToken<ObjectHandle[]> token,
+                                        int[] aiReturn)
+        {
+        Op opWait = new Op()
+            {
+            public int process(Frame frameWait, int iPC)
+                {
+                if (!token.isDone())
+                    {
+                    // the Response will mark the fiber as "ready"
+                    return R_REPEAT;
+                    }
+
+                return token.isCompletedNormally()
+                    ? frameWait.returnValues(token.getResult(), null)
+                    : frameWait.raiseException(token.getException());
+                }
+
+            public String toString()
+                {
+                return "WaitAndReturnN";
+                }
+            };
+
+        return frame.createNativeFrame(new Op[] {opWait}, OBJECTS_NONE, Op.A_MULTI, aiReturn);
+        }
+
     private static final Op[] GET_AND_RETURN = new Op[]
         {
         new Op()
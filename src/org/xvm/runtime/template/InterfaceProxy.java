@@ -1,8 +1,6 @@
 package org.xvm.runtime.template;
 
 
-import java.util.concurrent.CompletableFuture;
-
 import org.xvm.asm.MethodStructure;
 import org.xvm.asm.Op;
 
@@ -11,6 +9,7 @@ import org.xvm.asm.constants.TypeConstant;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.CompletionToken;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ProxyComposition;
@@ -103,7 +102,8 @@ public class InterfaceProxy
         }
 
     @Override
-    public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp, int iReturn)
+    public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp,
+                                CallChain chain, int iReturn)
         {
         InterfaceProxyHandle hProxy = (InterfaceProxyHandle) hTarget;
         if (frame.f_context == hProxy.m_context)
@@ -112,10 +112,10 @@ public class InterfaceProxy
             return hTarget.getTemplate().getPropertyValue(frame, hTarget, idProp, iReturn);
             }
 
-        CompletableFuture<ObjectHandle> cfResult = hProxy.m_context.sendProperty01Request(
+        CompletionToken<ObjectHandle> token = hProxy.m_context.sendProperty01Request(
                 frame, idProp, this::getPropertyValue);
 
-        return frame.assignFutureResult(iReturn, cfResult);
+        return frame.assignTokenResult(iReturn, token);
         }
 
     @Override
@@ -133,7 +133,7 @@ public class InterfaceProxy
 
     @Override
     public int setPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp,
-                                ObjectHandle hValue)
+                                CallChain chain, ObjectHandle hValue)
         {
         InterfaceProxyHandle hProxy = (InterfaceProxyHandle) hTarget;
         if (frame.f_context == hProxy.m_context)
@@ -78,7 +78,7 @@ public class xOSFile
                     {
                     Path             path = hNode.f_path;
                     FileOutputStream out  = new FileOutputStream(path.toFile());
-                    out.write(((xByteArray.ByteArrayHandle) hValue).m_abValue);
+                    out.write(((xByteArray.ByteArrayHandle) hValue).getBytes());
                     }
                 catch (IOException e)
                     {
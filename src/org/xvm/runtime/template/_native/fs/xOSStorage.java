@@ -22,6 +22,7 @@ import org.xvm.asm.Op;
 
 import org.xvm.asm.constants.PropertyConstant;
 
+import org.xvm.runtime.CallChain;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.TemplateRegistry;
@@ -79,7 +80,8 @@ public class xOSStorage
         }
 
     @Override
-    public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp, int iReturn)
+    public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp,
+                                CallChain chain, int iReturn)
         {
         if (idProp.getName().equals("fileStore"))
             {
@@ -88,7 +90,7 @@ public class xOSStorage
                 ((ServiceHandle) hTarget).getField("fileStore"));
             }
 
-        return super.getPropertyValue(frame, hTarget, idProp, iReturn);
+        return super.getPropertyValue(frame, hTarget, idProp, chain, iReturn);
         }
 
     @Override
@@ -1,8 +1,6 @@
 package org.xvm.runtime.template._native.reflect;
 
 
-import java.util.concurrent.CompletableFuture;
-
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
@@ -16,6 +14,7 @@ import org.xvm.asm.constants.TypeConstant;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.CompletionToken;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.ArrayHandle;
@@ -187,7 +186,7 @@ public class xRTFunction
                 int ixPrev = Integer.MAX_VALUE;
                 for (int i = 0, c = haOrdinals.m_cSize; i < c; i++)
                     {
-                    int     ix      = (int) haOrdinals.m_alValue[i];
+                    int     ix      = (int) haOrdinals.m_alValue[haOrdinals.m_ixOffset + i];
                     boolean fAdjust = ix > ixPrev;
 
                     ixPrev = ix;
@@ -898,11 +897,13 @@ public class xRTFunction
 
             int cReturns = iReturn == Op.A_IGNORE ? 0 : 1;
 
-            CompletableFuture<ObjectHandle> cfResult = hService.m_context.sendInvoke1Request(
+            CompletionToken<ObjectHandle> token = hService.m_context.sendInvoke1Request(
                 frame, this, hService, ahVar, cReturns);
 
-            // in the case of zero returns - fire and forget
-            return cReturns == 0 ? Op.R_NEXT : frame.assignFutureResult(iReturn, cfResult);
+            // in the case of zero returns - fire and forget, unless the service is asking the
+            // caller to hold back
+            return hService.m_context.checkBackPressure(frame,
+                cReturns == 0 ? Op.R_NEXT : frame.assignTokenResult(iReturn, token));
             }
 
         @Override
@@ -920,10 +921,11 @@ public class xRTFunction
                 return frame.raiseException(xException.mutableObject(frame));
                 }
 
-            CompletableFuture<ObjectHandle> cfResult = hService.m_context.sendInvoke1Request(
+            CompletionToken<ObjectHandle> token = hService.m_context.sendInvoke1Request(
                     frame, this, hService, ahVar, -1);
 
-            return frame.assignFutureResult(iReturn, cfResult);
+            return hService.m_context.checkBackPressure(frame,
+                frame.assignTokenResult(iReturn, token));
             }
 
         @Override
@@ -943,24 +945,13 @@ public class xRTFunction
 
             int cReturns = aiReturn.length;
 
-            CompletableFuture<ObjectHandle[]> cfResult = hService.m_context.sendInvokeNRequest(
+            CompletionToken<ObjectHandle[]> token = hService.m_context.sendInvokeNRequest(
                 frame, this, hService, ahVar, cReturns);
 
-            if (cReturns == 0)
-                {
-                // fire and forget
-                return Op.R_NEXT;
-                }
-
-            if (cReturns == 1)
-                {
-                CompletableFuture<ObjectHandle> cfReturn =
-                    cfResult.thenApply(ahResult -> ahResult[0]);
-                return frame.assignFutureResult(aiReturn[0], cfReturn);
-                }
-
-            // TODO replace with: assignFutureResults()
-            return frame.call(Utils.createWaitFrame(frame, cfResult, aiReturn));
+            // in the case of zero returns - fire and forget, unless the service is asking the
+            // caller to hold back
+            return hService.m_context.checkBackPressure(frame,
+                cReturns == 0 ? Op.R_NEXT : frame.assignTokenResults(aiReturn, token));
             }
         }
 
@@ -996,11 +987,13 @@ public class xRTFunction
 
             int cReturns = iReturn == Op.A_IGNORE ? 0 : 1;
 
-            CompletableFuture<ObjectHandle> cfResult = f_ctx.sendInvoke1Request(
+            CompletionToken<ObjectHandle> token = f_ctx.sendInvoke1Request(
                 frame, this, null, ahVar, cReturns);
 
-            // in the case of zero returns - fire and forget
-            return cReturns == 0 ? Op.R_NEXT : frame.assignFutureResult(iReturn, cfResult);
+            // in the case of zero returns - fire and forget, unless the service is asking the
+            // caller to hold back
+            return f_ctx.checkBackPressure(frame,
+                cReturns == 0 ? Op.R_NEXT : frame.assignTokenResult(iReturn, token));
             }
 
         @Override
@@ -1024,10 +1017,10 @@ public class xRTFunction
                 throw new UnsupportedOperationException();
                 }
 
-            CompletableFuture<ObjectHandle> cfResult = f_ctx.sendInvoke1Request(
+            CompletionToken<ObjectHandle> token = f_ctx.sendInvoke1Request(
                     frame, this, null, ahVar, 1);
 
-            return frame.assignFutureResult(iReturn, cfResult);
+            return frame.assignTokenResult(iReturn, token);
             }
 
         @Override
@@ -1047,24 +1040,13 @@ public class xRTFunction
 
             int cReturns = aiReturn.length;
 
-            CompletableFuture<ObjectHandle[]> cfResult = f_ctx.sendInvokeNRequest(
+            CompletionToken<ObjectHandle[]> token = f_ctx.sendInvokeNRequest(
                 frame, this, null, ahVar, cReturns);
 
-            if (cReturns == 0)
-                {
-                // fire and forget
-                return Op.R_NEXT;
-                }
-
-            if (cReturns == 1)
-                {
-                CompletableFuture<ObjectHandle> cfReturn =
-                    cfResult.thenApply(ahResult -> ahResult[0]);
-                return frame.assignFutureResult(aiReturn[0], cfReturn);
-                }
-
-            // TODO replace with: assignFutureResults()
-            return frame.call(Utils.createWaitFrame(frame, cfResult, aiReturn));
+            // in the case of zero returns - fire and forget, unless the service is asking the
+            // caller to hold back
+            return f_ctx.checkBackPressure(frame,
+                cReturns == 0 ? Op.R_NEXT : frame.assignTokenResults(aiReturn, token));
             }
         }
 
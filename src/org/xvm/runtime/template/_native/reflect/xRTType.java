@@ -25,6 +25,7 @@ import org.xvm.asm.constants.StringConstant;
 import org.xvm.asm.constants.TypeConstant;
 import org.xvm.asm.constants.TypeInfo;
 
+import org.xvm.runtime.CallChain;
 import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.ClassTemplate;
 import org.xvm.runtime.Frame;
@@ -120,7 +121,8 @@ public class xRTType
         }
 
     @Override
-    public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp, int iReturn)
+    public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp,
+                                CallChain chain, int iReturn)
         {
         TypeHandle hThis = (TypeHandle) hTarget;
 
@@ -135,7 +137,7 @@ public class xRTType
                 : frame.assignValue(iReturn, typeValue.getTypeHandle());
             }
 
-        return super.getPropertyValue(frame, hTarget, idProp, iReturn);
+        return super.getPropertyValue(frame, hTarget, idProp, chain, iReturn);
         }
 
     @Override
@@ -147,14 +147,14 @@ public class xTerminalConsole
 
     private static Frame.Continuation PRINT = frameCaller ->
         {
-        CONSOLE_OUT.print(((StringHandle) frameCaller.popStack()).getValue());
+        CONSOLE_OUT.print(((StringHandle) frameCaller.popStack()).getStringValue());
         CONSOLE_OUT.flush();
         return Op.R_NEXT;
         };
 
     private static Frame.Continuation PRINTLN = frameCaller ->
         {
-        CONSOLE_OUT.println(((StringHandle) frameCaller.popStack()).getValue());
+        CONSOLE_OUT.println(((StringHandle) frameCaller.popStack()).getStringValue());
         return Op.R_NEXT;
         };
 
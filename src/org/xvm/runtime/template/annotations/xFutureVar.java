@@ -482,7 +482,7 @@ public class xFutureVar
                 }
             cf.whenComplete
                 (
-                (r, x) -> frame.f_fiber.m_fResponded = true
+                (r, x) -> frame.f_fiber.setResponded()
                 );
             return frame.call(Utils.createWaitFrame(frame, cf, iResult));
             }
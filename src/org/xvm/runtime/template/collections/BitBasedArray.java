@@ -98,6 +98,35 @@ public abstract class BitBasedArray
         hba.m_cSize = cSize;
         }
 
+    @Override
+    protected void fillRange(ArrayHandle hArray, int ixFrom, int cCount, ObjectHandle hValue)
+        {
+        byte[]  ab   = ((BitArrayHandle) hArray).m_abValue;
+        boolean fSet = isSet(hValue);
+
+        for (int i = ixFrom, c = ixFrom + cCount; i < c; i++)
+            {
+            setBit(ab, i, fSet);
+            }
+        }
+
+    @Override
+    protected int indexOf(Frame frame, ArrayHandle hArray, ObjectHandle hValue, long lStart,
+                          int[] aiReturn)
+        {
+        byte[]  ab   = ((BitArrayHandle) hArray).m_abValue;
+        boolean fSet = isSet(hValue);
+
+        for (int i = startIndex(lStart, hArray.m_cSize), c = hArray.m_cSize; i < c; i++)
+            {
+            if (getBit(ab, i) == fSet)
+                {
+                return assignIndex(frame, i, aiReturn);
+                }
+            }
+        return assignIndex(frame, -1, aiReturn);
+        }
+
     @Override
     public int extractArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
         {
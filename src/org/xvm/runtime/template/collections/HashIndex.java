@@ -0,0 +1,300 @@
+package org.xvm.runtime.template.collections;
+
+
+import java.util.Arrays;
+
+import org.xvm.runtime.ObjectHandle;
+
+
+/**
+ * An open-addressed (linear probing) table of handles keyed by their 64-bit hash values, which is
+ * used by the native {@link xHashMap} to find the entries of an Ecstasy HashMap without walking
+ * its hash buckets. Since different keys may have the same hash, the table may hold any number
+ * of handles for the same hash; it's up to the caller to iterate over them (see {@link #first} and
+ * {@link #next}) and check the keys for equality.
+ * <p/>
+ * The table also remembers the number of additions and removals that it has been synchronized
+ * with (see {@link #isSynchronized}), which allows the owner to detect that the underlying data
+ * structure has been changed behind its back and the index needs to be rebuilt.
+ * <p/>
+ * This class is not thread safe.
+ */
+public class HashIndex
+    {
+    /**
+     * Construct an empty index.
+     */
+    public HashIndex()
+        {
+        m_alHash  = new long[MIN_CAPACITY];
+        m_ahValue = new ObjectHandle[MIN_CAPACITY];
+        }
+
+    /**
+     * @return the number of handles in the index
+     */
+    public int size()
+        {
+        return m_cValues;
+        }
+
+    /**
+     * Remove all the handles from the index.
+     */
+    public void clear()
+        {
+        if (m_ahValue.length == MIN_CAPACITY)
+            {
+            Arrays.fill(m_ahValue, null);
+            }
+        else
+            {
+            m_alHash  = new long[MIN_CAPACITY];
+            m_ahValue = new ObjectHandle[MIN_CAPACITY];
+            }
+        m_cValues = 0;
+        }
+
+    /**
+     * Add the specified handle to the index. The caller is responsible for not adding the same
+     * handle twice.
+     *
+     * @param lHash   the hash value
+     * @param hValue  the handle
+     */
+    public void add(long lHash, ObjectHandle hValue)
+        {
+        assert hValue != null;
+
+        if ((m_cValues + 1) * 2 > m_ahValue.length)
+            {
+            grow();
+            }
+
+        long[]         alHash  = m_alHash;
+        ObjectHandle[] ahValue = m_ahValue;
+        int            nMask   = ahValue.length - 1;
+        int            iSlot   = slot(lHash, nMask);
+
+        while (ahValue[iSlot] != null)
+            {
+            iSlot = (iSlot + 1) & nMask;
+            }
+
+        alHash [iSlot] = lHash;
+        ahValue[iSlot] = hValue;
+        m_cValues++;
+        }
+
+    /**
+     * Find the first handle for the specified hash.
+     *
+     * @param lHash  the hash value
+     *
+     * @return the slot of the first handle with the specified hash or -1 if there is none
+     */
+    public int first(long lHash)
+        {
+        return find(lHash, slot(lHash, m_ahValue.length - 1));
+        }
+
+    /**
+     * Find the next handle for the specified hash.
+     *
+     * @param lHash  the hash value
+     * @param iSlot  the slot returned by the previous call to {@link #first} or {@link #next}
+     *
+     * @return the slot of the next handle with the specified hash or -1 if there is none
+     */
+    public int next(long lHash, int iSlot)
+        {
+        return find(lHash, (iSlot + 1) & (m_ahValue.length - 1));
+        }
+
+    /**
+     * @return the handle at the specified slot (as returned by {@link #first} or {@link #next})
+     */
+    public ObjectHandle get(int iSlot)
+        {
+        return m_ahValue[iSlot];
+        }
+
+    /**
+     * Remove the specified handle from the index.
+     *
+     * @param lHash   the hash value the handle was added with
+     * @param hValue  the handle
+     *
+     * @return true iff the handle was found and removed
+     */
+    public boolean remove(long lHash, ObjectHandle hValue)
+        {
+        for (int iSlot = first(lHash); iSlot >= 0; iSlot = next(lHash, iSlot))
+            {
+            if (m_ahValue[iSlot] == hValue)
+                {
+                delete(iSlot);
+                return true;
+                }
+            }
+        return false;
+        }
+
+    /**
+     * Check whether or not the index reflects the specified state of the underlying structure.
+     *
+     * @param cAdds     the number of additions to the underlying structure
+     * @param cRemoves  the number of removals from the underlying structure
+     *
+     * @return true iff the index has been synchronized with that state
+     */
+    public boolean isSynchronized(long cAdds, long cRemoves)
+        {
+        return m_cAdds == cAdds && m_cRemoves == cRemoves;
+        }
+
+    /**
+     * Record the state of the underlying structure that the index now reflects.
+     *
+     * @param cAdds     the number of additions to the underlying structure
+     * @param cRemoves  the number of removals from the underlying structure
+     */
+    public void synchronize(long cAdds, long cRemoves)
+        {
+        m_cAdds    = cAdds;
+        m_cRemoves = cRemoves;
+        }
+
+
+    // ----- internal ------------------------------------------------------------------------------
+
+    /**
+     * Probe for the specified hash starting at the specified slot.
+     */
+    private int find(long lHash, int iSlot)
+        {
+        long[]         alHash  = m_alHash;
+        ObjectHandle[] ahValue = m_ahValue;
+        int            nMask   = ahValue.length - 1;
+
+        while (ahValue[iSlot] != null)
+            {
+            if (alHash[iSlot] == lHash)
+                {
+                return iSlot;
+                }
+            iSlot = (iSlot + 1) & nMask;
+            }
+        return -1;
+        }
+
+    /**
+     * Delete the handle at the specified slot, shifting the handles that follow it back, so
+     * that no probe sequence is broken (i.e. without leaving a "tombstone").
+     */
+    private void delete(int iSlot)
+        {
+        long[]         alHash  = m_alHash;
+        ObjectHandle[] ahValue = m_ahValue;
+        int            nMask   = ahValue.length - 1;
+
+        int iNext = iSlot;
+        while (true)
+            {
+            iNext = (iNext + 1) & nMask;
+
+            ObjectHandle hNext = ahValue[iNext];
+            if (hNext == null)
+                {
+                break;
+                }
+
+            // the handle at iNext can fill the hole at iSlot only if its home slot is not
+            // (cyclically) between the hole and its current position
+            int iHome = slot(alHash[iNext], nMask);
+            if (((iNext - iHome) & nMask) >= ((iNext - iSlot) & nMask))
+                {
+                alHash [iSlot] = alHash[iNext];
+                ahValue[iSlot] = hNext;
+                iSlot = iNext;
+                }
+            }
+
+        ahValue[iSlot] = null;
+        m_cValues--;
+        }
+
+    /**
+     * Double the capacity of the table.
+     */
+    private void grow()
+        {
+        long[]         alHashOld  = m_alHash;
+        ObjectHandle[] ahValueOld = m_ahValue;
+        int            cCapacity  = ahValueOld.length * 2;
+        int            nMask      = cCapacity - 1;
+        long[]         alHash     = new long[cCapacity];
+        ObjectHandle[] ahValue    = new ObjectHandle[cCapacity];
+
+        for (int i = 0, c = ahValueOld.length; i < c; i++)
+            {
+            ObjectHandle hValue = ahValueOld[i];
+            if (hValue != null)
+                {
+                long lHash = alHashOld[i];
+                int  iSlot = slot(lHash, nMask);
+                while (ahValue[iSlot] != null)
+                    {
+                    iSlot = (iSlot + 1) & nMask;
+                    }
+                alHash [iSlot] = lHash;
+                ahValue[iSlot] = hValue;
+                }
+            }
+
+        m_alHash  = alHash;
+        m_ahValue = ahValue;
+        }
+
+    /**
+     * @return the home slot for the specified hash; the hash is scrambled, since the hashes of
+     *         many keys (e.g. Int) are not distributed well in the lower bits
+     */
+    private static int slot(long lHash, int nMask)
+        {
+        return (int) ((lHash * 0x9E3779B97F4A7C15L) >>> 32) & nMask;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The initial (and minimum) capacity of the table; must be a power of two.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * The hash values, parallel to {@link #m_ahValue}.
+     */
+    private long[] m_alHash;
+
+    /**
+     * The handles; an empty slot is null.
+     */
+    private ObjectHandle[] m_ahValue;
+
+    /**
+     * The number of handles in the table.
+     */
+    private int m_cValues;
+
+    /**
+     * The number of additions to the underlying structure that the index reflects.
+     */
+    private long m_cAdds;
+
+    /**
+     * The number of removals from the underlying structure that the index reflects.
+     */
+    private long m_cRemoves;
+    }
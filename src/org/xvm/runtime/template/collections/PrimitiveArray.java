@@ -0,0 +1,970 @@
+package org.xvm.runtime.template.collections;
+
+
+import java.util.Arrays;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.ArrayHandle;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+
+
+/**
+ * A base class for native Array implementations for fixed-width numeric element types, which hold
+ * the raw bits of the elements in a primitive Java array of the same width (byte[], short[], int[]
+ * or long[]) instead of an array of element handles.
+ * <p/>
+ * The subclasses only need to know how to convert an element handle to its bits and back.
+ */
+public abstract class PrimitiveArray
+        extends xArray
+    {
+    /**
+     * Construct an array template for the specified element type.
+     *
+     * @param templates    the template registry
+     * @param structure    the Array class structure
+     * @param typeElement  the element type
+     * @param cBits        the number of bits required to hold an element (8, 16, 32 or 64)
+     */
+    protected PrimitiveArray(TemplateRegistry templates, ClassStructure structure,
+                             TypeConstant typeElement, int cBits)
+        {
+        super(templates, structure, false);
+
+        f_typeElement = typeElement;
+        f_cBits       = cBits;
+        }
+
+    @Override
+    public void initDeclared()
+        {
+        }
+
+    @Override
+    public TypeConstant getCanonicalType()
+        {
+        ConstantPool pool = pool();
+        return pool.ensureParameterizedTypeConstant(pool.typeArray(), f_typeElement);
+        }
+
+    /**
+     * @return the element type of the arrays produced by this template
+     */
+    public TypeConstant getElementType()
+        {
+        return f_typeElement;
+        }
+
+    @Override
+    public ArrayHandle createArrayHandle(ClassComposition clzArray, ObjectHandle[] ahArg)
+        {
+        int                  c      = ahArg.length;
+        PrimitiveArrayHandle hArray = makeArrayHandle(clzArray, c, Mutability.Constant);
+        for (int i = 0; i < c; i++)
+            {
+            hArray.setBits(i, toBits(ahArg[i]));
+            }
+        hArray.m_cSize = c;
+        return hArray;
+        }
+
+    @Override
+    public ArrayHandle createArrayHandle(ClassComposition clzArray, int cCapacity, Mutability mutability)
+        {
+        return makeArrayHandle(clzArray, cCapacity, mutability);
+        }
+
+    @Override
+    protected ArrayHandle createCopy(ArrayHandle hArray, Mutability mutability)
+        {
+        PrimitiveArrayHandle hSrc = (PrimitiveArrayHandle) hArray;
+
+        return hSrc.copyOf(0, hSrc.m_cSize, false, mutability);
+        }
+
+    @Override
+    protected void fill(ArrayHandle hArray, int cSize, ObjectHandle hValue)
+        {
+        PrimitiveArrayHandle ha = (PrimitiveArrayHandle) hArray;
+
+        ha.fill(0, cSize, toBits(hValue));
+        ha.m_cSize = cSize;
+        }
+
+    @Override
+    protected void fillRange(ArrayHandle hArray, int ixFrom, int cCount, ObjectHandle hValue)
+        {
+        ((PrimitiveArrayHandle) hArray).fill(ixFrom, cCount, toBits(hValue));
+        }
+
+    @Override
+    protected int indexOf(Frame frame, ArrayHandle hTarget, ObjectHandle hValue, long lStart,
+                          int[] aiReturn)
+        {
+        PrimitiveArrayHandle hArray = (PrimitiveArrayHandle) hTarget;
+
+        long lBits  = toBits(hValue);
+        int  ixFrom = startIndex(lStart, hArray.m_cSize);
+        if (isBitwiseEqual())
+            {
+            return assignIndex(frame, hArray.indexOfBits(lBits, ixFrom), aiReturn);
+            }
+
+        for (int i = ixFrom, c = hArray.m_cSize; i < c; i++)
+            {
+            if (equalElements(hArray.getBits(i), lBits))
+                {
+                return assignIndex(frame, i, aiReturn);
+                }
+            }
+        return assignIndex(frame, -1, aiReturn);
+        }
+
+    @Override
+    public int extractArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
+        {
+        PrimitiveArrayHandle hArray = (PrimitiveArrayHandle) hTarget;
+
+        if (lIndex < 0 || lIndex >= hArray.m_cSize)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
+            }
+        return frame.assignValue(iReturn, fromBits(hArray.getBits((int) lIndex)));
+        }
+
+    @Override
+    public int assignArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, ObjectHandle hValue)
+        {
+        PrimitiveArrayHandle hArray = (PrimitiveArrayHandle) hTarget;
+
+        int cSize = hArray.m_cSize;
+
+        if (lIndex < 0 || lIndex > cSize)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, cSize));
+            }
+
+        switch (hArray.m_mutability)
+            {
+            case Constant:
+                return frame.raiseException(xException.immutableObject(frame));
+
+            case Persistent:
+                return frame.raiseException(xException.unsupportedOperation(frame));
+            }
+
+        if (lIndex == cSize)
+            {
+            // an array can only grow without any "holes"
+            if (cSize == hArray.getCapacity())
+                {
+                if (hArray.m_mutability == Mutability.FixedSize)
+                    {
+                    return frame.raiseException(xException.readOnly(frame));
+                    }
+
+                grow(hArray, cSize + 1);
+                }
+
+            hArray.m_cSize++;
+            }
+
+        hArray.setBits((int) lIndex, toBits(hValue));
+        return Op.R_NEXT;
+        }
+
+    @Override
+    public int callEquals(Frame frame, ClassComposition clazz,
+                          ObjectHandle hValue1, ObjectHandle hValue2, int iReturn)
+        {
+        PrimitiveArrayHandle h1 = (PrimitiveArrayHandle) hValue1;
+        PrimitiveArrayHandle h2 = (PrimitiveArrayHandle) hValue2;
+
+        return frame.assignValue(iReturn, xBoolean.makeHandle(equalElements(h1, h2)));
+        }
+
+    @Override
+    public boolean compareIdentity(ObjectHandle hValue1, ObjectHandle hValue2)
+        {
+        PrimitiveArrayHandle hArray1 = (PrimitiveArrayHandle) hValue1;
+        PrimitiveArrayHandle hArray2 = (PrimitiveArrayHandle) hValue2;
+
+        if (hArray1.isMutable() || hArray2.isMutable())
+            {
+            return false;
+            }
+
+        return hArray1.equalBits(hArray2);
+        }
+
+    @Override
+    protected void addElement(ArrayHandle hTarget, ObjectHandle hElement)
+        {
+        PrimitiveArrayHandle hArray = (PrimitiveArrayHandle) hTarget;
+        int                  ixNext = hArray.m_cSize;
+
+        if (ixNext == hArray.getCapacity())
+            {
+            grow(hArray, ixNext + 1);
+            }
+        hArray.m_cSize++;
+
+        hArray.setBits(ixNext, toBits(hElement));
+        }
+
+    @Override
+    protected void addElements(ArrayHandle hTarget, ObjectHandle hElements)
+        {
+        PrimitiveArrayHandle hArray    = (PrimitiveArrayHandle) hTarget;
+        ArrayHandle          hArrayAdd = (ArrayHandle) hElements;
+
+        int cAdd = hArrayAdd.m_cSize;
+        if (cAdd > 0)
+            {
+            int cThis = hArray.m_cSize;
+            int cNew  = cThis + cAdd;
+            if (cNew > hArray.getCapacity())
+                {
+                grow(hArray, cNew);
+                }
+
+            if (hArrayAdd.getTemplate() == this)
+                {
+                hArray.copyFrom((PrimitiveArrayHandle) hArrayAdd, cThis);
+                }
+            else
+                {
+                for (int i = 0; i < cAdd; i++)
+                    {
+                    hArray.setBits(cThis + i, toBits(hArrayAdd.getElement(i)));
+                    }
+                }
+            hArray.m_cSize = cNew;
+            }
+        }
+
+    @Override
+    protected int slice(Frame frame, ObjectHandle hTarget, long ixFrom, long ixTo, boolean fReverse, int iReturn)
+        {
+        PrimitiveArrayHandle hArray = (PrimitiveArrayHandle) hTarget;
+
+        int cSize = hArray.m_cSize;
+        if (ixFrom < 0 || ixFrom >= cSize || ixTo < ixFrom || ixTo >= cSize)
+            {
+            return frame.raiseException(
+                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= cSize ? ixFrom : ixTo, cSize));
+            }
+
+        return frame.assignValue(iReturn, hArray.copyOf(
+            (int) ixFrom, (int) (ixTo - ixFrom + 1), fReverse, hArray.m_mutability));
+        }
+
+
+    // ----- element conversions -------------------------------------------------------------------
+
+    /**
+     * Convert the specified element handle into the bits to store.
+     *
+     * @param hValue  the element handle
+     *
+     * @return the bits (only the lowest {@link #f_cBits} bits are stored)
+     */
+    protected abstract long toBits(ObjectHandle hValue);
+
+    /**
+     * Convert the stored bits into an element handle.
+     *
+     * @param lBits  the stored bits, sign-extended from the storage width
+     *
+     * @return the element handle
+     */
+    protected abstract ObjectHandle fromBits(long lBits);
+
+    /**
+     * Compare two elements for equality; only called if {@link #isBitwiseEqual()} is false.
+     *
+     * @param lBits1  the bits of the first element
+     * @param lBits2  the bits of the second element
+     *
+     * @return true iff the elements are equal
+     */
+    protected boolean equalElements(long lBits1, long lBits2)
+        {
+        return lBits1 == lBits2;
+        }
+
+    /**
+     * @return true iff two elements are equal if and only if their bits are the same
+     */
+    protected boolean isBitwiseEqual()
+        {
+        return true;
+        }
+
+
+    // ----- helper methods -----
+
+    /**
+     * Compare the elements of the specified arrays for equality.
+     */
+    protected boolean equalElements(PrimitiveArrayHandle h1, PrimitiveArrayHandle h2)
+        {
+        if (isBitwiseEqual())
+            {
+            return h1.equalBits(h2);
+            }
+
+        int cSize = h1.m_cSize;
+        if (cSize != h2.m_cSize)
+            {
+            return false;
+            }
+
+        for (int i = 0; i < cSize; i++)
+            {
+            if (!equalElements(h1.getBits(i), h2.getBits(i)))
+                {
+                return false;
+                }
+            }
+        return true;
+        }
+
+    /**
+     * Grow the storage of the specified array to hold at least the specified number of elements.
+     */
+    protected void grow(PrimitiveArrayHandle hArray, int cSize)
+        {
+        hArray.resize(calculateCapacity(hArray.getCapacity(), cSize));
+        }
+
+    /**
+     * Create an array handle with the storage of this template's width.
+     */
+    protected PrimitiveArrayHandle makeArrayHandle(TypeComposition clzArray, int cCapacity,
+                                                   Mutability mutability)
+        {
+        switch (f_cBits)
+            {
+            case 8:
+                return new Bits8Handle(clzArray, new byte[cCapacity], 0, mutability);
+
+            case 16:
+                return new Bits16Handle(clzArray, new short[cCapacity], 0, mutability);
+
+            case 32:
+                return new Bits32Handle(clzArray, new int[cCapacity], 0, mutability);
+
+            case 64:
+                return new Bits64Handle(clzArray, new long[cCapacity], 0, mutability);
+
+            default:
+                throw new IllegalStateException("bits=" + f_cBits);
+            }
+        }
+
+
+    // ----- handles -------------------------------------------------------------------------------
+
+    /**
+     * The base for the array handles holding the element bits in a primitive Java array.
+     */
+    public abstract static class PrimitiveArrayHandle
+            extends ArrayHandle
+        {
+        protected PrimitiveArrayHandle(TypeComposition clzArray, int cSize, Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_cSize = cSize;
+            }
+
+        /**
+         * @return the bits of the element at the specified index, sign-extended to 64 bits
+         */
+        public abstract long getBits(int ix);
+
+        /**
+         * Store the lowest bits of the specified value at the specified index.
+         */
+        public abstract void setBits(int ix, long lBits);
+
+        /**
+         * Change the storage capacity (which is never less than the size).
+         */
+        protected abstract void resize(int cCapacity);
+
+        /**
+         * Store the specified bits into the specified range of elements.
+         */
+        protected abstract void fill(int ixFrom, int cCount, long lBits);
+
+        /**
+         * @return the index of the first element at or after the specified index that holds the
+         *         specified bits, or -1 if there is none
+         */
+        protected abstract int indexOfBits(long lBits, int ixFrom);
+
+        /**
+         * Copy all the elements of the specified array of the same class into this array's
+         * storage starting at the specified index; the capacity must be sufficient.
+         */
+        protected abstract void copyFrom(PrimitiveArrayHandle hThat, int ixTo);
+
+        /**
+         * @return a new array holding a copy of the specified range of elements
+         */
+        protected abstract PrimitiveArrayHandle copyOf(int ixFrom, int cSize, boolean fReverse,
+                                                       Mutability mutability);
+
+        /**
+         * @return true iff the specified array of the same class has the same size and bits
+         */
+        protected abstract boolean equalBits(PrimitiveArrayHandle hThat);
+
+        @Override
+        public ObjectHandle getElement(int ix)
+            {
+            return ((PrimitiveArray) getTemplate()).fromBits(getBits(ix));
+            }
+
+        @Override
+        public void makeImmutable()
+            {
+            if (isMutable())
+                {
+                // purge the unused space
+                if (getCapacity() != m_cSize)
+                    {
+                    resize(m_cSize);
+                    }
+                super.makeImmutable();
+                }
+            }
+
+        @Override
+        public boolean isNativeEqual()
+            {
+            return true;
+            }
+
+        @Override
+        public int compareTo(ObjectHandle that)
+            {
+            PrimitiveArrayHandle hThat = (PrimitiveArrayHandle) that;
+
+            int cThis = m_cSize;
+            int cThat = hThat.m_cSize;
+            if (cThis != cThat)
+                {
+                return cThis - cThat;
+                }
+
+            for (int i = 0; i < cThis; i++)
+                {
+                int iDiff = Long.compare(getBits(i), hThat.getBits(i));
+                if (iDiff != 0)
+                    {
+                    return iDiff;
+                    }
+                }
+            return 0;
+            }
+
+        @Override
+        public int hashCode()
+            {
+            int nHash = 1;
+            for (int i = 0, c = m_cSize; i < c; i++)
+                {
+                nHash = 31 * nHash + Long.hashCode(getBits(i));
+                }
+            return nHash;
+            }
+
+        @Override
+        public boolean equals(Object obj)
+            {
+            return obj != null && obj.getClass() == getClass()
+                && ((PrimitiveArrayHandle) obj).getTemplate() == getTemplate()
+                && equalBits((PrimitiveArrayHandle) obj);
+            }
+        }
+
+    /**
+     * An array handle for 8-bit elements.
+     */
+    public static class Bits8Handle
+            extends PrimitiveArrayHandle
+        {
+        public byte[] m_abValue;
+
+        protected Bits8Handle(TypeComposition clzArray, byte[] abValue, int cSize, Mutability mutability)
+            {
+            super(clzArray, cSize, mutability);
+
+            m_abValue = abValue;
+            }
+
+        @Override
+        public int getCapacity()
+            {
+            return m_abValue.length;
+            }
+
+        @Override
+        public long getBits(int ix)
+            {
+            return m_abValue[ix];
+            }
+
+        @Override
+        public void setBits(int ix, long lBits)
+            {
+            m_abValue[ix] = (byte) lBits;
+            }
+
+        @Override
+        protected void resize(int cCapacity)
+            {
+            m_abValue = Arrays.copyOf(m_abValue, cCapacity);
+            }
+
+        @Override
+        protected void fill(int ixFrom, int cCount, long lBits)
+            {
+            Arrays.fill(m_abValue, ixFrom, ixFrom + cCount, (byte) lBits);
+            }
+
+        @Override
+        protected int indexOfBits(long lBits, int ixFrom)
+            {
+            byte[] abValue = m_abValue;
+            byte   bValue  = (byte) lBits;
+            for (int i = ixFrom, c = m_cSize; i < c; i++)
+                {
+                if (abValue[i] == bValue)
+                    {
+                    return i;
+                    }
+                }
+            return -1;
+            }
+
+        @Override
+        protected void copyFrom(PrimitiveArrayHandle hThat, int ixTo)
+            {
+            System.arraycopy(((Bits8Handle) hThat).m_abValue, 0, m_abValue, ixTo, hThat.m_cSize);
+            }
+
+        @Override
+        protected PrimitiveArrayHandle copyOf(int ixFrom, int cSize, boolean fReverse, Mutability mutability)
+            {
+            byte[] abNew = Arrays.copyOfRange(m_abValue, ixFrom, ixFrom + cSize);
+            if (fReverse)
+                {
+                for (int i = 0, j = cSize - 1; i < j; i++, j--)
+                    {
+                    byte b = abNew[i]; abNew[i] = abNew[j]; abNew[j] = b;
+                    }
+                }
+            return new Bits8Handle(getComposition(), abNew, cSize, mutability);
+            }
+
+        @Override
+        protected boolean equalBits(PrimitiveArrayHandle hThat)
+            {
+            int    cSize  = m_cSize;
+            byte[] abThis = m_abValue;
+            byte[] abThat = ((Bits8Handle) hThat).m_abValue;
+
+            if (cSize != hThat.m_cSize)
+                {
+                return false;
+                }
+
+            for (int i = 0; i < cSize; i++)
+                {
+                if (abThis[i] != abThat[i])
+                    {
+                    return false;
+                    }
+                }
+            return true;
+            }
+
+        @Override
+        public void deleteElement(int ix)
+            {
+            if (ix < m_cSize - 1)
+                {
+                System.arraycopy(m_abValue, ix+1, m_abValue, ix, m_cSize-ix-1);
+                }
+            m_abValue[--m_cSize] = 0;
+            }
+        }
+
+    /**
+     * An array handle for 16-bit elements.
+     */
+    public static class Bits16Handle
+            extends PrimitiveArrayHandle
+        {
+        public short[] m_asValue;
+
+        protected Bits16Handle(TypeComposition clzArray, short[] asValue, int cSize, Mutability mutability)
+            {
+            super(clzArray, cSize, mutability);
+
+            m_asValue = asValue;
+            }
+
+        @Override
+        public int getCapacity()
+            {
+            return m_asValue.length;
+            }
+
+        @Override
+        public long getBits(int ix)
+            {
+            return m_asValue[ix];
+            }
+
+        @Override
+        public void setBits(int ix, long lBits)
+            {
+            m_asValue[ix] = (short) lBits;
+            }
+
+        @Override
+        protected void resize(int cCapacity)
+            {
+            m_asValue = Arrays.copyOf(m_asValue, cCapacity);
+            }
+
+        @Override
+        protected void fill(int ixFrom, int cCount, long lBits)
+            {
+            Arrays.fill(m_asValue, ixFrom, ixFrom + cCount, (short) lBits);
+            }
+
+        @Override
+        protected int indexOfBits(long lBits, int ixFrom)
+            {
+            short[] asValue = m_asValue;
+            short   sValue  = (short) lBits;
+            for (int i = ixFrom, c = m_cSize; i < c; i++)
+                {
+                if (asValue[i] == sValue)
+                    {
+                    return i;
+                    }
+                }
+            return -1;
+            }
+
+        @Override
+        protected void copyFrom(PrimitiveArrayHandle hThat, int ixTo)
+            {
+            System.arraycopy(((Bits16Handle) hThat).m_asValue, 0, m_asValue, ixTo, hThat.m_cSize);
+            }
+
+        @Override
+        protected PrimitiveArrayHandle copyOf(int ixFrom, int cSize, boolean fReverse, Mutability mutability)
+            {
+            short[] asNew = Arrays.copyOfRange(m_asValue, ixFrom, ixFrom + cSize);
+            if (fReverse)
+                {
+                for (int i = 0, j = cSize - 1; i < j; i++, j--)
+                    {
+                    short s = asNew[i]; asNew[i] = asNew[j]; asNew[j] = s;
+                    }
+                }
+            return new Bits16Handle(getComposition(), asNew, cSize, mutability);
+            }
+
+        @Override
+        protected boolean equalBits(PrimitiveArrayHandle hThat)
+            {
+            int     cSize  = m_cSize;
+            short[] asThis = m_asValue;
+            short[] asThat = ((Bits16Handle) hThat).m_asValue;
+
+            if (cSize != hThat.m_cSize)
+                {
+                return false;
+                }
+
+            for (int i = 0; i < cSize; i++)
+                {
+                if (asThis[i] != asThat[i])
+                    {
+                    return false;
+                    }
+                }
+            return true;
+            }
+
+        @Override
+        public void deleteElement(int ix)
+            {
+            if (ix < m_cSize - 1)
+                {
+                System.arraycopy(m_asValue, ix+1, m_asValue, ix, m_cSize-ix-1);
+                }
+            m_asValue[--m_cSize] = 0;
+            }
+        }
+
+    /**
+     * An array handle for 32-bit elements.
+     */
+    public static class Bits32Handle
+            extends PrimitiveArrayHandle
+        {
+        public int[] m_anValue;
+
+        protected Bits32Handle(TypeComposition clzArray, int[] anValue, int cSize, Mutability mutability)
+            {
+            super(clzArray, cSize, mutability);
+
+            m_anValue = anValue;
+            }
+
+        @Override
+        public int getCapacity()
+            {
+            return m_anValue.length;
+            }
+
+        @Override
+        public long getBits(int ix)
+            {
+            return m_anValue[ix];
+            }
+
+        @Override
+        public void setBits(int ix, long lBits)
+            {
+            m_anValue[ix] = (int) lBits;
+            }
+
+        @Override
+        protected void resize(int cCapacity)
+            {
+            m_anValue = Arrays.copyOf(m_anValue, cCapacity);
+            }
+
+        @Override
+        protected void fill(int ixFrom, int cCount, long lBits)
+            {
+            Arrays.fill(m_anValue, ixFrom, ixFrom + cCount, (int) lBits);
+            }
+
+        @Override
+        protected int indexOfBits(long lBits, int ixFrom)
+            {
+            int[] anValue = m_anValue;
+            int   nValue  = (int) lBits;
+            for (int i = ixFrom, c = m_cSize; i < c; i++)
+                {
+                if (anValue[i] == nValue)
+                    {
+                    return i;
+                    }
+                }
+            return -1;
+            }
+
+        @Override
+        protected void copyFrom(PrimitiveArrayHandle hThat, int ixTo)
+            {
+            System.arraycopy(((Bits32Handle) hThat).m_anValue, 0, m_anValue, ixTo, hThat.m_cSize);
+            }
+
+        @Override
+        protected PrimitiveArrayHandle copyOf(int ixFrom, int cSize, boolean fReverse, Mutability mutability)
+            {
+            int[] anNew = Arrays.copyOfRange(m_anValue, ixFrom, ixFrom + cSize);
+            if (fReverse)
+                {
+                for (int i = 0, j = cSize - 1; i < j; i++, j--)
+                    {
+                    int n = anNew[i]; anNew[i] = anNew[j]; anNew[j] = n;
+                    }
+                }
+            return new Bits32Handle(getComposition(), anNew, cSize, mutability);
+            }
+
+        @Override
+        protected boolean equalBits(PrimitiveArrayHandle hThat)
+            {
+            int   cSize  = m_cSize;
+            int[] anThis = m_anValue;
+            int[] anThat = ((Bits32Handle) hThat).m_anValue;
+
+            if (cSize != hThat.m_cSize)
+                {
+                return false;
+                }
+
+            for (int i = 0; i < cSize; i++)
+                {
+                if (anThis[i] != anThat[i])
+                    {
+                    return false;
+                    }
+                }
+            return true;
+            }
+
+        @Override
+        public void deleteElement(int ix)
+            {
+            if (ix < m_cSize - 1)
+                {
+                System.arraycopy(m_anValue, ix+1, m_anValue, ix, m_cSize-ix-1);
+                }
+            m_anValue[--m_cSize] = 0;
+            }
+        }
+
+    /**
+     * An array handle for 64-bit elements.
+     */
+    public static class Bits64Handle
+            extends PrimitiveArrayHandle
+        {
+        public long[] m_alValue;
+
+        protected Bits64Handle(TypeComposition clzArray, long[] alValue, int cSize, Mutability mutability)
+            {
+            super(clzArray, cSize, mutability);
+
+            m_alValue = alValue;
+            }
+
+        @Override
+        public int getCapacity()
+            {
+            return m_alValue.length;
+            }
+
+        @Override
+        public long getBits(int ix)
+            {
+            return m_alValue[ix];
+            }
+
+        @Override
+        public void setBits(int ix, long lBits)
+            {
+            m_alValue[ix] = lBits;
+            }
+
+        @Override
+        protected void resize(int cCapacity)
+            {
+            m_alValue = Arrays.copyOf(m_alValue, cCapacity);
+            }
+
+        @Override
+        protected void fill(int ixFrom, int cCount, long lBits)
+            {
+            Arrays.fill(m_alValue, ixFrom, ixFrom + cCount, lBits);
+            }
+
+        @Override
+        protected int indexOfBits(long lBits, int ixFrom)
+            {
+            long[] alValue = m_alValue;
+            long   lValue  = lBits;
+            for (int i = ixFrom, c = m_cSize; i < c; i++)
+                {
+                if (alValue[i] == lValue)
+                    {
+                    return i;
+                    }
+                }
+            return -1;
+            }
+
+        @Override
+        protected void copyFrom(PrimitiveArrayHandle hThat, int ixTo)
+            {
+            System.arraycopy(((Bits64Handle) hThat).m_alValue, 0, m_alValue, ixTo, hThat.m_cSize);
+            }
+
+        @Override
+        protected PrimitiveArrayHandle copyOf(int ixFrom, int cSize, boolean fReverse, Mutability mutability)
+            {
+            long[] alNew = Arrays.copyOfRange(m_alValue, ixFrom, ixFrom + cSize);
+            if (fReverse)
+                {
+                for (int i = 0, j = cSize - 1; i < j; i++, j--)
+                    {
+                    long l = alNew[i]; alNew[i] = alNew[j]; alNew[j] = l;
+                    }
+                }
+            return new Bits64Handle(getComposition(), alNew, cSize, mutability);
+            }
+
+        @Override
+        protected boolean equalBits(PrimitiveArrayHandle hThat)
+            {
+            int    cSize  = m_cSize;
+            long[] alThis = m_alValue;
+            long[] alThat = ((Bits64Handle) hThat).m_alValue;
+
+            if (cSize != hThat.m_cSize)
+                {
+                return false;
+                }
+
+            for (int i = 0; i < cSize; i++)
+                {
+                if (alThis[i] != alThat[i])
+                    {
+                    return false;
+                    }
+                }
+            return true;
+            }
+
+        @Override
+        public void deleteElement(int ix)
+            {
+            if (ix < m_cSize - 1)
+                {
+                System.arraycopy(m_alValue, ix+1, m_alValue, ix, m_cSize-ix-1);
+                }
+            m_alValue[--m_cSize] = 0;
+            }
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The element type.
+     */
+    protected final TypeConstant f_typeElement;
+
+    /**
+     * The number of bits used to store an element.
+     */
+    protected final int f_cBits;
+    }
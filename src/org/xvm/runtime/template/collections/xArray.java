@@ -32,11 +32,23 @@ import org.xvm.runtime.template.xBoolean.BooleanHandle;
 import org.xvm.runtime.template.xEnum;
 import org.xvm.runtime.template.xEnum.EnumHandle;
 import org.xvm.runtime.template.xException;
+import org.xvm.runtime.template.xNullable;
 import org.xvm.runtime.template.xString.StringHandle;
 
 import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
 
+import org.xvm.runtime.template.numbers.xDec32;
+import org.xvm.runtime.template.numbers.xDec64;
+import org.xvm.runtime.template.numbers.xFloat16;
+import org.xvm.runtime.template.numbers.xFloat32;
+import org.xvm.runtime.template.numbers.xFloat64;
+import org.xvm.runtime.template.numbers.xInt16;
+import org.xvm.runtime.template.numbers.xInt32;
 import org.xvm.runtime.template.numbers.xInt64;
+import org.xvm.runtime.template.numbers.xInt8;
+import org.xvm.runtime.template.numbers.xUInt16;
+import org.xvm.runtime.template.numbers.xUInt32;
+import org.xvm.runtime.template.numbers.xUInt64;
 
 
 /**
@@ -79,6 +91,27 @@ public class xArray
         mapTemplates.put(pool.typeBoolean(), xBooleanArray.INSTANCE);
         mapTemplates.put(pool.ensureEcstasyTypeConstant("numbers.Bit"), xBitArray.INSTANCE);
 
+        // the fixed-width numeric types hold their values in primitive Java arrays
+        PrimitiveArray[] aPrimitive =
+            {
+            new xIntNumberArray(f_templates, f_struct, xInt8.INSTANCE),
+            new xIntNumberArray(f_templates, f_struct, xInt16.INSTANCE),
+            new xIntNumberArray(f_templates, f_struct, xInt32.INSTANCE),
+            new xIntNumberArray(f_templates, f_struct, xUInt16.INSTANCE),
+            new xIntNumberArray(f_templates, f_struct, xUInt32.INSTANCE),
+            new xIntNumberArray(f_templates, f_struct, xUInt64.INSTANCE),
+            new xFloatNumberArray(f_templates, f_struct, xFloat16.INSTANCE),
+            new xFloatNumberArray(f_templates, f_struct, xFloat32.INSTANCE),
+            new xFloatNumberArray(f_templates, f_struct, xFloat64.INSTANCE),
+            new xDecimalArray(f_templates, f_struct, xDec32.INSTANCE),
+            new xDecimalArray(f_templates, f_struct, xDec64.INSTANCE),
+            };
+        for (PrimitiveArray template : aPrimitive)
+            {
+            registerNative(template);
+            mapTemplates.put(template.getElementType(), template);
+            }
+
         ARRAY_TEMPLATES = mapTemplates;
 
         // cache the constructors
@@ -131,16 +164,28 @@ public class xArray
         markNativeProperty("mutability");
         markNativeProperty("size");
 
-        markNativeMethod("getElement", INT, ELEMENT_TYPE);
+        MethodStructure methodGet = markNativeMethod("getElement", INT, ELEMENT_TYPE);
         markNativeMethod("setElement", new String[] {"numbers.Int64", "Element"}, VOID);
         markNativeMethod("elementAt", INT, new String[] {"Var<Element>"});
         markNativeMethod("add", ELEMENT_TYPE, ARRAY);
         markNativeMethod("addAll", new String[] {"Iterable<Element>"}, ARRAY);
         markNativeMethod("delete", new String[] {"numbers.Int64"}, null);
         markNativeMethod("slice", new String[] {"Interval<numbers.Int64>"}, ARRAY);
+        markNativeMethod("fill", new String[] {"Element", "Interval<numbers.Int64>?"}, ARRAY);
+        markNativeMethod("indexOf", new String[] {"Element", "numbers.Int64"},
+                                    new String[] {"Boolean", "numbers.Int64"});
+        markNativeMethod("contains", ELEMENT_TYPE, BOOLEAN);
+        markNativeMethod("reify", VOID, ARRAY);
         markNativeMethod("ensureImmutable", BOOLEAN, null);
         markNativeMethod("ensurePersistent", BOOLEAN, null);
 
+        // the native handlers are shared by all the array specializations
+        registerNativeHandlers(methodGet);
+        for (xArray template : mapTemplates.values())
+            {
+            template.registerNativeHandlers(methodGet);
+            }
+
         getCanonicalType().invalidateTypeInfo();
         }
 
@@ -150,6 +195,22 @@ public class xArray
         f_templates.registerNativeTemplate(template.getCanonicalType(), template);
         }
 
+    /**
+     * Register the handlers for the most frequently used native properties and methods.
+     *
+     * @param methodGet  the "getElement" method
+     */
+    protected void registerNativeHandlers(MethodStructure methodGet)
+        {
+        registerNativeGetter("capacity", (frame, hTarget, iReturn) ->
+            frame.assignValue(iReturn, xInt64.makeHandle(((ArrayHandle) hTarget).getCapacity())));
+        registerNativeGetter("size", (frame, hTarget, iReturn) ->
+            frame.assignValue(iReturn, xInt64.makeHandle(((ArrayHandle) hTarget).m_cSize)));
+
+        registerNativeMethod1(methodGet, (frame, hTarget, hArg, iReturn) ->
+            extractArrayValue(frame, hTarget, ((JavaLong) hArg).getValue(), iReturn));
+        }
+
     @Override
     public boolean isGenericHandle()
         {
@@ -398,15 +459,9 @@ public class xArray
 
         switch (sPropName)
             {
-            case "capacity":
-                return frame.assignValue(iReturn, xInt64.makeHandle(hArray.getCapacity()));
-
             case "mutability":
                 return Utils.assignInitializedEnum(frame,
                     MUTABILITY.getEnumByOrdinal(hArray.m_mutability.ordinal()), iReturn);
-
-            case "size":
-                return frame.assignValue(iReturn, xInt64.makeHandle(hArray.m_cSize));
             }
 
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
@@ -444,8 +499,9 @@ public class xArray
             case "elementAt":
                 return makeRef(frame, hTarget, ((JavaLong) hArg).getValue(), false, iReturn);
 
-            case "getElement":
-                return extractArrayValue(frame, hTarget, ((JavaLong) hArg).getValue(), iReturn);
+            case "contains": // Boolean contains(Element value)
+                return indexOf(frame, (ArrayHandle) hTarget, hArg, 0,
+                        new int[] {iReturn, Op.A_IGNORE});
 
             case "slice":
                 {
@@ -502,10 +558,39 @@ public class xArray
             {
             case "setElement":
                 return assignArrayValue(frame, hTarget, ((JavaLong) ahArg[0]).getValue(), ahArg[1]);
+
+            case "fill": // Array fill(Element value, Interval<Int>? interval = Null)
+                return fill(frame, (ArrayHandle) hTarget, ahArg[0], ahArg[1], iReturn);
+
+            case "indexOf": // the conditional result is only used as a Boolean
+                return invokeNativeNN(frame, method, hTarget, ahArg,
+                        new int[] {iReturn, Op.A_IGNORE});
+
+            case "reify":
+                return frame.assignValue(iReturn, reify((ArrayHandle) hTarget));
             }
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
         }
 
+    @Override
+    public int invokeNativeNN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                              ObjectHandle[] ahArg, int[] aiReturn)
+        {
+        switch (method.getName())
+            {
+            case "indexOf": // conditional Int indexOf(Element value, Int startAt = 0)
+                {
+                ObjectHandle hStart = ahArg[1];
+                long         lStart = hStart == ObjectHandle.DEFAULT
+                        ? 0
+                        : ((JavaLong) hStart).getValue();
+
+                return indexOf(frame, (ArrayHandle) hTarget, ahArg[0], lStart, aiReturn);
+                }
+            }
+        return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
+        }
+
     @Override
     public int callEquals(Frame frame, ClassComposition clazz,
                           ObjectHandle hValue1, ObjectHandle hValue2, int iReturn)
@@ -516,9 +601,9 @@ public class xArray
         ObjectHandle[] ah1 = hArray1.m_ahValue;
         ObjectHandle[] ah2 = hArray2.m_ahValue;
 
-        // compare the array dimensions
-        int cElements = ah1.length;
-        if (cElements != ah2.length)
+        // compare the array sizes (the storage may have a different capacity)
+        int cElements = hArray1.m_cSize;
+        if (cElements != hArray2.m_cSize)
             {
             return frame.assignValue(iReturn, xBoolean.FALSE);
             }
@@ -748,6 +833,105 @@ public class xArray
             }
         }
 
+    /**
+     * fill(Element, Interval<Int>?) implementation
+     */
+    protected int fill(Frame frame, ArrayHandle hArray, ObjectHandle hValue,
+                       ObjectHandle hInterval, int iReturn)
+        {
+        int  cSize = hArray.m_cSize;
+        long ixFrom;
+        long ixTo;
+        if (hInterval == ObjectHandle.DEFAULT || hInterval == xNullable.NULL)
+            {
+            if (cSize == 0)
+                {
+                return frame.assignValue(iReturn, hArray);
+                }
+            ixFrom = 0;
+            ixTo   = cSize - 1;
+            }
+        else
+            {
+            GenericHandle hI     = (GenericHandle) hInterval;
+            long          lLower = ((JavaLong) hI.getField("lowerBound")).getValue();
+            long          lUpper = ((JavaLong) hI.getField("upperBound")).getValue();
+
+            ixFrom = Math.min(lLower, lUpper);
+            ixTo   = Math.max(lLower, lUpper);
+            if (ixFrom < 0 || ixTo >= cSize)
+                {
+                return frame.raiseException(
+                    xException.outOfBounds(frame, ixFrom < 0 ? ixFrom : ixTo, cSize));
+                }
+            }
+
+        Mutability mutability = null;
+        switch (hArray.m_mutability)
+            {
+            case Constant:
+            case Persistent:
+                mutability = hArray.m_mutability;
+                hArray     = createCopy(hArray, Mutability.Mutable);
+                break;
+            }
+
+        fillRange(hArray, (int) ixFrom, (int) (ixTo - ixFrom + 1), hValue);
+
+        if (mutability != null)
+            {
+            hArray.m_mutability = mutability;
+            }
+
+        return frame.assignValue(iReturn, hArray);
+        }
+
+    /**
+     * Assign the specified value to a range of existing elements of a mutable array.
+     *
+     * @param hArray  the array
+     * @param ixFrom  the index of the first element to assign
+     * @param cCount  the number of elements to assign
+     * @param hValue  the value
+     */
+    protected void fillRange(ArrayHandle hArray, int ixFrom, int cCount, ObjectHandle hValue)
+        {
+        GenericArrayHandle ha = (GenericArrayHandle) hArray;
+
+        Arrays.fill(ha.m_ahValue, ixFrom, ixFrom + cCount, hValue);
+        }
+
+    /**
+     * indexOf(Element, Int) and contains(Element) implementation.
+     *
+     * @param frame     the current frame
+     * @param hArray    the array
+     * @param hValue    the value to search for
+     * @param lStart    the index to start the search at
+     * @param aiReturn  the registers for the conditional result (the second one is A_IGNORE for
+     *                  the "contains" call)
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    protected int indexOf(Frame frame, ArrayHandle hArray, ObjectHandle hValue, long lStart,
+                          int[] aiReturn)
+        {
+        GenericArrayHandle ha     = (GenericArrayHandle) hArray;
+        TypeConstant       typeEl = hArray.getType().getParamType(0);
+
+        return new IndexOf(ha.m_ahValue, ha.m_cSize, hValue, typeEl,
+                startIndex(lStart, ha.m_cSize), aiReturn).doNext(frame);
+        }
+
+    /**
+     * reify() implementation.
+     *
+     * @return an array that does not share its storage with any other array
+     */
+    protected ArrayHandle reify(ArrayHandle hArray)
+        {
+        return hArray;
+        }
 
     // ----- IndexSupport methods -----
 
@@ -835,6 +1019,30 @@ public class xArray
         return ahNew;
         }
 
+    /**
+     * @return the index to start a search at, given the requested start index and the array size
+     */
+    protected static int startIndex(long lStart, int cSize)
+        {
+        return (int) Math.min(Math.max(lStart, 0), cSize);
+        }
+
+    /**
+     * Assign the conditional result of an "indexOf" search.
+     *
+     * @param frame     the current frame
+     * @param ix        the index of the found element or -1 if none was found
+     * @param aiReturn  the registers for the conditional result
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    protected static int assignIndex(Frame frame, int ix, int[] aiReturn)
+        {
+        return ix < 0
+            ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
+            : frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(ix));
+        }
+
     /**
      * Calculate a new capacity based on the current and desired size of an array.
      *
@@ -976,6 +1184,69 @@ public class xArray
             }
         }
 
+    /**
+     * Helper class for indexOf() and contains() implementations.
+     */
+    protected static class IndexOf
+            implements Frame.Continuation
+        {
+        final private ObjectHandle[] ahValue;
+        final private int cElements;
+        final private ObjectHandle hValue;
+        final private TypeConstant typeEl;
+        final private int[] aiReturn;
+        private int index;
+
+        public IndexOf(ObjectHandle[] ahValue, int cElements, ObjectHandle hValue,
+                       TypeConstant typeEl, int ixStart, int[] aiReturn)
+            {
+            this.ahValue = ahValue;
+            this.cElements = cElements;
+            this.hValue = hValue;
+            this.typeEl = typeEl;
+            this.index = ixStart;
+            this.aiReturn = aiReturn;
+            }
+
+        @Override
+        public int proceed(Frame frameCaller)
+            {
+            if (frameCaller.popStack() == xBoolean.TRUE)
+                {
+                return assignIndex(frameCaller, index, aiReturn);
+                }
+            index++;
+            return doNext(frameCaller);
+            }
+
+        public int doNext(Frame frameCaller)
+            {
+            for (; index < cElements; index++)
+                {
+                switch (typeEl.callEquals(frameCaller, ahValue[index], hValue, Op.A_STACK))
+                    {
+                    case Op.R_NEXT:
+                        if (frameCaller.popStack() == xBoolean.TRUE)
+                            {
+                            return assignIndex(frameCaller, index, aiReturn);
+                            }
+                        break;
+
+                    case Op.R_CALL:
+                        frameCaller.m_frameNext.addContinuation(this);
+                        return Op.R_CALL;
+
+                    case Op.R_EXCEPTION:
+                        return Op.R_EXCEPTION;
+
+                    default:
+                        throw new IllegalStateException();
+                    }
+                }
+            return frameCaller.assignValue(aiReturn[0], xBoolean.FALSE);
+            }
+        }
+
 
     // ----- ObjectHandle helpers -----
 
@@ -86,8 +86,9 @@ public class xByteArray
         {
         ByteArrayHandle hSrc = (ByteArrayHandle) hArray;
 
+        int ixFrom = hSrc.m_ixOffset;
         return new ByteArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_abValue, 0, hSrc.m_cSize), mutability);
+            Arrays.copyOfRange(hSrc.m_abValue, ixFrom, ixFrom + hSrc.m_cSize), mutability);
         }
 
     @Override
@@ -99,6 +100,51 @@ public class xByteArray
         ha.m_cSize = cSize;
         }
 
+    @Override
+    protected void fillRange(ArrayHandle hArray, int ixFrom, int cCount, ObjectHandle hValue)
+        {
+        ByteArrayHandle ha = (ByteArrayHandle) hArray;
+
+        ha.unshare();
+        Arrays.fill(ha.m_abValue, ixFrom, ixFrom + cCount, (byte) ((JavaLong) hValue).getValue());
+        }
+
+    @Override
+    protected int indexOf(Frame frame, ArrayHandle hTarget, ObjectHandle hValue, long lStart,
+                          int[] aiReturn)
+        {
+        ByteArrayHandle hArray   = (ByteArrayHandle) hTarget;
+        byte[]          abValue  = hArray.m_abValue;
+        byte            bValue   = (byte) ((JavaLong) hValue).getValue();
+        int             ixOffset = hArray.m_ixOffset;
+
+        for (int i = ixOffset + startIndex(lStart, hArray.m_cSize), c = ixOffset + hArray.m_cSize;
+                i < c; i++)
+            {
+            if (abValue[i] == bValue)
+                {
+                return assignIndex(frame, i - ixOffset, aiReturn);
+                }
+            }
+        return assignIndex(frame, -1, aiReturn);
+        }
+
+    @Override
+    protected ArrayHandle reify(ArrayHandle hTarget)
+        {
+        ByteArrayHandle hArray = (ByteArrayHandle) hTarget;
+
+        if (hArray.m_fShared)
+            {
+            if (!hArray.isMutable())
+                {
+                return createCopy(hArray, hArray.m_mutability);
+                }
+            hArray.unshare();
+            }
+        return hArray;
+        }
+
     @Override
     public ArrayHandle createArrayHandle(ClassComposition clzArray, int cCapacity, Mutability mutability)
         {
@@ -115,7 +161,7 @@ public class xByteArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
-        byte b = hArray.m_abValue[(int) lIndex];
+        byte b = hArray.m_abValue[hArray.m_ixOffset + (int) lIndex];
         return frame.assignValue(iReturn, xUInt8.makeHandle(((long) b) & 0xFF));
         }
 
@@ -140,6 +186,8 @@ public class xByteArray
                 return frame.raiseException(xException.unsupportedOperation(frame));
             }
 
+        hArray.unshare();
+
         byte[] abValue = hArray.m_abValue;
         if (lIndex == cSize)
             {
@@ -170,6 +218,8 @@ public class xByteArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
+        hArray.unshare();
+
         return frame.assignValue(iReturn,
                 xChar.makeHandle(++hArray.m_abValue[(int) lIndex]));
         }
@@ -181,8 +231,7 @@ public class xByteArray
         ByteArrayHandle h1 = (ByteArrayHandle) hValue1;
         ByteArrayHandle h2 = (ByteArrayHandle) hValue2;
 
-        return frame.assignValue(iReturn,
-                xBoolean.makeHandle(Arrays.equals(h1.m_abValue, h2.m_abValue)));
+        return frame.assignValue(iReturn, xBoolean.makeHandle(h1.equalValues(h2)));
         }
 
     @Override
@@ -191,20 +240,23 @@ public class xByteArray
         ByteArrayHandle hArray1 = (ByteArrayHandle) hValue1;
         ByteArrayHandle hArray2 = (ByteArrayHandle) hValue2;
 
-        if (hArray1.isMutable() || hArray2.isMutable() || hArray1.m_cSize != hArray2.m_cSize)
+        if (hArray1.isMutable() || hArray2.isMutable())
             {
             return false;
             }
 
-        return Arrays.equals(hArray1.m_abValue, hArray2.m_abValue);
+        return hArray1.equalValues(hArray2);
         }
 
     @Override
     protected void addElement(ArrayHandle hTarget, ObjectHandle hElement)
         {
-        ByteArrayHandle hArray  = (ByteArrayHandle) hTarget;
-        int             ixNext  = hArray.m_cSize;
-        byte[]          abValue = hArray.m_abValue;
+        ByteArrayHandle hArray = (ByteArrayHandle) hTarget;
+
+        hArray.unshare();
+
+        int    ixNext  = hArray.m_cSize;
+        byte[] abValue = hArray.m_abValue;
 
         if (ixNext == abValue.length)
             {
@@ -221,20 +273,21 @@ public class xByteArray
         ByteArrayHandle hArray    = (ByteArrayHandle) hTarget;
         ByteArrayHandle hArrayAdd = (ByteArrayHandle) hElements;
 
-        int    cNew  = hArrayAdd.m_cSize;
-        byte[] abNew = hArrayAdd.m_abValue;
-
+        int cNew = hArrayAdd.m_cSize;
         if (cNew > 0)
             {
+            hArray.unshare();
+
+            byte[] abNew   = hArrayAdd.m_abValue;
             byte[] abArray = hArray.m_abValue;
-            int    cArray   = hArray.m_cSize;
+            int    cArray  = hArray.m_cSize;
 
             if (cArray + cNew > abArray.length)
                 {
                 abArray = hArray.m_abValue = grow(abArray, cArray + cNew);
                 }
             hArray.m_cSize += cNew;
-            System.arraycopy(abNew, 0, abArray, cArray, cNew);
+            System.arraycopy(abNew, hArrayAdd.m_ixOffset, abArray, cArray, cNew);
             }
         }
 
@@ -243,37 +296,39 @@ public class xByteArray
         {
         ByteArrayHandle hArray = (ByteArrayHandle) hTarget;
 
-        byte[] abValue = hArray.m_abValue;
-        try
+        int cSize = hArray.m_cSize;
+        if (ixFrom < 0 || ixFrom >= cSize || ixTo < ixFrom || ixTo >= cSize)
             {
-            byte[] abNew;
+            return frame.raiseException(
+                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= cSize ? ixFrom : ixTo, cSize));
+            }
 
-            if (fReverse)
-                {
-                int cNew = (int) (ixTo - ixFrom + 1);
+        int             ixStart = hArray.m_ixOffset + (int) ixFrom;
+        int             cNew    = (int) (ixTo - ixFrom + 1);
+        ByteArrayHandle hArrayNew;
 
-                abNew = new byte[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    abNew[i] = abNew[(int) ixTo - i];
-                    }
-                }
-            else
+        if (fReverse)
+            {
+            byte[] abValue = hArray.m_abValue;
+            byte[] abNew   = new byte[cNew];
+            for (int i = 0, ixLast = ixStart + cNew - 1; i < cNew; i++)
                 {
-                abNew = Arrays.copyOfRange(abValue, (int) ixFrom, (int) ixTo + 1);
+                abNew[i] = abValue[ixLast - i];
                 }
-
-            ByteArrayHandle hArrayNew = new ByteArrayHandle(
-                hArray.getComposition(), abNew, hArray.m_mutability);
-
-            return frame.assignValue(iReturn, hArrayNew);
+            hArrayNew = new ByteArrayHandle(hArray.getComposition(), abNew, hArray.m_mutability);
             }
-        catch (ArrayIndexOutOfBoundsException e)
+        else
             {
-            long c = abValue.length;
-            return frame.raiseException(
-                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
+            // the slice shares the storage until either array is changed
+            hArrayNew = new ByteArrayHandle(hArray.getComposition(),
+                hArray.m_abValue, ixStart, cNew, hArray.m_mutability);
+            if (hArray.isMutable())
+                {
+                hArray.m_fShared = true;
+                }
             }
+
+        return frame.assignValue(iReturn, hArrayNew);
         }
 
 
@@ -293,6 +348,17 @@ public class xByteArray
         {
         public byte[] m_abValue;
 
+        /**
+         * The index of the first element in the storage; only a slice can have a non-zero offset.
+         */
+        public int m_ixOffset;
+
+        /**
+         * True iff the storage may be used by another array (a slice or the array it was sliced
+         * from), in which case it must be copied before any change.
+         */
+        public boolean m_fShared;
+
         protected ByteArrayHandle(TypeComposition clzArray, byte[] abValue, Mutability mutability)
             {
             super(clzArray, mutability);
@@ -301,6 +367,17 @@ public class xByteArray
             m_cSize   = abValue.length;
             }
 
+        protected ByteArrayHandle(TypeComposition clzArray, byte[] abValue, int ixOffset, int cSize,
+                                  Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_abValue  = abValue;
+            m_ixOffset = ixOffset;
+            m_cSize    = cSize;
+            m_fShared  = true;
+            }
+
         protected ByteArrayHandle(TypeComposition clzArray, int cCapacity, Mutability mutability)
             {
             super(clzArray, mutability);
@@ -311,18 +388,74 @@ public class xByteArray
         @Override
         public int getCapacity()
             {
-            return m_abValue.length;
+            // a shared storage has to be copied before adding an element
+            return m_fShared ? m_cSize : m_abValue.length;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return xUInt8.makeHandle(m_abValue[ix]);
+            return xUInt8.makeHandle(m_abValue[m_ixOffset + ix]);
+            }
+
+        /**
+         * @return the bytes of this array (a copy if the array is a slice of another array)
+         */
+        public byte[] getBytes()
+            {
+            byte[] ab     = m_abValue;
+            int    ixFrom = m_ixOffset;
+            int    c      = m_cSize;
+            return ixFrom == 0 && ab.length == c
+                ? ab
+                : Arrays.copyOfRange(ab, ixFrom, ixFrom + c);
+            }
+
+        /**
+         * Make sure that the storage is not used by any other array and starts with the first
+         * element; must be called before any change to the storage.
+         */
+        public void unshare()
+            {
+            if (m_fShared)
+                {
+                int ixFrom = m_ixOffset;
+                m_abValue  = Arrays.copyOfRange(m_abValue, ixFrom, ixFrom + m_cSize);
+                m_ixOffset = 0;
+                m_fShared  = false;
+                }
+            }
+
+        /**
+         * @return true iff the specified array holds the same values
+         */
+        public boolean equalValues(ByteArrayHandle that)
+            {
+            int cSize = m_cSize;
+            if (cSize != that.m_cSize)
+                {
+                return false;
+                }
+
+            byte[] abThis = m_abValue;
+            byte[] abThat = that.m_abValue;
+            int    ofThis = m_ixOffset;
+            int    ofThat = that.m_ixOffset;
+            for (int i = 0; i < cSize; i++)
+                {
+                if (abThis[ofThis + i] != abThat[ofThat + i])
+                    {
+                    return false;
+                    }
+                }
+            return true;
             }
 
         @Override
         public void deleteElement(int ix)
             {
+            unshare();
+
             if (ix < m_cSize - 1)
                 {
                 System.arraycopy(m_abValue, ix+1, m_abValue, ix, m_cSize-ix-1);
@@ -336,13 +469,16 @@ public class xByteArray
             if (isMutable())
                 {
                 // purge the unused space
-                byte[] ab = m_abValue;
-                int    c  = m_cSize;
+                byte[] ab     = m_abValue;
+                int    ixFrom = m_ixOffset;
+                int    c      = m_cSize;
                 if (ab.length != c)
                     {
                     byte[] abNew = new byte[c];
-                    System.arraycopy(ab, 0, abNew, 0, c);
-                    m_abValue = abNew;
+                    System.arraycopy(ab, ixFrom, abNew, 0, c);
+                    m_abValue  = abNew;
+                    m_ixOffset = 0;
+                    m_fShared  = false;
                     }
                 super.makeImmutable();
                 }
@@ -357,10 +493,14 @@ public class xByteArray
         @Override
         public int compareTo(ObjectHandle that)
             {
+            ByteArrayHandle hThat = (ByteArrayHandle) that;
+
             byte[] abThis = m_abValue;
             int    cThis  = m_cSize;
-            byte[] abThat = ((ByteArrayHandle) that).m_abValue;
-            int    cThat  = ((ByteArrayHandle) that).m_cSize;
+            int    ofThis = m_ixOffset;
+            byte[] abThat = hThat.m_abValue;
+            int    cThat  = hThat.m_cSize;
+            int    ofThat = hThat.m_ixOffset;
 
             if (cThis != cThat)
                 {
@@ -369,7 +509,7 @@ public class xByteArray
 
             for (int i = 0; i < cThis; i++)
                 {
-                int iDiff = abThis[i] - abThat[i];
+                int iDiff = abThis[ofThis + i] - abThat[ofThat + i];
                 if (iDiff != 0)
                     {
                     return iDiff;
@@ -381,14 +521,19 @@ public class xByteArray
         @Override
         public int hashCode()
             {
-            return Arrays.hashCode(m_abValue);
+            byte[] abValue = m_abValue;
+            int    nHash   = 1;
+            for (int i = m_ixOffset, c = i + m_cSize; i < c; i++)
+                {
+                nHash = 31 * nHash + abValue[i];
+                }
+            return nHash;
             }
 
         @Override
         public boolean equals(Object obj)
             {
-            return obj instanceof ByteArrayHandle
-                && Arrays.equals(m_abValue, ((ByteArrayHandle) obj).m_abValue);
+            return obj instanceof ByteArrayHandle && equalValues((ByteArrayHandle) obj);
             }
         }
 
@@ -70,8 +70,9 @@ public class xCharArray
         {
         CharArrayHandle hSrc = (CharArrayHandle) hArray;
 
+        int ixFrom = hSrc.m_ixOffset;
         return new CharArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_achValue, 0, hSrc.m_cSize), mutability);
+            Arrays.copyOfRange(hSrc.m_achValue, ixFrom, ixFrom + hSrc.m_cSize), mutability);
         }
 
     @Override
@@ -83,6 +84,51 @@ public class xCharArray
         ha.m_cSize = cSize;
         }
 
+    @Override
+    protected void fillRange(ArrayHandle hArray, int ixFrom, int cCount, ObjectHandle hValue)
+        {
+        CharArrayHandle ha = (CharArrayHandle) hArray;
+
+        ha.unshare();
+        Arrays.fill(ha.m_achValue, ixFrom, ixFrom + cCount, (char) ((JavaLong) hValue).getValue());
+        }
+
+    @Override
+    protected int indexOf(Frame frame, ArrayHandle hTarget, ObjectHandle hValue, long lStart,
+                          int[] aiReturn)
+        {
+        CharArrayHandle hArray   = (CharArrayHandle) hTarget;
+        char[]          achValue = hArray.m_achValue;
+        char            chValue  = (char) ((JavaLong) hValue).getValue();
+        int             ixOffset = hArray.m_ixOffset;
+
+        for (int i = ixOffset + startIndex(lStart, hArray.m_cSize), c = ixOffset + hArray.m_cSize;
+                i < c; i++)
+            {
+            if (achValue[i] == chValue)
+                {
+                return assignIndex(frame, i - ixOffset, aiReturn);
+                }
+            }
+        return assignIndex(frame, -1, aiReturn);
+        }
+
+    @Override
+    protected ArrayHandle reify(ArrayHandle hTarget)
+        {
+        CharArrayHandle hArray = (CharArrayHandle) hTarget;
+
+        if (hArray.m_fShared)
+            {
+            if (!hArray.isMutable())
+                {
+                return createCopy(hArray, hArray.m_mutability);
+                }
+            hArray.unshare();
+            }
+        return hArray;
+        }
+
     @Override
     public ArrayHandle createArrayHandle(ClassComposition clzArray, int cCapacity, Mutability mutability)
         {
@@ -98,7 +144,8 @@ public class xCharArray
             {
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
-        return frame.assignValue(iReturn, xChar.makeHandle(hArray.m_achValue[(int) lIndex]));
+        return frame.assignValue(iReturn,
+                xChar.makeHandle(hArray.m_achValue[hArray.m_ixOffset + (int) lIndex]));
         }
 
     @Override
@@ -122,6 +169,8 @@ public class xCharArray
                 return frame.raiseException(xException.unsupportedOperation(frame));
             }
 
+        hArray.unshare();
+
         char[] achValue = hArray.m_achValue;
         if (lIndex == cSize)
             {
@@ -152,6 +201,8 @@ public class xCharArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
+        hArray.unshare();
+
         return frame.assignValue(iReturn,
                 xChar.makeHandle(++hArray.m_achValue[(int) lIndex]));
         }
@@ -163,8 +214,7 @@ public class xCharArray
         CharArrayHandle h1 = (CharArrayHandle) hValue1;
         CharArrayHandle h2 = (CharArrayHandle) hValue2;
 
-        return frame.assignValue(iReturn,
-                xBoolean.makeHandle(Arrays.equals(h1.m_achValue, h2.m_achValue)));
+        return frame.assignValue(iReturn, xBoolean.makeHandle(h1.equalValues(h2)));
         }
 
     @Override
@@ -173,20 +223,23 @@ public class xCharArray
         CharArrayHandle hArray1 = (CharArrayHandle) hValue1;
         CharArrayHandle hArray2 = (CharArrayHandle) hValue2;
 
-        if (hArray1.isMutable() || hArray2.isMutable() || hArray1.m_cSize != hArray2.m_cSize)
+        if (hArray1.isMutable() || hArray2.isMutable())
             {
             return false;
             }
 
-        return Arrays.equals(hArray1.m_achValue, hArray2.m_achValue);
+        return hArray1.equalValues(hArray2);
         }
 
     @Override
     protected void addElement(ArrayHandle hTarget, ObjectHandle hElement)
         {
-        CharArrayHandle hArray   = (CharArrayHandle) hTarget;
-        int             ixNext   = hArray.m_cSize;
-        char[]          achValue = hArray.m_achValue;
+        CharArrayHandle hArray = (CharArrayHandle) hTarget;
+
+        hArray.unshare();
+
+        int    ixNext   = hArray.m_cSize;
+        char[] achValue = hArray.m_achValue;
 
         if (ixNext == achValue.length)
             {
@@ -202,17 +255,22 @@ public class xCharArray
         {
         CharArrayHandle hArray = (CharArrayHandle) hTarget;
 
+        hArray.unshare();
+
         int    cNew;
+        int    ofNew;
         char[] achNew;
         if (hElements instanceof StringHandle)
             {
             achNew = ((StringHandle) hElements).getValue();
+            ofNew  = 0;
             cNew   = achNew.length;
             }
         else if (hElements instanceof CharArrayHandle)
             {
             CharArrayHandle hArrayAdd = (CharArrayHandle) hElements;
             cNew   = hArrayAdd.m_cSize;
+            ofNew  = hArrayAdd.m_ixOffset;
             achNew = hArrayAdd.m_achValue;
             }
         else
@@ -231,7 +289,7 @@ public class xCharArray
                 achArray = hArray.m_achValue = grow(achArray, cArray + cNew);
                 }
             hArray.m_cSize += cNew;
-            System.arraycopy(achNew, 0, achArray, cArray, cNew);
+            System.arraycopy(achNew, ofNew, achArray, cArray, cNew);
             }
         }
 
@@ -240,42 +298,64 @@ public class xCharArray
         {
         CharArrayHandle hArray = (CharArrayHandle) hTarget;
 
-        char[] achValue = hArray.m_achValue;
-        try
+        int cSize = hArray.m_cSize;
+        if (ixFrom < 0 || ixFrom >= cSize || ixTo < ixFrom || ixTo >= cSize)
             {
-            char[] achNew;
+            return frame.raiseException(
+                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= cSize ? ixFrom : ixTo, cSize));
+            }
 
-            if (fReverse)
-                {
-                int cNew = (int) (ixTo - ixFrom + 1);
+        int             ixStart = hArray.m_ixOffset + (int) ixFrom;
+        int             cNew    = (int) (ixTo - ixFrom + 1);
+        CharArrayHandle hArrayNew;
 
-                achNew = new char[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    achNew[i] = achNew[(int) ixTo - i];
-                    }
-                }
-            else
+        if (fReverse)
+            {
+            char[] achValue = hArray.m_achValue;
+            char[] achNew   = new char[cNew];
+            for (int i = 0, ixLast = ixStart + cNew - 1; i < cNew; i++)
                 {
-                achNew = Arrays.copyOfRange(achValue, (int) ixFrom, (int) ixTo + 1);
+                achNew[i] = achValue[ixLast - i];
                 }
-
-            CharArrayHandle  hArrayNew = new CharArrayHandle(
-                hArray.getComposition(), achNew, hArray.m_mutability);
-
-            return frame.assignValue(iReturn, hArrayNew);
+            hArrayNew = new CharArrayHandle(hArray.getComposition(), achNew, hArray.m_mutability);
             }
-        catch (ArrayIndexOutOfBoundsException e)
+        else
             {
-            long c = achValue.length;
-            return frame.raiseException(
-                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
+            // the slice shares the storage until either array is changed
+            hArrayNew = new CharArrayHandle(hArray.getComposition(),
+                hArray.m_achValue, ixStart, cNew, hArray.m_mutability);
+            if (hArray.isMutable())
+                {
+                hArray.m_fShared = true;
+                }
             }
+
+        return frame.assignValue(iReturn, hArrayNew);
         }
 
 
     // ----- helper methods -----
 
+    /**
+     * Make sure the specified array has room for the specified number of additional chars.
+     *
+     * @param hArray  the array
+     * @param cAdd    the number of chars to be added
+     *
+     * @return the array's storage to add the chars to (starting at the array's size)
+     */
+    public char[] ensureCapacity(CharArrayHandle hArray, int cAdd)
+        {
+        hArray.unshare();
+
+        char[] achValue = hArray.m_achValue;
+        int    cSize    = hArray.m_cSize + cAdd;
+
+        return cSize <= achValue.length
+            ? achValue
+            : (hArray.m_achValue = grow(achValue, cSize));
+        }
+
     private char[] grow(char[] achValue, int cSize)
         {
         int cCapacity = calculateCapacity(achValue.length, cSize);
@@ -290,6 +370,17 @@ public class xCharArray
         {
         public char[] m_achValue;
 
+        /**
+         * The index of the first element in the storage; only a slice can have a non-zero offset.
+         */
+        public int m_ixOffset;
+
+        /**
+         * True iff the storage may be used by another array (a slice or the array it was sliced
+         * from), in which case it must be copied before any change.
+         */
+        public boolean m_fShared;
+
         protected CharArrayHandle(TypeComposition clzArray, char[] achValue, Mutability mutability)
             {
             super(clzArray, mutability);
@@ -298,6 +389,17 @@ public class xCharArray
             m_cSize    = achValue.length;
             }
 
+        protected CharArrayHandle(TypeComposition clzArray, char[] achValue, int ixOffset, int cSize,
+                                  Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_achValue = achValue;
+            m_ixOffset = ixOffset;
+            m_cSize    = cSize;
+            m_fShared  = true;
+            }
+
         protected CharArrayHandle(TypeComposition clzArray, int cCapacity, Mutability mutability)
             {
             super(clzArray, mutability);
@@ -308,18 +410,74 @@ public class xCharArray
         @Override
         public int getCapacity()
             {
-            return m_achValue.length;
+            // a shared storage has to be copied before adding an element
+            return m_fShared ? m_cSize : m_achValue.length;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return xChar.makeHandle(m_achValue[ix]);
+            return xChar.makeHandle(m_achValue[m_ixOffset + ix]);
+            }
+
+        /**
+         * @return the chars of this array (a copy if the array is a slice of another array)
+         */
+        public char[] getChars()
+            {
+            char[] ach    = m_achValue;
+            int    ixFrom = m_ixOffset;
+            int    c      = m_cSize;
+            return ixFrom == 0 && ach.length == c
+                ? ach
+                : Arrays.copyOfRange(ach, ixFrom, ixFrom + c);
+            }
+
+        /**
+         * Make sure that the storage is not used by any other array and starts with the first
+         * element; must be called before any change to the storage.
+         */
+        public void unshare()
+            {
+            if (m_fShared)
+                {
+                int ixFrom = m_ixOffset;
+                m_achValue = Arrays.copyOfRange(m_achValue, ixFrom, ixFrom + m_cSize);
+                m_ixOffset = 0;
+                m_fShared  = false;
+                }
+            }
+
+        /**
+         * @return true iff the specified array holds the same values
+         */
+        public boolean equalValues(CharArrayHandle that)
+            {
+            int cSize = m_cSize;
+            if (cSize != that.m_cSize)
+                {
+                return false;
+                }
+
+            char[] achThis = m_achValue;
+            char[] achThat = that.m_achValue;
+            int    ofThis  = m_ixOffset;
+            int    ofThat  = that.m_ixOffset;
+            for (int i = 0; i < cSize; i++)
+                {
+                if (achThis[ofThis + i] != achThat[ofThat + i])
+                    {
+                    return false;
+                    }
+                }
+            return true;
             }
 
         @Override
         public void deleteElement(int ix)
             {
+            unshare();
+
             if (ix < m_cSize - 1)
                 {
                 System.arraycopy(m_achValue, ix+1, m_achValue, ix, m_cSize-ix-1);
@@ -333,13 +491,16 @@ public class xCharArray
             if (isMutable())
                 {
                 // purge the unused space
-                char[] ach = m_achValue;
-                int    c   = m_cSize;
+                char[] ach    = m_achValue;
+                int    ixFrom = m_ixOffset;
+                int    c      = m_cSize;
                 if (ach.length != c)
                     {
                     char[] achNew = new char[c];
-                    System.arraycopy(ach, 0, achNew, 0, c);
+                    System.arraycopy(ach, ixFrom, achNew, 0, c);
                     m_achValue = achNew;
+                    m_ixOffset = 0;
+                    m_fShared  = false;
                     }
                 super.makeImmutable();
                 }
@@ -354,10 +515,14 @@ public class xCharArray
         @Override
         public int compareTo(ObjectHandle that)
             {
+            CharArrayHandle hThat = (CharArrayHandle) that;
+
             char[] achThis = m_achValue;
             int    cThis   = m_cSize;
-            char[] achThat = ((CharArrayHandle) that).m_achValue;
-            int    cThat   = ((CharArrayHandle) that).m_cSize;
+            int    ofThis  = m_ixOffset;
+            char[] achThat = hThat.m_achValue;
+            int    cThat   = hThat.m_cSize;
+            int    ofThat  = hThat.m_ixOffset;
 
             if (cThis != cThat)
                 {
@@ -366,7 +531,7 @@ public class xCharArray
 
             for (int i = 0; i < cThis; i++)
                 {
-                int iDiff = achThis[i] - achThat[i];
+                int iDiff = achThis[ofThis + i] - achThat[ofThat + i];
                 if (iDiff != 0)
                     {
                     return iDiff;
@@ -378,21 +543,26 @@ public class xCharArray
         @Override
         public int hashCode()
             {
-            return Arrays.hashCode(m_achValue);
+            char[] achValue = m_achValue;
+            int    nHash    = 1;
+            for (int i = m_ixOffset, c = i + m_cSize; i < c; i++)
+                {
+                nHash = 31 * nHash + achValue[i];
+                }
+            return nHash;
             }
 
         @Override
         public boolean equals(Object obj)
             {
-            return obj instanceof CharArrayHandle
-                && Arrays.equals(m_achValue, ((CharArrayHandle) obj).m_achValue);
+            return obj instanceof CharArrayHandle && equalValues((CharArrayHandle) obj);
             }
 
         @Override
         public String toString()
             {
             // for debugging only
-            return String.copyValueOf(m_achValue, 0, m_cSize);
+            return String.copyValueOf(m_achValue, m_ixOffset, m_cSize);
             }
         }
 
@@ -0,0 +1,57 @@
+package org.xvm.runtime.template.collections;
+
+
+import org.xvm.asm.ClassStructure;
+
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.numbers.BaseDecFP;
+import org.xvm.runtime.template.numbers.BaseDecFP.DecimalHandle;
+
+import org.xvm.type.Decimal;
+import org.xvm.type.Decimal32;
+import org.xvm.type.Decimal64;
+
+
+/**
+ * Native Array implementation for a 32 or 64 bit decimal floating point type (Dec32, Dec64), which
+ * holds the IEEE-754 bits of the values in an int[] or a long[].
+ */
+public class xDecimalArray
+        extends PrimitiveArray
+    {
+    public xDecimalArray(TemplateRegistry templates, ClassStructure structure,
+                         BaseDecFP templateElement)
+        {
+        super(templates, structure, templateElement.getCanonicalType(), templateElement.getNumBits());
+
+        f_templateElement = templateElement;
+        }
+
+    @Override
+    protected long toBits(ObjectHandle hValue)
+        {
+        Decimal dec = ((DecimalHandle) hValue).getValue();
+
+        return f_cBits == 64
+            ? ((Decimal64) dec).toLongBits()
+            : ((Decimal32) dec).toIntBits();
+        }
+
+    @Override
+    protected ObjectHandle fromBits(long lBits)
+        {
+        return f_templateElement.makeHandle(f_cBits == 64
+            ? new Decimal64(lBits)
+            : new Decimal32((int) lBits));
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The element template.
+     */
+    private final BaseDecFP f_templateElement;
+    }
@@ -0,0 +1,75 @@
+package org.xvm.runtime.template.collections;
+
+
+import org.xvm.asm.ClassStructure;
+
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.numbers.BaseBinaryFP;
+import org.xvm.runtime.template.numbers.BaseBinaryFP.FloatHandle;
+
+
+/**
+ * Native Array implementation for a binary floating point type (Float16, Float32, Float64), which
+ * holds the values in a double[] for Float64 and in a float[] (as raw int bits) otherwise.
+ */
+public class xFloatNumberArray
+        extends PrimitiveArray
+    {
+    public xFloatNumberArray(TemplateRegistry templates, ClassStructure structure,
+                             BaseBinaryFP templateElement)
+        {
+        super(templates, structure, templateElement.getCanonicalType(),
+            templateElement.getNumBits() == 64 ? 64 : 32);
+
+        f_templateElement = templateElement;
+        }
+
+    @Override
+    protected long toBits(ObjectHandle hValue)
+        {
+        double d = ((FloatHandle) hValue).getValue();
+
+        return f_cBits == 64
+            ? Double.doubleToRawLongBits(d)
+            : Float.floatToRawIntBits((float) d);
+        }
+
+    @Override
+    protected ObjectHandle fromBits(long lBits)
+        {
+        return f_templateElement.makeHandle(toDouble(lBits));
+        }
+
+    @Override
+    protected boolean equalElements(long lBits1, long lBits2)
+        {
+        // the same as the Float equality: NaN is not equal to itself, but 0.0 is equal to -0.0
+        return toDouble(lBits1) == toDouble(lBits2);
+        }
+
+    @Override
+    protected boolean isBitwiseEqual()
+        {
+        return false;
+        }
+
+    /**
+     * @return the double value for the specified stored bits
+     */
+    private double toDouble(long lBits)
+        {
+        return f_cBits == 64
+            ? Double.longBitsToDouble(lBits)
+            : Float.intBitsToFloat((int) lBits);
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The element template.
+     */
+    private final BaseBinaryFP f_templateElement;
+    }
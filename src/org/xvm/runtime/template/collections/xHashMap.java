@@ -0,0 +1,591 @@
+package org.xvm.runtime.template.collections;
+
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.Constants.Access;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.ArrayHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.IndexSupport;
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+import org.xvm.runtime.template.xNullable;
+import org.xvm.runtime.template.xString.StringHandle;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * Native HashMap support.
+ * <p/>
+ * The key-based operations ("find", "contains", "get", "put" and "remove") are implemented
+ * natively using a {@link HashIndex} of the map's entries keyed by the key hashes. The entries
+ * themselves are still the Ecstasy HashEntry objects linked into the map's hash buckets, so the
+ * Ecstasy implementation remains responsible for everything else (e.g. the iteration and the
+ * resizing); whenever the Ecstasy code changes the content of the map behind the back of the index
+ * (e.g. "putAll" or "clear"), the index is rebuilt from the buckets on the next native operation.
+ * <p/>
+ * The keys of a map whose Key type is Int or String and whose hasher is the NaturalHasher are
+ * hashed and compared directly; for any other map the hasher is called (via the private
+ * "hashOf" and "areEqual" methods of the HashMap class).
+ * <p/>
+ * Since a HashSet is backed by a HashMap, it uses the native support as well.
+ */
+public class xHashMap
+        extends ClassTemplate
+    {
+    public static xHashMap INSTANCE;
+
+    public xHashMap(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initDeclared()
+        {
+        METHOD_ADD_ENTRY = f_struct.findMethod("addEntry", 3);
+        METHOD_HASH_OF   = f_struct.findMethod("hashOf", 1);
+        METHOD_ARE_EQUAL = f_struct.findMethod("areEqual", 2);
+
+        METHOD_CHECK_CAPACITY = f_struct.findMethod("checkCapacity", 0);
+
+        s_templateHasher = f_templates.getTemplate("collections.NaturalHasher");
+
+        // a conditional method called for the Boolean result only is dispatched as a method with
+        // a single return value (see invokeNativeNN for the conditional results)
+        NativeMethod1 handlerFound = (frame, hTarget, hKey, iReturn) ->
+            find(frame, (HashMapHandle) hTarget, hKey, (frameCaller, lHash, hEntry) ->
+                frameCaller.assignValue(iReturn, xBoolean.makeHandle(hEntry != null)));
+
+        registerNativeMethod1(markNativeMethod("find", KEY, null), handlerFound);
+        registerNativeMethod1(markNativeMethod("get", KEY, null), handlerFound);
+        registerNativeMethod1(markNativeMethod("contains", KEY, BOOLEAN), handlerFound);
+        registerNativeMethodN(markNativeMethod("put", KEY_VALUE, null), this::invokePut);
+        registerNativeMethod1(markNativeMethod("remove", KEY, null), this::invokeRemove);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    @Override
+    public ObjectHandle createStruct(Frame frame, ClassComposition clazz)
+        {
+        ConstantPool pool    = pool();
+        TypeConstant typeKey = clazz.getType().resolveGenericType("Key");
+
+        return new HashMapHandle(clazz.ensureAccess(Access.STRUCT),
+            typeKey != null && (typeKey.equals(pool.typeInt()) || typeKey.equals(pool.typeString())));
+        }
+
+    @Override
+    public int invokeNativeNN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                              ObjectHandle[] ahArg, int[] aiReturn)
+        {
+        switch (method.getName())
+            {
+            case "find": // conditional HashEntry find(Key key)
+                return find(frame, (HashMapHandle) hTarget, ahArg[0], (frameCaller, lHash, hEntry) ->
+                    hEntry == null
+                        ? frameCaller.assignValue(aiReturn[0], xBoolean.FALSE)
+                        : frameCaller.assignValues(aiReturn, xBoolean.TRUE, hEntry));
+
+            case "get": // conditional Value get(Key key)
+                return find(frame, (HashMapHandle) hTarget, ahArg[0], (frameCaller, lHash, hEntry) ->
+                    hEntry == null
+                        ? frameCaller.assignValue(aiReturn[0], xBoolean.FALSE)
+                        : frameCaller.assignValues(aiReturn, xBoolean.TRUE,
+                                ((GenericHandle) hEntry).getField("value")));
+            }
+
+        return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
+        }
+
+    /**
+     * Native implementation of "HashMap put(Key key, Value value)".
+     */
+    protected int invokePut(Frame frame, ObjectHandle hTarget, ObjectHandle[] ahArg, int iReturn)
+        {
+        HashMapHandle hMap   = (HashMapHandle) hTarget;
+        ObjectHandle  hKey   = ahArg[0];
+        ObjectHandle  hValue = ahArg[1];
+
+        return find(frame, hMap, hKey, (frameCaller, lHash, hEntry) ->
+            {
+            if (hEntry == null)
+                {
+                return addEntry(frameCaller, hMap, hKey, lHash, hValue, iReturn);
+                }
+
+            if (!hEntry.isMutable())
+                {
+                return frameCaller.raiseException(xException.immutableObject(frameCaller));
+                }
+
+            ((GenericHandle) hEntry).setField("value", hValue);
+            return frameCaller.assignValue(iReturn, hMap);
+            });
+        }
+
+    /**
+     * Native implementation of "HashMap remove(Key key)".
+     */
+    protected int invokeRemove(Frame frame, ObjectHandle hTarget, ObjectHandle hKey, int iReturn)
+        {
+        HashMapHandle hMap = (HashMapHandle) hTarget;
+
+        return find(frame, hMap, hKey, (frameCaller, lHash, hEntry) ->
+            hEntry == null || unlink(frameCaller, hMap, lHash, (GenericHandle) hEntry) == Op.R_NEXT
+                ? frameCaller.assignValue(iReturn, hMap)
+                : Op.R_EXCEPTION);
+        }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * Find the entry for the specified key and pass it to the specified action.
+     *
+     * @param frame   the current frame
+     * @param hMap    the map
+     * @param hKey    the key
+     * @param action  the action to proceed with once the entry is found (or not)
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+     */
+    protected int find(Frame frame, HashMapHandle hMap, ObjectHandle hKey, EntryAction action)
+        {
+        HashIndex index = ensureIndex(hMap);
+
+        if (hMap.f_fNativeKey && hMap.getField("hasher").getTemplate() == s_templateHasher)
+            {
+            long lHash = hashOf(hKey);
+            for (int iSlot = index.first(lHash); iSlot >= 0; iSlot = index.next(lHash, iSlot))
+                {
+                ObjectHandle hEntry = index.get(iSlot);
+                if (areEqual(((GenericHandle) hEntry).getField("key"), hKey))
+                    {
+                    return action.proceed(frame, lHash, hEntry);
+                    }
+                }
+            return action.proceed(frame, lHash, null);
+            }
+
+        return new Find(hMap, hKey, action).doHash(frame);
+        }
+
+    /**
+     * Obtain the index of the map's entries, rebuilding it if the map has been changed by the
+     * Ecstasy code.
+     *
+     * @param hMap  the map
+     *
+     * @return the index that reflects the current content of the map
+     */
+    protected HashIndex ensureIndex(HashMapHandle hMap)
+        {
+        HashIndex index    = hMap.f_state.index;
+        long      cAdds    = ((JavaLong) hMap.getField("addCount")).getValue();
+        long      cRemoves = ((JavaLong) hMap.getField("removeCount")).getValue();
+
+        if (!index.isSynchronized(cAdds, cRemoves))
+            {
+            index.clear();
+
+            ArrayHandle hBuckets = (ArrayHandle) hMap.getField("buckets");
+            for (int i = 0, c = hBuckets.m_cSize; i < c; i++)
+                {
+                ObjectHandle hEntry = hBuckets.getElement(i);
+                while (isEntry(hEntry))
+                    {
+                    GenericHandle hHashEntry = (GenericHandle) hEntry;
+
+                    index.add(((JavaLong) hHashEntry.getField("keyhash")).getValue(), hHashEntry);
+                    hEntry = hHashEntry.getField("next");
+                    }
+                }
+            index.synchronize(cAdds, cRemoves);
+            }
+        return index;
+        }
+
+    /**
+     * Add a new entry for a key that is not in the map to the map's hash buckets and the index.
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+     */
+    protected int addEntry(Frame frame, HashMapHandle hMap, ObjectHandle hKey, long lHash,
+                           ObjectHandle hValue, int iReturn)
+        {
+        if (!hMap.isMutable())
+            {
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        NativeState     state    = hMap.f_state;
+        TypeComposition clzEntry = state.clzEntry;
+        if (clzEntry == null)
+            {
+            // the class of the entries is not known until the Ecstasy code creates the first one
+            ObjectHandle[] ahVar = new ObjectHandle[METHOD_ADD_ENTRY.getMaxVars()];
+            ahVar[0] = hKey;
+            ahVar[1] = xInt64.makeHandle(lHash);
+            ahVar[2] = hValue;
+
+            Frame.Continuation stepNext = frameCaller ->
+                {
+                ObjectHandle hEntry = frameCaller.popStack();
+
+                state.clzEntry = hEntry.getComposition();
+                return frameCaller.assignValue(iReturn, indexEntry(hMap, lHash, hEntry));
+                };
+
+            return call(frame, METHOD_ADD_ENTRY, hMap, ahVar, stepNext);
+            }
+
+        ArrayHandle   hBuckets = (ArrayHandle) hMap.getField("buckets");
+        int           iBucket  = (int) Math.floorMod(lHash, (long) hBuckets.m_cSize);
+        ObjectHandle  hNext    = hBuckets.getElement(iBucket);
+        GenericHandle hStruct  = (GenericHandle) clzEntry.getTemplate().
+                createStruct(frame, (ClassComposition) clzEntry);
+
+        hStruct.setField("key", hKey);
+        hStruct.setField("keyhash", xInt64.makeHandle(lHash));
+        hStruct.setField("value", hValue);
+        hStruct.setField("next", hNext == null ? xNullable.NULL : hNext);
+
+        ObjectHandle hEntry  = hStruct.ensureAccess(Access.PUBLIC);
+        int          iResult = ((IndexSupport) hBuckets.getTemplate()).
+                assignArrayValue(frame, hBuckets, iBucket, hEntry);
+        if (iResult != Op.R_NEXT)
+            {
+            return iResult;
+            }
+
+        long cAdds = ((JavaLong) hMap.getField("addCount")).getValue() + 1;
+        long cSize = cAdds - ((JavaLong) hMap.getField("removeCount")).getValue();
+        hMap.setField("addCount", xInt64.makeHandle(cAdds));
+
+        indexEntry(hMap, lHash, hEntry);
+
+        if (cSize > ((JavaLong) hMap.getField("growAt")).getValue() ||
+            cSize < ((JavaLong) hMap.getField("shrinkAt")).getValue())
+            {
+            // let the Ecstasy code resize the hash buckets
+            return call(frame, METHOD_CHECK_CAPACITY, hMap,
+                new ObjectHandle[METHOD_CHECK_CAPACITY.getMaxVars()],
+                frameCaller -> frameCaller.assignValue(iReturn, hMap));
+            }
+        return frame.assignValue(iReturn, hMap);
+        }
+
+    /**
+     * Add an entry that has just been added to the map's hash buckets to the index.
+     *
+     * @return the map
+     */
+    protected HashMapHandle indexEntry(HashMapHandle hMap, long lHash, ObjectHandle hEntry)
+        {
+        HashIndex index    = hMap.f_state.index;
+        long      cAdds    = ((JavaLong) hMap.getField("addCount")).getValue();
+        long      cRemoves = ((JavaLong) hMap.getField("removeCount")).getValue();
+
+        // unless something else has changed the map as well (in which case the index will be
+        // rebuilt), keep the index in sync
+        if (index.isSynchronized(cAdds - 1, cRemoves))
+            {
+            index.add(lHash, hEntry);
+            index.synchronize(cAdds, cRemoves);
+            }
+        return hMap;
+        }
+
+    /**
+     * Call the specified Ecstasy method of the map and proceed with the specified continuation
+     * once it returns.
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+     */
+    protected static int call(Frame frame, MethodStructure method, HashMapHandle hMap,
+                              ObjectHandle[] ahVar, Frame.Continuation stepNext)
+        {
+        switch (frame.call1(method, hMap, ahVar, Op.A_STACK))
+            {
+            case Op.R_NEXT:
+                return stepNext.proceed(frame);
+
+            case Op.R_CALL:
+                frame.m_frameNext.addContinuation(stepNext);
+                return Op.R_CALL;
+
+            case Op.R_EXCEPTION:
+                return Op.R_EXCEPTION;
+
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * Unlink the specified entry from its hash bucket and the index.
+     *
+     * @return one of the {@link Op#R_NEXT} or {@link Op#R_EXCEPTION} values
+     */
+    protected int unlink(Frame frame, HashMapHandle hMap, long lHash, GenericHandle hEntry)
+        {
+        if (!hMap.isMutable())
+            {
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        ArrayHandle  hBuckets = (ArrayHandle) hMap.getField("buckets");
+        int          iBucket  = (int) Math.floorMod(lHash, (long) hBuckets.m_cSize);
+        ObjectHandle hNext    = hEntry.getField("next");
+
+        GenericHandle hPrev = null;
+        ObjectHandle  hCurr = hBuckets.getElement(iBucket);
+        while (hCurr != hEntry)
+            {
+            if (!isEntry(hCurr))
+                {
+                throw new IllegalStateException("Entry is missing from the bucket " + iBucket);
+                }
+            hPrev = (GenericHandle) hCurr;
+            hCurr = hPrev.getField("next");
+            }
+
+        if (hPrev == null)
+            {
+            int iResult = ((IndexSupport) hBuckets.getTemplate()).
+                    assignArrayValue(frame, hBuckets, iBucket, hNext);
+            if (iResult != Op.R_NEXT)
+                {
+                return iResult;
+                }
+            }
+        else
+            {
+            hPrev.setField("next", hNext);
+            }
+        hEntry.setField("next", xNullable.NULL);
+
+        long cAdds    = ((JavaLong) hMap.getField("addCount")).getValue();
+        long cRemoves = ((JavaLong) hMap.getField("removeCount")).getValue() + 1;
+        hMap.setField("removeCount", xInt64.makeHandle(cRemoves));
+
+        HashIndex index = hMap.f_state.index;
+        index.remove(lHash, hEntry);
+        index.synchronize(cAdds, cRemoves);
+        return Op.R_NEXT;
+        }
+
+    /**
+     * @return true iff the specified bucket element or "next" field value is an entry
+     */
+    private static boolean isEntry(ObjectHandle hEntry)
+        {
+        return hEntry != null && hEntry != xNullable.NULL;
+        }
+
+    /**
+     * @return the natural hash of the specified Int or String key, which is the same value as the
+     *         Ecstasy NaturalHasher would produce
+     */
+    private static long hashOf(ObjectHandle hKey)
+        {
+        return hKey instanceof StringHandle
+                ? ((StringHandle) hKey).getHashCode().getValue()
+                : ((JavaLong) hKey).getValue();
+        }
+
+    /**
+     * @return true iff the specified Int or String keys are equal
+     */
+    private static boolean areEqual(ObjectHandle hKey1, ObjectHandle hKey2)
+        {
+        return hKey1 instanceof StringHandle
+                ? hKey1.equals(hKey2)
+                : ((JavaLong) hKey1).getValue() == ((JavaLong) hKey2).getValue();
+        }
+
+
+    // ----- helper classes ------------------------------------------------------------------------
+
+    /**
+     * The action to proceed with once the entry for a key is found.
+     */
+    @FunctionalInterface
+    protected interface EntryAction
+        {
+        /**
+         * @param frame   the current frame
+         * @param lHash   the hash of the key
+         * @param hEntry  the HashEntry for the key or null if the key is not in the map
+         *
+         * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+         */
+        int proceed(Frame frame, long lHash, ObjectHandle hEntry);
+        }
+
+    /**
+     * Helper class for the key lookup that calls the map's hasher.
+     */
+    protected class Find
+            implements Frame.Continuation
+        {
+        public Find(HashMapHandle hMap, ObjectHandle hKey, EntryAction action)
+            {
+            this.hMap   = hMap;
+            this.hKey   = hKey;
+            this.action = action;
+            }
+
+        /**
+         * Start the lookup by calculating the hash of the key.
+         */
+        public int doHash(Frame frameCaller)
+            {
+            ObjectHandle[] ahVar = new ObjectHandle[METHOD_HASH_OF.getMaxVars()];
+            ahVar[0] = hKey;
+
+            return call(frameCaller, METHOD_HASH_OF, ahVar);
+            }
+
+        @Override
+        public int proceed(Frame frameCaller)
+            {
+            ObjectHandle hResult = frameCaller.popStack();
+
+            if (iSlot == HASHING)
+                {
+                lHash = ((JavaLong) hResult).getValue();
+                iSlot = ensureIndex(hMap).first(lHash);
+                }
+            else if (!hMap.f_state.index.isSynchronized(cAdds, cRemoves))
+                {
+                // the hasher has changed the map; start over
+                iSlot = ensureIndex(hMap).first(lHash);
+                }
+            else if (hResult == xBoolean.TRUE)
+                {
+                return action.proceed(frameCaller, lHash, hMap.f_state.index.get(iSlot));
+                }
+            else
+                {
+                iSlot = hMap.f_state.index.next(lHash, iSlot);
+                }
+            return doNext(frameCaller);
+            }
+
+        /**
+         * Compare the key with the next candidate entry.
+         */
+        public int doNext(Frame frameCaller)
+            {
+            if (iSlot < 0)
+                {
+                return action.proceed(frameCaller, lHash, null);
+                }
+
+            ObjectHandle[] ahVar = new ObjectHandle[METHOD_ARE_EQUAL.getMaxVars()];
+            ahVar[0] = ((GenericHandle) hMap.f_state.index.get(iSlot)).getField("key");
+            ahVar[1] = hKey;
+
+            return call(frameCaller, METHOD_ARE_EQUAL, ahVar);
+            }
+
+        private int call(Frame frameCaller, MethodStructure method, ObjectHandle[] ahVar)
+            {
+            cAdds    = ((JavaLong) hMap.getField("addCount")).getValue();
+            cRemoves = ((JavaLong) hMap.getField("removeCount")).getValue();
+
+            return xHashMap.call(frameCaller, method, hMap, ahVar, this);
+            }
+
+        private static final int HASHING = -2;
+
+        private final HashMapHandle hMap;
+        private final ObjectHandle  hKey;
+        private final EntryAction   action;
+
+        private long lHash;
+        private int  iSlot = HASHING;
+        private long cAdds;
+        private long cRemoves;
+        }
+
+    /**
+     * The native state of a HashMap, which is shared by all the clones of its handle (e.g. the
+     * "struct" and the "public" handles).
+     */
+    protected static class NativeState
+        {
+        /**
+         * The index of the map's entries.
+         */
+        protected final HashIndex index = new HashIndex();
+
+        /**
+         * The class of the map's entries; null until the first entry has been created.
+         */
+        protected TypeComposition clzEntry;
+        }
+
+    /**
+     * The HashMap handle.
+     */
+    public static class HashMapHandle
+            extends GenericHandle
+        {
+        protected HashMapHandle(TypeComposition clazz, boolean fNativeKey)
+            {
+            super(clazz);
+
+            f_state      = new NativeState();
+            f_fNativeKey = fNativeKey;
+            }
+
+        /**
+         * The native state of the map.
+         */
+        protected final NativeState f_state;
+
+        /**
+         * True iff the Key type is Int or String, so the keys can be hashed and compared natively.
+         */
+        protected final boolean f_fNativeKey;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    private static final String[] KEY       = new String[] {"Key"};
+    private static final String[] KEY_VALUE = new String[] {"Key", "Value"};
+
+    private static MethodStructure METHOD_ADD_ENTRY;
+    private static MethodStructure METHOD_HASH_OF;
+    private static MethodStructure METHOD_ARE_EQUAL;
+    private static MethodStructure METHOD_CHECK_CAPACITY;
+
+    /**
+     * The template of the NaturalHasher class.
+     */
+    private static ClassTemplate s_templateHasher;
+    }
@@ -70,8 +70,9 @@ public class xIntArray
         {
         IntArrayHandle hSrc = (IntArrayHandle) hArray;
 
+        int ixFrom = hSrc.m_ixOffset;
         return new IntArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_alValue, 0, hSrc.m_cSize), mutability);
+            Arrays.copyOfRange(hSrc.m_alValue, ixFrom, ixFrom + hSrc.m_cSize), mutability);
         }
 
     @Override
@@ -83,6 +84,51 @@ public class xIntArray
         ha.m_cSize = cSize;
         }
 
+    @Override
+    protected void fillRange(ArrayHandle hArray, int ixFrom, int cCount, ObjectHandle hValue)
+        {
+        IntArrayHandle ha = (IntArrayHandle) hArray;
+
+        ha.unshare();
+        Arrays.fill(ha.m_alValue, ixFrom, ixFrom + cCount, ((JavaLong) hValue).getValue());
+        }
+
+    @Override
+    protected int indexOf(Frame frame, ArrayHandle hTarget, ObjectHandle hValue, long lStart,
+                          int[] aiReturn)
+        {
+        IntArrayHandle hArray   = (IntArrayHandle) hTarget;
+        long[]         alValue  = hArray.m_alValue;
+        long           lValue   = ((JavaLong) hValue).getValue();
+        int            ixOffset = hArray.m_ixOffset;
+
+        for (int i = ixOffset + startIndex(lStart, hArray.m_cSize), c = ixOffset + hArray.m_cSize;
+                i < c; i++)
+            {
+            if (alValue[i] == lValue)
+                {
+                return assignIndex(frame, i - ixOffset, aiReturn);
+                }
+            }
+        return assignIndex(frame, -1, aiReturn);
+        }
+
+    @Override
+    protected ArrayHandle reify(ArrayHandle hTarget)
+        {
+        IntArrayHandle hArray = (IntArrayHandle) hTarget;
+
+        if (hArray.m_fShared)
+            {
+            if (!hArray.isMutable())
+                {
+                return createCopy(hArray, hArray.m_mutability);
+                }
+            hArray.unshare();
+            }
+        return hArray;
+        }
+
     @Override
     public ArrayHandle createArrayHandle(ClassComposition clzArray, int cCapacity, Mutability mutability)
         {
@@ -98,7 +144,7 @@ public class xIntArray
             {
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
-        return frame.assignValue(iReturn, xInt64.makeHandle(hArray.m_alValue[(int) lIndex]));
+        return frame.assignInt64(iReturn, hArray.m_alValue[hArray.m_ixOffset + (int) lIndex]);
         }
 
     @Override
@@ -122,6 +168,8 @@ public class xIntArray
                 return frame.raiseException(xException.unsupportedOperation(frame));
             }
 
+        hArray.unshare();
+
         long[] alValue = hArray.m_alValue;
         if (lIndex == cSize)
             {
@@ -152,6 +200,8 @@ public class xIntArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
+        hArray.unshare();
+
         return frame.assignValue(iReturn,
                 xInt64.makeHandle(++hArray.m_alValue[(int) lIndex]));
         }
@@ -163,8 +213,7 @@ public class xIntArray
         IntArrayHandle h1 = (IntArrayHandle) hValue1;
         IntArrayHandle h2 = (IntArrayHandle) hValue2;
 
-        return frame.assignValue(iReturn,
-                xBoolean.makeHandle(Arrays.equals(h1.m_alValue, h2.m_alValue)));
+        return frame.assignValue(iReturn, xBoolean.makeHandle(h1.equalValues(h2)));
         }
 
     @Override
@@ -173,20 +222,23 @@ public class xIntArray
         IntArrayHandle hArray1 = (IntArrayHandle) hValue1;
         IntArrayHandle hArray2 = (IntArrayHandle) hValue2;
 
-        if (hArray1.isMutable() || hArray2.isMutable() || hArray1.m_cSize != hArray2.m_cSize)
+        if (hArray1.isMutable() || hArray2.isMutable())
             {
             return false;
             }
 
-        return Arrays.equals(hArray1.m_alValue, hArray2.m_alValue);
+        return hArray1.equalValues(hArray2);
         }
 
     @Override
     protected void addElement(ArrayHandle hTarget, ObjectHandle hElement)
         {
-        IntArrayHandle hArray  = (IntArrayHandle) hTarget;
-        int            ixNext  = hArray.m_cSize;
-        long[]         alValue = hArray.m_alValue;
+        IntArrayHandle hArray = (IntArrayHandle) hTarget;
+
+        hArray.unshare();
+
+        int    ixNext  = hArray.m_cSize;
+        long[] alValue = hArray.m_alValue;
 
         if (ixNext == alValue.length)
             {
@@ -206,6 +258,8 @@ public class xIntArray
         int cAdd = hArrayAdd.m_cSize;
         if (cAdd > 0)
             {
+            hArray.unshare();
+
             long[] alThis = hArray.m_alValue;
             int    cThis  = hArray.m_cSize;
             int    cNew   = cThis + cAdd;
@@ -214,7 +268,7 @@ public class xIntArray
                 alThis = hArray.m_alValue = grow(alThis, cNew);
                 }
             hArray.m_cSize = cNew;
-            System.arraycopy(hArrayAdd.m_alValue, 0, alThis, cThis, cAdd);
+            System.arraycopy(hArrayAdd.m_alValue, hArrayAdd.m_ixOffset, alThis, cThis, cAdd);
             }
         }
 
@@ -223,37 +277,39 @@ public class xIntArray
         {
         IntArrayHandle hArray = (IntArrayHandle) hTarget;
 
-        long[] alValue = hArray.m_alValue;
-        try
+        int cSize = hArray.m_cSize;
+        if (ixFrom < 0 || ixFrom >= cSize || ixTo < ixFrom || ixTo >= cSize)
             {
-            long[] alNew;
+            return frame.raiseException(
+                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= cSize ? ixFrom : ixTo, cSize));
+            }
 
-            if (fReverse)
-                {
-                int cNew = (int) (ixTo - ixFrom + 1);
+        int            ixStart = hArray.m_ixOffset + (int) ixFrom;
+        int            cNew    = (int) (ixTo - ixFrom + 1);
+        IntArrayHandle hArrayNew;
 
-                alNew = new long[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    alNew[i] = alNew[(int) ixTo - i];
-                    }
-                }
-            else
+        if (fReverse)
+            {
+            long[] alValue = hArray.m_alValue;
+            long[] alNew   = new long[cNew];
+            for (int i = 0, ixLast = ixStart + cNew - 1; i < cNew; i++)
                 {
-                alNew = Arrays.copyOfRange(alValue, (int) ixFrom, (int) ixTo + 1);
+                alNew[i] = alValue[ixLast - i];
                 }
-
-            IntArrayHandle hArrayNew = new IntArrayHandle(
-                hArray.getComposition(), alNew, hArray.m_mutability);
-
-            return frame.assignValue(iReturn, hArrayNew);
+            hArrayNew = new IntArrayHandle(hArray.getComposition(), alNew, hArray.m_mutability);
             }
-        catch (ArrayIndexOutOfBoundsException e)
+        else
             {
-            long c = alValue.length;
-            return frame.raiseException(
-                xException.outOfBounds(frame, ixFrom < 0 || ixFrom >= c ? ixFrom : ixTo, c));
+            // the slice shares the storage until either array is changed
+            hArrayNew = new IntArrayHandle(hArray.getComposition(),
+                hArray.m_alValue, ixStart, cNew, hArray.m_mutability);
+            if (hArray.isMutable())
+                {
+                hArray.m_fShared = true;
+                }
             }
+
+        return frame.assignValue(iReturn, hArrayNew);
         }
 
 
@@ -273,6 +329,17 @@ public class xIntArray
         {
         public long[] m_alValue;
 
+        /**
+         * The index of the first element in the storage; only a slice can have a non-zero offset.
+         */
+        public int m_ixOffset;
+
+        /**
+         * True iff the storage may be used by another array (a slice or the array it was sliced
+         * from), in which case it must be copied before any change.
+         */
+        public boolean m_fShared;
+
         protected IntArrayHandle(TypeComposition clzArray, long[] alValue, Mutability mutability)
             {
             super(clzArray, mutability);
@@ -281,6 +348,17 @@ public class xIntArray
             m_cSize   = alValue.length;
             }
 
+        protected IntArrayHandle(TypeComposition clzArray, long[] alValue, int ixOffset, int cSize,
+                                 Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            m_alValue  = alValue;
+            m_ixOffset = ixOffset;
+            m_cSize    = cSize;
+            m_fShared  = true;
+            }
+
         protected IntArrayHandle(TypeComposition clzArray, int cCapacity, Mutability mutability)
             {
             super(clzArray, mutability);
@@ -291,18 +369,61 @@ public class xIntArray
         @Override
         public int getCapacity()
             {
-            return m_alValue.length;
+            // a shared storage has to be copied before adding an element
+            return m_fShared ? m_cSize : m_alValue.length;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return xInt64.makeHandle(m_alValue[ix]);
+            return xInt64.makeHandle(m_alValue[m_ixOffset + ix]);
+            }
+
+        /**
+         * Make sure that the storage is not used by any other array and starts with the first
+         * element; must be called before any change to the storage.
+         */
+        public void unshare()
+            {
+            if (m_fShared)
+                {
+                int ixFrom = m_ixOffset;
+                m_alValue  = Arrays.copyOfRange(m_alValue, ixFrom, ixFrom + m_cSize);
+                m_ixOffset = 0;
+                m_fShared  = false;
+                }
+            }
+
+        /**
+         * @return true iff the specified array holds the same values
+         */
+        public boolean equalValues(IntArrayHandle that)
+            {
+            int cSize = m_cSize;
+            if (cSize != that.m_cSize)
+                {
+                return false;
+                }
+
+            long[] alThis = m_alValue;
+            long[] alThat = that.m_alValue;
+            int    ofThis = m_ixOffset;
+            int    ofThat = that.m_ixOffset;
+            for (int i = 0; i < cSize; i++)
+                {
+                if (alThis[ofThis + i] != alThat[ofThat + i])
+                    {
+                    return false;
+                    }
+                }
+            return true;
             }
 
         @Override
         public void deleteElement(int ix)
             {
+            unshare();
+
             if (ix < m_cSize - 1)
                 {
                 System.arraycopy(m_alValue, ix+1, m_alValue, ix, m_cSize-ix-1);
@@ -319,10 +440,14 @@ public class xIntArray
         @Override
         public int compareTo(ObjectHandle that)
             {
+            IntArrayHandle hThat = (IntArrayHandle) that;
+
             long[] alThis = m_alValue;
             int    cThis  = m_cSize;
-            long[] alThat = ((IntArrayHandle) that).m_alValue;
-            int    cThat  = ((IntArrayHandle) that).m_cSize;
+            int    ofThis = m_ixOffset;
+            long[] alThat = hThat.m_alValue;
+            int    cThat  = hThat.m_cSize;
+            int    ofThat = hThat.m_ixOffset;
 
             if (cThis != cThat)
                 {
@@ -331,7 +456,7 @@ public class xIntArray
 
             for (int i = 0; i < cThis; i++)
                 {
-                long lDiff = alThis[i] - alThat[i];
+                long lDiff = alThis[ofThis + i] - alThat[ofThat + i];
                 if (lDiff != 0)
                     {
                     return lDiff < 0 ? -1 : 1;
@@ -343,14 +468,19 @@ public class xIntArray
         @Override
         public int hashCode()
             {
-            return Arrays.hashCode(m_alValue);
+            long[] alValue = m_alValue;
+            int    nHash   = 1;
+            for (int i = m_ixOffset, c = i + m_cSize; i < c; i++)
+                {
+                nHash = 31 * nHash + Long.hashCode(alValue[i]);
+                }
+            return nHash;
             }
 
         @Override
         public boolean equals(Object obj)
             {
-            return obj instanceof IntArrayHandle
-                && Arrays.equals(m_alValue, ((IntArrayHandle) obj).m_alValue);
+            return obj instanceof IntArrayHandle && equalValues((IntArrayHandle) obj);
             }
         }
     }
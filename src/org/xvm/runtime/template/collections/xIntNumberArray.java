@@ -0,0 +1,134 @@
+package org.xvm.runtime.template.collections;
+
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.numbers.xConstrainedInteger;
+
+
+/**
+ * Native Array implementation for a fixed-width integer type that fits into 64 bits
+ * (Int8, Int16, Int32, UInt16, UInt32, UInt64), which holds the values in a primitive array of
+ * the type's width.
+ */
+public class xIntNumberArray
+        extends PrimitiveArray
+    {
+    public xIntNumberArray(TemplateRegistry templates, ClassStructure structure,
+                           xConstrainedInteger templateElement)
+        {
+        super(templates, structure, templateElement.getCanonicalType(), templateElement.getNumBits());
+
+        f_templateElement = templateElement;
+        f_lMask           = templateElement.isSigned() || f_cBits == 64
+                ? -1L
+                : -1L >>> (64 - f_cBits);
+        }
+
+    @Override
+    protected long toBits(ObjectHandle hValue)
+        {
+        return ((JavaLong) hValue).getValue();
+        }
+
+    @Override
+    protected ObjectHandle fromBits(long lBits)
+        {
+        return f_templateElement.makeJavaLong(lBits & f_lMask);
+        }
+
+    @Override
+    public int invokePreInc(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
+        {
+        return addInPlace(frame, hTarget, lIndex, 1, false, iReturn);
+        }
+
+    @Override
+    public int invokePostInc(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
+        {
+        return addInPlace(frame, hTarget, lIndex, 1, true, iReturn);
+        }
+
+    @Override
+    public int invokePreDec(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
+        {
+        return addInPlace(frame, hTarget, lIndex, -1, false, iReturn);
+        }
+
+    @Override
+    public int invokePostDec(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
+        {
+        return addInPlace(frame, hTarget, lIndex, -1, true, iReturn);
+        }
+
+    /**
+     * Increment or decrement the element at the specified index right in the array's storage.
+     *
+     * @param frame    the current frame
+     * @param hTarget  the array handle
+     * @param lIndex   the element index
+     * @param nDelta   1 to increment or -1 to decrement
+     * @param fPost    true to return the value before the change; false to return the new value
+     * @param iReturn  the register id to place the value into
+     *
+     * @return one of the {@link Op#R_NEXT} or {@link Op#R_EXCEPTION}
+     */
+    protected int addInPlace(Frame frame, ObjectHandle hTarget, long lIndex, int nDelta,
+                             boolean fPost, int iReturn)
+        {
+        PrimitiveArrayHandle hArray = (PrimitiveArrayHandle) hTarget;
+
+        if (lIndex < 0 || lIndex >= hArray.m_cSize)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
+            }
+
+        switch (hArray.m_mutability)
+            {
+            case Constant:
+                return frame.raiseException(xException.immutableObject(frame));
+
+            case Persistent:
+                return frame.raiseException(xException.unsupportedOperation(frame));
+            }
+
+        xConstrainedInteger template = f_templateElement;
+        int                 ix       = (int) lIndex;
+        long                lOld     = hArray.getBits(ix) & f_lMask;
+
+        if (template.isChecked() &&
+                lOld == (nDelta > 0 ? template.getMaxValue() : template.getMinValue()))
+            {
+            return template.overflow(frame);
+            }
+
+        hArray.setBits(ix, lOld + nDelta);
+
+        return iReturn == Op.A_IGNORE
+            ? Op.R_NEXT
+            : frame.assignValue(iReturn, fPost
+                ? template.makeJavaLong(lOld)
+                : fromBits(hArray.getBits(ix)));
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The element template.
+     */
+    private final xConstrainedInteger f_templateElement;
+
+    /**
+     * The mask that turns the sign-extended bits into a value (for the unsigned types).
+     */
+    private final long f_lMask;
+    }
@@ -397,12 +397,12 @@ abstract public class BaseBinaryFP
         return makeHandle(fromLong(xConstrainedInteger.fromByteArray(aBytes, cBytes)));
         }
 
-    protected FloatHandle makeHandle(double dValue)
+    public FloatHandle makeHandle(double dValue)
         {
         return new FloatHandle(getCanonicalClass(), dValue);
         }
 
-    protected static class FloatHandle
+    public static class FloatHandle
             extends ObjectHandle
         {
         protected FloatHandle(ClassComposition clz, double dValue)
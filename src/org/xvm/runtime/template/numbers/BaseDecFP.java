@@ -402,7 +402,7 @@ abstract public class BaseDecFP
         return new DecimalHandle(getCanonicalClass(), decValue);
         }
 
-    protected static class DecimalHandle
+    public static class DecimalHandle
             extends ObjectHandle
         {
         protected DecimalHandle(ClassComposition clz, Decimal decValue)
@@ -107,7 +107,7 @@ abstract public class BaseFP
                 {
                 // construct(Byte[] bytes)
                 ByteArrayHandle hBytes = (ByteArrayHandle) ahVar[0];
-                byte[]          abVal  = hBytes.m_abValue;
+                byte[]          abVal  = hBytes.getBytes();
                 int             cBytes = hBytes.m_cSize;
 
                 return cBytes == f_cBits / 8
@@ -133,6 +133,15 @@ abstract public class BaseFP
         }
 
 
+    /**
+     * @return the number of bits for this floating point type
+     */
+    public int getNumBits()
+        {
+        return f_cBits;
+        }
+
+
     // ----- handles -------------------------------------------------------------------------------
 
     /**
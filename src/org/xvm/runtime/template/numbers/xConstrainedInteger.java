@@ -61,14 +61,35 @@ public abstract class xConstrainedInteger
         {
         String sName = f_struct.getName();
 
-        markNativeProperty("magnitude");
-        markNativeProperty("bitCount");
-        markNativeProperty("leftmostBit");
-        markNativeProperty("rightmostBit");
-        markNativeProperty("leadingZeroCount");
-        markNativeProperty("trailingZeroCount");
-
-        markNativeMethod("toUnchecked", VOID, null);
+        markNativeProperty("magnitude", (frame, hTarget, iReturn) ->
+            {
+            if (f_fSigned)
+                {
+                long l = ((JavaLong) hTarget).getValue();
+                hTarget = getComplimentaryTemplate().makeJavaLong(l < 0 ? -l : l);
+                }
+            return frame.assignValue(iReturn, hTarget);
+            });
+        markNativeProperty("bitCount", (frame, hTarget, iReturn) ->
+            frame.assignValue(iReturn,
+                xInt64.makeHandle(Long.bitCount(((JavaLong) hTarget).getValue()))));
+        markNativeProperty("leftmostBit", (frame, hTarget, iReturn) ->
+            frame.assignValue(iReturn,
+                makeJavaLong(Long.highestOneBit(((JavaLong) hTarget).getValue()))));
+        markNativeProperty("rightmostBit", (frame, hTarget, iReturn) ->
+            frame.assignValue(iReturn,
+                makeJavaLong(Long.lowestOneBit(((JavaLong) hTarget).getValue()))));
+        markNativeProperty("leadingZeroCount", (frame, hTarget, iReturn) ->
+            frame.assignValue(iReturn,
+                makeJavaLong(Long.numberOfLeadingZeros(((JavaLong) hTarget).getValue()))));
+        markNativeProperty("trailingZeroCount", (frame, hTarget, iReturn) ->
+            frame.assignValue(iReturn,
+                makeJavaLong(Long.numberOfTrailingZeros(((JavaLong) hTarget).getValue()))));
+
+        registerNativeMethodN(markNativeMethod("toUnchecked", VOID, null),
+            (frame, hTarget, ahArg, iReturn) ->
+                frame.assignValue(iReturn,
+                    getUncheckedTemplate().makeJavaLong(((JavaLong) hTarget).getValue())));
 
         markNativeMethod("toInt8"  , VOID, sName.equals("numbers.Int8")   ? THIS : new String[]{"numbers.Int8"});
         markNativeMethod("toInt16" , VOID, sName.equals("numbers.Int16")  ? THIS : new String[]{"numbers.Int16"});
@@ -98,20 +119,30 @@ public abstract class xConstrainedInteger
         markNativeMethod("stepsTo"      , THIS, INT );
 
         // @Op methods
-        markNativeMethod("abs"          , VOID, THIS);
-        markNativeMethod("add"          , THIS, THIS);
-        markNativeMethod("sub"          , THIS, THIS);
-        markNativeMethod("mul"          , THIS, THIS);
-        markNativeMethod("div"          , THIS, THIS);
-        markNativeMethod("mod"          , THIS, THIS);
-        markNativeMethod("neg"          , VOID, THIS);
-        markNativeMethod("and"          , THIS, THIS);
-        markNativeMethod("or"           , THIS, THIS);
-        markNativeMethod("xor"          , THIS, THIS);
+        registerNativeMethodN(markNativeMethod("abs"          , VOID, THIS),
+            (frame, hTarget, ahArg, iReturn) ->
+                {
+                if (f_fSigned)
+                    {
+                    long l = ((JavaLong) hTarget).getValue();
+                    return frame.assignValue(iReturn, l >= 0 ? hTarget : makeJavaLong(-l));
+                    }
+                return frame.assignValue(iReturn, hTarget);
+                });
+        registerNativeMethod1(markNativeMethod("add"          , THIS, THIS), this::invokeAdd);
+        registerNativeMethod1(markNativeMethod("sub"          , THIS, THIS), this::invokeSub);
+        registerNativeMethod1(markNativeMethod("mul"          , THIS, THIS), this::invokeMul);
+        registerNativeMethod1(markNativeMethod("div"          , THIS, THIS), this::invokeDiv);
+        registerNativeMethod1(markNativeMethod("mod"          , THIS, THIS), this::invokeMod);
+        registerNativeMethodN(markNativeMethod("neg"          , VOID, THIS),
+            (frame, hTarget, ahArg, iReturn) -> invokeNeg(frame, hTarget, iReturn));
+        registerNativeMethod1(markNativeMethod("and"          , THIS, THIS), this::invokeAnd);
+        registerNativeMethod1(markNativeMethod("or"           , THIS, THIS), this::invokeOr);
+        registerNativeMethod1(markNativeMethod("xor"          , THIS, THIS), this::invokeXor);
         markNativeMethod("not"          , VOID, THIS);
-        markNativeMethod("shiftLeft"    , INT, THIS);
-        markNativeMethod("shiftRight"   , INT, THIS);
-        markNativeMethod("shiftAllRight", INT, THIS);
+        registerNativeMethod1(markNativeMethod("shiftLeft"    , INT , THIS), this::invokeShl);
+        registerNativeMethod1(markNativeMethod("shiftRight"   , INT , THIS), this::invokeShr);
+        registerNativeMethod1(markNativeMethod("shiftAllRight", INT , THIS), this::invokeShrAll);
 
         getCanonicalType().invalidateTypeInfo();
         }
@@ -165,7 +196,7 @@ public abstract class xConstrainedInteger
                 {
                 // construct(Byte[] bytes)
                 ByteArrayHandle hBytes = (ByteArrayHandle) ahVar[0];
-                byte[]          abVal  = hBytes.m_abValue;
+                byte[]          abVal  = hBytes.getBytes();
 
                 int cBytes = hBytes.m_cSize;
                 return cBytes == f_cNumBits / 8
@@ -195,16 +226,6 @@ public abstract class xConstrainedInteger
         {
         switch (sPropName)
             {
-            case "magnitude":
-                {
-                if (f_fSigned)
-                    {
-                    long l = ((JavaLong) hTarget).getValue();
-                    hTarget = getComplimentaryTemplate().makeJavaLong(l < 0 ? -l : l);
-                    }
-                return frame.assignValue(iReturn, hTarget);
-                }
-
             case "digitCount":
                 {
                 long l = ((JavaLong) hTarget).getValue();
@@ -230,36 +251,6 @@ public abstract class xConstrainedInteger
 
                 return frame.assignValue(iReturn, xInt64.makeHandle(cDigits));
                 }
-
-            case "bitCount":
-                {
-                long l = ((JavaLong) hTarget).getValue();
-                return frame.assignValue(iReturn, xInt64.makeHandle(Long.bitCount(l)));
-                }
-
-            case "leftmostBit":
-                {
-                long l = ((JavaLong) hTarget).getValue();
-                return frame.assignValue(iReturn, makeJavaLong(Long.highestOneBit(l)));
-                }
-
-            case "rightmostBit":
-                {
-                long l = ((JavaLong) hTarget).getValue();
-                return frame.assignValue(iReturn, makeJavaLong(Long.lowestOneBit(l)));
-                }
-
-            case "leadingZeroCount":
-                {
-                long l = ((JavaLong) hTarget).getValue();
-                return frame.assignValue(iReturn, makeJavaLong(Long.numberOfLeadingZeros(l)));
-                }
-
-            case "trailingZeroCount":
-                {
-                long l = ((JavaLong) hTarget).getValue();
-                return frame.assignValue(iReturn, makeJavaLong(Long.numberOfTrailingZeros(l)));
-                }
             }
 
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
@@ -271,41 +262,8 @@ public abstract class xConstrainedInteger
         {
         switch (method.getName())
             {
-            case "add":
-                return invokeAdd(frame, hTarget, hArg, iReturn);
-
-            case "sub":
-                return invokeSub(frame, hTarget, hArg, iReturn);
-
-            case "mul":
-                return invokeMul(frame, hTarget, hArg, iReturn);
-
-            case "div":
-                return invokeDiv(frame, hTarget, hArg, iReturn);
-
-            case "mod":
-                return invokeMod(frame, hTarget, hArg, iReturn);
-
-            case "and":
-                return invokeAnd(frame, hTarget, hArg, iReturn);
-
-            case "or":
-                return invokeOr(frame, hTarget, hArg, iReturn);
-
-            case "xor":
-                return invokeXor(frame, hTarget, hArg, iReturn);
-
             case "not":
                 return invokeCompl(frame, hTarget, iReturn);
-
-            case "shiftLeft":
-                return invokeShl(frame, hTarget, hArg, iReturn);
-
-            case "shiftRight":
-                return invokeShr(frame, hTarget, hArg, iReturn);
-
-            case "shiftAllRight":
-                return invokeShrAll(frame, hTarget, hArg, iReturn);
             }
 
         return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
@@ -317,22 +275,6 @@ public abstract class xConstrainedInteger
         {
         switch (method.getName())
             {
-            case "abs":
-                {
-                if (f_fSigned)
-                    {
-                    long l = ((JavaLong) hTarget).getValue();
-                    return frame.assignValue(iReturn, l >= 0 ? hTarget : makeJavaLong(-l));
-                    }
-                return frame.assignValue(iReturn, hTarget);
-                }
-
-            case "toUnchecked":
-                {
-                long l = ((JavaLong) hTarget).getValue();
-                return frame.assignValue(iReturn, getUncheckedTemplate().makeJavaLong(l));
-                }
-
             case "toInt8":
             case "toInt16":
             case "toInt32":
@@ -407,9 +349,6 @@ public abstract class xConstrainedInteger
                 break;
                 }
 
-            case "neg":
-                return invokeNeg(frame, hTarget, iReturn);
-
             case "rotateLeft":
             case "rotateRight":
             case "reverseBits":
@@ -721,6 +660,47 @@ public abstract class xConstrainedInteger
         return frame.assignValue(iReturn, xString.makeHandle(String.valueOf(l)));
         }
 
+    /**
+     * @return the number of bits of the integer type represented by this template
+     */
+    public int getNumBits()
+        {
+        return f_cNumBits;
+        }
+
+    /**
+     * @return true iff the integer type represented by this template is signed
+     */
+    public boolean isSigned()
+        {
+        return f_fSigned;
+        }
+
+    /**
+     * @return true iff the integer type represented by this template checks for overflow
+     */
+    public boolean isChecked()
+        {
+        return f_fChecked;
+        }
+
+    /**
+     * @return the minimum value of the integer type represented by this template
+     */
+    public long getMinValue()
+        {
+        return f_cMinValue;
+        }
+
+    /**
+     * @return the maximum value of the integer type represented by this template (for UInt64,
+     *         the bits of the maximum value)
+     */
+    public long getMaxValue()
+        {
+        return f_cMaxValue;
+        }
+
     /**
      * Create a JavaLong handle for the type represented by this template.
      *
@@ -106,5 +106,14 @@ public class xInt64
         return INSTANCE.makeJavaLong(lValue);
         }
 
+    /**
+     * @return true iff the specified handle is a plain Int64 value, which a register could hold
+     *         in the unboxed form (see {@link Frame#isInt64})
+     */
+    public static boolean isCanonical(ObjectHandle handle)
+        {
+        return handle instanceof JavaLong && handle.getComposition() == INSTANCE.getCanonicalClass();
+        }
+
     private static final JavaLong[] cache = new JavaLong[128];
     }
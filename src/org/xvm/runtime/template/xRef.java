@@ -327,7 +327,7 @@ public class xRef
                 int   nVar     = hRef.m_iVar;
                 assert frameRef != null && nVar >= 0;
 
-                hValue = frameRef.f_ahVar[nVar];
+                hValue = frameRef.getRegister(nVar);
                 break;
                 }
             }
@@ -608,6 +608,7 @@ public class xRef
             if (refCurrent == null)
                 {
                 infoSrc.setRef(this);
+                frame.markEscaped();
                 m_frame = frame;
                 m_iVar  = iVar;
                 }
@@ -728,7 +729,7 @@ public class xRef
             {
             assert m_frame != null && m_iVar >= 0;
 
-            m_hReferent = m_frame.f_ahVar[m_iVar];
+            m_hReferent = m_frame.getRegister(m_iVar);
             m_frame     = null;
             m_iVar      = REF_REFERENT;
             }
@@ -792,7 +793,7 @@ public class xRef
         /**
          * Synthetic property holding a referent.
          */
-        protected final static String REFERENT = "$value";
+        public final static String REFERENT = "$value";
         }
 
     /***
@@ -1,8 +1,6 @@
 package org.xvm.runtime.template;
 
 
-import java.util.concurrent.CompletableFuture;
-
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constants.Access;
 import org.xvm.asm.MethodStructure;
@@ -15,6 +13,7 @@ import org.xvm.asm.constants.TypeConstant;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.CompletionToken;
 import org.xvm.runtime.ClassTemplate;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
@@ -103,9 +102,9 @@ public class xService
         {
         ServiceContext contextNew = frame.f_context.createContext(f_sName);
 
-        CompletableFuture cfResult = contextNew.sendConstructRequest(frame, constructor, clazz, ahArg);
+        CompletionToken<ObjectHandle> token = contextNew.sendConstructRequest(frame, constructor, clazz, ahArg);
 
-        return frame.assignFutureResult(iReturn, cfResult);
+        return frame.assignTokenResult(iReturn, token);
         }
 
     @Override
@@ -228,10 +227,10 @@ public class xService
             return super.invokePreInc(frame, hTarget, idProp, iReturn);
             }
 
-        CompletableFuture<ObjectHandle> cfResult = hService.m_context.sendProperty01Request(
+        CompletionToken<ObjectHandle> token = hService.m_context.sendProperty01Request(
                 frame, idProp, this::invokePreInc);
 
-        return frame.assignFutureResult(iReturn, cfResult);
+        return frame.assignTokenResult(iReturn, token);
         }
 
     @Override
@@ -244,10 +243,10 @@ public class xService
             return super.invokePostInc(frame, hTarget, idProp, iReturn);
             }
 
-        CompletableFuture<ObjectHandle> cfResult = hService.m_context.sendProperty01Request(
+        CompletionToken<ObjectHandle> token = hService.m_context.sendProperty01Request(
                 frame, idProp, this::invokePostInc);
 
-        return frame.assignFutureResult(iReturn, cfResult);
+        return frame.assignTokenResult(iReturn, token);
         }
 
     @Override
@@ -260,10 +259,10 @@ public class xService
             return super.invokePreDec(frame, hTarget, idProp, iReturn);
             }
 
-        CompletableFuture<ObjectHandle> cfResult = hService.m_context.sendProperty01Request(
+        CompletionToken<ObjectHandle> token = hService.m_context.sendProperty01Request(
                 frame, idProp, this::invokePreDec);
 
-        return frame.assignFutureResult(iReturn, cfResult);
+        return frame.assignTokenResult(iReturn, token);
         }
 
     @Override
@@ -276,10 +275,10 @@ public class xService
             return super.invokePostDec(frame, hTarget, idProp, iReturn);
             }
 
-        CompletableFuture<ObjectHandle> cfResult = hService.m_context.sendProperty01Request(
+        CompletionToken<ObjectHandle> token = hService.m_context.sendProperty01Request(
                 frame, idProp, this::invokePostDec);
 
-        return frame.assignFutureResult(iReturn, cfResult);
+        return frame.assignTokenResult(iReturn, token);
         }
 
     @Override
@@ -293,7 +292,7 @@ public class xService
             }
 
         hService.m_context.sendProperty10Request(frame, idProp, hArg, this::invokePropertyAdd);
-        return Op.R_NEXT;
+        return hService.m_context.checkBackPressure(frame, Op.R_NEXT);
         }
 
     @Override
@@ -307,23 +306,24 @@ public class xService
             }
 
         hService.m_context.sendProperty10Request(frame, idProp, hArg, this::invokePropertySub);
-        return Op.R_NEXT;
+        return hService.m_context.checkBackPressure(frame, Op.R_NEXT);
         }
 
     @Override
-    public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp, int iReturn)
+    public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp,
+                                CallChain chain, int iReturn)
         {
         ServiceHandle hService = (ServiceHandle) hTarget;
 
         if (frame.f_context == hService.m_context || hService.isAtomic(idProp))
             {
-            return super.getPropertyValue(frame, hTarget, idProp, iReturn);
+            return super.getPropertyValue(frame, hTarget, idProp, chain, iReturn);
             }
 
-        CompletableFuture<ObjectHandle> cfResult = hService.m_context.sendProperty01Request(
+        CompletionToken<ObjectHandle> token = hService.m_context.sendProperty01Request(
                 frame, idProp, this::getPropertyValue);
 
-        return frame.assignFutureResult(iReturn, cfResult);
+        return frame.assignTokenResult(iReturn, token);
         }
 
     @Override
@@ -340,18 +340,18 @@ public class xService
 
     @Override
     public int setPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp,
-                                ObjectHandle hValue)
+                                CallChain chain, ObjectHandle hValue)
         {
         ServiceHandle hService = (ServiceHandle) hTarget;
 
         if (frame.f_context == hService.m_context || hService.isAtomic(idProp))
             {
-            return super.setPropertyValue(frame, hTarget, idProp, hValue);
+            return super.setPropertyValue(frame, hTarget, idProp, chain, hValue);
             }
 
         hService.m_context.sendProperty10Request(frame, idProp, hValue, this::setPropertyValue);
 
-        return Op.R_NEXT;
+        return hService.m_context.checkBackPressure(frame, Op.R_NEXT);
         }
 
     @Override
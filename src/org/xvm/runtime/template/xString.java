@@ -1,7 +1,11 @@
 package org.xvm.runtime.template;
 
 
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constant;
@@ -29,6 +33,12 @@ import org.xvm.runtime.template.numbers.xInt64;
 
 /**
  * Native String implementation.
+ * <p/>
+ * A String whose chars are all in the Latin-1 range is held as a byte array, with one byte per
+ * char; any other String is held as a char array. The result of a concatenation that is at least
+ * {@link #CONCAT_MIN} chars long is held as a "rope" node referring to the concatenated Strings,
+ * which is flattened into an array on the first access to its chars; as a result, building a String
+ * by concatenating to it repeatedly only copies the chars once.
  */
 public class xString
         extends xConst
@@ -43,7 +53,7 @@ public class xString
         if (fInstance)
             {
             INSTANCE = this;
-            EMPTY_STRING = new StringHandle(INSTANCE.getCanonicalClass(), new char[0]);
+            EMPTY_STRING = new StringHandle(INSTANCE.getCanonicalClass(), new byte[0], 0);
             EMPTY_ARRAY  = makeHandle(new char[] {'[', ']'});
             ZERO         = makeHandle(new char[] {'0'});
             ONE          = makeHandle(new char[] {'1'});
@@ -60,8 +70,12 @@ public class xString
 
         METHOD_APPEND_TO = f_struct.findMethod("appendTo", 1, typeArg);
 
-        markNativeProperty("size");
-        markNativeProperty("chars");
+        markNativeProperty("size", (frame, hTarget, iReturn) ->
+            frame.assignValue(iReturn,
+                xInt64.makeHandle(((StringHandle) hTarget).length())));
+        markNativeProperty("chars", (frame, hTarget, iReturn) ->
+            frame.assignValue(iReturn,
+                xCharArray.makeHandle(((StringHandle) hTarget).getValue(), xArray.Mutability.Constant)));
 
         markNativeMethod("construct", new String[]{"collections.Array<Char>"}, VOID);
         markNativeMethod("indexOf", new String[]{"Char", "numbers.Int64"},
@@ -82,8 +96,7 @@ public class xString
         {
         if (constant instanceof StringConstant)
             {
-            frame.pushStack(new StringHandle(getCanonicalClass(),
-                ((StringConstant) constant).getValue().toCharArray()));
+            frame.pushStack(makeHandle(((StringConstant) constant).getValue()));
             return Op.R_NEXT;
             }
 
@@ -97,7 +110,7 @@ public class xString
         CharArrayHandle hCharArray = (CharArrayHandle) ahVar[0];
         hCharArray.makeImmutable();
 
-        return frame.assignValue(iReturn, makeHandle(hCharArray.m_achValue));
+        return frame.assignValue(iReturn, makeHandle(hCharArray.getChars()));
         }
 
     @Override
@@ -123,24 +136,6 @@ public class xString
             }
         }
 
-    @Override
-    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
-        {
-        StringHandle hThis = (StringHandle) hTarget;
-
-        switch (sPropName)
-            {
-            case "size":
-                return frame.assignValue(iReturn, xInt64.makeHandle(hThis.m_achValue.length));
-
-            case "chars":
-                return frame.assignValue(iReturn,
-                        xCharArray.makeHandle(hThis.m_achValue, xArray.Mutability.Constant));
-            }
-
-        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
-        }
-
     @Override
     public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
                              ObjectHandle[] ahArg, int iReturn)
@@ -169,9 +164,8 @@ public class xString
             {
             case "substring": // (Int starAt)
                 {
-                int    ofStart = (int) ((JavaLong) hArg).getValue();
-                char[] ach     = hThis.m_achValue;
-                int    cch     = ach.length;
+                int ofStart = (int) ((JavaLong) hArg).getValue();
+                int cch     = hThis.length();
 
                 if (ofStart <= 0)
                     {
@@ -183,10 +177,12 @@ public class xString
                     return frame.assignValue(iReturn, EMPTY_STRING);
                     }
 
-                int    cchNew = cch - ofStart;
-                char[] achNew = new char[cchNew];
-                System.arraycopy(ach, ofStart, achNew, 0, cchNew);
-                return frame.assignValue(iReturn, makeHandle(achNew));
+                Object oValue = hThis.flatten();
+                return frame.assignValue(iReturn, new StringHandle(getCanonicalClass(),
+                    oValue instanceof byte[]
+                        ? Arrays.copyOfRange((byte[]) oValue, ofStart, cch)
+                        : Arrays.copyOfRange((char[]) oValue, ofStart, cch),
+                    cch - ofStart));
                 }
             }
 
@@ -214,7 +210,10 @@ public class xString
                                 ? 0
                                 : (int) ((JavaLong) hStart).getValue();
 
-                        int  ofResult = indexOf(hThis.m_achValue, chValue, ofStart);
+                        Object oValue   = hThis.flatten();
+                        int    ofResult = oValue instanceof byte[]
+                                ? indexOf((byte[]) oValue, chValue, ofStart)
+                                : indexOf((char[]) oValue, chValue, ofStart);
                         return ofResult < 0
                                 ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
                                 : frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(ofResult));
@@ -231,15 +230,13 @@ public class xString
     @Override
     public int extractArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
         {
-        char[] ach = ((StringHandle) hTarget).getValue();
-        try
-            {
-            return frame.assignValue(iReturn, xChar.makeHandle(ach[(int) lIndex]));
-            }
-        catch (ArrayIndexOutOfBoundsException e)
+        StringHandle hString = (StringHandle) hTarget;
+        int          cch     = hString.length();
+        if (lIndex < 0 || lIndex >= cch)
             {
-            return frame.raiseException(xException.outOfBounds(frame, lIndex, ach.length));
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, cch));
             }
+        return frame.assignValue(iReturn, xChar.makeHandle(hString.charAt((int) lIndex)));
         }
 
     @Override
@@ -257,7 +254,7 @@ public class xString
     @Override
     public long size(ObjectHandle hTarget)
         {
-        return ((StringHandle) hTarget).getValue().length;
+        return ((StringHandle) hTarget).length();
         }
 
 
@@ -294,11 +291,8 @@ public class xString
 
     protected StringHandle concat(StringHandle h1, StringHandle h2)
         {
-        char[] ach1 = h1.m_achValue;
-        char[] ach2 = h2.m_achValue;
-
-        int c1 = ach1.length;
-        int c2 = ach2.length;
+        int c1 = h1.length();
+        int c2 = h2.length();
 
         if (c1 == 0)
             {
@@ -309,10 +303,35 @@ public class xString
             return h1;
             }
 
-        char[] ach = new char[c1 + c2];
-        System.arraycopy(ach1, 0, ach, 0, c1);
-        System.arraycopy(ach2, 0, ach, c1, c2);
-        return makeHandle(ach);
+        int     cch     = c1 + c2;
+        boolean fLatin1 = h1.isLatin1() && h2.isLatin1();
+        if (cch >= CONCAT_MIN)
+            {
+            return new StringHandle(getCanonicalClass(), new Concat(h1, h2, fLatin1), cch);
+            }
+
+        Object oValue = fLatin1 ? new byte[cch] : new char[cch];
+        copyChars(h1.flatten(), oValue, 0);
+        copyChars(h2.flatten(), oValue, c1);
+        return new StringHandle(getCanonicalClass(), oValue, cch);
+        }
+
+    protected int indexOf(byte[] abSource, char chTarget, int ofStart)
+        {
+        if (chTarget > 0xFF)
+            {
+            return -1;
+            }
+
+        byte bTarget = (byte) chTarget;
+        for (int of = Math.max(ofStart, 0), cb = abSource.length; of < cb; of++)
+            {
+            if (abSource[of] == bTarget)
+                {
+                return of;
+                }
+            }
+        return -1;
         }
 
     protected int indexOf(char[] achSource, char chTarget, int ofStart)
@@ -406,16 +425,16 @@ public class xString
 
     protected int compare(StringHandle h1, StringHandle h2)
         {
-        char[] ach1 = h1.m_achValue;
-        char[] ash2 = h2.m_achValue;
-        int    c1   = ach1.length;
-        int    c2   = ash2.length;
-        int    c    = Math.min(c1, c2);
+        Object o1 = h1.flatten();
+        Object o2 = h2.flatten();
+        int    c1 = h1.length();
+        int    c2 = h2.length();
+        int    c  = Math.min(c1, c2);
 
         for (int i = 0; i < c; i++)
             {
-            char ch1 = ach1[i];
-            char ch2 = ash2[i];
+            char ch1 = charAt(o1, i);
+            char ch2 = charAt(o2, i);
             if (ch1 != ch2)
                 {
                 return ch1 - ch2;
@@ -449,36 +468,162 @@ public class xString
     public static class StringHandle
             extends ObjectHandle
         {
-        private char[] m_achValue;
-        private transient JavaLong m_hash; // cached hash value
-        private transient String m_sValue; // cached String value
-
-        protected StringHandle(TypeComposition clazz, char[] achValue)
+        /**
+         * @param oValue  a byte[] (one byte per Latin-1 char), a char[] or a {@link Concat}
+         * @param cch     the number of chars
+         */
+        protected StringHandle(TypeComposition clazz, Object oValue, int cch)
             {
             super(clazz);
 
-            m_achValue = achValue;
+            m_oValue = oValue;
+            f_cch    = cch;
+            }
+
+        /**
+         * @return the number of chars in the string
+         */
+        public int length()
+            {
+            return f_cch;
+            }
+
+        /**
+         * @return the char at the specified index
+         */
+        public char charAt(int of)
+            {
+            return xString.charAt(flatten(), of);
             }
 
+        /**
+         * @return the chars of the string; the caller must not modify the returned array
+         */
         public char[] getValue()
             {
-            return m_achValue;
+            Object oValue = flatten();
+            if (oValue instanceof char[])
+                {
+                return (char[]) oValue;
+                }
+
+            // the Latin-1 chars are widened only once
+            char[] ach = m_achValue;
+            if (ach == null)
+                {
+                ach = new char[f_cch];
+                copyChars(oValue, ach, 0);
+                m_achValue = ach;
+                }
+            return ach;
+            }
+
+        /**
+         * Append the chars of the string to the specified StringBuilder without widening them
+         * into a char array.
+         *
+         * @return the StringBuilder
+         */
+        public StringBuilder appendTo(StringBuilder sb)
+            {
+            Object oValue = flatten();
+            if (oValue instanceof char[])
+                {
+                return sb.append((char[]) oValue);
+                }
+
+            sb.ensureCapacity(sb.length() + f_cch);
+            for (byte b : (byte[]) oValue)
+                {
+                sb.append((char) (b & 0xFF));
+                }
+            return sb;
             }
 
         public String getStringValue()
             {
             String sValue = m_sValue;
-            return sValue == null
-                    ? (m_sValue = new String(m_achValue))
-                    : sValue;
+            if (sValue == null)
+                {
+                Object oValue = flatten();
+                m_sValue = sValue = oValue instanceof byte[]
+                        ? new String((byte[]) oValue, StandardCharsets.ISO_8859_1)
+                        : new String((char[]) oValue);
+                }
+            return sValue;
             }
 
         public JavaLong getHashCode()
             {
             JavaLong hHash = m_hash;
-            return hHash == null
-                    ? (m_hash = xInt64.makeHandle(Arrays.hashCode(m_achValue)))
-                    : hHash;
+            if (hHash == null)
+                {
+                // the same value as Arrays.hashCode(getValue())
+                Object oValue = flatten();
+                int    nHash  = 1;
+                if (oValue instanceof byte[])
+                    {
+                    for (byte b : (byte[]) oValue)
+                        {
+                        nHash = 31 * nHash + (b & 0xFF);
+                        }
+                    }
+                else
+                    {
+                    nHash = Arrays.hashCode((char[]) oValue);
+                    }
+                m_hash = hHash = xInt64.makeHandle(nHash);
+                }
+            return hHash;
+            }
+
+        /**
+         * @return true iff all the chars of the string are in the Latin-1 range
+         */
+        protected boolean isLatin1()
+            {
+            Object oValue = m_oValue;
+            return oValue instanceof byte[] ||
+                   oValue instanceof Concat && ((Concat) oValue).f_fLatin1;
+            }
+
+        /**
+         * Flatten the string if it's a concatenation.
+         *
+         * @return the byte[] or char[] holding the chars of the string
+         */
+        protected Object flatten()
+            {
+            Object oValue = m_oValue;
+            if (!(oValue instanceof Concat))
+                {
+                return oValue;
+                }
+
+            Object oFlat = ((Concat) oValue).f_fLatin1 ? new byte[f_cch] : new char[f_cch];
+            int    of    = 0;
+
+            // walk the tree iteratively, since repeatedly appending to a string makes it deep
+            Deque<StringHandle> stack = new ArrayDeque<>();
+            stack.push(this);
+            while (!stack.isEmpty())
+                {
+                StringHandle hPart = stack.pop();
+                Object       oPart = hPart.m_oValue;
+                if (oPart instanceof Concat)
+                    {
+                    Concat concat = (Concat) oPart;
+                    stack.push(concat.f_hTail);
+                    stack.push(concat.f_hHead);
+                    }
+                else
+                    {
+                    of = copyChars(oPart, oFlat, of);
+                    }
+                }
+
+            m_oValue = oFlat;
+            return oFlat;
             }
 
         @Override
@@ -490,9 +635,39 @@ public class xString
         @Override
         public boolean equals(Object obj)
             {
+            if (obj == this)
+                {
+                return true;
+                }
+
             if (obj instanceof StringHandle)
                 {
-                return Arrays.equals(m_achValue, ((StringHandle) obj).m_achValue);
+                StringHandle that = (StringHandle) obj;
+                int          cch  = this.f_cch;
+                if (cch != that.f_cch)
+                    {
+                    return false;
+                    }
+
+                Object o1 = this.flatten();
+                Object o2 = that.flatten();
+                if (o1 instanceof byte[] && o2 instanceof byte[])
+                    {
+                    return Arrays.equals((byte[]) o1, (byte[]) o2);
+                    }
+                if (o1 instanceof char[] && o2 instanceof char[])
+                    {
+                    return Arrays.equals((char[]) o1, (char[]) o2);
+                    }
+
+                for (int i = 0; i < cch; i++)
+                    {
+                    if (xString.charAt(o1, i) != xString.charAt(o2, i))
+                        {
+                        return false;
+                        }
+                    }
+                return true;
                 }
             return false;
             }
@@ -502,18 +677,163 @@ public class xString
             {
             return super.toString() + getStringValue();
             }
+
+        /**
+         * The chars: a byte[], a char[] or a Concat. This is the only state that changes once
+         * the handle is constructed (a Concat is replaced by the flattened chars); since the
+         * handle can be shared across services, it's volatile.
+         */
+        private volatile Object m_oValue;
+
+        /**
+         * The number of chars.
+         */
+        private final int f_cch;
+
+        private transient JavaLong m_hash; // cached hash value
+        private transient String m_sValue; // cached String value
+        private transient char[] m_achValue; // cached widened chars of a Latin-1 string
+        }
+
+    /**
+     * The value of a string that is a concatenation of two other strings.
+     */
+    protected static class Concat
+        {
+        protected Concat(StringHandle hHead, StringHandle hTail, boolean fLatin1)
+            {
+            f_hHead   = hHead;
+            f_hTail   = hTail;
+            f_fLatin1 = fLatin1;
+            }
+
+        /**
+         * The head and the tail of the concatenation.
+         */
+        protected final StringHandle f_hHead;
+        protected final StringHandle f_hTail;
+
+        /**
+         * True iff all the chars of both the head and the tail are in the Latin-1 range.
+         */
+        protected final boolean f_fLatin1;
         }
 
     public static StringHandle makeHandle(String sValue)
         {
-        return makeHandle(sValue.toCharArray());
+        int cch = sValue.length();
+        for (int i = 0; i < cch; i++)
+            {
+            if (sValue.charAt(i) > 0xFF)
+                {
+                return new StringHandle(INSTANCE.getCanonicalClass(), sValue.toCharArray(), cch);
+                }
+            }
+
+        return cch == 0
+            ? EMPTY_STRING
+            : new StringHandle(INSTANCE.getCanonicalClass(),
+                    sValue.getBytes(StandardCharsets.ISO_8859_1), cch);
         }
 
     public static StringHandle makeHandle(char[] achValue)
         {
-        return achValue.length == 0
-            ? EMPTY_STRING
-            : new StringHandle(INSTANCE.getCanonicalClass(), achValue);
+        int cch = achValue.length;
+        if (cch == 0)
+            {
+            return EMPTY_STRING;
+            }
+
+        byte[] ab = narrow(achValue, cch);
+        return ab == null
+            ? new StringHandle(INSTANCE.getCanonicalClass(), achValue, cch)
+            : new StringHandle(INSTANCE.getCanonicalClass(), ab, cch);
+        }
+
+    /**
+     * Make a String from the specified number of the chars at the start of the specified array;
+     * unlike {@link #makeHandle(char[])}, the array is never shared with the String, so the caller
+     * may continue to modify it.
+     *
+     * @param achValue  the chars
+     * @param cch       the number of chars to take
+     *
+     * @return the String handle
+     */
+    public static StringHandle makeHandle(char[] achValue, int cch)
+        {
+        if (cch == 0)
+            {
+            return EMPTY_STRING;
+            }
+
+        byte[] ab = narrow(achValue, cch);
+        return ab == null
+            ? new StringHandle(INSTANCE.getCanonicalClass(), Arrays.copyOf(achValue, cch), cch)
+            : new StringHandle(INSTANCE.getCanonicalClass(), ab, cch);
+        }
+
+    /**
+     * Narrow the specified number of the chars at the start of the specified array to Latin-1
+     * bytes; the chars are scanned only once.
+     *
+     * @return the bytes, or null if any of the chars is outside of the Latin-1 range
+     */
+    private static byte[] narrow(char[] achValue, int cch)
+        {
+        byte[] ab = new byte[cch];
+        for (int i = 0; i < cch; i++)
+            {
+            char ch = achValue[i];
+            if (ch > 0xFF)
+                {
+                return null;
+                }
+            ab[i] = (byte) ch;
+            }
+        return ab;
+        }
+
+    /**
+     * @return the char at the specified index of the specified byte[] or char[]
+     */
+    protected static char charAt(Object oValue, int of)
+        {
+        return oValue instanceof byte[]
+            ? (char) (((byte[]) oValue)[of] & 0xFF)
+            : ((char[]) oValue)[of];
+        }
+
+    /**
+     * Copy all the chars from the specified byte[] or char[] into the specified byte[] or char[]
+     * (the former only if the source is a byte[] as well).
+     *
+     * @return the offset in the destination following the copied chars
+     */
+    protected static int copyChars(Object oSrc, Object oDest, int ofDest)
+        {
+        if (oSrc instanceof byte[])
+            {
+            byte[] abSrc = (byte[]) oSrc;
+            int    cb    = abSrc.length;
+            if (oDest instanceof byte[])
+                {
+                System.arraycopy(abSrc, 0, oDest, ofDest, cb);
+                }
+            else
+                {
+                char[] achDest = (char[]) oDest;
+                for (int i = 0; i < cb; i++)
+                    {
+                    achDest[ofDest + i] = (char) (abSrc[i] & 0xFF);
+                    }
+                }
+            return ofDest + cb;
+            }
+
+        char[] achSrc = (char[]) oSrc;
+        System.arraycopy(achSrc, 0, oDest, ofDest, achSrc.length);
+        return ofDest + achSrc.length;
         }
 
 
@@ -524,5 +844,10 @@ public class xString
     public static StringHandle ZERO;
     public static StringHandle ONE;
 
+    /**
+     * The minimum length of a concatenation result to be held as a rope node rather than copied.
+     */
+    public static final int CONCAT_MIN = 64;
+
     protected static MethodStructure METHOD_APPEND_TO;
     }
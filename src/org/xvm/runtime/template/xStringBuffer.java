@@ -0,0 +1,214 @@
+package org.xvm.runtime.template;
+
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.SignatureConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.collections.xArray.Mutability;
+import org.xvm.runtime.template.collections.xCharArray;
+import org.xvm.runtime.template.collections.xCharArray.CharArrayHandle;
+
+import org.xvm.runtime.template.xBoolean.BooleanHandle;
+import org.xvm.runtime.template.xString.StringHandle;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * Native StringBuffer support.
+ * <p/>
+ * The chars are still held by the "chars" array of the Ecstasy implementation (which remains
+ * responsible for everything else, e.g. the iteration and the slicing), but the String, Int, Char
+ * and Boolean values are appended natively right into the array's storage, and the resulting String
+ * is made from that storage with a single copy.
+ */
+public class xStringBuffer
+        extends ClassTemplate
+    {
+    public static xStringBuffer INSTANCE;
+
+    public xStringBuffer(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initDeclared()
+        {
+        MethodStructure methodAppendTo =
+            f_templates.getClassStructure("Stringable").findMethod("appendTo", 1);
+
+        SIG_APPEND_TO   = methodAppendTo.getIdentityConstant().getSignature();
+        TYPE_STRINGABLE = pool().typeStringable();
+
+        markNativeProperty("size", (frame, hTarget, iReturn) ->
+            frame.assignValue(iReturn, xInt64.makeHandle(getChars(hTarget).m_cSize)));
+
+        registerNativeMethod1(markNativeMethod("append", OBJECT, null), this::invokeAppend);
+        registerNativeMethod1(markNativeMethod("add", CHAR, null), this::invokeAddChar);
+        registerNativeMethodN(markNativeMethod("toString", VOID, STRING), this::invokeToString);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    /**
+     * Native implementation of "StringBuffer append(Object o)".
+     */
+    protected int invokeAppend(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
+        {
+        CharArrayHandle hChars = getChars(hTarget);
+        if (hChars.m_mutability != Mutability.Mutable)
+            {
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        if (hArg instanceof StringHandle)
+            {
+            StringHandle hString = (StringHandle) hArg;
+            char[]       ach     = xCharArray.INSTANCE.ensureCapacity(hChars, hString.length());
+
+            hChars.m_cSize = xString.copyChars(hString.flatten(), ach, hChars.m_cSize);
+            return frame.assignValue(iReturn, hTarget);
+            }
+
+        if (hArg instanceof JavaLong)
+            {
+            ClassTemplate template = hArg.getTemplate();
+            long          lValue   = ((JavaLong) hArg).getValue();
+
+            if (template == xChar.INSTANCE)
+                {
+                char[] ach = xCharArray.INSTANCE.ensureCapacity(hChars, 1);
+
+                ach[hChars.m_cSize++] = (char) lValue;
+                return frame.assignValue(iReturn, hTarget);
+                }
+
+            if (template == xInt64.INSTANCE)
+                {
+                appendString(hChars, Long.toString(lValue));
+                return frame.assignValue(iReturn, hTarget);
+                }
+            }
+        else if (hArg instanceof BooleanHandle)
+            {
+            appendString(hChars, hArg.toString());
+            return frame.assignValue(iReturn, hTarget);
+            }
+
+        // everything else is appended the same way as by the Ecstasy implementation
+        if (hArg.getType().isA(TYPE_STRINGABLE))
+            {
+            switch (hArg.getComposition().getMethodCallChain(SIG_APPEND_TO).
+                        invoke(frame, hArg, hTarget, Op.A_IGNORE))
+                {
+                case Op.R_NEXT:
+                    return frame.assignValue(iReturn, hTarget);
+
+                case Op.R_CALL:
+                    frame.m_frameNext.addContinuation(frameCaller ->
+                        frameCaller.assignValue(iReturn, hTarget));
+                    return Op.R_CALL;
+
+                case Op.R_EXCEPTION:
+                    return Op.R_EXCEPTION;
+
+                default:
+                    throw new IllegalStateException();
+                }
+            }
+
+        switch (Utils.callToString(frame, hArg))
+            {
+            case Op.R_NEXT:
+                return invokeAppend(frame, hTarget, frame.popStack(), iReturn);
+
+            case Op.R_CALL:
+                frame.m_frameNext.addContinuation(frameCaller ->
+                    invokeAppend(frameCaller, hTarget, frameCaller.popStack(), iReturn));
+                return Op.R_CALL;
+
+            case Op.R_EXCEPTION:
+                return Op.R_EXCEPTION;
+
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * Native implementation of "String toString()".
+     */
+    protected int invokeToString(Frame frame, ObjectHandle hTarget, ObjectHandle[] ahArg, int iReturn)
+        {
+        CharArrayHandle hChars = getChars(hTarget);
+
+        // the chars may be the buffer's own storage, which the String must not share
+        return frame.assignValue(iReturn, xString.makeHandle(hChars.getChars(), hChars.m_cSize));
+        }
+
+    /**
+     * Native implementation of "StringBuffer add(Char v)".
+     */
+    protected int invokeAddChar(Frame frame, ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
+        {
+        CharArrayHandle hChars = getChars(hTarget);
+        if (hChars.m_mutability != Mutability.Mutable)
+            {
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        char[] ach = xCharArray.INSTANCE.ensureCapacity(hChars, 1);
+
+        ach[hChars.m_cSize++] = (char) ((JavaLong) hArg).getValue();
+        return frame.assignValue(iReturn, hTarget);
+        }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * @return the array holding the chars of the specified StringBuffer
+     */
+    protected static CharArrayHandle getChars(ObjectHandle hBuffer)
+        {
+        return (CharArrayHandle) ((GenericHandle) hBuffer).getField("chars");
+        }
+
+    /**
+     * Append the chars of the specified Java string to the specified (mutable) array.
+     */
+    protected static void appendString(CharArrayHandle hChars, String s)
+        {
+        int    cch = s.length();
+        char[] ach = xCharArray.INSTANCE.ensureCapacity(hChars, cch);
+
+        s.getChars(0, cch, ach, hChars.m_cSize);
+        hChars.m_cSize += cch;
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    private static final String[] CHAR = new String[] {"Char"};
+
+    private static SignatureConstant SIG_APPEND_TO;
+    private static TypeConstant      TYPE_STRINGABLE;
+    }
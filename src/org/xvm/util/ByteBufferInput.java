@@ -0,0 +1,141 @@
+package org.xvm.util;
+
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * A DataInput (and an InputStream) that reads from a ByteBuffer, such as a memory-mapped file.
+ * Unlike a stream over a byte array, it can hand out a part of the buffer as a {@link #slice}
+ * without copying it, which allows the deferred parts of a structure to remain in the mapped file
+ * until they are needed.
+ */
+public class ByteBufferInput
+        extends DataInputStream
+    {
+    /**
+     * Construct a ByteBufferInput that reads the remainder of the specified buffer.
+     *
+     * @param buf  the buffer to read from; its position is advanced as the data is read
+     */
+    public ByteBufferInput(ByteBuffer buf)
+        {
+        super(new Source(buf));
+
+        f_buf = buf;
+        }
+
+    /**
+     * Memory-map the specified file.
+     *
+     * @param file  the file to map
+     *
+     * @return a read-only buffer over the contents of the file
+     *
+     * @throws IOException  if the file cannot be mapped
+     */
+    public static ByteBuffer map(File file)
+            throws IOException
+        {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+            {
+            // the mapping remains valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+
+    /**
+     * Obtain the specified number of bytes as a buffer that shares the content of the underlying
+     * buffer, and skip over them.
+     *
+     * @param cb  the number of bytes
+     *
+     * @return a read-only buffer of the specified size
+     *
+     * @throws EOFException  if fewer than the specified number of bytes remain
+     */
+    public ByteBuffer slice(int cb)
+            throws EOFException
+        {
+        ByteBuffer buf = f_buf;
+        if (cb > buf.remaining())
+            {
+            throw new EOFException();
+            }
+
+        ByteBuffer bufSlice = buf.slice().asReadOnlyBuffer();
+        bufSlice.limit(cb);
+        buf.position(buf.position() + cb);
+        return bufSlice;
+        }
+
+
+    // ----- inner class: Source -------------------------------------------------------------------
+
+    /**
+     * The InputStream over the buffer. Note that DataInputStream does not buffer anything, so the
+     * position of the buffer always reflects what has been read.
+     */
+    private static class Source
+            extends InputStream
+        {
+        Source(ByteBuffer buf)
+            {
+            f_buf = buf;
+            }
+
+        @Override
+        public int read()
+            {
+            ByteBuffer buf = f_buf;
+            return buf.hasRemaining() ? buf.get() & 0xFF : -1;
+            }
+
+        @Override
+        public int read(byte[] ab, int of, int cb)
+            {
+            ByteBuffer buf    = f_buf;
+            int        cbRead = Math.min(cb, buf.remaining());
+            if (cbRead == 0 && cb > 0)
+                {
+                return -1;
+                }
+            buf.get(ab, of, cbRead);
+            return cbRead;
+            }
+
+        @Override
+        public long skip(long cb)
+            {
+            ByteBuffer buf    = f_buf;
+            int        cbSkip = (int) Math.max(0, Math.min(cb, buf.remaining()));
+            buf.position(buf.position() + cbSkip);
+            return cbSkip;
+            }
+
+        @Override
+        public int available()
+            {
+            return f_buf.remaining();
+            }
+
+        private final ByteBuffer f_buf;
+        }
+
+
+    // ----- data fields ---------------------------------------------------------------------------
+
+    /**
+     * The underlying buffer.
+     */
+    private final ByteBuffer f_buf;
+    }
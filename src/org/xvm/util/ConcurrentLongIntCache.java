@@ -0,0 +1,198 @@
+package org.xvm.util;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A lock-free, open-addressed cache of non-zero int values keyed by longs. Any number of threads
+ * may {@link #get} and {@link #put} concurrently; neither operation allocates, except when the
+ * table needs to grow.
+ *
+ * Being a cache, it is allowed to "forget" entries: a value that is put concurrently with the
+ * table growing may be lost, in which case the caller will simply compute it again. A key of -1
+ * and a value of zero are not supported.
+ */
+public class ConcurrentLongIntCache
+    {
+    /**
+     * Construct a ConcurrentLongIntCache.
+     *
+     * @param cCapacity  the initial capacity; the actual capacity is rounded up to a power of 2
+     */
+    public ConcurrentLongIntCache(int cCapacity)
+        {
+        m_table = new Table(Integer.highestOneBit(Math.max(cCapacity, 8) * 2 - 1));
+        }
+
+    /**
+     * Obtain the value for the specified key.
+     *
+     * @param lKey  the key
+     *
+     * @return the value or zero if the cache doesn't contain the key
+     */
+    public int get(long lKey)
+        {
+        Table           table  = m_table;
+        AtomicLongArray alKey  = table.f_alKey;
+        int             nMask  = table.f_nMask;
+        long            lSlot  = ~lKey;
+
+        for (int i = hash(lKey) & nMask, cProbes = 0; cProbes <= nMask; i = (i + 1) & nMask, cProbes++)
+            {
+            long l = alKey.get(i);
+            if (l == lSlot)
+                {
+                // zero if the value hasn't been published yet
+                return table.f_anValue.get(i);
+                }
+            if (l == 0L)
+                {
+                return 0;
+                }
+            }
+        return 0;
+        }
+
+    /**
+     * Store the value for the specified key.
+     *
+     * @param lKey    the key (not -1)
+     * @param nValue  the value (not zero)
+     */
+    public void put(long lKey, int nValue)
+        {
+        assert lKey != -1L && nValue != 0;
+
+        long lSlot = ~lKey;
+        while (true)
+            {
+            Table           table = m_table;
+            AtomicLongArray alKey = table.f_alKey;
+            int             nMask = table.f_nMask;
+
+            if (table.f_cEntries.get() < table.f_cThreshold)
+                {
+                for (int i = hash(lKey) & nMask, cProbes = 0; cProbes <= nMask;
+                         i = (i + 1) & nMask, cProbes++)
+                    {
+                    long l = alKey.get(i);
+                    if (l == 0L)
+                        {
+                        if (!alKey.compareAndSet(i, 0L, lSlot))
+                            {
+                            // some other thread has claimed the slot; re-check it
+                            l = alKey.get(i);
+                            }
+                        else
+                            {
+                            table.f_cEntries.incrementAndGet();
+                            l = lSlot;
+                            }
+                        }
+
+                    if (l == lSlot)
+                        {
+                        table.f_anValue.set(i, nValue);
+                        return;
+                        }
+                    }
+                }
+
+            grow(table);
+            }
+        }
+
+    /**
+     * Remove all the entries from this cache.
+     */
+    public void clear()
+        {
+        m_table = new Table(m_table.f_nMask + 1);
+        }
+
+    /**
+     * Replace the specified table with a table of twice the size, unless that has already been
+     * done by another thread.
+     */
+    private synchronized void grow(Table table)
+        {
+        if (m_table != table)
+            {
+            return;
+            }
+
+        Table           tableNew = new Table((table.f_nMask + 1) * 2);
+        AtomicLongArray alKey    = table.f_alKey;
+        for (int i = 0, c = alKey.length(); i < c; i++)
+            {
+            long l      = alKey.get(i);
+            int  nValue = table.f_anValue.get(i);
+            if (l != 0L && nValue != 0)
+                {
+                tableNew.insert(l, nValue);
+                }
+            }
+        m_table = tableNew;
+        }
+
+    /**
+     * @return the hash for the specified key
+     */
+    private static int hash(long lKey)
+        {
+        long l = lKey * 0x9E3779B97F4A7C15L;
+        return (int) (l ^ (l >>> 32));
+        }
+
+
+    // ----- inner class: Table --------------------------------------------------------------------
+
+    /**
+     * The open-addressed table; the keys are stored inverted, so that an empty slot is zero.
+     */
+    private static class Table
+        {
+        Table(int cSlots)
+            {
+            f_nMask      = cSlots - 1;
+            f_cThreshold = cSlots - (cSlots >>> 2);
+            f_alKey      = new AtomicLongArray(cSlots);
+            f_anValue    = new AtomicIntegerArray(cSlots);
+            f_cEntries   = new AtomicInteger();
+            }
+
+        /**
+         * Insert an entry into a table that is not yet visible to any other thread.
+         */
+        void insert(long lSlot, int nValue)
+            {
+            int nMask = f_nMask;
+            int i     = hash(~lSlot) & nMask;
+            while (f_alKey.get(i) != 0L)
+                {
+                i = (i + 1) & nMask;
+                }
+            f_alKey.lazySet(i, lSlot);
+            f_anValue.lazySet(i, nValue);
+            f_cEntries.lazySet(f_cEntries.get() + 1);
+            }
+
+        final int                f_nMask;
+        final int                f_cThreshold;
+        final AtomicLongArray    f_alKey;
+        final AtomicIntegerArray f_anValue;
+        final AtomicInteger      f_cEntries;
+        }
+
+
+    // ----- data fields ---------------------------------------------------------------------------
+
+    /**
+     * The current table.
+     */
+    private volatile Table m_table;
+    }
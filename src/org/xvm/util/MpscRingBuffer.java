@@ -0,0 +1,199 @@
+package org.xvm.util;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import java.util.function.Consumer;
+
+
+/**
+ * A bounded, array-based, multi-producer single-consumer FIFO queue. Any number of threads may
+ * {@link #offer} elements concurrently, but only a single thread at a time may {@link #poll} or
+ * {@link #drain} them.
+ *
+ * Each slot of the underlying circular array carries a sequence number, which allows producers to
+ * claim a slot with a single CAS on the tail counter and to publish the element without any
+ * further contention; unlike a linked queue, no per-element node is allocated. Null elements are
+ * not supported.
+ */
+public class MpscRingBuffer<E>
+    {
+    /**
+     * Construct a MpscRingBuffer.
+     *
+     * @param cCapacity  the minimum capacity; the actual capacity is rounded up to a power of 2
+     */
+    public MpscRingBuffer(int cCapacity)
+        {
+        if (cCapacity <= 0)
+            {
+            throw new IllegalArgumentException("Invalid capacity: " + cCapacity);
+            }
+
+        // make sure the size is a power of 2
+        int cSlots = Integer.highestOneBit(Math.max(cCapacity, 2) * 2 - 1);
+
+        f_nMask      = cSlots - 1;
+        f_aElem      = new AtomicReferenceArray<>(cSlots);
+        f_alSequence = new AtomicLongArray(cSlots);
+        for (int i = 0; i < cSlots; i++)
+            {
+            f_alSequence.lazySet(i, i);
+            }
+        }
+
+    /**
+     * @return the capacity of this buffer
+     */
+    public int capacity()
+        {
+        return f_nMask + 1;
+        }
+
+    /**
+     * Add the specified element to the tail of the buffer, unless the buffer is full. This method
+     * can be called on any thread.
+     *
+     * @param e  the element to add
+     *
+     * @return true iff the element has been added; false if the buffer is full
+     */
+    public boolean offer(E e)
+        {
+        if (e == null)
+            {
+            throw new IllegalArgumentException("Null element");
+            }
+
+        AtomicLong      atomicTail = f_atomicTail;
+        AtomicLongArray alSequence = f_alSequence;
+        int             nMask      = f_nMask;
+        while (true)
+            {
+            long lTail = atomicTail.get();
+            int  ix    = (int) lTail & nMask;
+            long lDiff = alSequence.get(ix) - lTail;
+
+            if (lDiff == 0)
+                {
+                if (atomicTail.compareAndSet(lTail, lTail + 1))
+                    {
+                    f_aElem.lazySet(ix, e);
+                    alSequence.set(ix, lTail + 1); // publish
+                    return true;
+                    }
+                }
+            else if (lDiff < 0)
+                {
+                // the consumer has not freed the slot yet
+                return false;
+                }
+            // else another producer has claimed the slot; re-read the tail
+            }
+        }
+
+    /**
+     * Remove the element from the head of the buffer. This method must only be called by the
+     * consumer thread.
+     *
+     * @return the head element or null if the buffer is empty
+     */
+    public E poll()
+        {
+        long lHead = m_lHead;
+        int  ix    = (int) lHead & f_nMask;
+
+        if (f_alSequence.get(ix) != lHead + 1)
+            {
+            // empty, or the producer has claimed the slot but not published the element yet
+            return null;
+            }
+
+        E e = f_aElem.get(ix);
+        f_aElem.lazySet(ix, null);
+        f_alSequence.lazySet(ix, lHead + f_nMask + 1);
+        m_lHead = lHead + 1;
+        return e;
+        }
+
+    /**
+     * Remove all the elements that are currently available and pass them to the specified
+     * consumer. This method must only be called by the consumer thread. The number of drained
+     * elements is limited by the buffer capacity, so a steady stream of concurrent producers
+     * cannot keep the consumer in this method forever.
+     *
+     * @param consumer  the element consumer
+     *
+     * @return the number of drained elements
+     */
+    public int drain(Consumer<? super E> consumer)
+        {
+        int cMax = f_nMask + 1;
+        int c    = 0;
+        E   e;
+        while (c < cMax && (e = poll()) != null)
+            {
+            consumer.accept(e);
+            c++;
+            }
+        return c;
+        }
+
+    /**
+     * @return true iff the buffer appears to be empty; this method can be called on any thread
+     */
+    public boolean isEmpty()
+        {
+        return f_atomicTail.get() == m_lHead;
+        }
+
+    /**
+     * @return the approximate number of elements in the buffer; this method can be called on any
+     *         thread
+     */
+    public int size()
+        {
+        // read the head first, so the result is never negative
+        long lHead = m_lHead;
+        long lTail = f_atomicTail.get();
+        return (int) Math.min(lTail - lHead, f_nMask + 1);
+        }
+
+    @Override
+    public String toString()
+        {
+        return "size=" + size() + ", capacity=" + capacity();
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The index mask (capacity - 1).
+     */
+    private final int f_nMask;
+
+    /**
+     * The elements.
+     */
+    private final AtomicReferenceArray<E> f_aElem;
+
+    /**
+     * The slot sequence numbers: a slot is free for the producer that claims the tail position
+     * {@code n} when its sequence is {@code n}, and it holds a published element for the consumer
+     * at the head position {@code n} when its sequence is {@code n+1}.
+     */
+    private final AtomicLongArray f_alSequence;
+
+    /**
+     * The next position to be claimed by a producer.
+     */
+    private final AtomicLong f_atomicTail = new AtomicLong();
+
+    /**
+     * The next position to be consumed; only modified by the consumer.
+     */
+    private volatile long m_lHead;
+    }
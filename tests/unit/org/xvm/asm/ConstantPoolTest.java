@@ -0,0 +1,80 @@
+package org.xvm.asm;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.xvm.asm.constants.ClassConstant;
+import org.xvm.asm.constants.NativeRebaseConstant;
+import org.xvm.asm.constants.PropertyConstant;
+import org.xvm.asm.constants.SignatureConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+
+/**
+ * Tests of the ConstantPool support for the TypeInfoCache.
+ */
+public class ConstantPoolTest
+    {
+    @Test
+    public void testAppendConstants()
+            throws IOException
+        {
+        FileStructure  structfile = new FileStructure(Constants.ECSTASY_MODULE);
+        ClassStructure structIface = structfile.getModule().createClass(Constants.Access.PUBLIC,
+                Component.Format.INTERFACE, "Iface", null);
+        structIface.createProperty(false, Constants.Access.PUBLIC, Constants.Access.PUBLIC,
+                structIface.getIdentityConstant().getType(), "prop");
+
+        ByteArrayOutputStream outFile = new ByteArrayOutputStream();
+        structfile.writeTo(outFile);
+        byte[] abFile = outFile.toByteArray();
+
+        // register a few runtime-only Constants with one copy of the pool ...
+        FileStructure structfile1 = new FileStructure(new ByteArrayInputStream(abFile));
+        ConstantPool  pool1       = structfile1.getConstantPool();
+        int           cBase       = pool1.size();
+
+        ClassConstant    idIface1 = (ClassConstant) structfile1.getModule().getChild("Iface").getIdentityConstant();
+        PropertyConstant idProp1  = pool1.ensurePropertyConstant(idIface1, "prop");
+
+        Constant          idNative1   = pool1.register(new NativeRebaseConstant(idIface1));
+        TypeConstant      typeNative1 = pool1.ensureTerminalTypeConstant(idNative1);
+        SignatureConstant sigProp1    = (SignatureConstant) pool1.register(
+                new SignatureConstant(pool1, idProp1));
+        pool1.ensureStringConstant("hello");
+
+        int cConst = pool1.countPortableConstants(cBase);
+        Assert.assertEquals(pool1.size() - cBase, cConst);
+
+        ByteArrayOutputStream outConst = new ByteArrayOutputStream();
+        pool1.assembleConstants(new DataOutputStream(outConst), cBase, cConst);
+
+        // ... and append them to another copy
+        FileStructure structfile2 = new FileStructure(new ByteArrayInputStream(abFile));
+        ConstantPool  pool2       = structfile2.getConstantPool();
+        pool2.appendConstants(new DataInputStream(
+                new ByteArrayInputStream(outConst.toByteArray())), cConst);
+
+        Assert.assertEquals(pool1.size(), pool2.size());
+        for (int i = cBase, c = pool1.size(); i < c; ++i)
+            {
+            Assert.assertEquals(pool1.getConstant(i).getFormat(), pool2.getConstant(i).getFormat());
+            Assert.assertEquals(pool1.getConstant(i).getValueString(), pool2.getConstant(i).getValueString());
+            }
+
+        SignatureConstant sigProp2 = (SignatureConstant) pool2.getConstant(sigProp1.getPosition());
+        Assert.assertTrue(sigProp2.isProperty());
+
+        // the appended Constants are found by the subsequent registrations
+        Assert.assertSame(pool2.getConstant(typeNative1.getPosition()),
+                pool2.ensureTerminalTypeConstant(pool2.getConstant(idNative1.getPosition())));
+        Assert.assertEquals(pool1.size(), pool2.size());
+        }
+    }
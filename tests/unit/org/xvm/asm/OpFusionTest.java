@@ -0,0 +1,120 @@
+package org.xvm.asm;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.xvm.asm.op.Jump;
+import org.xvm.asm.op.Nop;
+import org.xvm.asm.op.Return_0;
+
+import org.xvm.runtime.Frame;
+
+import static org.xvm.util.Handy.writePackedLong;
+
+
+/**
+ * Tests of the OpFusion pass.
+ */
+public class OpFusionTest
+    {
+    @Test
+    public void testSequence()
+        {
+        Op[] aop = new Op[] {new Nop(1), new Step(), new Step(), new Nop(1), new Step(), new Return_0()};
+
+        Op[] aopFused = OpFusion.fuse(aop);
+        Assert.assertNotSame(aop, aopFused);
+        Assert.assertEquals(aop.length, aopFused.length);
+
+        // the line numbers are skipped and at most three ops are executed
+        assertFused(aopFused[0], aop[0], "Step+Step+Step (2 skipped)");
+        assertFused(aopFused[2], aop[2], "Step+Step+Return_0 (1 skipped)");
+        assertFused(aopFused[4], aop[4], "Step+Return_0");
+
+        // the assembled ops are not modified
+        Assert.assertTrue(aop[0] instanceof Nop);
+        Assert.assertTrue(aop[4] instanceof Step);
+
+        // nothing to fuse with a return
+        Assert.assertSame(aop[5], aopFused[5]);
+        }
+
+    @Test
+    public void testJump()
+            throws IOException
+        {
+        Op[] aop = new Op[] {new Step(), jump(2), new Step(), new Nop(1), new Step(), new Return_0()};
+
+        Op[] aopFused = OpFusion.fuse(aop);
+
+        // the unconditional jump is followed
+        assertFused(aopFused[0], aop[0], "Step+Jump+Step (1 skipped)");
+        assertFused(aopFused[1], aop[1], "Jump+Step+Return_0 (1 skipped)");
+
+        // the fused op is assembled as the op that it has replaced
+        Assert.assertArrayEquals(assemble(aop[1]), assemble(aopFused[1]));
+        }
+
+    @Test
+    public void testLoop()
+            throws IOException
+        {
+        Op[] aop = new Op[] {new Nop(1), new Step(), jump(-2), new Return_0()};
+
+        Op[] aopFused = OpFusion.fuse(aop);
+
+        // the path stops as soon as it loops back
+        assertFused(aopFused[0], aop[0], "Step+Jump (1 skipped)");
+        assertFused(aopFused[1], aop[1], "Step+Jump");
+        }
+
+    @Test
+    public void testNothing()
+        {
+        Op[] aop = new Op[] {new Return_0()};
+        Assert.assertSame(aop, OpFusion.fuse(aop));
+        }
+
+    private static void assertFused(Op op, Op opReplaced, String sName)
+        {
+        Assert.assertTrue(op instanceof OpFusion.Fused);
+        Assert.assertSame(opReplaced, ((OpFusion.Fused) op).getReplacedOp());
+        Assert.assertEquals("FUSED " + sName, op.toString());
+        }
+
+    private static byte[] assemble(Op op)
+            throws IOException
+        {
+        ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        op.write(new DataOutputStream(outBytes), null);
+        return outBytes.toByteArray();
+        }
+
+    private static Jump jump(int ofJmp)
+            throws IOException
+        {
+        ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        writePackedLong(new DataOutputStream(outBytes), ofJmp);
+        return new Jump(new DataInputStream(new ByteArrayInputStream(outBytes.toByteArray())), null);
+        }
+
+    /**
+     * An op that simply advances.
+     */
+    static class Step
+            extends Op
+        {
+        @Override
+        public int process(Frame frame, int iPC)
+            {
+            return R_NEXT;
+            }
+        }
+    }
@@ -0,0 +1,112 @@
+package org.xvm.compiler;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Tests of the CommandLine compiler front end.
+ *
+ * The {@link #main} method runs the parsing scaling benchmark over a module (by default the
+ * "system" module), parsing all of its files with an increasing number of threads, e.g.:
+ * <pre>
+ *     java org.xvm.compiler.CommandLineTest [module path] [iterations]
+ * </pre>
+ */
+public class CommandLineTest
+    {
+    @Test
+    public void testParallelParse()
+        {
+        String sModule = "./xsrc/system";
+
+        CommandLine cmdSerial   = prepare(sModule, 1);
+        CommandLine cmdParallel = prepare(sModule, 4);
+        cmdSerial.parseSource();
+        cmdParallel.parseSource();
+
+        Assert.assertFalse(cmdSerial.error);
+        Assert.assertFalse(cmdParallel.error);
+
+        List<CommandLine.FileNode> listSerial   = collectFiles(cmdSerial);
+        List<CommandLine.FileNode> listParallel = collectFiles(cmdParallel);
+        Assert.assertEquals(listSerial.size(), listParallel.size());
+        for (int i = 0, c = listSerial.size(); i < c; i++)
+            {
+            CommandLine.FileNode nodeSerial   = listSerial.get(i);
+            CommandLine.FileNode nodeParallel = listParallel.get(i);
+            Assert.assertEquals(nodeSerial.file, nodeParallel.file);
+            Assert.assertEquals(String.valueOf(nodeSerial.stmt), String.valueOf(nodeParallel.stmt));
+            }
+        }
+
+
+    // ----- parsing benchmark ---------------------------------------------------------------------
+
+    public static void main(String[] asArg)
+        {
+        String sModule = asArg.length > 0 ? asArg[0] : "./xsrc/system";
+        int    cIters  = asArg.length > 1 ? Integer.parseInt(asArg[1]) : 10;
+        int    cCPUs   = Runtime.getRuntime().availableProcessors();
+
+        // warm up
+        for (int i = 0; i < cIters; i++)
+            {
+            time(sModule, 1);
+            time(sModule, cCPUs);
+            }
+
+        for (int cThreads = 1; cThreads <= cCPUs; cThreads *= 2)
+            {
+            long cNanos = 0;
+            for (int i = 0; i < cIters; i++)
+                {
+                cNanos += time(sModule, cThreads);
+                }
+            out("threads=" + cThreads + ": " + cNanos / cIters / 1_000 + "us");
+            }
+        }
+
+    /**
+     * @return the time (in nanoseconds) it takes to parse the specified module
+     */
+    private static long time(String sModule, int cThreads)
+        {
+        CommandLine cmd    = prepare(sModule, cThreads);
+        long        lStart = System.nanoTime();
+        cmd.parseSource();
+        return System.nanoTime() - lStart;
+        }
+
+    /**
+     * @return a CommandLine for the specified module that is ready to parse the source files
+     */
+    private static CommandLine prepare(String sModule, int cThreads)
+        {
+        CommandLine cmd = new CommandLine(new String[] {sModule});
+        cmd.parseArgs();
+        cmd.opts.parallelism = cThreads;
+        cmd.configureRepository();
+        cmd.selectTargets();
+        return cmd;
+        }
+
+    private static List<CommandLine.FileNode> collectFiles(CommandLine cmd)
+        {
+        List<CommandLine.FileNode> listFiles = new ArrayList<>();
+        for (CommandLine.Node module : cmd.modules.values())
+            {
+            module.collectFiles(listFiles);
+            }
+        return listFiles;
+        }
+
+    private static void out(Object o)
+        {
+        System.out.println(o);
+        }
+    }
@@ -0,0 +1,98 @@
+package org.xvm.runtime;
+
+
+import java.lang.reflect.Proxy;
+
+import org.xvm.asm.constants.MethodBody;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests of the InlineCache class.
+ */
+public class InlineCacheTest
+    {
+    @Test
+    public void testPolymorphic()
+        {
+        InlineCache       cache   = new InlineCache();
+        TypeComposition[] aClazz  = new TypeComposition[InlineCache.SIZE];
+        CallChain[]       aChain  = new CallChain[InlineCache.SIZE];
+
+        for (int i = 0; i < InlineCache.SIZE; i++)
+            {
+            aClazz[i] = makeComposition();
+            aChain[i] = new CallChain((MethodBody[]) null);
+
+            assertNull(cache.get(aClazz[i]));
+            assertSame(aChain[i], cache.put(aClazz[i], aChain[i]));
+            }
+
+        for (int i = 0; i < InlineCache.SIZE; i++)
+            {
+            assertSame(aChain[i], cache.get(aClazz[i]));
+            }
+        assertFalse(cache.isMegamorphic());
+        }
+
+    @Test
+    public void testMegamorphic()
+        {
+        InlineCache     cache = new InlineCache();
+        TypeComposition clazz = makeComposition();
+        CallChain       chain = new CallChain((MethodBody[]) null);
+
+        cache.put(clazz, chain);
+        for (int i = 0; i < InlineCache.SIZE; i++)
+            {
+            cache.put(makeComposition(), new CallChain((MethodBody[]) null));
+            }
+        assertTrue(cache.isMegamorphic());
+
+        // the existing entries are still served, but the new ones are not cached
+        assertSame(chain, cache.get(clazz));
+
+        TypeComposition clazzNew = makeComposition();
+        cache.put(clazzNew, chain);
+        assertNull(cache.get(clazzNew));
+        }
+
+    @Test
+    public void testRepeatedMiss()
+        {
+        InlineCache     cache = new InlineCache();
+        TypeComposition clazz = makeComposition();
+        CallChain       chain = new CallChain((MethodBody[]) null);
+
+        // repeated misses for the same composition (e.g. by concurrent threads) take one slot
+        for (int i = 0; i <= InlineCache.SIZE; i++)
+            {
+            cache.put(clazz, chain);
+            }
+        assertFalse(cache.isMegamorphic());
+
+        for (int i = 1; i < InlineCache.SIZE; i++)
+            {
+            cache.put(makeComposition(), chain);
+            }
+        assertFalse(cache.isMegamorphic());
+        assertSame(chain, cache.get(clazz));
+        }
+
+    private static TypeComposition makeComposition()
+        {
+        return (TypeComposition) Proxy.newProxyInstance(InlineCacheTest.class.getClassLoader(),
+                new Class[] {TypeComposition.class},
+                (proxy, method, args) -> method.getName().equals("equals")
+                        ? proxy == args[0]
+                        : method.getName().equals("hashCode")
+                                ? System.identityHashCode(proxy)
+                                : null);
+        }
+    }
@@ -0,0 +1,76 @@
+package org.xvm.runtime;
+
+
+import java.util.Deque;
+
+import org.junit.Test;
+
+import org.xvm.runtime.Frame.VarInfo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests of the RegisterPool class.
+ */
+public class RegisterPoolTest
+    {
+    @Test
+    public void testReuse()
+        {
+        RegisterPool pool = new RegisterPool();
+
+        ObjectHandle[] ahVar = pool.allocate(3);
+        VarInfo[]      aInfo = pool.claim(ahVar);
+        assertNotNull(aInfo);
+        assertEquals(3, aInfo.length);
+
+        // only the most recently allocated array can be claimed, and only once
+        assertNull(pool.claim(ahVar));
+        assertNull(pool.claim(new ObjectHandle[3]));
+
+        int[]               anNextVar = pool.allocateScopes(2);
+        Deque<ObjectHandle> stack     = pool.allocateStack();
+
+        ahVar[1]     = ObjectHandle.DEFAULT;
+        anNextVar[1] = 5;
+        stack.push(ahVar[1]);
+        pool.release(ahVar, aInfo, anNextVar, stack);
+
+        // the released arrays are handed out again, cleared
+        ObjectHandle[] ahVarNext = pool.allocate(3);
+        assertSame(ahVar, ahVarNext);
+        assertNull(ahVarNext[1]);
+        assertSame(aInfo, pool.claim(ahVarNext));
+
+        int[] anNextVarNext = pool.allocateScopes(2);
+        assertSame(anNextVar, anNextVarNext);
+        assertEquals(0, anNextVarNext[1]);
+
+        Deque<ObjectHandle> stackNext = pool.allocateStack();
+        assertSame(stack, stackNext);
+        assertTrue(stackNext.isEmpty());
+
+        // arrays of a different size are not shared
+        assertFalse(pool.allocate(4) == ahVar);
+        }
+
+    @Test
+    public void testUnpooled()
+        {
+        RegisterPool pool = new RegisterPool();
+
+        // empty and very large arrays are never pooled
+        assertSame(Utils.OBJECTS_NONE, pool.allocate(0));
+        assertNull(pool.claim(Utils.OBJECTS_NONE));
+
+        ObjectHandle[] ahVar = pool.allocate(1000);
+        assertEquals(1000, ahVar.length);
+        assertNull(pool.claim(ahVar));
+        }
+    }
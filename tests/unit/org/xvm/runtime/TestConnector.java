@@ -8,6 +8,7 @@ import org.xvm.asm.ConstantPool;
 import org.xvm.asm.MethodStructure;
 import org.xvm.asm.ModuleRepository;
 import org.xvm.asm.ModuleStructure;
+import org.xvm.asm.OpFusion;
 
 import org.xvm.asm.constants.MethodConstant;
 
@@ -80,6 +81,16 @@ public class TestConnector
 
             connector.join();
             }
+
+        if (InlineCache.STATS)
+            {
+            out(InlineCache.getStatistics());
+            }
+
+        if (OpFusion.STATS)
+            {
+            out(OpFusion.getStatistics());
+            }
         }
 
     public static void dump(Component component)
@@ -0,0 +1,56 @@
+package org.xvm.runtime;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the QuantumPolicy.
+ */
+public class TestQuantumPolicy
+    {
+    @Test
+    public void testParse()
+        {
+        QuantumPolicy quantum = QuantumPolicy.parse("100");
+        Assert.assertEquals(QuantumPolicy.Kind.Ops, quantum.getKind());
+        Assert.assertEquals(100, quantum.getCheckInterval());
+
+        quantum = QuantumPolicy.parse("500us");
+        Assert.assertEquals(QuantumPolicy.Kind.Time, quantum.getKind());
+        Assert.assertEquals(500_000L, quantum.getTimeNanos());
+        Assert.assertEquals(QuantumPolicy.DEFAULT_CHECK_INTERVAL, quantum.getCheckInterval());
+
+        quantum = QuantumPolicy.parse(" 2ms ");
+        Assert.assertEquals(QuantumPolicy.Kind.Time, quantum.getKind());
+        Assert.assertEquals(2_000_000L, quantum.getTimeNanos());
+
+        Assert.assertSame(QuantumPolicy.UNTIL_BLOCK, QuantumPolicy.parse("block"));
+        }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseIllegal()
+        {
+        QuantumPolicy.parse("fast");
+        }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNegative()
+        {
+        QuantumPolicy.parse("-5");
+        }
+
+    @Test
+    public void testExpiration()
+        {
+        QuantumPolicy quantum = QuantumPolicy.ops(10);
+        Assert.assertTrue(quantum.isExpired(quantum.startSlice()));
+
+        quantum = QuantumPolicy.time(60_000_000_000L, 16);
+        Assert.assertFalse(quantum.isExpired(quantum.startSlice()));
+        Assert.assertTrue(quantum.isExpired(quantum.startSlice() - 60_000_000_000L));
+
+        quantum = QuantumPolicy.UNTIL_BLOCK;
+        Assert.assertFalse(quantum.isExpired(quantum.startSlice()));
+        }
+    }
@@ -0,0 +1,114 @@
+package org.xvm.runtime.template;
+
+
+import org.junit.Test;
+
+import org.xvm.runtime.template.xString.Concat;
+import org.xvm.runtime.template.xString.StringHandle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests of the StringHandle representations.
+ */
+public class StringHandleTest
+    {
+    @Test
+    public void testLatin1()
+        {
+        StringHandle hLatin1 = handle("caf\u00e9");
+        StringHandle hWide   = handle("caf\u00e9\u03bb");
+
+        assertTrue(hLatin1.isLatin1());
+        assertFalse(hWide.isLatin1());
+
+        assertEquals(4, hLatin1.length());
+        assertEquals('\u00e9', hLatin1.charAt(3));
+        assertArrayEquals("caf\u00e9".toCharArray(), hLatin1.getValue());
+        assertSame(hLatin1.getValue(), hLatin1.getValue());
+        assertEquals("caf\u00e9", hLatin1.getStringValue());
+        assertEquals("[caf\u00e9", hLatin1.appendTo(new StringBuilder("[")).toString());
+        assertEquals("[caf\u00e9\u03bb", hWide.appendTo(new StringBuilder("[")).toString());
+        }
+
+    @Test
+    public void testEquality()
+        {
+        String sValue = "\u00e9t\u00e9";
+
+        // the same value in both representations
+        StringHandle hLatin1 = handle(sValue);
+        StringHandle hWide   = new StringHandle(null, sValue.toCharArray(), sValue.length());
+
+        assertEquals(hLatin1, hWide);
+        assertEquals(hWide, hLatin1);
+
+        assertNotEquals(hLatin1, handle("\u00e9t\u00e8"));
+        assertNotEquals(hLatin1, handle("\u00e9t"));
+        }
+
+    @Test
+    public void testConcat()
+        {
+        StringHandle hHead   = handle("abc");
+        StringHandle hTail   = handle("\u03bb\u03bc");
+        StringHandle hConcat = concat(hHead, hTail);
+
+        assertFalse(hConcat.isLatin1());
+        assertEquals(5, hConcat.length());
+        assertEquals(handle("abc\u03bb\u03bc"), hConcat);
+        assertEquals('\u03bb', hConcat.charAt(3));
+
+        // the parts are not affected by flattening the concatenation
+        assertEquals("abc", hHead.getStringValue());
+        assertTrue(concat(hHead, hHead).isLatin1());
+        }
+
+    @Test
+    public void testDeepConcat()
+        {
+        StringBuilder sb      = new StringBuilder();
+        StringHandle  hString = handle("");
+        for (int i = 0; i < 100000; i++)
+            {
+            String sPart = Integer.toString(i % 10);
+            sb.append(sPart);
+            hString = concat(hString, handle(sPart));
+            }
+
+        // a very deep tree is flattened without overflowing the stack
+        assertEquals(sb.toString(), hString.getStringValue());
+        assertEquals(sb.length(), hString.getValue().length);
+        }
+
+    private static StringHandle handle(String s)
+        {
+        char[] ach = s.toCharArray();
+        for (char ch : ach)
+            {
+            if (ch > 0xFF)
+                {
+                return new StringHandle(null, ach, ach.length);
+                }
+            }
+
+        byte[] ab = new byte[ach.length];
+        for (int i = 0; i < ach.length; i++)
+            {
+            ab[i] = (byte) ach[i];
+            }
+        return new StringHandle(null, ab, ab.length);
+        }
+
+    private static StringHandle concat(StringHandle h1, StringHandle h2)
+        {
+        return new StringHandle(null, new Concat(h1, h2, h1.isLatin1() && h2.isLatin1()),
+            h1.length() + h2.length());
+        }
+    }
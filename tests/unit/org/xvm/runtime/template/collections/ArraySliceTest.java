@@ -0,0 +1,157 @@
+package org.xvm.runtime.template.collections;
+
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.xvm.runtime.template.collections.xArray.Mutability;
+import org.xvm.runtime.template.collections.xByteArray.ByteArrayHandle;
+import org.xvm.runtime.template.collections.xCharArray.CharArrayHandle;
+import org.xvm.runtime.template.collections.xIntArray.IntArrayHandle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests of the slice views of the Int, Char and Byte array handles.
+ *
+ * The {@link #main} method runs the benchmark comparing a slice view with a slice copy, e.g.:
+ * <pre>
+ *     java org.xvm.runtime.template.collections.ArraySliceTest [elements] [iterations]
+ * </pre>
+ */
+public class ArraySliceTest
+    {
+    public static void main(String[] args)
+        {
+        int c      = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int cIters = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        for (int iIter = 0; iIter < 3; iIter++)
+            {
+            out("*** iteration " + iIter);
+
+            long[] acNanos = slice(c, cIters);
+            out("slice (ms): copy=" + acNanos[0] / 1_000_000
+                + ", view=" + acNanos[1] / 1_000_000);
+            }
+        }
+
+    @Test
+    public void testCopyOnWrite()
+        {
+        long[]         al     = {0, 1, 2, 3, 4, 5};
+        IntArrayHandle hArray = new IntArrayHandle(null, al, Mutability.Mutable);
+        IntArrayHandle hSlice = new IntArrayHandle(null, al, 2, 3, Mutability.Mutable);
+        hArray.m_fShared = true;
+
+        assertSame(al, hSlice.m_alValue);
+        assertEquals(3, hSlice.getCapacity());
+
+        // changing the slice copies its elements, leaving the original array intact
+        hSlice.unshare();
+        hSlice.m_alValue[0] = 22;
+        assertNotSame(al, hSlice.m_alValue);
+        assertEquals(0, hSlice.m_ixOffset);
+        assertEquals(2L, al[2]);
+        assertEquals(22L, hSlice.m_alValue[0]);
+
+        // the original array copies its storage as well before its first change
+        hArray.unshare();
+        assertNotSame(al, hArray.m_alValue);
+        assertFalse(hArray.m_fShared);
+        hArray.unshare();
+        assertEquals(6, hArray.m_cSize);
+        }
+
+    @Test
+    public void testEquality()
+        {
+        IntArrayHandle hSlice = new IntArrayHandle(null, new long[] {9, 1, 2, 3, 9}, 1, 3,
+                                                   Mutability.Constant);
+        IntArrayHandle hArray = new IntArrayHandle(null, new long[] {1, 2, 3}, Mutability.Constant);
+
+        assertTrue(hSlice.equalValues(hArray));
+        assertEquals(hArray, hSlice);
+        assertEquals(hArray.hashCode(), hSlice.hashCode());
+        assertEquals(0, hSlice.compareTo(hArray));
+
+        CharArrayHandle hChars = new CharArrayHandle(null, "hello".toCharArray(), 1, 3,
+                                                     Mutability.Constant);
+        assertTrue(hChars.equalValues(
+            new CharArrayHandle(null, "ell".toCharArray(), Mutability.Constant)));
+        assertArrayEquals("ell".toCharArray(), hChars.getChars());
+        assertEquals("ell", hChars.toString());
+
+        ByteArrayHandle hBytes = new ByteArrayHandle(null, new byte[] {1, 2, 3, 4}, 2, 2,
+                                                     Mutability.Constant);
+        assertArrayEquals(new byte[] {3, 4}, hBytes.getBytes());
+        assertFalse(hBytes.equalValues(
+            new ByteArrayHandle(null, new byte[] {3, 5}, Mutability.Constant)));
+        }
+
+    @Test
+    public void testMakeImmutable()
+        {
+        char[]          ach    = "abcdef".toCharArray();
+        CharArrayHandle hSlice = new CharArrayHandle(null, ach, 2, 2, Mutability.Mutable);
+
+        // a mutable slice purges the unused space when it becomes immutable
+        hSlice.makeImmutable();
+        assertNotSame(ach, hSlice.m_achValue);
+        assertEquals(0, hSlice.m_ixOffset);
+        assertEquals("cd", hSlice.toString());
+        }
+
+
+    // ----- benchmarks ----------------------------------------------------------------------------
+
+    /**
+     * Measure the time it takes to slice an array by copying its elements and the time it takes
+     * to create a slice view.
+     *
+     * @return the elapsed time in nanos for the copies and for the views
+     */
+    static long[] slice(int c, int cIters)
+        {
+        long[] al = new long[c];
+        for (int i = 0; i < c; i++)
+            {
+            al[i] = i;
+            }
+        IntArrayHandle hArray = new IntArrayHandle(null, al, Mutability.Constant);
+
+        long lSumCopy = 0;
+        long lSumView = 0;
+        long ldtStart = System.nanoTime();
+        for (int iter = 0; iter < cIters; iter++)
+            {
+            long[] alSlice = Arrays.copyOfRange(al, iter, c - iter);
+            lSumCopy += alSlice[alSlice.length >> 1];
+            }
+        long ldtCopy = System.nanoTime() - ldtStart;
+
+        ldtStart = System.nanoTime();
+        for (int iter = 0; iter < cIters; iter++)
+            {
+            IntArrayHandle hSlice = new IntArrayHandle(null, hArray.m_alValue,
+                                                       iter, c - 2 * iter, Mutability.Constant);
+            lSumView += hSlice.m_alValue[hSlice.m_ixOffset + (hSlice.m_cSize >> 1)];
+            }
+        long ldtView = System.nanoTime() - ldtStart;
+
+        assert lSumCopy == lSumView;
+        return new long[] {ldtCopy, ldtView};
+        }
+
+    static void out(String s)
+        {
+        System.out.println(s);
+        }
+    }
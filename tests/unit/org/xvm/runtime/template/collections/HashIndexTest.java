@@ -0,0 +1,138 @@
+package org.xvm.runtime.template.collections;
+
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests of the HashIndex class.
+ */
+public class HashIndexTest
+    {
+    @Test
+    public void testAddAndFind()
+        {
+        HashIndex      index = new HashIndex();
+        ObjectHandle[] ah    = handles(1000);
+
+        for (int i = 0; i < ah.length; i++)
+            {
+            index.add(i, ah[i]);
+            }
+        assertEquals(ah.length, index.size());
+
+        for (int i = 0; i < ah.length; i++)
+            {
+            int iSlot = index.first(i);
+            assertTrue(iSlot >= 0);
+            assertSame(ah[i], index.get(iSlot));
+            assertEquals(-1, index.next(i, iSlot));
+            }
+        assertEquals(-1, index.first(ah.length));
+        }
+
+    @Test
+    public void testSameHash()
+        {
+        HashIndex      index = new HashIndex();
+        ObjectHandle[] ah    = handles(20);
+
+        for (int i = 0; i < ah.length; i++)
+            {
+            index.add(i % 2, ah[i]);
+            }
+
+        // all the handles with the same hash are found
+        Set<ObjectHandle> setFound = new HashSet<>();
+        for (int iSlot = index.first(1); iSlot >= 0; iSlot = index.next(1, iSlot))
+            {
+            assertTrue(setFound.add(index.get(iSlot)));
+            }
+        assertEquals(10, setFound.size());
+        for (int i = 1; i < ah.length; i += 2)
+            {
+            assertTrue(setFound.contains(ah[i]));
+            }
+        }
+
+    @Test
+    public void testRemove()
+        {
+        HashIndex      index = new HashIndex();
+        ObjectHandle[] ah    = handles(300);
+
+        // a few hashes shared by many handles produce long probe sequences
+        for (int i = 0; i < ah.length; i++)
+            {
+            index.add(i % 7, ah[i]);
+            }
+
+        for (int i = 0; i < ah.length; i += 2)
+            {
+            assertTrue(index.remove(i % 7, ah[i]));
+            }
+        assertFalse(index.remove(0, ah[0]));
+        assertFalse(index.remove(1, ah[0]));
+        assertEquals(ah.length / 2, index.size());
+
+        // the removals must not have broken the probe sequences of the remaining handles
+        for (int i = 1; i < ah.length; i += 2)
+            {
+            assertTrue(index.remove(i % 7, ah[i]));
+            }
+        assertEquals(0, index.size());
+        assertEquals(-1, index.first(0));
+        }
+
+    @Test
+    public void testClear()
+        {
+        HashIndex      index = new HashIndex();
+        ObjectHandle[] ah    = handles(100);
+
+        for (int i = 0; i < ah.length; i++)
+            {
+            index.add(i, ah[i]);
+            }
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertEquals(-1, index.first(5));
+
+        index.add(5, ah[5]);
+        assertSame(ah[5], index.get(index.first(5)));
+        }
+
+    @Test
+    public void testSynchronized()
+        {
+        HashIndex index = new HashIndex();
+        assertTrue(index.isSynchronized(0, 0));
+
+        index.synchronize(3, 1);
+        assertTrue(index.isSynchronized(3, 1));
+        assertFalse(index.isSynchronized(3, 2));
+        assertFalse(index.isSynchronized(4, 1));
+        }
+
+    private static ObjectHandle[] handles(int c)
+        {
+        ObjectHandle[] ah = new ObjectHandle[c];
+        for (int i = 0; i < c; i++)
+            {
+            ah[i] = new JavaLong(null, i);
+            }
+        return ah;
+        }
+    }
@@ -0,0 +1,213 @@
+package org.xvm.runtime.template.collections;
+
+
+import org.junit.Test;
+
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+
+import org.xvm.runtime.template.collections.PrimitiveArray.Bits16Handle;
+import org.xvm.runtime.template.collections.PrimitiveArray.Bits32Handle;
+import org.xvm.runtime.template.collections.PrimitiveArray.Bits64Handle;
+import org.xvm.runtime.template.collections.PrimitiveArray.Bits8Handle;
+import org.xvm.runtime.template.collections.PrimitiveArray.PrimitiveArrayHandle;
+import org.xvm.runtime.template.collections.xArray.GenericArrayHandle;
+import org.xvm.runtime.template.collections.xArray.Mutability;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests of the PrimitiveArray handles.
+ *
+ * The {@link #main} method runs the memory-per-element and element-access benchmarks comparing
+ * the primitive arrays with the boxed GenericArrayHandle, e.g.:
+ * <pre>
+ *     java org.xvm.runtime.template.collections.PrimitiveArrayTest [elements]
+ * </pre>
+ */
+public class PrimitiveArrayTest
+    {
+    public static void main(String[] args)
+        {
+        int c = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        for (int iIter = 0; iIter < 3; iIter++)
+            {
+            out("*** iteration " + iIter);
+
+            long[] acb = memoryPerElement(c);
+            out("bytes per element: boxed=" + (double) acb[0] / c
+                + ", primitive=" + (double) acb[1] / c);
+
+            long[] acNanos = elementAccess(c / 10, 50);
+            out("element access (ms): boxed=" + acNanos[0] / 1_000_000
+                + ", primitive=" + acNanos[1] / 1_000_000);
+            }
+        }
+
+    @Test
+    public void testSignExtension()
+        {
+        PrimitiveArrayHandle[] ah =
+            {
+            new Bits8Handle (null, new byte [4], 0, Mutability.Mutable),
+            new Bits16Handle(null, new short[4], 0, Mutability.Mutable),
+            new Bits32Handle(null, new int  [4], 0, Mutability.Mutable),
+            new Bits64Handle(null, new long [4], 0, Mutability.Mutable),
+            };
+
+        for (PrimitiveArrayHandle h : ah)
+            {
+            h.setBits(0, -1L);
+            h.setBits(1, 0x7FL);
+            assertEquals(-1L, h.getBits(0));
+            assertEquals(0x7FL, h.getBits(1));
+            }
+
+        // the bits above the storage width are dropped
+        ah[0].setBits(2, 0x1FFL);
+        ah[1].setBits(2, 0x1FFFFL);
+        ah[2].setBits(2, 0x1FFFFFFFFL);
+        assertEquals(-1L, ah[0].getBits(2));
+        assertEquals(-1L, ah[1].getBits(2));
+        assertEquals(-1L, ah[2].getBits(2));
+        }
+
+    @Test
+    public void testCopyAndDelete()
+        {
+        Bits32Handle h = new Bits32Handle(null, new int[] {1, 2, 3, 4, 5}, 5, Mutability.Mutable);
+
+        PrimitiveArrayHandle hSlice = h.copyOf(1, 3, false, Mutability.Constant);
+        assertEquals(3, hSlice.m_cSize);
+        assertEquals(2L, hSlice.getBits(0));
+        assertEquals(4L, hSlice.getBits(2));
+
+        PrimitiveArrayHandle hReverse = h.copyOf(1, 3, true, Mutability.Constant);
+        assertEquals(4L, hReverse.getBits(0));
+        assertEquals(2L, hReverse.getBits(2));
+
+        h.deleteElement(0);
+        assertEquals(4, h.m_cSize);
+        assertEquals(2L, h.getBits(0));
+        assertEquals(5L, h.getBits(3));
+
+        // only the elements within the size take part in the equality
+        Bits32Handle hThat = new Bits32Handle(null, new int[] {2, 3, 4, 5}, 4, Mutability.Mutable);
+        assertTrue(h.equalBits(hThat));
+        assertEquals(h.hashCode(), hThat.hashCode());
+
+        hThat.setBits(3, 6);
+        assertFalse(h.equalBits(hThat));
+        }
+
+    @Test
+    public void testResize()
+        {
+        Bits16Handle h = new Bits16Handle(null, new short[2], 0, Mutability.Mutable);
+        h.setBits(0, 7);
+        h.setBits(1, 8);
+        h.m_cSize = 2;
+
+        h.resize(20);
+        assertEquals(20, h.getCapacity());
+        assertEquals(8L, h.getBits(1));
+
+        h.makeImmutable();
+        assertEquals(2, h.getCapacity());
+        assertEquals(Mutability.Constant, h.m_mutability);
+        }
+
+
+    // ----- benchmarks ----------------------------------------------------------------------------
+
+    /**
+     * Measure the heap used by an array of 32-bit values held in a Bits32Handle and by the same
+     * values held as JavaLong handles in a GenericArrayHandle.
+     *
+     * @return the number of bytes used by the boxed and by the primitive array
+     */
+    static long[] memoryPerElement(int c)
+        {
+        long cbBefore = usedMemory();
+        ObjectHandle[] ahValue = new ObjectHandle[c];
+        for (int i = 0; i < c; i++)
+            {
+            ahValue[i] = new JavaLong(null, i);
+            }
+        GenericArrayHandle hBoxed = new GenericArrayHandle(null, ahValue, Mutability.Mutable);
+        long cbBoxed = usedMemory() - cbBefore;
+
+        cbBefore = usedMemory();
+        Bits32Handle hPrimitive = new Bits32Handle(null, new int[c], c, Mutability.Mutable);
+        for (int i = 0; i < c; i++)
+            {
+            hPrimitive.setBits(i, i);
+            }
+        long cbPrimitive = usedMemory() - cbBefore;
+
+        assert hBoxed.m_cSize == hPrimitive.m_cSize;
+        return new long[] {cbBoxed, cbPrimitive};
+        }
+
+    /**
+     * Measure the element write and read times of the boxed and primitive arrays.
+     *
+     * @return the elapsed time in nanos for the boxed and for the primitive array
+     */
+    static long[] elementAccess(int c, int cIters)
+        {
+        ObjectHandle[] ahValue = new ObjectHandle[c];
+        Bits32Handle   hArray  = new Bits32Handle(null, new int[c], c, Mutability.Mutable);
+
+        long lSumBoxed     = 0;
+        long lSumPrimitive = 0;
+        long ldtBoxed      = 0;
+        long ldtPrimitive  = 0;
+        for (int iter = 0; iter < cIters; iter++)
+            {
+            long ldtStart = System.nanoTime();
+            for (int i = 0; i < c; i++)
+                {
+                ahValue[i] = new JavaLong(null, i + iter);
+                }
+            for (int i = 0; i < c; i++)
+                {
+                lSumBoxed += ((JavaLong) ahValue[i]).getValue();
+                }
+            ldtBoxed += System.nanoTime() - ldtStart;
+
+            ldtStart = System.nanoTime();
+            for (int i = 0; i < c; i++)
+                {
+                hArray.setBits(i, i + iter);
+                }
+            for (int i = 0; i < c; i++)
+                {
+                lSumPrimitive += hArray.getBits(i);
+                }
+            ldtPrimitive += System.nanoTime() - ldtStart;
+            }
+
+        assert lSumBoxed == lSumPrimitive;
+        return new long[] {ldtBoxed, ldtPrimitive};
+        }
+
+    private static long usedMemory()
+        {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            {
+            System.gc();
+            }
+        return runtime.totalMemory() - runtime.freeMemory();
+        }
+
+    static void out(String s)
+        {
+        System.out.println(s);
+        }
+    }
@@ -0,0 +1,102 @@
+package org.xvm.util;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ * Tests of the ByteBufferInput class.
+ */
+public class ByteBufferInputTest
+    {
+    @Test
+    public void testRead()
+            throws IOException
+        {
+        ByteBufferInput in = new ByteBufferInput(ByteBuffer.wrap(sample()));
+        assertEquals(42, in.readInt());
+        assertEquals("hello", in.readUTF());
+        assertEquals(-1L, in.readLong());
+        assertEquals(3, in.available());
+        }
+
+    @Test
+    public void testSlice()
+            throws IOException
+        {
+        ByteBufferInput in = new ByteBufferInput(ByteBuffer.wrap(sample()));
+        assertEquals(42, in.readInt());
+
+        ByteBuffer buf = in.slice(7);
+        assertTrue(buf.isReadOnly());
+        assertEquals(7, buf.remaining());
+
+        // the slice is skipped over by the input ...
+        assertEquals(-1L, in.readLong());
+
+        // ... and can be read independently
+        assertEquals("hello", new ByteBufferInput(buf).readUTF());
+        assertFalse(buf.hasRemaining());
+
+        try
+            {
+            in.slice(4);
+            fail();
+            }
+        catch (EOFException e)
+            {
+            }
+        }
+
+    @Test
+    public void testMap()
+            throws IOException
+        {
+        byte[] ab   = sample();
+        File   file = File.createTempFile("bbi", ".bin");
+        try
+            {
+            try (FileOutputStream out = new FileOutputStream(file))
+                {
+                out.write(ab);
+                }
+
+            ByteBuffer buf = ByteBufferInput.map(file);
+            assertEquals(ab.length, buf.remaining());
+
+            ByteBufferInput in = new ByteBufferInput(buf);
+            assertEquals(42, in.readInt());
+            assertEquals("hello", in.readUTF());
+            }
+        finally
+            {
+            file.delete();
+            }
+        }
+
+    private static byte[] sample()
+            throws IOException
+        {
+        ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        DataOutputStream      out      = new DataOutputStream(outBytes);
+        out.writeInt(42);
+        out.writeUTF("hello");
+        out.writeLong(-1L);
+        out.write(new byte[] {1, 2, 3});
+        return outBytes.toByteArray();
+        }
+    }
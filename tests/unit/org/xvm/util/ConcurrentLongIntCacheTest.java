@@ -0,0 +1,102 @@
+package org.xvm.util;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Tests of the ConcurrentLongIntCache class.
+ */
+public class ConcurrentLongIntCacheTest
+    {
+    @Test
+    public void testGetPut()
+        {
+        ConcurrentLongIntCache cache = new ConcurrentLongIntCache(8);
+
+        assertEquals(0, cache.get(0L));
+        cache.put(0L, 1);
+        cache.put(Long.MAX_VALUE, 2);
+        cache.put(Long.MIN_VALUE, 3);
+
+        assertEquals(1, cache.get(0L));
+        assertEquals(2, cache.get(Long.MAX_VALUE));
+        assertEquals(3, cache.get(Long.MIN_VALUE));
+        assertEquals(0, cache.get(1L));
+
+        cache.put(0L, 4);
+        assertEquals(4, cache.get(0L));
+
+        cache.clear();
+        assertEquals(0, cache.get(0L));
+        }
+
+    @Test
+    public void testGrow()
+        {
+        ConcurrentLongIntCache cache = new ConcurrentLongIntCache(8);
+
+        for (int i = 0; i < 10_000; i++)
+            {
+            cache.put(((long) i << 32) | (i * 7), i + 1);
+            }
+
+        for (int i = 0; i < 10_000; i++)
+            {
+            assertEquals(i + 1, cache.get(((long) i << 32) | (i * 7)));
+            }
+        }
+
+    @Test
+    public void testConcurrent()
+        throws InterruptedException
+        {
+        ConcurrentLongIntCache cache   = new ConcurrentLongIntCache(8);
+        List<Thread>           threads = new ArrayList<>();
+        AtomicInteger          cErrors = new AtomicInteger();
+
+        for (int t = 0; t < 4; t++)
+            {
+            Thread thread = new Thread(() ->
+                {
+                for (int i = 0; i < 100_000; i++)
+                    {
+                    int n = cache.get(i);
+                    if (n == 0)
+                        {
+                        cache.put(i, i % 3 + 1);
+                        }
+                    else if (n != i % 3 + 1)
+                        {
+                        // a value could be "forgotten", but never corrupted
+                        cErrors.incrementAndGet();
+                        }
+                    }
+                });
+            threads.add(thread);
+            thread.start();
+            }
+
+        for (Thread thread : threads)
+            {
+            thread.join();
+            }
+        assertEquals(0, cErrors.get());
+
+        for (int i = 0; i < 100_000; i++)
+            {
+            int n = cache.get(i);
+            if (n != 0)
+                {
+                assertEquals(i % 3 + 1, n);
+                }
+            }
+        }
+    }
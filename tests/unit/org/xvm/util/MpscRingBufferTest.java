@@ -0,0 +1,304 @@
+package org.xvm.util;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Tests of the MpscRingBuffer class.
+ *
+ * The {@link #main} method runs the ping-pong and fan-in benchmarks comparing the ring buffer
+ * with the ConcurrentLinkedQueue, e.g.:
+ * <pre>
+ *     java org.xvm.util.MpscRingBufferTest [messages] [producers]
+ * </pre>
+ */
+public class MpscRingBufferTest
+    {
+    public static void main(String[] args)
+        throws InterruptedException
+        {
+        int cMessages  = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int cProducers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        for (int iIter = 0; iIter < 3; iIter++)
+            {
+            out("*** iteration " + iIter);
+
+            out("ping-pong CLQ:  " + rate(cMessages, pingPong(cMessages,
+                    new QueueMailbox(), new QueueMailbox())));
+            out("ping-pong ring: " + rate(cMessages, pingPong(cMessages,
+                    new RingMailbox(1024), new RingMailbox(1024))));
+
+            out("fan-in CLQ:     " + rate(cMessages, fanIn(cMessages, cProducers,
+                    new QueueMailbox())));
+            out("fan-in ring:    " + rate(cMessages, fanIn(cMessages, cProducers,
+                    new RingMailbox(1024))));
+            }
+        }
+
+    @Test
+    public void testCapacity()
+        {
+        assertEquals(2, new MpscRingBuffer<>(1).capacity());
+        assertEquals(8, new MpscRingBuffer<>(8).capacity());
+        assertEquals(16, new MpscRingBuffer<>(9).capacity());
+        }
+
+    @Test
+    public void testOfferPoll()
+        {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+
+        for (int i = 0; i < 4; i++)
+            {
+            assertTrue(buffer.offer(i));
+            }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+
+        for (int i = 1; i <= 4; i++)
+            {
+            assertEquals(Integer.valueOf(i), buffer.poll());
+            }
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+        }
+
+    @Test
+    public void testWrapAround()
+        {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 1000; i++)
+            {
+            assertTrue(buffer.offer(i));
+            assertTrue(buffer.offer(-i));
+            assertEquals(Integer.valueOf(i), buffer.poll());
+            assertEquals(Integer.valueOf(-i), buffer.poll());
+            }
+        assertTrue(buffer.isEmpty());
+        }
+
+    @Test
+    public void testDrain()
+        {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 5; i++)
+            {
+            buffer.offer(i);
+            }
+
+        List<Integer> list = new ArrayList<>();
+        assertEquals(5, buffer.drain(list::add));
+        assertEquals(5, list.size());
+        for (int i = 0; i < 5; i++)
+            {
+            assertEquals(Integer.valueOf(i), list.get(i));
+            }
+        assertEquals(0, buffer.drain(list::add));
+        }
+
+    @Test
+    public void testConcurrentProducers()
+            throws InterruptedException
+        {
+        int cProducers = 4;
+        int cPerThread = 100_000;
+
+        MpscRingBuffer<long[]> buffer   = new MpscRingBuffer<>(64);
+        Thread[]               aThread  = new Thread[cProducers];
+        for (int i = 0; i < cProducers; i++)
+            {
+            int nProducer = i;
+            aThread[i] = new Thread(() ->
+                {
+                for (int n = 0; n < cPerThread; n++)
+                    {
+                    long[] al = new long[] {nProducer, n};
+                    while (!buffer.offer(al))
+                        {
+                        Thread.yield();
+                        }
+                    }
+                });
+            aThread[i].start();
+            }
+
+        // every producer's messages must arrive in order
+        int[] anNext = new int[cProducers];
+        for (int c = 0, cTotal = cProducers * cPerThread; c < cTotal; )
+            {
+            long[] al = buffer.poll();
+            if (al == null)
+                {
+                Thread.yield();
+                continue;
+                }
+
+            int nProducer = (int) al[0];
+            assertEquals(anNext[nProducer]++, (int) al[1]);
+            c++;
+            }
+
+        for (Thread thread : aThread)
+            {
+            thread.join();
+            }
+        assertTrue(buffer.isEmpty());
+        }
+
+
+    // ----- benchmarks ----------------------------------------------------------------------------
+
+    /**
+     * Bounce a message between two threads.
+     *
+     * @return the elapsed time in nanos
+     */
+    static long pingPong(int cMessages, Mailbox boxPing, Mailbox boxPong)
+            throws InterruptedException
+        {
+        Object oMsg = new Object();
+
+        Thread thread = new Thread(() ->
+            {
+            for (int i = 0; i < cMessages; i++)
+                {
+                boxPong.send(boxPing.receive());
+                }
+            });
+
+        long ldtStart = System.nanoTime();
+        thread.start();
+        for (int i = 0; i < cMessages; i++)
+            {
+            boxPing.send(oMsg);
+            boxPong.receive();
+            }
+        thread.join();
+        return System.nanoTime() - ldtStart;
+        }
+
+    /**
+     * Send messages from the specified number of threads to a single consumer.
+     *
+     * @return the elapsed time in nanos
+     */
+    static long fanIn(int cMessages, int cProducers, Mailbox box)
+            throws InterruptedException
+        {
+        int      cPerThread = cMessages / cProducers;
+        Thread[] aThread    = new Thread[cProducers];
+        Object   oMsg       = new Object();
+
+        long ldtStart = System.nanoTime();
+        for (int i = 0; i < cProducers; i++)
+            {
+            aThread[i] = new Thread(() ->
+                {
+                for (int n = 0; n < cPerThread; n++)
+                    {
+                    box.send(oMsg);
+                    }
+                });
+            aThread[i].start();
+            }
+
+        for (int c = cPerThread * cProducers; c > 0; c--)
+            {
+            box.receive();
+            }
+
+        for (Thread thread : aThread)
+            {
+            thread.join();
+            }
+        return System.nanoTime() - ldtStart;
+        }
+
+    static String rate(int cMessages, long cNanos)
+        {
+        return (cMessages * 1_000_000_000L / Math.max(1, cNanos)) + " msg/s";
+        }
+
+    static void out(String s)
+        {
+        System.out.println(s);
+        }
+
+    /**
+     * A spinning mailbox abstraction used by the benchmarks.
+     */
+    interface Mailbox
+        {
+        void send(Object o);
+        Object receive();
+        }
+
+    static class QueueMailbox
+            implements Mailbox
+        {
+        public void send(Object o)
+            {
+            f_queue.add(o);
+            }
+
+        public Object receive()
+            {
+            Object o;
+            while ((o = f_queue.poll()) == null)
+                {
+                Thread.yield();
+                }
+            return o;
+            }
+
+        private final Queue<Object> f_queue = new ConcurrentLinkedQueue<>();
+        }
+
+    static class RingMailbox
+            implements Mailbox
+        {
+        RingMailbox(int cCapacity)
+            {
+            f_buffer = new MpscRingBuffer<>(cCapacity);
+            }
+
+        public void send(Object o)
+            {
+            while (!f_buffer.offer(o))
+                {
+                Thread.yield();
+                }
+            }
+
+        public Object receive()
+            {
+            Object o;
+            while ((o = f_buffer.poll()) == null)
+                {
+                Thread.yield();
+                }
+            return o;
+            }
+
+        private final MpscRingBuffer<Object> f_buffer;
+        }
+    }
@@ -533,6 +533,13 @@ class Array<Element>
                 : new Array(mutability, this);
         }
 
+    @Override
+    conditional Int indexOf(Element value, Int startAt = 0)
+        {
+        // implemented natively; use the default implementation from the Sequence interface
+        return super(value, startAt);
+        }
+
 
     // ----- Collection interface ------------------------------------------------------------------
 
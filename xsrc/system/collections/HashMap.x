@@ -151,13 +151,21 @@ class HashMap<Key, Value>
             entry = entry.next;
             }
 
-        buckets[bucketId] = new HashEntry(key, keyhash, value, buckets[bucketId]);
-        ++addCount;
-        checkCapacity();
-
+        addEntry(key, keyhash, value);
         return this;
         }
 
+    @Override
+    conditional HashMap putIfAbsent(Key key, Value value)
+        {
+        if (contains(key))
+            {
+            return False;
+            }
+
+        return True, put(key, value);
+        }
+
     @Override
     HashMap putAll(Map<Key, Value> that)
         {
@@ -532,6 +540,53 @@ class HashMap<Key, Value>
         return True;
         }
 
+    /**
+     * Add a new entry for a key that is known not to be in the HashMap.
+     *
+     * @param key      the key
+     * @param keyhash  the hash of the key, as calculated by the hasher
+     * @param value    the value
+     *
+     * @return the new HashEntry
+     */
+    protected HashEntry addEntry(Key key, Int keyhash, Value value)
+        {
+        Int       bucketId = keyhash % buckets.size;
+        HashEntry entry    = new HashEntry(key, keyhash, value, buckets[bucketId]);
+        buckets[bucketId] = entry;
+        ++addCount;
+        checkCapacity();
+
+        return entry;
+        }
+
+    /**
+     * Calculate the hash of the specified key. The run-time uses this method for the keys that it
+     * is not able to hash natively.
+     *
+     * @param key  the key
+     *
+     * @return the hash of the key, as calculated by the hasher
+     */
+    private Int hashOf(Key key)
+        {
+        return hasher.hashOf(key);
+        }
+
+    /**
+     * Compare the specified keys for equality. The run-time uses this method for the keys that it
+     * is not able to compare natively.
+     *
+     * @param key1  the first key
+     * @param key2  the second key
+     *
+     * @return True iff the keys are equal, as determined by the hasher
+     */
+    private Boolean areEqual(Key key1, Key key2)
+        {
+        return hasher.areEqual(key1, key2);
+        }
+
     /**
      * Check to see if the HashMap needs to grow or shrink based on the current capacity need.
      */
@@ -43,7 +43,7 @@ interface Sequence<Element>
      */
     conditional Int indexOf(Element value, Int startAt = 0)
         {
-        for (Int i = startAt.maxOf(0), Int last = size - 1; i < last; ++i)
+        for (Int i = startAt.maxOf(0), Int last = size - 1; i <= last; ++i)
             {
             if (this[i] == value)
                 {
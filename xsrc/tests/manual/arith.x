@@ -0,0 +1,78 @@
+module TestArith.xqiz.it
+    {
+    @Inject X.io.Console console;
+    @Inject X.Timer      timer;
+
+    void run()
+        {
+        console.println("*** integer arithmetic benchmark ***");
+
+        // the first run warms up the interpreter
+        for (Int iter = 0; iter < 2; iter++)
+            {
+            testBinary(100000);
+            testInPlace(100000);
+            testCompare(100000);
+            }
+        }
+
+    /**
+     * Binary ops on registers and constants.
+     */
+    void testBinary(Int count)
+        {
+        timer.reset();
+
+        Int sum = 0;
+        for (Int i = 0; i < count; i++)
+            {
+            sum = sum + i * 3 - (i & 7);
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\nbinary: sum={sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    /**
+     * In-place ops on registers.
+     */
+    void testInPlace(Int count)
+        {
+        timer.reset();
+
+        Int sum = 0;
+        Int i   = 0;
+        while (i < count)
+            {
+            sum += i;
+            sum ^= 5;
+            ++i;
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\nin-place: sum={sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    /**
+     * Comparisons and conditional jumps.
+     */
+    void testCompare(Int count)
+        {
+        timer.reset();
+
+        Int hits = 0;
+        for (Int i = 0; i < count; i++)
+            {
+            if (i % 3 == 0 || i > count - 10)
+                {
+                hits++;
+                }
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\ncompare: hits={hits}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+    }
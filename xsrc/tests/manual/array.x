@@ -23,6 +23,7 @@ module TestArray.xqiz.it
         testComparable();
 
         testIterators();
+        testBulkOps();
         }
 
     void testSimple()
@@ -322,4 +323,78 @@ module TestArray.xqiz.it
         console.println($"min={min}; max={max}");
         console.println($"range={range}");
         }
-    }
\ No newline at end of file
+    
+    void testBulkOps()
+        {
+        import Ecstasy.numbers.Int32;
+
+        console.println("\n** testBulkOps()");
+
+        Int[] ints = new Int[];
+        for (Int i : 0..9)
+            {
+            ints += i;
+            }
+
+        // a slice is a snapshot of the array; changing either one leaves the other intact
+        Int[] slice = ints[2..5];
+        console.println($"slice={slice}");
+        ints[3] = 33;
+        slice[0] = 22;
+        console.println($"ints={ints}, slice={slice}");
+        assert ints[2] == 2 && slice[1] == 3;
+
+        Int[] reverse = ints[5..2];
+        Int[] expect  = [5, 4, 33, 2];
+        console.println($"reverse={reverse}");
+        assert reverse == expect;
+
+        Int[] expectTail = [6, 7, 8];
+        assert ints[6..8] == expectTail;
+        assert ints[6..8].reify() == expectTail;
+
+        ints.fill(-1, 7..8);
+        console.println($"filled={ints}");
+        assert ints[6] == 6 && ints[7] == -1 && ints[8] == -1 && ints[9] == 9;
+
+        assert Int index := ints.indexOf(-1);
+        console.println($"indexOf(-1)={index}");
+        assert index == 7;
+        assert index := ints.indexOf(-1, 8);
+        assert index == 8;
+        assert !ints.indexOf(-1, 9);
+        assert ints.contains(9) && !ints.contains(7);
+
+        Char[] chars = "hello, world".toCharArray();
+        assert chars[7..11] == ['w', 'o', 'r', 'l', 'd'];
+        assert index := chars[7..11].indexOf('l');
+        assert index == 3;
+
+        Byte[] bytes       = [1, 2, 3, 4];
+        Byte[] expectBytes = [2, 3];
+        assert bytes[1..2] == expectBytes;
+        assert bytes.contains(4) && !bytes.contains(5);
+
+        Int32[] int32s = new Int32[4];
+        Int32[] expectInt32s = [0, 7, 7, 0];
+        int32s.fill(7, 1..2);
+        assert int32s == expectInt32s;
+        assert index := int32s.indexOf(7);
+        assert index == 1;
+
+        Boolean[] flags = new Boolean[6];
+        flags.fill(True, 2..3);
+        assert !flags[1] && flags[2] && flags[3] && !flags[4];
+        assert index := flags.indexOf(True);
+        assert index == 2;
+        assert !flags.indexOf(True, 4);
+
+        String[] strs = ["goodbye", "cruel", "world"];
+        assert strs.contains("cruel") && !strs.contains("hello");
+        assert index := strs.indexOf("world");
+        assert index == 2;
+        String[] filled = strs.fill("?", 1..1);
+        console.println($"filled={filled}");
+        assert filled[1] == "?" && strs[1] == "cruel";
+        }
+    }
@@ -0,0 +1,64 @@
+module TestCalls.xqiz.it
+    {
+    @Inject X.io.Console console;
+    @Inject X.Timer      timer;
+
+    void run()
+        {
+        console.println("*** call benchmark ***");
+
+        // the first runs warm up the call sites
+        for (Int iter = 0; iter < 5; iter++)
+            {
+            recursion(25);
+            getters(100000);
+            }
+        }
+
+    /**
+     * Compute a Fibonacci number recursively.
+     */
+    void recursion(Int n)
+        {
+        timer.reset();
+
+        Int result = fib(n);
+
+        Duration time = timer.elapsed;
+        console.println($"\nfib({n})={result}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    static Int fib(Int n)
+        {
+        return n < 2 ? n : fib(n - 1) + fib(n - 2);
+        }
+
+    /**
+     * Read the properties through the accessors in a loop.
+     */
+    void getters(Int count)
+        {
+        Point p = new Point(1, 2);
+
+        timer.reset();
+
+        Int sum = 0;
+        for (Int i = 0; i < count; i++)
+            {
+            sum += p.sum + p.x;
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\ngetters: sum={sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    class Point(Int x, Int y)
+        {
+        Int sum.get()
+            {
+            return x + y;
+            }
+        }
+    }
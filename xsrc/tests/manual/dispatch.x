@@ -0,0 +1,57 @@
+module TestDispatch.xqiz.it
+    {
+    @Inject X.io.Console console;
+    @Inject X.Timer      timer;
+
+    void run()
+        {
+        console.println("*** virtual dispatch benchmark ***");
+
+        Shape[] shapes = [new S0(), new S1(), new S2(), new S3(),
+                          new S4(), new S5(), new S6(), new S7()];
+
+        // the first run warms up the call sites
+        for (Int iter = 0; iter < 2; iter++)
+            {
+            dispatch(shapes, 2, 100000);
+            dispatch(shapes, 4, 100000);
+            dispatch(shapes, 8, 100000);
+            }
+        }
+
+    /**
+     * Invoke a method and read a property on the specified number of distinct classes
+     * implementing the same interface.
+     */
+    void dispatch(Shape[] shapes, Int classes, Int count)
+        {
+        timer.reset();
+
+        Int sum = 0;
+        for (Int i = 0; i < count; i++)
+            {
+            Shape shape = shapes[i % classes];
+            sum += shape.area() + shape.sides;
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\n{classes} classes: sum={sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    interface Shape
+        {
+        Int area();
+
+        @RO Int sides;
+        }
+
+    class S0 implements Shape {@Override Int area() {return 0;} @Override Int sides.get() {return 1;}}
+    class S1 implements Shape {@Override Int area() {return 1;} @Override Int sides.get() {return 1;}}
+    class S2 implements Shape {@Override Int area() {return 2;} @Override Int sides.get() {return 1;}}
+    class S3 implements Shape {@Override Int area() {return 3;} @Override Int sides.get() {return 1;}}
+    class S4 implements Shape {@Override Int area() {return 4;} @Override Int sides.get() {return 1;}}
+    class S5 implements Shape {@Override Int area() {return 5;} @Override Int sides.get() {return 1;}}
+    class S6 implements Shape {@Override Int area() {return 6;} @Override Int sides.get() {return 1;}}
+    class S7 implements Shape {@Override Int area() {return 7;} @Override Int sides.get() {return 1;}}
+    }
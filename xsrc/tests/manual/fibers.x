@@ -0,0 +1,59 @@
+module TestFibers.xqiz.it
+    {
+    @Inject X.io.Console console;
+    @Inject X.Timer      timer;
+
+    void run()
+        {
+        console.println("*** fiber scheduling benchmark ***");
+
+        profile(100);
+        profile(1000);
+        profile(10000);
+        }
+
+    /**
+     * Create the specified number of fibers in the Waiter service that are all suspended waiting
+     * for the responses from the (busy) Gate service.
+     */
+    void profile(Int count)
+        {
+        Gate   gate   = new Gate();
+        Waiter waiter = new Waiter();
+
+        timer.reset();
+        for (Int i = 0; i < count - 1; i++)
+            {
+            waiter.waitFor(gate, i);
+            }
+
+        // the Gate responds in order, so the last request is the last to complete; its result is
+        // used, so this call (unlike the ones above) waits for the completion
+        Int last = waiter.waitFor(gate, count - 1);
+        assert last == count - 1;
+
+        Duration time = timer.elapsed;
+        console.println($"\n{count} suspended fibers: sum={waiter.sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    service Gate
+        {
+        Int pass(Int i)
+            {
+            return i;
+            }
+        }
+
+    service Waiter
+        {
+        Int sum = 0;
+
+        Int waitFor(Gate gate, Int i)
+            {
+            Int n = gate.pass(i);
+            sum += n;
+            return n;
+            }
+        }
+    }
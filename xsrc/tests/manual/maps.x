@@ -20,6 +20,8 @@ module TestMaps.xqiz.it
         testListMap();
 
         testMapIteration();
+
+        testImmutable();
         }
 
     void testBasic()
@@ -47,6 +49,33 @@ module TestMaps.xqiz.it
         assert map1 == map2;
         }
 
+    void testImmutable()
+        {
+        console.println("\n** testImmutable()");
+
+        HashMap<Int, String> map = new HashMap();
+        map.put(1, "v1");
+        map.put(2, "v2");
+
+        map.makeImmutable();
+        try
+            {
+            map.remove(1);
+            assert;
+            }
+        catch (Exception e)
+            {
+            console.println($"remove: {e.text}");
+            }
+
+        // the missing key leaves the map unchanged, so nothing is raised
+        map.remove(3);
+
+        assert map.size == 2;
+        assert String s := map.get(1), s == "v1";
+        console.println(map);
+        }
+
     static void testFill100()
         {
         Map<Int, Int> map = new HashMap();
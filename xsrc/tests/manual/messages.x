@@ -0,0 +1,118 @@
+module TestMessages.xqiz.it
+    {
+    @Inject X.io.Console console;
+    @Inject X.Timer      timer;
+
+    void run()
+        {
+        console.println("*** service messaging benchmark ***");
+
+        pingPong(1000);
+        pingPong(10000);
+
+        fanIn(1000);
+        fanIn(10000);
+        fanIn(10000, True);
+        }
+
+    /**
+     * Bounce the specified number of messages between two services.
+     */
+    void pingPong(Int count)
+        {
+        Player ping = new Player();
+        Player pong = new Player();
+
+        timer.reset();
+        Int hits = ping.play(pong, count);
+
+        Duration time = timer.elapsed;
+        console.println($"\nping-pong {count}: hits={hits}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    /**
+     * Send the specified number of messages from each of four services to a single one, either as
+     * method calls or as property updates.
+     */
+    void fanIn(Int count, Boolean viaProperty = False)
+        {
+        Counter  counter = new Counter();
+        Producer p0      = new Producer();
+        Producer p1      = new Producer();
+        Producer p2      = new Producer();
+        Producer p3      = new Producer();
+
+        timer.reset();
+        @Future Int r0 = p0.produce(counter, count, viaProperty);
+        @Future Int r1 = p1.produce(counter, count, viaProperty);
+        @Future Int r2 = p2.produce(counter, count, viaProperty);
+        @Future Int r3 = p3.produce(counter, count, viaProperty);
+
+        Int sent  = r0 + r1 + r2 + r3;
+        Int total = counter.sync();
+
+        Duration time = timer.elapsed;
+        console.println($"\nfan-in 4x{count}{viaProperty ? " (property)" : ""}: sent={sent}, total={total}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    service Player
+        {
+        Int hits = 0;
+
+        Int play(Player other, Int count)
+            {
+            for (Int i = 0; i < count; i++)
+                {
+                // wait for the response every time
+                Int n = other.hit();
+                hits++;
+                }
+            return hits;
+            }
+
+        Int hit()
+            {
+            return ++hits;
+            }
+        }
+
+    service Producer
+        {
+        Int produce(Counter counter, Int count, Boolean viaProperty)
+            {
+            for (Int i = 0; i < count; i++)
+                {
+                if (viaProperty)
+                    {
+                    counter.total += 1;
+                    }
+                else
+                    {
+                    counter.add(1);
+                    }
+                }
+
+            // the messages from a single sender are processed in order, so this waits
+            // for all the "add" messages above
+            counter.sync();
+            return count;
+            }
+        }
+
+    service Counter
+        {
+        Int total = 0;
+
+        void add(Int n)
+            {
+            total += n;
+            }
+
+        Int sync()
+            {
+            return total;
+            }
+        }
+    }
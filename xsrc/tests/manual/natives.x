@@ -0,0 +1,57 @@
+module TestNatives.xqiz.it
+    {
+    @Inject X.io.Console console;
+    @Inject X.Timer      timer;
+
+    void run()
+        {
+        console.println("*** native dispatch benchmark ***");
+
+        // the first run warms up the interpreter
+        for (Int iter = 0; iter < 2; iter++)
+            {
+            testIntMethods(100000);
+            testSizes(100000);
+            }
+        }
+
+    /**
+     * Native Int methods and properties invoked by name.
+     */
+    void testIntMethods(Int count)
+        {
+        timer.reset();
+
+        Int sum = 0;
+        for (Int i = 0; i < count; i++)
+            {
+            sum = sum.add(i.mul(3)).sub(i.bitCount);
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\nint methods: sum={sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    /**
+     * Native String.size and Array.size properties.
+     */
+    void testSizes(Int count)
+        {
+        String s = "hello, world";
+        Int[]  a = new Int[];
+        a.add(1).add(2).add(3);
+
+        timer.reset();
+
+        Int sum = 0;
+        for (Int i = 0; i < count; i++)
+            {
+            sum += s.size + a.size;
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\nsizes: sum={sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+    }
@@ -0,0 +1,128 @@
+module TestPrimitives.xqiz.it
+    {
+    import Ecstasy.numbers.Int32;
+    import Ecstasy.numbers.UInt16;
+
+    @Inject X.io.Console console;
+    @Inject X.Timer      timer;
+
+    void run()
+        {
+        console.println("*** primitive array benchmark ***");
+
+        // the first run warms up the interpreter
+        for (Int iter = 0; iter < 2; iter++)
+            {
+            testInt32(100000);
+            testUInt16(100000);
+            testFloat64(100000);
+            testInPlace(100000);
+            }
+        }
+
+    /**
+     * Appends, element reads and element writes on an Int32 array.
+     */
+    void testInt32(Int count)
+        {
+        timer.reset();
+
+        Int32[] values = new Int32[];
+        for (Int i = 0; i < count; i++)
+            {
+            values += i.toInt32();
+            }
+
+        for (Int i = 0; i < count; i++)
+            {
+            values[i] = values[i] - 1;
+            }
+
+        Int sum = 0;
+        for (Int i = 0; i < count; i++)
+            {
+            sum += values[i].toInt();
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\nInt32: sum={sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    /**
+     * Element reads and writes on a fixed-size UInt16 array.
+     */
+    void testUInt16(Int count)
+        {
+        timer.reset();
+
+        UInt16[] values = new UInt16[1000];
+        for (Int i = 0; i < count; i++)
+            {
+            Int ix = i % 1000;
+            values[ix] = (i & 0xFFFF).toUInt16();
+            }
+
+        Int sum = 0;
+        for (Int i = 0; i < count; i++)
+            {
+            sum += values[i % 1000].toInt();
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\nUInt16: sum={sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    /**
+     * Appends and element reads on a Float (Float64) array.
+     */
+    void testFloat64(Int count)
+        {
+        timer.reset();
+
+        Float[]   values = new Float[];
+        Float     value  = 0.0;
+        for (Int i = 0; i < count; i++)
+            {
+            values += value;
+            value  += 0.5;
+            }
+
+        Float sum = 0.0;
+        for (Int i = 0; i < count; i++)
+            {
+            sum += values[i];
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\nFloat64: sum={sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    /**
+     * In-place increments and decrements of Int32 array elements.
+     */
+    void testInPlace(Int count)
+        {
+        timer.reset();
+
+        Int32[] counters = new Int32[16];
+        for (Int i = 0; i < count; i++)
+            {
+            counters[i & 15]++;
+            --counters[(i + 1) & 15];
+            ++counters[(i + 2) & 15];
+            }
+
+        Int sum = 0;
+        for (Int32 n : counters)
+            {
+            sum += n.toInt();
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\nin-place: sum={sum}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+    }
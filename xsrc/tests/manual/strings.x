@@ -0,0 +1,87 @@
+module TestStrings.xqiz.it
+    {
+    @Inject X.io.Console console;
+    @Inject X.Timer      timer;
+
+    void run()
+        {
+        console.println("*** string benchmark ***");
+
+        // the first runs warm up the call sites
+        for (Int iter = 0; iter < 5; iter++)
+            {
+            concat(50000);
+            search(20000);
+            format(20000);
+            }
+        }
+
+    /**
+     * Build a string by appending to it repeatedly.
+     */
+    void concat(Int count)
+        {
+        timer.reset();
+
+        String s = "";
+        for (Int i = 0; i < count; i++)
+            {
+            s = s + "abc";
+            }
+        Char ch = s[s.size - 1];
+
+        Duration time = timer.elapsed;
+        console.println($"\nconcat: size={s.size} last={ch}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    /**
+     * Build strings from a mix of Latin-1 and other chars, and search them.
+     */
+    void search(Int count)
+        {
+        String prefix = "λ:";
+        String body   = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+        timer.reset();
+
+        Int found = 0;
+        for (Int i = 0; i < count; i++)
+            {
+            String s = (i % 2 == 0 ? prefix : "") + body + body;
+            if (Int of := s.indexOf('z'))
+                {
+                found += s.substring(of).size;
+                }
+            }
+
+        Duration time = timer.elapsed;
+        console.println($"\nsearch: found={found}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+
+    /**
+     * Format a report into a StringBuffer.
+     */
+    void format(Int count)
+        {
+        timer.reset();
+
+        StringBuffer buf = new StringBuffer();
+        for (Int i = 0; i < count; i++)
+            {
+            buf.append("line ")
+               .append(i)
+               .append(": ")
+               .append(i % 3 == 0)
+               .append(' ')
+               .append($"{i}/{count}")
+               .add('\n');
+            }
+        String report = buf.toString();
+
+        Duration time = timer.elapsed;
+        console.println($"\nformat: size={report.size}");
+        console.println($"Elapsed {time.milliseconds} ms");
+        }
+    }